@@ -0,0 +1,85 @@
+#!/usr/bin/env bash
+# Mede tempo de inicialização e tempo até a primeira requisição atendida.
+#
+#   scripts/measure-startup.sh [modo] [execuções]
+#
+# Modos:
+#   jar        fat jar padrão (mvn package)                         -> target/*.jar
+#   cds        jar extraído + arquivo CDS, perfil fast-startup      -> mvn -Pfast-startup package
+#   aot        igual a cds com -Dspring.aot.enabled=true            -> mvn -Pfast-startup package
+#
+# Precisa do banco no ar (docker compose up -d payment-db) para que a primeira requisição
+# reflita o custo real de abrir conexões e preparar as consultas. Sem banco os tempos de
+# inicialização continuam válidos, mas a primeira requisição responde 500.
+set -euo pipefail
+
+# Chaves do cofre e segredo de webhook descartáveis quando o ambiente não fornece os reais
+export PAYMENT_VAULT_ENCRYPTION_KEY="${PAYMENT_VAULT_ENCRYPTION_KEY:-$(openssl rand -base64 32)}"
+export PAYMENT_VAULT_TOKEN_KEY="${PAYMENT_VAULT_TOKEN_KEY:-$(openssl rand -base64 32)}"
+export PAYMENT_WEBHOOK_SECRET="${PAYMENT_WEBHOOK_SECRET:-$(openssl rand -base64 32)}"
+MODE="${1:-jar}"
+RUNS="${2:-5}"
+PORT="${SERVER_PORT:-18085}"
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+LOG="$(mktemp)"
+trap 'rm -f "$LOG"' EXIT
+
+case "$MODE" in
+  jar)
+    JAR="$(ls "$ROOT"/target/*.jar | head -n 1)"
+    WORKDIR="$ROOT"
+    CMD=(java -jar "$JAR")
+    ;;
+  cds|aot)
+    WORKDIR="$ROOT/target/fast-startup"
+    [ -f "$WORKDIR/application.jsa" ] || { echo "Rode antes: mvn -Pfast-startup package" >&2; exit 1; }
+    CMD=(java -XX:SharedArchiveFile=application.jsa -Dspring.profiles.active=fast-startup)
+    [ "$MODE" = "aot" ] && CMD+=(-Dspring.aot.enabled=true)
+    CMD+=(-jar "$(cd "$WORKDIR" && ls *.jar | head -n 1)")
+    ;;
+  *)
+    echo "Modo desconhecido: $MODE (use jar, cds ou aot)" >&2
+    exit 1
+    ;;
+esac
+
+now_ms() { date +%s%3N; }
+
+# Qualquer resposta HTTP conta: o health fica DOWN sem banco, mas o servidor já atende
+wait_http() {
+  local url="$1" pid="$2" deadline=$(( $(now_ms) + 120000 ))
+  until [ "$(curl -s -o /dev/null -w '%{http_code}' "$url" || true)" != "000" ]; do
+    kill -0 "$pid" 2>/dev/null || return 1
+    [ "$(now_ms)" -gt "$deadline" ] && return 1
+    sleep 0.05
+  done
+}
+
+startup=()
+first_request=()
+for run in $(seq 1 "$RUNS"); do
+  start=$(now_ms)
+  (cd "$WORKDIR" && SERVER_PORT="$PORT" exec "${CMD[@]}") >"$LOG" 2>&1 &
+  pid=$!
+
+  if ! wait_http "http://localhost:$PORT/actuator/health" "$pid"; then
+    echo "Aplicação não subiu:" >&2
+    kill "$pid" 2>/dev/null || true
+    tail -n 40 "$LOG" >&2
+    exit 1
+  fi
+  ready=$(now_ms)
+  curl -s -o /dev/null "http://localhost:$PORT/payments/by-order/STARTUP-PROBE" || true
+  served=$(now_ms)
+
+  kill "$pid" && wait "$pid" 2>/dev/null || true
+  startup+=($(( ready - start )))
+  first_request+=($(( served - start )))
+  reported=$(grep -o 'Started [A-Za-z0-9]* in [0-9.]* seconds' "$LOG" | awk '{print $4}' || true)
+  printf '%s execução %d: pronto em %d ms, primeira requisição em %d ms (Spring: %ss)\n' \
+    "$MODE" "$run" "${startup[-1]}" "${first_request[-1]}" "${reported:-?}"
+done
+
+median() { printf '%s\n' "$@" | sort -n | awk '{a[NR]=$1} END {print a[int((NR+1)/2)]}'; }
+printf '%s mediana (%d execuções): pronto em %s ms, primeira requisição em %s ms\n' \
+  "$MODE" "$RUNS" "$(median "${startup[@]}")" "$(median "${first_request[@]}")"
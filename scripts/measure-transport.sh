@@ -0,0 +1,54 @@
+#!/usr/bin/env bash
+# Mede o efeito do perfil transport sobre o polling de GetPaymentUsecase:
+#   1. bytes transferidos por resposta, com e sem Accept-Encoding: gzip
+#   2. conexões TCP abertas para N consultas paralelas, HTTP/1.1 vs h2c
+#
+#   scripts/measure-transport.sh [orderId] [requisições] [paralelismo]
+#
+# A aplicação precisa estar no ar com o perfil (SPRING_PROFILES_ACTIVE=prod,transport) e com
+# pagamentos para o pedido informado. BASE_URL muda o alvo (padrão http://localhost:8085).
+# Requer curl >= 7.68 (--parallel e %{num_connects}).
+set -euo pipefail
+
+ORDER_ID="${1:-ORDER-1}"
+REQUESTS="${2:-200}"
+PARALLEL="${3:-20}"
+BASE_URL="${BASE_URL:-http://localhost:8085}"
+
+LIST_URL="$BASE_URL/payments/by-order/$ORDER_ID"
+FIRST_ID="$(curl -fsS "$LIST_URL" | grep -o '"id":[0-9]*' | head -n 1 | cut -d: -f2 || true)"
+[ -n "$FIRST_ID" ] || { echo "Nenhum pagamento para $ORDER_ID em $LIST_URL" >&2; exit 1; }
+ITEM_URL="$BASE_URL/payments/$FIRST_ID"
+
+size() {
+  curl -fsS -o /dev/null -w '%{size_download}' "$@"
+}
+
+echo "== Banda por resposta (bytes no fio)"
+for url in "$ITEM_URL" "$LIST_URL"; do
+  plain="$(size "$url")"
+  gzip="$(size -H 'Accept-Encoding: gzip' "$url")"
+  echo "$url: sem compressão ${plain}B, gzip ${gzip}B"
+done
+
+# Uma invocação do curl com N URLs; -Z dispara até PARALLEL ao mesmo tempo. A soma de
+# num_connects é o total de conexões novas que o servidor precisou aceitar.
+connections() {
+  local urls=()
+  for _ in $(seq "$REQUESTS"); do urls+=("$ITEM_URL"); done
+  curl -sS -Z --parallel-max "$PARALLEL" "$@" -o /dev/null -w '%{num_connects}\n' "${urls[@]}" \
+    | awk '{ total += $1 } END { print total }'
+}
+
+echo "== Conexões para $REQUESTS consultas com $PARALLEL em paralelo"
+start=$(date +%s%N)
+h1="$(connections --http1.1)"
+h1_ms=$(( ($(date +%s%N) - start) / 1000000 ))
+start=$(date +%s%N)
+h2="$(connections --http2-prior-knowledge)"
+h2_ms=$(( ($(date +%s%N) - start) / 1000000 ))
+echo "HTTP/1.1: $h1 conexões em ${h1_ms}ms"
+echo "h2c:      $h2 conexões em ${h2_ms}ms"
+
+echo "== Conexões no servidor (tomcat.connections.current)"
+curl -fsS "$BASE_URL/actuator/metrics/tomcat.connections.current" | grep -o '"value":[0-9.]*' || true
@@ -0,0 +1,32 @@
+#!/usr/bin/env bash
+# Sobe o executável nativo (mvn -Pnative package) e roda NativeSmokeTest contra ele.
+#
+#   scripts/native-smoke.sh [executável]
+#
+# Precisa do banco no ar com as migrações aplicadas (docker compose up -d payment-db).
+set -euo pipefail
+
+# Chaves do cofre e segredo de webhook descartáveis quando o ambiente não fornece os reais
+export PAYMENT_VAULT_ENCRYPTION_KEY="${PAYMENT_VAULT_ENCRYPTION_KEY:-$(openssl rand -base64 32)}"
+export PAYMENT_VAULT_TOKEN_KEY="${PAYMENT_VAULT_TOKEN_KEY:-$(openssl rand -base64 32)}"
+export PAYMENT_WEBHOOK_SECRET="${PAYMENT_WEBHOOK_SECRET:-$(openssl rand -base64 32)}"
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+BINARY="${1:-$ROOT/target/fase4mspagamento}"
+PORT="${SERVER_PORT:-18086}"
+LOG="$(mktemp)"
+
+[ -x "$BINARY" ] || { echo "Executável não encontrado: $BINARY (rode mvn -Pnative package)" >&2; exit 1; }
+
+SERVER_PORT="$PORT" "$BINARY" >"$LOG" 2>&1 &
+pid=$!
+trap 'kill "$pid" 2>/dev/null || true; rm -f "$LOG"' EXIT
+
+for _ in $(seq 1 100); do
+  [ "$(curl -s -o /dev/null -w '%{http_code}' "http://localhost:$PORT/actuator/health" || true)" = "200" ] && break
+  kill -0 "$pid" 2>/dev/null || { cat "$LOG" >&2; exit 1; }
+  sleep 0.1
+done
+grep -o 'Started [A-Za-z0-9]* in [0-9.]* seconds' "$LOG" || true
+
+cd "$ROOT"
+./mvnw -B test -Pnative-smoke -Dnative.baseUrl="http://localhost:$PORT" -Dnative.webhookSecret="$PAYMENT_WEBHOOK_SECRET" -Djacoco.skip=true
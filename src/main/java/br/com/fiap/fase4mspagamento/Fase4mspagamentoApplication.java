@@ -1,9 +1,12 @@
 package br.com.fiap.fase4mspagamento;
 
+import br.com.fiap.fase4mspagamento.config.PaymentRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(PaymentRuntimeHints.class)
 public class Fase4mspagamentoApplication {
 
     public static void main(String[] args) {
@@ -3,15 +3,17 @@ package br.com.fiap.fase4mspagamento.adapter;
 import br.com.fiap.fase4mspagamento.controller.dto.PaymentNotification;
 import br.com.fiap.fase4mspagamento.domain.entity.Payment;
 import br.com.fiap.fase4mspagamento.domain.entity.PaymentStatus;
-import br.com.fiap.fase4mspagamento.port.ExternalPaymentService;
+import br.com.fiap.fase4mspagamento.domain.id.IdGenerator;
+import br.com.fiap.fase4mspagamento.port.PaymentProvider;
+import br.com.fiap.fase4mspagamento.service.CardTokenizationService;
 import br.com.fiap.fase4mspagamento.service.NotificationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -20,39 +22,55 @@ import java.util.concurrent.TimeUnit;
  * Versão simplificada do mock de serviço externo de pagamento
  */
 @Component
-public class MockExternalPaymentServiceAdapter implements ExternalPaymentService {
+public class MockExternalPaymentServiceAdapter implements PaymentProvider {
 
     private static final Logger logger = LoggerFactory.getLogger(MockExternalPaymentServiceAdapter.class);
     private static final BigDecimal LIMIT_VALUE = new BigDecimal("10000.00");
 
     private final NotificationService notificationService;
+    private final CardTokenizationService cardTokenizationService;
+    private final IdGenerator idGenerator;
     private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
 
     // Armazenar pagamentos processados e seus status
-    private final Map<String, Payment> processedPayments = new HashMap<>();
-    private final Map<String, String> transactionStatuses = new HashMap<>();
+    private final Map<String, Payment> processedPayments = new ConcurrentHashMap<>();
+    private final Map<String, String> transactionStatuses = new ConcurrentHashMap<>();
 
-    public MockExternalPaymentServiceAdapter(NotificationService notificationService) {
+    public MockExternalPaymentServiceAdapter(
+            NotificationService notificationService,
+            CardTokenizationService cardTokenizationService,
+            IdGenerator idGenerator) {
         this.notificationService = notificationService;
+        this.cardTokenizationService = cardTokenizationService;
+        this.idGenerator = idGenerator;
         logger.info("MockExternalPaymentServiceAdapter inicializado com limite de R$ {}", LIMIT_VALUE);
     }
 
+    @Override
+    public String name() {
+        return "mock";
+    }
+
     @Override
     public String processPayment(Payment payment) {
         logger.info("Iniciando processamento de pagamento via serviço externo mock");
 
         // Gerar um ID de transação único
-        String transactionId = "MOCK-TRANS-" + java.util.UUID.randomUUID().toString();
+        String transactionId = "MOCK-TRANS-" + idGenerator.next();
 
         // Armazenar o pagamento para uso posterior
         processedPayments.put(transactionId, payment);
 
-        // Determinar o status com base no valor do pagamento
-        String status = determineStatus(payment);
-        transactionStatuses.put(transactionId, status);
+        // O número do cartão só é resolvido aqui, na borda com o provedor (normalmente em cache)
+        boolean cardResolved = cardTokenizationService.detokenize(payment.getCardToken()).isPresent();
+
+        // Determinar o status com base no cartão e no valor do pagamento
+        PaymentStatus status = cardResolved ? determineStatus(payment) : PaymentStatus.REJECTED;
+        String message = resolveMessage(status, cardResolved);
+        transactionStatuses.put(transactionId, status.name());
 
         // Agendar envio de callback após 10 segundos (simulando processamento assíncrono)
-        scheduler.schedule(() -> processPaymentAsync(payment, transactionId), 10, TimeUnit.SECONDS);
+        scheduler.schedule(() -> processPaymentAsync(transactionId, payment, status, message), 10, TimeUnit.SECONDS);
 
         return transactionId;
     }
@@ -65,45 +83,59 @@ public class MockExternalPaymentServiceAdapter implements ExternalPaymentService
         return status;
     }
 
+    @Override
+    public String refundPayment(Payment payment) {
+        String refundId = "MOCK-REFUND-" + java.util.UUID.randomUUID();
+        transactionStatuses.put(refundId, PaymentStatus.REFUNDED.name());
+        logger.info("Estorno registrado no serviço externo mock: external_id={}, refundId={}",
+                payment.getExternalId(), refundId);
+        return refundId;
+    }
+
+    @Override
+    public void cancelPayment(String transactionId) {
+        if (transactionStatuses.computeIfPresent(transactionId, (id, status) -> PaymentStatus.CANCELLED.name()) == null) {
+            throw new IllegalStateException("Transação " + transactionId + " desconhecida no serviço externo mock");
+        }
+        logger.info("Transação {} anulada no serviço externo mock; o callback não será enviado", transactionId);
+    }
+
     // Determinar o status com base no valor do pagamento
-    private String determineStatus(Payment payment) {
+    private PaymentStatus determineStatus(Payment payment) {
         boolean isApproved = payment.getAmount().compareTo(LIMIT_VALUE) <= 0;
 
         if (isApproved) {
             logger.info("Valor {} está abaixo do limite {}: será APPROVED",
                     payment.getAmount(), LIMIT_VALUE);
-            return PaymentStatus.APPROVED.name();
+            return PaymentStatus.APPROVED;
         } else {
             logger.warn("Valor {} excede o limite {}: será REJECTED",
                     payment.getAmount(), LIMIT_VALUE);
-            return PaymentStatus.REJECTED.name();
+            return PaymentStatus.REJECTED;
+        }
+    }
+
+    private String resolveMessage(PaymentStatus status, boolean cardResolved) {
+        if (!cardResolved) {
+            logger.warn("Cartão não encontrado no cofre: será REJECTED");
+            return "Pagamento rejeitado pelo serviço externo: cartão não encontrado";
         }
+        return status == PaymentStatus.APPROVED
+                ? "Pagamento aprovado pelo serviço externo"
+                : "Pagamento rejeitado pelo serviço externo: valor excede o limite de R$ " + LIMIT_VALUE;
     }
 
     /**
-     * Processa o pagamento de forma assíncrona e envia o callback
+     * Envia o callback com o status já decidido em processPayment
      */
-    private void processPaymentAsync(Payment payment, String transactionId) {
+    private void processPaymentAsync(String transactionId, Payment payment, PaymentStatus newStatus, String message) {
+        if (PaymentStatus.CANCELLED.name().equals(transactionStatuses.get(transactionId))) {
+            return;
+        }
         try {
             logger.info("Processando pagamento assincronamente: external_id={}, order_id={}, amount={}",
                     payment.getExternalId(), payment.getOrderId(), payment.getAmount());
 
-            // Verificar se o valor do pagamento excede o limite
-            boolean isApproved = payment.getAmount().compareTo(LIMIT_VALUE) <= 0;
-
-            PaymentStatus newStatus;
-            String message;
-
-            if (isApproved) {
-                newStatus = PaymentStatus.APPROVED;
-                message = "Pagamento aprovado pelo serviço externo";
-                logger.info("Pagamento aprovado: valor dentro do limite permitido");
-            } else {
-                newStatus = PaymentStatus.REJECTED;
-                message = "Pagamento rejeitado pelo serviço externo: valor excede o limite de R$ " + LIMIT_VALUE;
-                logger.warn("Pagamento rejeitado: valor {} excede o limite de {}", payment.getAmount(), LIMIT_VALUE);
-            }
-
             // Criar a notificação para o callback
             PaymentNotification notification = new PaymentNotification(
                     null,  // ID interno, não relevante para o callback
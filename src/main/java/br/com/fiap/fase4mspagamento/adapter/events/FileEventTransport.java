@@ -0,0 +1,120 @@
+package br.com.fiap.fase4mspagamento.adapter.events;
+
+import br.com.fiap.fase4mspagamento.config.EventPublishingProperties;
+import br.com.fiap.fase4mspagamento.controller.dto.PaymentNotification;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentEventMessage;
+import br.com.fiap.fase4mspagamento.port.PaymentEventTransport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Broker local em disco para desenvolvimento e testes: um arquivo JSON-lines por partição
+ * (&lt;topic&gt;-&lt;n&gt;.log), partição escolhida pelo hash da chave. Cada linha é um envelope com
+ * eventId, key e o PaymentNotification. O lote é gravado e sincronizado (force) antes de
+ * publish retornar; consumidores leem as partições de forma independente
+ */
+@Component
+@EnableConfigurationProperties(EventPublishingProperties.class)
+@ConditionalOnProperty(prefix = "payment.events", name = "transport", havingValue = "file", matchIfMissing = true)
+public class FileEventTransport implements PaymentEventTransport {
+    private final EventPublishingProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Map<Integer, FileChannel> channels = new HashMap<>();
+
+    public FileEventTransport(EventPublishingProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public synchronized void publish(List<PaymentEventMessage> batch) {
+        // Agrupa por partição mantendo a ordem do lote (a do relay, por xid da transação)
+        Map<Integer, ByteArrayOutputStream> buffers = new HashMap<>();
+        try {
+            for (PaymentEventMessage message : batch) {
+                ByteArrayOutputStream buffer = buffers.computeIfAbsent(partitionOf(message.getKey()),
+                        partition -> new ByteArrayOutputStream());
+                buffer.write(objectMapper.writeValueAsBytes(envelope(message)));
+                buffer.write('\n');
+            }
+            for (Map.Entry<Integer, ByteArrayOutputStream> entry : buffers.entrySet()) {
+                FileChannel channel = channel(entry.getKey());
+                ByteBuffer bytes = ByteBuffer.wrap(entry.getValue().toByteArray());
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar eventos no broker local", e);
+        }
+    }
+
+    public int partitionOf(String key) {
+        return Math.floorMod(key == null ? 0 : key.hashCode(), properties.getPartitions());
+    }
+
+    public Path partitionFile(int partition) {
+        return Path.of(properties.getDirectory(), properties.getTopic() + "-" + partition + ".log");
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        for (FileChannel channel : channels.values()) {
+            channel.close();
+        }
+        channels.clear();
+    }
+
+    private FileChannel channel(int partition) throws IOException {
+        FileChannel channel = channels.get(partition);
+        if (channel == null) {
+            Path file = partitionFile(partition);
+            Files.createDirectories(file.getParent());
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            channels.put(partition, channel);
+        }
+        return channel;
+    }
+
+    private static Envelope envelope(PaymentEventMessage message) {
+        return new Envelope(message.getEventId(), message.getKey(), message.getOccurredAt(), new PaymentNotification(
+                message.getPaymentId(),
+                message.getExternalId(),
+                message.getStatus(),
+                message.getMessage(),
+                message.getOrderId()));
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Envelope {
+        private Long eventId;
+        private String key;
+        private LocalDateTime occurredAt;
+        private PaymentNotification payload;
+    }
+}
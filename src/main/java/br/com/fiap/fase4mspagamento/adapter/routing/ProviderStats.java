@@ -0,0 +1,120 @@
+package br.com.fiap.fase4mspagamento.adapter.routing;
+
+import br.com.fiap.fase4mspagamento.port.PaymentProvider;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Latência e taxa de erro de um provedor como médias móveis exponenciais.
+ * Provedores sem amostras têm custo zero para receberem tráfego logo de início.
+ * Um provedor ejetado só volta ao rodízio por uma sonda: passado o cooldown, uma única requisição
+ * ganha o flag de sonda por CAS, e a readmissão exige que ela tenha sucesso e que a taxa de erro
+ * média tenha caído abaixo do limite. Sucessos de chamadas presas ao provedor (status, estorno)
+ * ajudam a média a decair, mas não readmitem.
+ */
+class ProviderStats {
+    private final PaymentProvider provider;
+    private final int weight;
+    private final double alpha;
+    private final double errorThreshold;
+    private final int minSamples;
+    private final long cooldownNanos;
+    private final AtomicBoolean probeInFlight = new AtomicBoolean();
+
+    private double latencyMillis;
+    private double errorRate;
+    private long samples;
+    // Momento em que saiu do rodízio; 0 enquanto saudável
+    private long ejectedAt;
+
+    ProviderStats(PaymentProvider provider, int weight, double alpha, double errorThreshold,
+                  int minSamples, long cooldownNanos) {
+        this.provider = provider;
+        this.weight = Math.max(1, weight);
+        this.alpha = alpha;
+        this.errorThreshold = errorThreshold;
+        this.minSamples = minSamples;
+        this.cooldownNanos = cooldownNanos;
+    }
+
+    PaymentProvider provider() {
+        return provider;
+    }
+
+    int weight() {
+        return weight;
+    }
+
+    synchronized void recordSuccess(long elapsedNanos) {
+        record(elapsedNanos, 0.0);
+    }
+
+    synchronized void recordFailure(long elapsedNanos, long now) {
+        record(elapsedNanos, 1.0);
+        if (samples >= minSamples && errorRate >= errorThreshold) {
+            ejectedAt = now;
+        }
+    }
+
+    synchronized boolean isHealthy() {
+        return ejectedAt == 0;
+    }
+
+    /**
+     * Ejetado há mais que o cooldown e sem outra sonda em andamento; quem recebe true é a única
+     * requisição enviada ao provedor e precisa chamar releaseProbe ao terminar
+     */
+    boolean tryAcquireProbe(long now) {
+        synchronized (this) {
+            if (ejectedAt == 0 || now - ejectedAt < cooldownNanos) {
+                return false;
+            }
+        }
+        return probeInFlight.compareAndSet(false, true);
+    }
+
+    /**
+     * Readmite só se a média já decaiu; senão o provedor cumpre outro cooldown antes da próxima sonda
+     */
+    synchronized boolean recordProbeSuccess(long elapsedNanos, long now) {
+        record(elapsedNanos, 0.0);
+        ejectedAt = errorRate < errorThreshold ? 0 : now;
+        return ejectedAt == 0;
+    }
+
+    synchronized void recordProbeFailure(long elapsedNanos, long now) {
+        record(elapsedNanos, 1.0);
+        ejectedAt = now;
+    }
+
+    void releaseProbe() {
+        probeInFlight.set(false);
+    }
+
+    /**
+     * Custo esperado: latência média penalizada pela taxa de erro
+     */
+    synchronized double cost() {
+        return latencyMillis * (1.0 + 10.0 * errorRate);
+    }
+
+    synchronized double latencyMillis() {
+        return latencyMillis;
+    }
+
+    synchronized double errorRate() {
+        return errorRate;
+    }
+
+    private void record(long elapsedNanos, double error) {
+        double millis = elapsedNanos / 1_000_000.0;
+        if (samples == 0) {
+            latencyMillis = millis;
+            errorRate = error;
+        } else {
+            latencyMillis += alpha * (millis - latencyMillis);
+            errorRate += alpha * (error - errorRate);
+        }
+        samples++;
+    }
+}
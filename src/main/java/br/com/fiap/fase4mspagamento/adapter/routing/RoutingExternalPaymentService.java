@@ -0,0 +1,295 @@
+package br.com.fiap.fase4mspagamento.adapter.routing;
+
+import br.com.fiap.fase4mspagamento.config.ProviderRoutingProperties;
+import br.com.fiap.fase4mspagamento.domain.entity.Payment;
+import br.com.fiap.fase4mspagamento.port.ExternalPaymentService;
+import br.com.fiap.fase4mspagamento.port.PaymentProvider;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.random.RandomGenerator;
+
+/**
+ * Escolhe o provedor de cada pagamento por "power of two choices": sorteia dois provedores
+ * disponíveis proporcionalmente ao peso e fica com o de menor custo (latência média penalizada
+ * por erros). O transactionId devolvido leva o nome do provedor para que checkStatus e o estorno
+ * (pelo transactionId gravado no pagamento) voltem a ele, em qualquer instância; checkStatus é
+ * idempotente e pode ser duplicado (hedge) quando a primeira resposta demora.
+ */
+@Primary
+@Component
+@EnableConfigurationProperties(ProviderRoutingProperties.class)
+public class RoutingExternalPaymentService implements ExternalPaymentService {
+    private static final Logger logger = LoggerFactory.getLogger(RoutingExternalPaymentService.class);
+    private static final String SEPARATOR = ":";
+
+    private final Map<String, ProviderStats> providers = new LinkedHashMap<>();
+    private final ProviderStats primary;
+    private final ProviderRoutingProperties.Hedge hedge;
+    private final RandomGenerator random;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong statusChecks = new AtomicLong();
+    private final AtomicLong hedgesSent = new AtomicLong();
+    private final Counter hedgeCounter;
+
+    @Autowired
+    public RoutingExternalPaymentService(
+            List<PaymentProvider> paymentProviders,
+            ProviderRoutingProperties properties,
+            MeterRegistry meterRegistry) {
+        this(paymentProviders, properties, meterRegistry, RandomGenerator.getDefault());
+    }
+
+    RoutingExternalPaymentService(
+            List<PaymentProvider> paymentProviders,
+            ProviderRoutingProperties properties,
+            MeterRegistry meterRegistry,
+            RandomGenerator random) {
+        if (paymentProviders.isEmpty()) {
+            throw new IllegalStateException("Nenhum provedor de pagamento registrado");
+        }
+        for (PaymentProvider provider : paymentProviders) {
+            ProviderStats stats = new ProviderStats(
+                    provider,
+                    properties.getWeights().getOrDefault(provider.name(), 1),
+                    properties.getEwmaAlpha(),
+                    properties.getErrorThreshold(),
+                    properties.getMinSamples(),
+                    properties.getCooldown().toNanos());
+            providers.put(provider.name(), stats);
+            Gauge.builder("payment.provider.latency.ewma", stats, ProviderStats::latencyMillis)
+                    .tag("provider", provider.name())
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+            Gauge.builder("payment.provider.errors.ewma", stats, ProviderStats::errorRate)
+                    .tag("provider", provider.name())
+                    .register(meterRegistry);
+        }
+        // Estornos e transactionIds sem prefixo (legados) vão ao provedor de maior peso
+        this.primary = providers.values().stream().max(Comparator.comparingInt(ProviderStats::weight)).orElseThrow();
+        this.hedge = properties.getHedge();
+        this.random = random;
+        this.hedgeCounter = Counter.builder("payment.provider.hedges").register(meterRegistry);
+
+        logger.info("Roteamento de provedores inicializado: {}", providers.keySet());
+    }
+
+    @Override
+    public String processPayment(Payment payment) {
+        ProviderStats probe = acquireProbe();
+        ProviderStats chosen = probe != null ? probe : choose();
+        // Sem failover: o provedor pode ter autorizado antes de falhar, e repetir em outro cobraria duas vezes
+        String transactionId = probe != null
+                ? probe(probe, provider -> provider.processPayment(payment))
+                : call(chosen, provider -> provider.processPayment(payment));
+        return chosen.provider().name() + SEPARATOR + transactionId;
+    }
+
+    @Override
+    public String checkStatus(String transactionId) {
+        ProviderStats owner = ownerOf(transactionId);
+        if (owner == null) {
+            return call(primary, provider -> provider.checkStatus(transactionId));
+        }
+        String providerTransactionId = transactionId.substring(transactionId.indexOf(SEPARATOR) + 1);
+        if (!hedge.isEnabled()) {
+            return call(owner, provider -> provider.checkStatus(providerTransactionId));
+        }
+        return hedgedCheckStatus(owner, providerTransactionId);
+    }
+
+    @Override
+    public String refundPayment(Payment payment) {
+        ProviderStats owner = ownerOf(payment.getProviderTransactionId());
+        if (owner == null) {
+            logger.warn("Pagamento {} sem provedor conhecido (transactionId {}), estornando via {}",
+                    payment.getExternalId(), payment.getProviderTransactionId(), primary.provider().name());
+            owner = primary;
+        }
+        return call(owner, provider -> provider.refundPayment(payment));
+    }
+
+    @Override
+    public void cancelPayment(String transactionId) {
+        ProviderStats owner = ownerOf(transactionId);
+        // Anular no provedor errado não impediria a cobrança; sem dono conhecido o cancelamento falha
+        if (owner == null) {
+            throw new IllegalStateException("Transação " + transactionId + " sem provedor conhecido; não é possível anular");
+        }
+        String providerTransactionId = transactionId.substring(transactionId.indexOf(SEPARATOR) + 1);
+        call(owner, provider -> {
+            provider.cancelPayment(providerTransactionId);
+            return null;
+        });
+    }
+
+    /**
+     * Provedor indicado pelo prefixo do transactionId; null para ids sem prefixo (legados) ou de
+     * provedores que não estão mais registrados
+     */
+    private ProviderStats ownerOf(String transactionId) {
+        if (transactionId == null) {
+            return null;
+        }
+        int separator = transactionId.indexOf(SEPARATOR);
+        return separator > 0 ? providers.get(transactionId.substring(0, separator)) : null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Provedor ejetado cujo cooldown passou e cuja sonda esta requisição conseguiu reservar;
+     * requisições concorrentes não conseguem o CAS e seguem para os provedores saudáveis
+     */
+    ProviderStats acquireProbe() {
+        long now = System.nanoTime();
+        for (ProviderStats stats : providers.values()) {
+            if (stats.tryAcquireProbe(now)) {
+                return stats;
+            }
+        }
+        return null;
+    }
+
+    ProviderStats choose() {
+        List<ProviderStats> available = new ArrayList<>(providers.size());
+        for (ProviderStats stats : providers.values()) {
+            if (stats.isHealthy()) {
+                available.add(stats);
+            }
+        }
+        if (available.isEmpty()) {
+            // Todos fora do rodízio: melhor tentar o menos ruim do que recusar o pagamento
+            logger.warn("Nenhum provedor saudável, usando todos os provedores");
+            available.addAll(providers.values());
+        }
+        if (available.size() == 1) {
+            return available.get(0);
+        }
+        ProviderStats first = pickWeighted(available, null);
+        ProviderStats second = pickWeighted(available, first);
+        return first.cost() <= second.cost() ? first : second;
+    }
+
+    private ProviderStats pickWeighted(List<ProviderStats> candidates, ProviderStats excluded) {
+        int total = 0;
+        for (ProviderStats stats : candidates) {
+            if (stats != excluded) {
+                total += stats.weight();
+            }
+        }
+        int target = random.nextInt(total);
+        for (ProviderStats stats : candidates) {
+            if (stats == excluded) {
+                continue;
+            }
+            target -= stats.weight();
+            if (target < 0) {
+                return stats;
+            }
+        }
+        throw new IllegalStateException("Seleção ponderada sem candidato");
+    }
+
+    private String hedgedCheckStatus(ProviderStats owner, String providerTransactionId) {
+        statusChecks.incrementAndGet();
+        CompletableFuture<String> result = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1);
+        submit(owner, providerTransactionId, result, pending);
+
+        long hedgeDelayNanos = Math.max(hedge.getDelay().toNanos(), (long) (owner.latencyMillis() * 2_000_000));
+        try {
+            try {
+                return result.get(hedgeDelayNanos, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException slow) {
+                if (hedgesSent.get() < hedge.getMaxRatio() * statusChecks.get()) {
+                    hedgesSent.incrementAndGet();
+                    hedgeCounter.increment();
+                    pending.incrementAndGet();
+                    submit(owner, providerTransactionId, result, pending);
+                }
+            }
+            return result.get(hedge.getTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Consulta de status interrompida", e);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Provedor " + owner.provider().name() + " não respondeu ao checkStatus", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * A primeira resposta bem-sucedida vence; só falha se todas as tentativas falharem
+     */
+    private void submit(ProviderStats owner, String providerTransactionId,
+                        CompletableFuture<String> result, AtomicInteger pending) {
+        executor.execute(() -> {
+            try {
+                result.complete(call(owner, provider -> provider.checkStatus(providerTransactionId)));
+            } catch (RuntimeException e) {
+                if (pending.decrementAndGet() == 0) {
+                    result.completeExceptionally(e);
+                }
+            }
+        });
+    }
+
+    private <T> T probe(ProviderStats stats, Function<PaymentProvider, T> operation) {
+        long start = System.nanoTime();
+        try {
+            T result = operation.apply(stats.provider());
+            long now = System.nanoTime();
+            if (stats.recordProbeSuccess(now - start, now)) {
+                logger.info("Provedor {} readmitido no rodízio após sonda bem-sucedida", stats.provider().name());
+            }
+            return result;
+        } catch (RuntimeException e) {
+            long now = System.nanoTime();
+            stats.recordProbeFailure(now - start, now);
+            logger.warn("Sonda do provedor {} falhou; permanece fora do rodízio", stats.provider().name());
+            throw e;
+        } finally {
+            stats.releaseProbe();
+        }
+    }
+
+    private <T> T call(ProviderStats stats, Function<PaymentProvider, T> operation) {
+        long start = System.nanoTime();
+        try {
+            T result = operation.apply(stats.provider());
+            stats.recordSuccess(System.nanoTime() - start);
+            return result;
+        } catch (RuntimeException e) {
+            long now = System.nanoTime();
+            stats.recordFailure(now - start, now);
+            throw e;
+        }
+    }
+}
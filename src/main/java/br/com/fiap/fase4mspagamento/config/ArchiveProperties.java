@@ -0,0 +1,24 @@
+package br.com.fiap.fase4mspagamento.config;
+
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentStatus;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "payment.archive")
+public class ArchiveProperties {
+    // O job remove linhas do banco, então só roda quando habilitado explicitamente
+    private boolean enabled = false;
+    private String directory = "data/payment-archive";
+    // Idade mínima (pelo updatedAt) para um pagamento finalizado sair da tabela quente
+    private Duration olderThan = Duration.ofDays(30);
+    private int batchSize = 1000;
+    // Teto de pagamentos por segmento na compactação; a fusão descomprime os dois segmentos em memória
+    private int maxSegmentSize = 100_000;
+    private List<PaymentStatus> statuses = List.of(PaymentStatus.APPROVED, PaymentStatus.REJECTED);
+}
@@ -0,0 +1,29 @@
+package br.com.fiap.fase4mspagamento.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "payment.callbacks")
+public class CallbackProperties {
+    // Token bucket por host de callback: vazão sustentada e rajada máxima
+    private double ratePerSecond = 20;
+    private int burst = 40;
+    // Callbacks aguardando por host; acima disso os novos são descartados e contados
+    private int queueCapacityPerHost = 1000;
+    // Envios simultâneos para o mesmo host (um servidor lento não acumula conexões)
+    private int maxInFlightPerHost = 4;
+    // Teto de hosts distintos acompanhados ao mesmo tempo, para limitar memória
+    private int maxHosts = 10_000;
+    // Host sem fila nem envio em andamento é esquecido após este tempo (no mínimo o de encher o bucket)
+    private Duration hostIdleTimeout = Duration.ofMinutes(5);
+    // Peso de cada host na fila justa (padrão 1); só esses hosts têm métricas com o próprio nome.
+    // Chave com pontos usa colchetes: payment.callbacks.weights[api.loja.com.br]=3
+    private Map<String, Integer> weights = new HashMap<>();
+}
@@ -0,0 +1,23 @@
+package br.com.fiap.fase4mspagamento.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "payment.events")
+public class EventPublishingProperties {
+    private boolean enabled = false;
+    // Nome do cursor em payment_event_cursors; relays com nomes distintos publicam de forma independente
+    private String relay = "default";
+    private int batchSize = 500;
+    private Duration pollInterval = Duration.ofMillis(500);
+    // Transporte: file (broker local em disco); outros transportes registram o próprio nome
+    private String transport = "file";
+    private String topic = "payment-status";
+    private int partitions = 8;
+    private String directory = "data/payment-events";
+}
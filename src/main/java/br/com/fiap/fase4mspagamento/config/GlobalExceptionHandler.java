@@ -1,34 +1,133 @@
 package br.com.fiap.fase4mspagamento.config;
 
 import br.com.fiap.fase4mspagamento.exception.IllegalPaymentStatusException;
+import br.com.fiap.fase4mspagamento.exception.InvalidWebhookSignatureException;
+import br.com.fiap.fase4mspagamento.exception.PaymentConflictException;
 import br.com.fiap.fase4mspagamento.exception.PaymentNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import java.net.URI;
+
+/**
+ * Respostas de erro em application/problem+json (RFC 9457). Falhas esperadas são logadas em
+ * DEBUG e contadas em payment.api.errors{type}; só erros inesperados vão para o log com stack trace.
+ */
 @ControllerAdvice
 public class GlobalExceptionHandler {
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    private static final ProblemTemplate NOT_FOUND =
+            new ProblemTemplate("payment-not-found", "Pagamento não encontrado", HttpStatus.NOT_FOUND);
+    private static final ProblemTemplate ILLEGAL_STATUS =
+            new ProblemTemplate("illegal-payment-status", "Transição de status inválida", HttpStatus.BAD_REQUEST);
+    private static final ProblemTemplate INVALID_SIGNATURE =
+            new ProblemTemplate("invalid-webhook-signature", "Assinatura de webhook inválida", HttpStatus.UNAUTHORIZED);
+    private static final ProblemTemplate CONCURRENT_UPDATE =
+            new ProblemTemplate("concurrent-update", "Atualização concorrente", HttpStatus.CONFLICT);
+    private static final ProblemTemplate PAYMENT_CONFLICT =
+            new ProblemTemplate("payment-conflict", "Conflito com o estado do pagamento no provedor", HttpStatus.CONFLICT);
+    private static final ProblemTemplate INTERNAL_ERROR =
+            new ProblemTemplate("internal-error", "Erro interno do servidor", HttpStatus.INTERNAL_SERVER_ERROR);
+
+    private final Counter notFoundErrors;
+    private final Counter illegalStatusErrors;
+    private final Counter invalidSignatureErrors;
+    private final Counter concurrentUpdateErrors;
+    private final Counter paymentConflictErrors;
+    private final Counter internalErrors;
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.notFoundErrors = NOT_FOUND.counter(meterRegistry);
+        this.illegalStatusErrors = ILLEGAL_STATUS.counter(meterRegistry);
+        this.invalidSignatureErrors = INVALID_SIGNATURE.counter(meterRegistry);
+        this.concurrentUpdateErrors = CONCURRENT_UPDATE.counter(meterRegistry);
+        this.paymentConflictErrors = PAYMENT_CONFLICT.counter(meterRegistry);
+        this.internalErrors = INTERNAL_ERROR.counter(meterRegistry);
+    }
+
     @ExceptionHandler(PaymentNotFoundException.class)
-    public ResponseEntity<String> handlePaymentNotFoundException(PaymentNotFoundException ex) {
-        logger.error("Pagamento não encontrado: {}", ex.getMessage());
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+    public ResponseEntity<ProblemDetail> handlePaymentNotFoundException(PaymentNotFoundException ex) {
+        notFoundErrors.increment();
+        logger.debug("Pagamento não encontrado: {}", ex.getMessage());
+        return NOT_FOUND.response(ex.getMessage());
     }
 
     @ExceptionHandler(IllegalPaymentStatusException.class)
-    public ResponseEntity<String> handleIllegalPaymentStatusException(IllegalPaymentStatusException ex) {
-        logger.error("Status de pagamento inválido: {}", ex.getMessage());
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    public ResponseEntity<ProblemDetail> handleIllegalPaymentStatusException(IllegalPaymentStatusException ex) {
+        illegalStatusErrors.increment();
+        logger.debug("Status de pagamento inválido: {}", ex.getMessage());
+        return ILLEGAL_STATUS.response(ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidWebhookSignatureException.class)
+    public ResponseEntity<ProblemDetail> handleInvalidWebhookSignatureException(InvalidWebhookSignatureException ex) {
+        invalidSignatureErrors.increment();
+        logger.debug("Webhook rejeitado: {}", ex.getMessage());
+        // O motivo exato fica só no log para não orientar quem tenta forjar assinaturas
+        return INVALID_SIGNATURE.response(INVALID_SIGNATURE.title());
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ProblemDetail> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        concurrentUpdateErrors.increment();
+        logger.debug("Atualização concorrente de pagamento: {}", ex.getMessage());
+        return CONCURRENT_UPDATE.response("Pagamento alterado por outra requisição, tente novamente");
+    }
+
+    @ExceptionHandler(PaymentConflictException.class)
+    public ResponseEntity<ProblemDetail> handlePaymentConflictException(PaymentConflictException ex) {
+        paymentConflictErrors.increment();
+        logger.debug("Conflito com o estado do pagamento: {}", ex.getMessage());
+        return PAYMENT_CONFLICT.response(ex.getMessage());
     }
 
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<String> handleGenericException(Exception ex) {
+    public ResponseEntity<ProblemDetail> handleGenericException(Exception ex) {
+        internalErrors.increment();
         logger.error("Erro não tratado: ", ex);
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body("Erro interno do servidor: " + ex.getMessage());
+        return INTERNAL_ERROR.response("Erro interno do servidor: " + ex.getMessage());
+    }
+
+    /**
+     * Partes fixas de cada tipo de problema, montadas uma vez; por requisição só muda o detail
+     */
+    private static final class ProblemTemplate {
+        private final URI type;
+        private final String title;
+        private final HttpStatus status;
+        private final String slug;
+
+        ProblemTemplate(String slug, String title, HttpStatus status) {
+            this.type = URI.create("urn:problem:payment:" + slug);
+            this.title = title;
+            this.status = status;
+            this.slug = slug;
+        }
+
+        String title() {
+            return title;
+        }
+
+        Counter counter(MeterRegistry meterRegistry) {
+            return Counter.builder("payment.api.errors").tag("type", slug).register(meterRegistry);
+        }
+
+        ResponseEntity<ProblemDetail> response(String detail) {
+            ProblemDetail problem = ProblemDetail.forStatus(status);
+            problem.setType(type);
+            problem.setTitle(title);
+            problem.setDetail(detail);
+            return ResponseEntity.status(status).contentType(MediaType.APPLICATION_PROBLEM_JSON).body(problem);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,27 @@
+package br.com.fiap.fase4mspagamento.config;
+
+import br.com.fiap.fase4mspagamento.domain.id.IdGenerator;
+import br.com.fiap.fase4mspagamento.domain.id.RandomIdGenerator;
+import br.com.fiap.fase4mspagamento.domain.id.TimeOrderedIdGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(IdProperties.class)
+public class IdGeneratorConfig {
+    private static final Logger logger = LoggerFactory.getLogger(IdGeneratorConfig.class);
+
+    @Bean
+    public IdGenerator idGenerator(IdProperties properties) {
+        logger.info("Gerador de ids externos: {}", properties.getStrategy());
+        return switch (properties.getStrategy()) {
+            case TIME_ORDERED -> new TimeOrderedIdGenerator(Clock.systemUTC());
+            case RANDOM -> new RandomIdGenerator();
+        };
+    }
+}
@@ -0,0 +1,17 @@
+package br.com.fiap.fase4mspagamento.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "payment.ids")
+public class IdProperties {
+    private Strategy strategy = Strategy.TIME_ORDERED;
+
+    public enum Strategy {
+        TIME_ORDERED,
+        RANDOM
+    }
+}
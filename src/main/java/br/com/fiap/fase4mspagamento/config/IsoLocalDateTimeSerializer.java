@@ -0,0 +1,65 @@
+package br.com.fiap.fase4mspagamento.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Mesma saída do ISO_LOCAL_DATE_TIME usado pelo jackson-datatype-jsr310 (segundos sempre presentes,
+ * fração sem zeros à direita), mas escrita dígito a dígito num char[] pequeno em vez de passar pelo
+ * DateTimeFormatter, que aloca contexto, StringBuilder e String a cada campo.
+ * Anos fora de 0000-9999 e a escrita como timestamp numérico ficam com o serializer padrão
+ */
+class IsoLocalDateTimeSerializer extends StdSerializer<LocalDateTime> {
+    private static final int MAX_LENGTH = 29;
+
+    IsoLocalDateTimeSerializer() {
+        super(LocalDateTime.class);
+    }
+
+    @Override
+    public void serialize(LocalDateTime value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        int year = value.getYear();
+        if (year < 0 || year > 9999 || provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+            LocalDateTimeSerializer.INSTANCE.serialize(value, gen, provider);
+            return;
+        }
+        char[] buffer = new char[MAX_LENGTH];
+        int pos = digits(buffer, 0, year, 4);
+        buffer[pos++] = '-';
+        pos = digits(buffer, pos, value.getMonthValue(), 2);
+        buffer[pos++] = '-';
+        pos = digits(buffer, pos, value.getDayOfMonth(), 2);
+        buffer[pos++] = 'T';
+        pos = digits(buffer, pos, value.getHour(), 2);
+        buffer[pos++] = ':';
+        pos = digits(buffer, pos, value.getMinute(), 2);
+        buffer[pos++] = ':';
+        pos = digits(buffer, pos, value.getSecond(), 2);
+
+        int nano = value.getNano();
+        if (nano > 0) {
+            int fractionDigits = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                fractionDigits--;
+            }
+            buffer[pos++] = '.';
+            pos = digits(buffer, pos, nano, fractionDigits);
+        }
+        gen.writeString(buffer, 0, pos);
+    }
+
+    private static int digits(char[] buffer, int pos, int value, int width) {
+        for (int i = pos + width - 1; i >= pos; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return pos + width;
+    }
+}
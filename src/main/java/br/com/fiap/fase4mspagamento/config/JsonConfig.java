@@ -0,0 +1,38 @@
+package br.com.fiap.fase4mspagamento.config;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.NativeDetector;
+
+import java.time.LocalDateTime;
+
+/**
+ * Serialização do caminho quente (GET de pagamento, corpo do callback): o Blackbird troca a
+ * reflexão nos getters por acessores gerados com LambdaMetafactory, e LocalDateTime é escrito
+ * sem DateTimeFormatter. Desligável com payment.json.optimized=false
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "payment.json", name = "optimized", havingValue = "true", matchIfMissing = true)
+public class JsonConfig {
+    private static final Logger logger = LoggerFactory.getLogger(JsonConfig.class);
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer optimizedJsonCustomizer() {
+        // postConfigurer registra depois do JavaTimeModule, então este serializer de LocalDateTime prevalece
+        return builder -> builder.postConfigurer(objectMapper -> {
+            objectMapper.registerModule(new SimpleModule("payment-fast-time")
+                    .addSerializer(LocalDateTime.class, new IsoLocalDateTimeSerializer()));
+            // Imagem nativa não define classes em tempo de execução; lá fica a reflexão padrão
+            if (!NativeDetector.inNativeImage()) {
+                objectMapper.registerModule(new BlackbirdModule());
+            }
+            logger.info("Serialização JSON otimizada ativa (blackbird: {})", !NativeDetector.inNativeImage());
+        });
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.fiap.fase4mspagamento.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "payment.lookup")
+public class LookupProperties {
+    private boolean enabled = true;
+    // Dimensionamento do filtro; acima disso a taxa de falso positivo sobe e o filtro é reconstruído maior
+    private long expectedInsertions = 5_000_000;
+    private double falsePositiveRate = 0.01;
+    // Inserções de outras instâncias entram no filtro a cada sincronização
+    private Duration syncInterval = Duration.ofSeconds(1);
+    // Releitura para trás a cada sincronização: cobre transações que commitam depois de created_at.
+    // Ids com UUIDv7 mais novo que watermark - syncOverlap nunca são respondidos só pelo filtro
+    private Duration syncOverlap = Duration.ofSeconds(30);
+    // Um "não existe" só é respondido em memória se a última sincronização for mais recente que isto
+    private Duration maxStaleness = Duration.ofSeconds(5);
+}
@@ -0,0 +1,16 @@
+package br.com.fiap.fase4mspagamento.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "payment.partitions")
+public class PartitionProperties {
+    private boolean enabled = true;
+    // Quantos meses à frente devem ter partição criada
+    private int monthsAhead = 3;
+    // Partições mais antigas que isso são removidas; 0 desativa a retenção
+    private int retentionMonths = 0;
+}
@@ -0,0 +1,32 @@
+package br.com.fiap.fase4mspagamento.config;
+
+import br.com.fiap.fase4mspagamento.controller.dto.PaymentNotification;
+import br.com.fiap.fase4mspagamento.controller.dto.ProviderWebhookRequest;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentSummary;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentView;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Metadados para a imagem nativa além do que o AOT do Spring infere sozinho: DTOs serializados
+ * fora dos métodos de controller, projeções instanciadas pelo Hibernate via "select new" e os
+ * scripts do Flyway. Entidades JPA, DTOs de @RequestBody/@ResponseBody e repositórios já são
+ * registrados pelo processamento AOT.
+ */
+public class PaymentRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // Webhook é desserializado a partir dos bytes assinados; callback é enviado pelo RestTemplate
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                ProviderWebhookRequest.class, PaymentNotification.class);
+
+        // Projeções JPQL com construtor (findSummariesByOrderId, findViewById, findViewByExternalId)
+        hints.reflection().registerType(PaymentSummary.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        hints.reflection().registerType(PaymentView.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+
+        hints.resources().registerPattern("db/migration/*.sql");
+    }
+}
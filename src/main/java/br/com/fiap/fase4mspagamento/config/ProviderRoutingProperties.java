@@ -0,0 +1,36 @@
+package br.com.fiap.fase4mspagamento.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "payment.providers")
+public class ProviderRoutingProperties {
+    // Peso relativo por nome de provedor; provedores sem peso configurado valem 1
+    private Map<String, Integer> weights = new HashMap<>();
+    // Fator de suavização das médias móveis de latência e taxa de erro
+    private double ewmaAlpha = 0.2;
+    // Provedor sai do rodízio quando a taxa de erro suavizada passa deste limite
+    private double errorThreshold = 0.5;
+    private int minSamples = 20;
+    // Depois deste tempo um provedor fora do rodízio volta a receber uma requisição de teste
+    private Duration cooldown = Duration.ofSeconds(30);
+    private Hedge hedge = new Hedge();
+
+    @Getter
+    @Setter
+    public static class Hedge {
+        private boolean enabled = true;
+        // Espera mínima antes de duplicar um checkStatus; o efetivo é o maior entre este e 2x a latência média
+        private Duration delay = Duration.ofMillis(50);
+        // Fração máxima de checkStatus que podem ser duplicados
+        private double maxRatio = 0.1;
+        private Duration timeout = Duration.ofSeconds(2);
+    }
+}
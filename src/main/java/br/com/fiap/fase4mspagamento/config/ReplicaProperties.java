@@ -0,0 +1,29 @@
+package br.com.fiap.fase4mspagamento.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "payment.datasource.replica")
+public class ReplicaProperties {
+    // Sem URL o roteamento fica desligado e tudo vai para o primário
+    private String url;
+    private String username;
+    private String password;
+    // Acima deste atraso de replicação as leituras voltam para o primário
+    private Duration maxLag = Duration.ofSeconds(5);
+    private Duration lagCheckInterval = Duration.ofSeconds(5);
+    // Medição mais antiga que isto (scheduler atrasado ou parado) também manda as leituras ao primário
+    private Duration lagMaxAge = Duration.ofSeconds(15);
+    // Por quanto tempo após uma escrita as leituras daquele pagamento vão direto ao primário
+    private Duration readYourWritesWindow = Duration.ofSeconds(10);
+
+    public boolean isEnabled() {
+        return StringUtils.hasText(url);
+    }
+}
@@ -0,0 +1,61 @@
+package br.com.fiap.fase4mspagamento.config;
+
+import br.com.fiap.fase4mspagamento.domain.risk.AmountLimitRule;
+import br.com.fiap.fase4mspagamento.domain.risk.BinBlocklistRule;
+import br.com.fiap.fase4mspagamento.domain.risk.CardVelocityRule;
+import br.com.fiap.fase4mspagamento.domain.risk.OrderAttemptLimitRule;
+import br.com.fiap.fase4mspagamento.domain.risk.RiskEngine;
+import br.com.fiap.fase4mspagamento.domain.risk.RiskRule;
+import br.com.fiap.fase4mspagamento.domain.risk.SlidingWindowCounter;
+import br.com.fiap.fase4mspagamento.domain.risk.VelocityLimit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(RiskProperties.class)
+public class RiskConfig {
+    private static final Logger logger = LoggerFactory.getLogger(RiskConfig.class);
+
+    @Bean
+    public RiskEngine riskEngine(RiskProperties properties) {
+        List<RiskRule> rules = new ArrayList<>();
+
+        if (properties.isEnabled()) {
+            Clock clock = Clock.systemUTC();
+            RiskProperties.CardVelocity cardVelocity = properties.getCardVelocity();
+            RiskProperties.Limit orderAttempts = properties.getOrderAttempts();
+
+            // Regras com contador vêm antes para que toda tentativa seja contabilizada,
+            // inclusive as que seriam barradas pela lista de BINs ou pelo valor
+            rules.add(new CardVelocityRule(List.of(
+                    velocityLimit("por minuto", properties.getSketch(), Duration.ofMinutes(1), cardVelocity.getMaxPerMinute()),
+                    velocityLimit("por hora", properties.getSketch(), Duration.ofHours(1), cardVelocity.getMaxPerHour())
+            ), clock));
+            rules.add(new OrderAttemptLimitRule(
+                    velocityLimit("por pedido", properties.getSketch(), orderAttempts.getWindow(), orderAttempts.getMaxAttempts()),
+                    clock));
+            if (!properties.getBlockedBins().isEmpty()) {
+                rules.add(new BinBlocklistRule(properties.getBlockedBins()));
+            }
+            rules.add(new AmountLimitRule(properties.getAmountLimit()));
+        }
+
+        logger.info("RiskEngine inicializado com regras: {}", rules.stream().map(RiskRule::name).toList());
+        return new RiskEngine(rules);
+    }
+
+    private VelocityLimit velocityLimit(String label, RiskProperties.Sketch sketch, Duration window, int maxAttempts) {
+        int width = sketch.widthFor(window);
+        SlidingWindowCounter counter = new SlidingWindowCounter(sketch.getDepth(), width, window, sketch.getBuckets());
+        logger.debug("Contador {}: {}x{} células, {} buckets", label, sketch.getDepth(), width, sketch.getBuckets());
+        return new VelocityLimit(label, counter, maxAttempts);
+    }
+}
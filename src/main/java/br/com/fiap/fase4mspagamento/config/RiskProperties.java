@@ -0,0 +1,70 @@
+package br.com.fiap.fase4mspagamento.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "payment.risk")
+public class RiskProperties {
+    private boolean enabled = true;
+    private BigDecimal amountLimit = new BigDecimal("10000.00");
+    private List<String> blockedBins = new ArrayList<>();
+    private Sketch sketch = new Sketch();
+    private CardVelocity cardVelocity = new CardVelocity();
+    private Limit orderAttempts = new Limit(5, Duration.ofHours(1));
+
+    @Getter
+    @Setter
+    public static class Sketch {
+        private int depth = 4;
+        // Largura fixa (potência de 2); 0 dimensiona cada contador pelas chaves distintas esperadas na janela
+        private int width = 0;
+        private int buckets = 6;
+        // Chaves distintas (cartões, pedidos) esperadas por segundo no pico
+        private int keysPerSecond = 10;
+        private int minWidth = 1024;
+        private int maxWidth = 1 << 20;
+
+        /**
+         * Duas colunas por chave distinta esperada na janela deixam o ruído médio por célula perto de 0,25;
+         * com 4 linhas e update conservador, limites baixos (ex.: 5/h) praticamente não geram falsas rejeições
+         */
+        public int widthFor(Duration window) {
+            if (width > 0) {
+                return width;
+            }
+            long keys = Math.max(1, keysPerSecond * window.toSeconds());
+            long target = Math.min(Math.max(2 * keys, minWidth), maxWidth);
+            return Integer.highestOneBit((int) (target - 1)) << 1;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class CardVelocity {
+        private int maxPerMinute = 10;
+        private int maxPerHour = 30;
+    }
+
+    @Getter
+    @Setter
+    public static class Limit {
+        private int maxAttempts;
+        private Duration window;
+
+        public Limit() {
+        }
+
+        public Limit(int maxAttempts, Duration window) {
+            this.maxAttempts = maxAttempts;
+            this.window = window;
+        }
+    }
+}
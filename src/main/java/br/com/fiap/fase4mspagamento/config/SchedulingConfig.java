@@ -0,0 +1,22 @@
+package br.com.fiap.fase4mspagamento.config;
+
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    /**
+     * Pool dimensionado por spring.task.scheduling.pool.size também no perfil virtual-threads, em que
+     * o scheduler padrão roda todos os jobs de fixedDelay numa única thread e um job lento (relay,
+     * arquivamento) atrasaria a medição da réplica e a sincronização do filtro de externalIds
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+}
@@ -0,0 +1,26 @@
+package br.com.fiap.fase4mspagamento.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * O conversor Jackson dá flush no corpo e o Tomcat recebe a resposta sem Content-Length, o que
+ * o faz comprimir tudo e ignorar server.compression.min-response-size. Com a compressão ligada,
+ * as respostas de /payments passam por um buffer que fixa o Content-Length antes do commit;
+ * de quebra ganham ETag, e o polling com If-None-Match recebe 304 sem corpo
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "server.compression", name = "enabled", havingValue = "true")
+public class TransportConfig {
+
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> paymentEtagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/payments/*");
+        return registration;
+    }
+}
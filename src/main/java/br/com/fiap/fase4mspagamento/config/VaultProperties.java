@@ -0,0 +1,25 @@
+package br.com.fiap.fase4mspagamento.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "payment.vault")
+public class VaultProperties {
+    // Chaves AES-256 e HMAC-SHA256 em Base64 (32 bytes cada), sem valor padrão no repositório.
+    // Vêm de PAYMENT_VAULT_ENCRYPTION_KEY / PAYMENT_VAULT_TOKEN_KEY, injetadas pelo gerenciador de
+    // segredos do ambiente; para desenvolvimento local, gere com: openssl rand -base64 32
+    // A chave de token não pode ser trocada sem retokenizar o cofre: tokens existentes deixam de bater
+    private String encryptionKey;
+    private String tokenKey;
+    // Aceita a chave de zeros; ligado apenas pelo treino do CDS (pom e Dockerfile), que nunca cifra cartões
+    private boolean cdsTraining = false;
+    private int cacheSize = 10_000;
+    private Duration cacheTtl = Duration.ofMinutes(5);
+    private boolean backfillEnabled = true;
+    private int backfillBatchSize = 500;
+}
@@ -0,0 +1,24 @@
+package br.com.fiap.fase4mspagamento.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "payment.webhook")
+public class WebhookProperties {
+    // Segredo HMAC-SHA256 compartilhado com o provedor, em Base64
+    private String secret;
+    // Diferença máxima aceita entre o timestamp assinado e o relógio local (proteção contra replay)
+    private Duration tolerance = Duration.ofMinutes(5);
+    private int queueCapacity = 10_000;
+    private int batchSize = 500;
+    private int maxAttempts = 3;
+    // Idade mínima para a varredura reaplicar um webhook do inbox; abaixo disso ele ainda deve estar na fila
+    private Duration inboxRetryAfter = Duration.ofMinutes(1);
+    // Tempo máximo de um webhook no inbox; passado isso o pagamento não existe ou não vai sair de PENDING por ele
+    private Duration inboxTtl = Duration.ofHours(24);
+}
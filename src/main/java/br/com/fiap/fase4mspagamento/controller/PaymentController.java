@@ -1,28 +1,46 @@
 package br.com.fiap.fase4mspagamento.controller;
 
+import br.com.fiap.fase4mspagamento.controller.dto.BulkRefundRequest;
+import br.com.fiap.fase4mspagamento.controller.dto.OrderPaymentsResponse;
+import br.com.fiap.fase4mspagamento.controller.dto.PaymentEventResponse;
 import br.com.fiap.fase4mspagamento.controller.dto.PaymentRequest;
 import br.com.fiap.fase4mspagamento.controller.dto.PaymentResponse;
+import br.com.fiap.fase4mspagamento.controller.dto.RefundResultResponse;
 import br.com.fiap.fase4mspagamento.controller.mapper.PaymentMapper;
 import br.com.fiap.fase4mspagamento.domain.entity.Payment;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentEvent;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentSummary;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentView;
+import br.com.fiap.fase4mspagamento.domain.entity.RefundResult;
+import br.com.fiap.fase4mspagamento.usecase.CancelPaymentUsecase;
 import br.com.fiap.fase4mspagamento.usecase.GetPaymentUsecase;
 import br.com.fiap.fase4mspagamento.usecase.ProcessPaymentUsecase;
+import br.com.fiap.fase4mspagamento.usecase.RefundPaymentUsecase;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 
 @RestController
 @RequestMapping("/payments")
 public class PaymentController {
     private final ProcessPaymentUsecase processPaymentUsecase;
     private final GetPaymentUsecase getPaymentUsecase;
+    private final RefundPaymentUsecase refundPaymentUsecase;
+    private final CancelPaymentUsecase cancelPaymentUsecase;
     private final PaymentMapper paymentMapper;
 
     public PaymentController(
             ProcessPaymentUsecase processPaymentUsecase,
             GetPaymentUsecase getPaymentUsecase,
+            RefundPaymentUsecase refundPaymentUsecase,
+            CancelPaymentUsecase cancelPaymentUsecase,
             PaymentMapper paymentMapper) {
         this.processPaymentUsecase = processPaymentUsecase;
         this.getPaymentUsecase = getPaymentUsecase;
+        this.refundPaymentUsecase = refundPaymentUsecase;
+        this.cancelPaymentUsecase = cancelPaymentUsecase;
         this.paymentMapper = paymentMapper;
     }
 
@@ -34,17 +52,61 @@ public class PaymentController {
         return ResponseEntity.accepted().body(response);
     }
 
+    @PostMapping("/{id}/refund")
+    public ResponseEntity<PaymentResponse> refundPayment(@PathVariable Long id) {
+        Payment payment = refundPaymentUsecase.execute(id);
+        PaymentResponse response = paymentMapper.toResponse(payment);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<PaymentResponse> cancelPayment(@PathVariable Long id) {
+        Payment payment = cancelPaymentUsecase.execute(id);
+        PaymentResponse response = paymentMapper.toResponse(payment);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/refunds")
+    public ResponseEntity<List<RefundResultResponse>> refundPayments(@RequestBody BulkRefundRequest request) {
+        List<RefundResult> results = refundPaymentUsecase.executeBulk(request.getPaymentIds());
+        List<RefundResultResponse> response = results.stream()
+                .map(paymentMapper::toRefundResultResponse)
+                .toList();
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<PaymentResponse> getPayment(@PathVariable Long id) {
-        Payment payment = getPaymentUsecase.execute(id);
+        PaymentView payment = getPaymentUsecase.execute(id);
         PaymentResponse response = paymentMapper.toResponse(payment);
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/{id}/history")
+    public ResponseEntity<List<PaymentEventResponse>> getPaymentHistory(@PathVariable Long id) {
+        List<PaymentEvent> events = getPaymentUsecase.executeHistory(id);
+        List<PaymentEventResponse> response = events.stream()
+                .map(paymentMapper::toEventResponse)
+                .toList();
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/external/{externalId}")
     public ResponseEntity<PaymentResponse> getPaymentByExternalId(@PathVariable String externalId) {
-        Payment payment = getPaymentUsecase.executeByExternalId(externalId);
+        PaymentView payment = getPaymentUsecase.executeByExternalId(externalId);
         PaymentResponse response = paymentMapper.toResponse(payment);
         return ResponseEntity.ok(response);
     }
+
+    @GetMapping(params = "orderId")
+    public ResponseEntity<OrderPaymentsResponse> getPaymentsByOrderId(@RequestParam String orderId) {
+        return getPaymentsByOrder(orderId);
+    }
+
+    @GetMapping("/by-order/{orderId}")
+    public ResponseEntity<OrderPaymentsResponse> getPaymentsByOrder(@PathVariable String orderId) {
+        List<PaymentSummary> payments = getPaymentUsecase.executeByOrderId(orderId);
+        OrderPaymentsResponse response = paymentMapper.toOrderResponse(orderId, payments);
+        return ResponseEntity.ok(response);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,81 @@
+package br.com.fiap.fase4mspagamento.controller;
+
+import br.com.fiap.fase4mspagamento.controller.dto.ProviderWebhookRequest;
+import br.com.fiap.fase4mspagamento.controller.mapper.PaymentMapper;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentStatus;
+import br.com.fiap.fase4mspagamento.service.WebhookSignatureVerifier;
+import br.com.fiap.fase4mspagamento.service.WebhookStatusApplier;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Recebe os resultados do provedor. O 202 só sai depois que o webhook validado está gravado no
+ * inbox; a aplicação em payments acontece em lote no WebhookStatusApplier.
+ */
+@RestController
+@RequestMapping("/payments/webhooks")
+public class ProviderWebhookController {
+    private static final Logger logger = LoggerFactory.getLogger(ProviderWebhookController.class);
+    private static final Set<PaymentStatus> PROVIDER_DECISIONS = EnumSet.of(PaymentStatus.APPROVED, PaymentStatus.REJECTED);
+
+    private final WebhookSignatureVerifier signatureVerifier;
+    private final WebhookStatusApplier statusApplier;
+    private final PaymentMapper paymentMapper;
+    private final ObjectMapper objectMapper;
+
+    public ProviderWebhookController(
+            WebhookSignatureVerifier signatureVerifier,
+            WebhookStatusApplier statusApplier,
+            PaymentMapper paymentMapper,
+            ObjectMapper objectMapper) {
+        this.signatureVerifier = signatureVerifier;
+        this.statusApplier = statusApplier;
+        this.paymentMapper = paymentMapper;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostMapping("/provider")
+    public ResponseEntity<Void> receiveProviderWebhook(
+            @RequestHeader(name = "X-Provider-Timestamp", required = false) String timestamp,
+            @RequestHeader(name = "X-Provider-Signature", required = false) String signature,
+            @RequestBody byte[] body) {
+        // A assinatura cobre os bytes recebidos, então a validação vem antes da desserialização
+        signatureVerifier.verify(timestamp, signature, body);
+
+        ProviderWebhookRequest request;
+        try {
+            request = objectMapper.readValue(body, ProviderWebhookRequest.class);
+        } catch (IOException e) {
+            logger.warn("Webhook do provedor com corpo inválido: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+        if (request.getExternalId() == null || !PROVIDER_DECISIONS.contains(request.getStatus())) {
+            logger.debug("Webhook ignorado: externalId={}, status={}", request.getExternalId(), request.getStatus());
+            return ResponseEntity.accepted().build();
+        }
+
+        try {
+            statusApplier.accept(paymentMapper.toStatusUpdate(request));
+        } catch (DataAccessException e) {
+            logger.warn("Falha ao gravar webhook no inbox, solicitando reenvio ao provedor: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .build();
+        }
+        return ResponseEntity.accepted().build();
+    }
+}
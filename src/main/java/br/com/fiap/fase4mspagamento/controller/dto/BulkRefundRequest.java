@@ -0,0 +1,14 @@
+package br.com.fiap.fase4mspagamento.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkRefundRequest {
+    private List<Long> paymentIds;
+}
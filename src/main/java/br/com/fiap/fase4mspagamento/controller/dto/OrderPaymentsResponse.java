@@ -0,0 +1,17 @@
+package br.com.fiap.fase4mspagamento.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderPaymentsResponse {
+    private String orderId;
+    private PaymentSummaryResponse latest;
+    // Todas as tentativas do pedido, da mais recente para a mais antiga
+    private List<PaymentSummaryResponse> history;
+}
@@ -0,0 +1,17 @@
+package br.com.fiap.fase4mspagamento.controller.dto;
+
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class PaymentEventResponse {
+    private PaymentStatus status;
+    private String message;
+    private LocalDateTime occurredAt;
+}
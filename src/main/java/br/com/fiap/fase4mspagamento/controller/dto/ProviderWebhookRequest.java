@@ -0,0 +1,15 @@
+package br.com.fiap.fase4mspagamento.controller.dto;
+
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProviderWebhookRequest {
+    private String externalId;
+    private PaymentStatus status;
+    private String message;
+}
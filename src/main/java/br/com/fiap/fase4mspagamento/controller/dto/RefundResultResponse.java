@@ -0,0 +1,14 @@
+package br.com.fiap.fase4mspagamento.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class RefundResultResponse {
+    private Long paymentId;
+    private boolean refunded;
+    private String message;
+}
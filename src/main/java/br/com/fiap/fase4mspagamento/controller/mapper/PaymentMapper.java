@@ -1,11 +1,24 @@
 package br.com.fiap.fase4mspagamento.controller.mapper;
 
+import br.com.fiap.fase4mspagamento.controller.dto.OrderPaymentsResponse;
+import br.com.fiap.fase4mspagamento.controller.dto.PaymentEventResponse;
 import br.com.fiap.fase4mspagamento.controller.dto.PaymentNotification;
 import br.com.fiap.fase4mspagamento.controller.dto.PaymentRequest;
 import br.com.fiap.fase4mspagamento.controller.dto.PaymentResponse;
+import br.com.fiap.fase4mspagamento.controller.dto.PaymentSummaryResponse;
+import br.com.fiap.fase4mspagamento.controller.dto.ProviderWebhookRequest;
+import br.com.fiap.fase4mspagamento.controller.dto.RefundResultResponse;
 import br.com.fiap.fase4mspagamento.domain.entity.Payment;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentEvent;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentSummary;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentView;
+import br.com.fiap.fase4mspagamento.domain.entity.ProviderStatusUpdate;
+import br.com.fiap.fase4mspagamento.domain.entity.RefundResult;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Component
 public class PaymentMapper {
 
@@ -31,6 +44,62 @@ public class PaymentMapper {
         );
     }
 
+    public PaymentResponse toResponse(PaymentView view) {
+        return new PaymentResponse(
+                view.getId(),
+                view.getExternalId(),
+                view.getAmount(),
+                view.getStatus(),
+                view.getMessage(),
+                view.getOrderId(),
+                view.getCreatedAt(),
+                view.getUpdatedAt()
+        );
+    }
+
+    public OrderPaymentsResponse toOrderResponse(String orderId, List<PaymentSummary> payments) {
+        List<PaymentSummaryResponse> history = payments.stream()
+                .map(this::toSummaryResponse)
+                .toList();
+        return new OrderPaymentsResponse(orderId, history.get(0), history);
+    }
+
+    public PaymentSummaryResponse toSummaryResponse(PaymentSummary summary) {
+        return new PaymentSummaryResponse(
+                summary.getId(),
+                summary.getExternalId(),
+                summary.getAmount(),
+                summary.getStatus(),
+                summary.getCreatedAt(),
+                summary.getUpdatedAt()
+        );
+    }
+
+    public PaymentEventResponse toEventResponse(PaymentEvent event) {
+        return new PaymentEventResponse(
+                event.getStatus(),
+                event.getMessage(),
+                event.getOccurredAt()
+        );
+    }
+
+    public RefundResultResponse toRefundResultResponse(RefundResult result) {
+        return new RefundResultResponse(
+                result.getPaymentId(),
+                result.isRefunded(),
+                result.getMessage()
+        );
+    }
+
+    public ProviderStatusUpdate toStatusUpdate(ProviderWebhookRequest request) {
+        return new ProviderStatusUpdate(
+                request.getExternalId(),
+                request.getStatus(),
+                request.getMessage(),
+                LocalDateTime.now()
+        );
+    }
+
     public PaymentNotification toNotification(Payment payment) {
         return new PaymentNotification(
                 payment.getId(),
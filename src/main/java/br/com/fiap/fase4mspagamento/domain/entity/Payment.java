@@ -14,13 +14,20 @@ public class Payment {
     private Long id;
     private String externalId;
     private BigDecimal amount;
+    // Número do cartão só existe em memória entre a requisição e a tokenização; não é persistido
     private String creditCardNumber;
+    private String cardToken;
+    private String cardLastFour;
     private String orderId;
     private String callbackUrl;
     private PaymentStatus status;
     private String message;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    // Versão otimista da linha; nula enquanto o pagamento não foi persistido
+    private Long version;
+    // transactionId devolvido pelo roteamento ("provedor:id"); indica a quem pedir o estorno
+    private String providerTransactionId;
 
     public Payment(BigDecimal amount, String creditCardNumber, String orderId, String callbackUrl) {
         this.amount = amount;
@@ -33,18 +40,74 @@ public class Payment {
         this.updatedAt = LocalDateTime.now();
     }
 
+    public Payment(Long id, String externalId, BigDecimal amount, String creditCardNumber, String orderId,
+                   String callbackUrl, PaymentStatus status, String message,
+                   LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, externalId, amount, creditCardNumber, null, null, orderId, callbackUrl,
+                status, message, createdAt, updatedAt, null);
+    }
+
+    public Payment(Long id, String externalId, BigDecimal amount, String creditCardNumber, String cardToken,
+                   String cardLastFour, String orderId, String callbackUrl, PaymentStatus status, String message,
+                   LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
+        this(id, externalId, amount, creditCardNumber, cardToken, cardLastFour, orderId, callbackUrl,
+                status, message, createdAt, updatedAt, version, null);
+    }
+
     public Payment withStatus(PaymentStatus newStatus, String newMessage) {
         return new Payment(
                 this.id,
                 this.externalId,
                 this.amount,
                 this.creditCardNumber,
+                this.cardToken,
+                this.cardLastFour,
                 this.orderId,
                 this.callbackUrl,
                 newStatus,
                 newMessage,
                 this.createdAt,
-                LocalDateTime.now()
+                LocalDateTime.now(),
+                this.version,
+                this.providerTransactionId
+        );
+    }
+
+    public Payment withCardToken(String newCardToken, String newCardLastFour) {
+        return new Payment(
+                this.id,
+                this.externalId,
+                this.amount,
+                this.creditCardNumber,
+                newCardToken,
+                newCardLastFour,
+                this.orderId,
+                this.callbackUrl,
+                this.status,
+                this.message,
+                this.createdAt,
+                this.updatedAt,
+                this.version,
+                this.providerTransactionId
+        );
+    }
+
+    public Payment withProviderTransactionId(String newProviderTransactionId) {
+        return new Payment(
+                this.id,
+                this.externalId,
+                this.amount,
+                this.creditCardNumber,
+                this.cardToken,
+                this.cardLastFour,
+                this.orderId,
+                this.callbackUrl,
+                this.status,
+                this.message,
+                this.createdAt,
+                this.updatedAt,
+                this.version,
+                newProviderTransactionId
         );
     }
-}
\ No newline at end of file
+}
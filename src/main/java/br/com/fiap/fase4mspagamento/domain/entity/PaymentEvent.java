@@ -0,0 +1,30 @@
+package br.com.fiap.fase4mspagamento.domain.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Mudança de status registrada no log append-only payment_events
+ */
+@Getter
+@AllArgsConstructor
+public class PaymentEvent {
+    private Long paymentId;
+    private PaymentStatus status;
+    private String message;
+    private LocalDateTime occurredAt;
+    // Chaves do pagamento gravadas com o evento para o relay publicar sem consultar payments
+    private String externalId;
+    private String orderId;
+
+    public PaymentEvent(Long paymentId, PaymentStatus status, String message, LocalDateTime occurredAt) {
+        this(paymentId, status, message, occurredAt, null, null);
+    }
+
+    public static PaymentEvent of(Payment payment) {
+        return new PaymentEvent(payment.getId(), payment.getStatus(), payment.getMessage(), payment.getUpdatedAt(),
+                payment.getExternalId(), payment.getOrderId());
+    }
+}
@@ -0,0 +1,28 @@
+package br.com.fiap.fase4mspagamento.domain.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento de mudança de status pronto para publicação, com o orderId como chave de partição do
+ * transporte. O relay publica na ordem de atribuição do xid das transações, não na de commit:
+ * para o mesmo pedido a ordem só é garantida entre transações que disputam a mesma linha de
+ * payments (a segunda espera o commit da primeira), como as transições de status do pagamento
+ */
+@Getter
+@AllArgsConstructor
+public class PaymentEventMessage {
+    private Long eventId;
+    private Long paymentId;
+    private String externalId;
+    private String orderId;
+    private PaymentStatus status;
+    private String message;
+    private LocalDateTime occurredAt;
+
+    public String getKey() {
+        return orderId;
+    }
+}
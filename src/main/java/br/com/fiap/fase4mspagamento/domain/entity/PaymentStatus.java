@@ -1,9 +1,32 @@
 package br.com.fiap.fase4mspagamento.domain.entity;
 
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum PaymentStatus {
     PENDING,
     APPROVED,
     REJECTED,
+    // Estorno reservado, aguardando o provedor; volta para APPROVED se o provedor recusar
+    REFUND_PENDING,
     REFUNDED,
-    CANCELLED
-}
\ No newline at end of file
+    CANCELLED;
+
+    // Transições permitidas; REJECTED, REFUNDED e CANCELLED são finais
+    private static final Map<PaymentStatus, Set<PaymentStatus>> TRANSITIONS = new EnumMap<>(PaymentStatus.class);
+
+    static {
+        TRANSITIONS.put(PENDING, EnumSet.of(APPROVED, REJECTED, CANCELLED));
+        TRANSITIONS.put(APPROVED, EnumSet.of(REFUND_PENDING));
+        TRANSITIONS.put(REFUND_PENDING, EnumSet.of(REFUNDED, APPROVED));
+        TRANSITIONS.put(REJECTED, EnumSet.noneOf(PaymentStatus.class));
+        TRANSITIONS.put(REFUNDED, EnumSet.noneOf(PaymentStatus.class));
+        TRANSITIONS.put(CANCELLED, EnumSet.noneOf(PaymentStatus.class));
+    }
+
+    public boolean canTransitionTo(PaymentStatus target) {
+        return TRANSITIONS.get(this).contains(target);
+    }
+}
@@ -0,0 +1,22 @@
+package br.com.fiap.fase4mspagamento.domain.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Visão reduzida de um pagamento para consultas por pedido; contém apenas colunas cobertas pelo índice
+ */
+@Getter
+@AllArgsConstructor
+public class PaymentSummary {
+    private Long id;
+    private String externalId;
+    private BigDecimal amount;
+    private PaymentStatus status;
+    private String orderId;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,37 @@
+package br.com.fiap.fase4mspagamento.domain.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Projeção de leitura com exatamente os campos expostos pela API; montada direto pela consulta,
+ * sem passar pelo contexto de persistência
+ */
+@Getter
+@AllArgsConstructor
+public class PaymentView {
+    private Long id;
+    private String externalId;
+    private BigDecimal amount;
+    private PaymentStatus status;
+    private String message;
+    private String orderId;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public static PaymentView of(Payment payment) {
+        return new PaymentView(
+                payment.getId(),
+                payment.getExternalId(),
+                payment.getAmount(),
+                payment.getStatus(),
+                payment.getMessage(),
+                payment.getOrderId(),
+                payment.getCreatedAt(),
+                payment.getUpdatedAt()
+        );
+    }
+}
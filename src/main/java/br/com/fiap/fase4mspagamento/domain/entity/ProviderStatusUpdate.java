@@ -0,0 +1,28 @@
+package br.com.fiap.fase4mspagamento.domain.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resultado de pagamento informado pelo provedor via webhook, ainda não aplicado.
+ * inboxId é preenchido depois que o webhook é gravado em payment_webhook_inbox.
+ */
+@Getter
+@AllArgsConstructor
+public class ProviderStatusUpdate {
+    private String externalId;
+    private PaymentStatus status;
+    private String message;
+    private LocalDateTime receivedAt;
+    private Long inboxId;
+
+    public ProviderStatusUpdate(String externalId, PaymentStatus status, String message, LocalDateTime receivedAt) {
+        this(externalId, status, message, receivedAt, null);
+    }
+
+    public ProviderStatusUpdate withInboxId(Long inboxId) {
+        return new ProviderStatusUpdate(externalId, status, message, receivedAt, inboxId);
+    }
+}
@@ -0,0 +1,15 @@
+package br.com.fiap.fase4mspagamento.domain.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Resultado do estorno de um pagamento dentro de um estorno em lote
+ */
+@Getter
+@AllArgsConstructor
+public class RefundResult {
+    private Long paymentId;
+    private boolean refunded;
+    private String message;
+}
@@ -0,0 +1,87 @@
+package br.com.fiap.fase4mspagamento.domain.hash;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom concorrente sobre strings: sem falso negativo, falso positivo limitado pelo
+ * dimensionamento. Os k índices saem de dois hashes de 32 bits (Kirsch-Mitzenmacher) e os bits
+ * são ligados via CAS, então add e mightContain não precisam de lock. As variantes por hash recebem o
+ * fnv1a64 já calculado, como o gravado no índice dos segmentos de arquivo.
+ */
+public class BloomFilter {
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashFunctions;
+    private final long capacity;
+    private final AtomicLong insertions = new AtomicLong();
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Configuração inválida do filtro de Bloom");
+        }
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) / 64));
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount * 64;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+        this.capacity = expectedInsertions;
+    }
+
+    public void add(String key) {
+        addHash(Hashing.fnv1a64(key));
+    }
+
+    public void addHash(long fnv) {
+        long hash = Hashing.spread(fnv);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        boolean changed = false;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            if ((current & mask) == 0) {
+                words.getAndUpdate(word, value -> value | mask);
+                changed = true;
+            }
+        }
+        // Chave repetida (sincronizações sobrepostas) não liga bit novo e não conta como inserção
+        if (changed) {
+            insertions.incrementAndGet();
+        }
+    }
+
+    public boolean mightContain(String key) {
+        return mightContainHash(Hashing.fnv1a64(key));
+    }
+
+    public boolean mightContainHash(long fnv) {
+        long hash = Hashing.spread(fnv);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long insertions() {
+        return insertions.get();
+    }
+
+    public long capacity() {
+        return capacity;
+    }
+
+    /**
+     * Taxa de falso positivo esperada para o número atual de inserções: (1 - e^(-kn/m))^k
+     */
+    public double expectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-(double) hashFunctions * insertions() / bitCount), hashFunctions);
+    }
+}
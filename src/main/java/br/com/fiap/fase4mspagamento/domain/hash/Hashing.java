@@ -0,0 +1,44 @@
+package br.com.fiap.fase4mspagamento.domain.hash;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Hash de 64 bits compartilhado pelas estruturas probabilísticas (sketch de velocidade, filtros de
+ * Bloom) e pelo índice dos segmentos de arquivo. fnv1a64 é o valor gravado em disco, então não
+ * pode mudar sem nova versão do formato de segmento.
+ */
+public final class Hashing {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private Hashing() {
+    }
+
+    /**
+     * FNV-1a de 64 bits sobre os bytes UTF-8 da chave
+     */
+    public static long fnv1a64(String key) {
+        long h = FNV_OFFSET_BASIS;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= FNV_PRIME;
+        }
+        return h;
+    }
+
+    /**
+     * Hash para double hashing (h1 + i * h2): o finalizador espalha os bits altos e baixos do
+     * FNV-1a, e a metade alta é forçada ímpar para que os índices derivados não colapsem num só
+     */
+    public static long spread(long fnv) {
+        long h = fnv;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h | 1L << 32;
+    }
+
+    public static long spread(String key) {
+        return spread(fnv1a64(key));
+    }
+}
@@ -0,0 +1,10 @@
+package br.com.fiap.fase4mspagamento.domain.id;
+
+import java.util.UUID;
+
+/**
+ * Gera os identificadores expostos (externalId do pagamento, transactionId do provedor mock)
+ */
+public interface IdGenerator {
+    UUID next();
+}
@@ -0,0 +1,14 @@
+package br.com.fiap.fase4mspagamento.domain.id;
+
+import java.util.UUID;
+
+/**
+ * UUID v4 do SecureRandom: imprevisível, mas espalha as inserções por todo o índice de external_id
+ */
+public class RandomIdGenerator implements IdGenerator {
+
+    @Override
+    public UUID next() {
+        return UUID.randomUUID();
+    }
+}
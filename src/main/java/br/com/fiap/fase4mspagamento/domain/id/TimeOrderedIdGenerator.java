@@ -0,0 +1,40 @@
+package br.com.fiap.fase4mspagamento.domain.id;
+
+import java.time.Clock;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * UUID v7 (RFC 9562): 48 bits de epoch em milissegundos seguidos de 74 bits aleatórios.
+ * Ids novos caem no fim do índice de external_id em vez de em páginas aleatórias, e a geração
+ * usa ThreadLocalRandom em vez do SecureRandom compartilhado, sem lock nem estado entre threads.
+ * Dentro do mesmo milissegundo a ordem é aleatória. Os bits aleatórios não são criptográficos:
+ * o externalId identifica o pagamento, não autoriza acesso a ele (o GET por id numérico já existe)
+ */
+public class TimeOrderedIdGenerator implements IdGenerator {
+    private static final long VERSION_7 = 0x7000L;
+    private static final long RAND_A_MASK = 0x0FFFL;
+    private static final long VARIANT = 0x8000000000000000L;
+    private static final long RAND_B_MASK = 0x3FFFFFFFFFFFFFFFL;
+
+    private final Clock clock;
+
+    public TimeOrderedIdGenerator(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public UUID next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long mostSignificant = (clock.millis() << 16) | VERSION_7 | (random.nextLong() & RAND_A_MASK);
+        long leastSignificant = VARIANT | (random.nextLong() & RAND_B_MASK);
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    /**
+     * Milissegundo de criação embutido no id; o filtro de externalIds o compara com o watermark
+     */
+    public static long timestampOf(UUID id) {
+        return id.getMostSignificantBits() >>> 16;
+    }
+}
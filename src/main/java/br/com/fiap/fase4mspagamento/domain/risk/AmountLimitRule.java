@@ -0,0 +1,26 @@
+package br.com.fiap.fase4mspagamento.domain.risk;
+
+import br.com.fiap.fase4mspagamento.domain.entity.Payment;
+
+import java.math.BigDecimal;
+
+public class AmountLimitRule implements RiskRule {
+    private final BigDecimal limit;
+
+    public AmountLimitRule(BigDecimal limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    public String name() {
+        return "amount-limit";
+    }
+
+    @Override
+    public RiskDecision evaluate(Payment payment) {
+        if (payment.getAmount() != null && payment.getAmount().compareTo(limit) > 0) {
+            return RiskDecision.reject(name(), "valor excede o limite de R$ " + limit);
+        }
+        return RiskDecision.approve();
+    }
+}
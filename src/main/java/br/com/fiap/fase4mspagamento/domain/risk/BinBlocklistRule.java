@@ -0,0 +1,46 @@
+package br.com.fiap.fase4mspagamento.domain.risk;
+
+import br.com.fiap.fase4mspagamento.domain.entity.Payment;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bloqueia cartões cujo BIN (prefixo de 6 ou 8 dígitos) esteja na lista configurada
+ */
+public class BinBlocklistRule implements RiskRule {
+    private final Set<String> blockedBins;
+    private final int[] prefixLengths;
+
+    public BinBlocklistRule(Collection<String> blockedBins) {
+        this.blockedBins = Set.copyOf(blockedBins);
+        // Tabela compilada: só testamos os tamanhos de prefixo que realmente existem na lista
+        this.prefixLengths = this.blockedBins.stream()
+                .map(String::length)
+                .collect(Collectors.toSet())
+                .stream()
+                .mapToInt(Integer::intValue)
+                .sorted()
+                .toArray();
+    }
+
+    @Override
+    public String name() {
+        return "bin-blocklist";
+    }
+
+    @Override
+    public RiskDecision evaluate(Payment payment) {
+        String cardNumber = payment.getCreditCardNumber();
+        if (cardNumber == null) {
+            return RiskDecision.approve();
+        }
+        for (int length : prefixLengths) {
+            if (cardNumber.length() >= length && blockedBins.contains(cardNumber.substring(0, length))) {
+                return RiskDecision.reject(name(), "BIN do cartão bloqueado");
+            }
+        }
+        return RiskDecision.approve();
+    }
+}
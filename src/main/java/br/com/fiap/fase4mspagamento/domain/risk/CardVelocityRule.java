@@ -0,0 +1,44 @@
+package br.com.fiap.fase4mspagamento.domain.risk;
+
+import br.com.fiap.fase4mspagamento.domain.entity.Payment;
+
+import java.time.Clock;
+import java.util.List;
+
+/**
+ * Limita a quantidade de tentativas por cartão em uma ou mais janelas deslizantes
+ * (ex.: por minuto e por hora), bloqueando ataques de teste de cartão
+ */
+public class CardVelocityRule implements RiskRule {
+    private final VelocityLimit[] limits;
+    private final Clock clock;
+
+    public CardVelocityRule(List<VelocityLimit> limits, Clock clock) {
+        this.limits = limits.toArray(new VelocityLimit[0]);
+        this.clock = clock;
+    }
+
+    @Override
+    public String name() {
+        return "card-velocity";
+    }
+
+    @Override
+    public RiskDecision evaluate(Payment payment) {
+        if (payment.getCreditCardNumber() == null) {
+            return RiskDecision.approve();
+        }
+        long now = clock.millis();
+        // Todas as janelas registram a tentativa, mesmo que uma delas já tenha estourado
+        VelocityLimit exceeded = null;
+        for (VelocityLimit limit : limits) {
+            if (!limit.register(payment.getCreditCardNumber(), now) && exceeded == null) {
+                exceeded = limit;
+            }
+        }
+        if (exceeded != null) {
+            return RiskDecision.reject(name(), "excesso de tentativas para o cartão " + exceeded.getLabel());
+        }
+        return RiskDecision.approve();
+    }
+}
@@ -0,0 +1,34 @@
+package br.com.fiap.fase4mspagamento.domain.risk;
+
+import br.com.fiap.fase4mspagamento.domain.entity.Payment;
+
+import java.time.Clock;
+
+/**
+ * Limita a quantidade de tentativas de pagamento por pedido dentro de uma janela deslizante
+ */
+public class OrderAttemptLimitRule implements RiskRule {
+    private final VelocityLimit limit;
+    private final Clock clock;
+
+    public OrderAttemptLimitRule(VelocityLimit limit, Clock clock) {
+        this.limit = limit;
+        this.clock = clock;
+    }
+
+    @Override
+    public String name() {
+        return "order-attempts";
+    }
+
+    @Override
+    public RiskDecision evaluate(Payment payment) {
+        if (payment.getOrderId() == null) {
+            return RiskDecision.approve();
+        }
+        if (!limit.register(payment.getOrderId(), clock.millis())) {
+            return RiskDecision.reject(name(), "excesso de tentativas para o pedido " + payment.getOrderId());
+        }
+        return RiskDecision.approve();
+    }
+}
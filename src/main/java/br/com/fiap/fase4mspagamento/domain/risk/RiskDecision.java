@@ -0,0 +1,29 @@
+package br.com.fiap.fase4mspagamento.domain.risk;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Resultado da avaliação de risco de um pagamento
+ */
+@Getter
+@AllArgsConstructor
+public class RiskDecision {
+    private static final RiskDecision APPROVED = new RiskDecision(true, null, null);
+
+    private final boolean approved;
+    private final String rule;
+    private final String reason;
+
+    public static RiskDecision approve() {
+        return APPROVED;
+    }
+
+    public static RiskDecision reject(String rule, String reason) {
+        return new RiskDecision(false, rule, reason);
+    }
+
+    public boolean isRejected() {
+        return !approved;
+    }
+}
@@ -0,0 +1,26 @@
+package br.com.fiap.fase4mspagamento.domain.risk;
+
+import br.com.fiap.fase4mspagamento.domain.entity.Payment;
+
+import java.util.List;
+
+/**
+ * Motor de pré-autorização: avalia as regras em ordem e retorna a primeira rejeição
+ */
+public class RiskEngine {
+    private final RiskRule[] rules;
+
+    public RiskEngine(List<RiskRule> rules) {
+        this.rules = rules.toArray(new RiskRule[0]);
+    }
+
+    public RiskDecision evaluate(Payment payment) {
+        for (RiskRule rule : rules) {
+            RiskDecision decision = rule.evaluate(payment);
+            if (decision.isRejected()) {
+                return decision;
+            }
+        }
+        return RiskDecision.approve();
+    }
+}
@@ -0,0 +1,11 @@
+package br.com.fiap.fase4mspagamento.domain.risk;
+
+import br.com.fiap.fase4mspagamento.domain.entity.Payment;
+
+/**
+ * Regra de pré-autorização avaliada localmente antes do envio ao provedor
+ */
+public interface RiskRule {
+    String name();
+    RiskDecision evaluate(Payment payment);
+}
@@ -0,0 +1,95 @@
+package br.com.fiap.fase4mspagamento.domain.risk;
+
+import br.com.fiap.fase4mspagamento.domain.hash.Hashing;
+
+import java.time.Duration;
+
+/**
+ * Contador de janela deslizante por chave com memória limitada (count-min sketch de buckets em anel).
+ * A chave é reduzida a um hash de 64 bits antes de tocar a tabela, então nenhum valor original
+ * (ex.: número do cartão) fica em memória. Cada célula guarda (época do bucket << 32 | contagem).
+ * O incremento é conservador: no bucket atual só sobem as linhas que estão no mínimo, então colisões
+ * inflam bem menos a estimativa. Leitura do mínimo, escrita e soma acontecem sob um único lock do
+ * contador: chaves diferentes colidem nas mesmas células, e é esse lock que garante que a
+ * estimativa nunca subestima. A seção crítica são alguns acessos a array, curta o bastante para
+ * a vazão de autorizações.
+ */
+public class SlidingWindowCounter {
+    private static final long COUNT_MASK = 0xFFFFFFFFL;
+
+    private final long[] cells;
+    private final int depth;
+    private final int widthMask;
+    private final int width;
+    private final int buckets;
+    private final long bucketMillis;
+
+    public SlidingWindowCounter(int depth, int width, Duration window, int buckets) {
+        if (width <= 0 || Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("Largura do sketch deve ser potência de 2: " + width);
+        }
+        if (depth <= 0 || buckets <= 0 || window.toMillis() < buckets) {
+            throw new IllegalArgumentException("Configuração inválida do contador de janela deslizante");
+        }
+        this.depth = depth;
+        this.width = width;
+        this.widthMask = width - 1;
+        this.buckets = buckets;
+        this.bucketMillis = window.toMillis() / buckets;
+        this.cells = new long[depth * width * buckets];
+    }
+
+    /**
+     * Registra uma ocorrência da chave e retorna a estimativa de ocorrências na janela
+     */
+    public int increment(String key, long nowMillis) {
+        long hash = Hashing.spread(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        int epoch = (int) (nowMillis / bucketMillis);
+        int slot = Math.floorMod(epoch, buckets);
+
+        int[] bases = new int[depth];
+        for (int row = 0; row < depth; row++) {
+            bases[row] = (row * width + ((h1 + row * h2) & widthMask)) * buckets;
+        }
+
+        synchronized (cells) {
+            int minimum = Integer.MAX_VALUE;
+            for (int row = 0; row < depth; row++) {
+                minimum = Math.min(minimum, count(cells[bases[row] + slot], epoch));
+            }
+            int estimate = Integer.MAX_VALUE;
+            for (int row = 0; row < depth; row++) {
+                // Linhas acima do mínimo já contam esta ocorrência por causa de colisões
+                if (count(cells[bases[row] + slot], epoch) <= minimum) {
+                    bump(bases[row] + slot, epoch);
+                }
+                estimate = Math.min(estimate, sum(bases[row], epoch));
+            }
+            return estimate;
+        }
+    }
+
+    private static int count(long value, int epoch) {
+        return (int) (value >>> 32) == epoch ? (int) (value & COUNT_MASK) : 0;
+    }
+
+    private void bump(int index, int epoch) {
+        long current = cells[index];
+        long count = (int) (current >>> 32) == epoch ? (current & COUNT_MASK) + 1 : 1;
+        cells[index] = ((long) epoch << 32) | count;
+    }
+
+    private int sum(int base, int epoch) {
+        int total = 0;
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            long value = cells[base + bucket];
+            int age = epoch - (int) (value >>> 32);
+            if (age >= 0 && age < buckets) {
+                total += (int) (value & COUNT_MASK);
+            }
+        }
+        return total;
+    }
+}
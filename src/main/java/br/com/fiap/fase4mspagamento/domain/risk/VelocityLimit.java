@@ -0,0 +1,19 @@
+package br.com.fiap.fase4mspagamento.domain.risk;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Limite de ocorrências numa janela deslizante (ex.: 10 tentativas por minuto)
+ */
+@Getter
+@AllArgsConstructor
+public class VelocityLimit {
+    private final String label;
+    private final SlidingWindowCounter counter;
+    private final int maxAttempts;
+
+    public boolean register(String key, long nowMillis) {
+        return counter.increment(key, nowMillis) <= maxAttempts;
+    }
+}
@@ -4,7 +4,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
 @ResponseStatus(HttpStatus.BAD_REQUEST)
-public class IllegalPaymentStatusException extends RuntimeException {
+public class IllegalPaymentStatusException extends PaymentDomainException {
     public IllegalPaymentStatusException(String message) {
         super(message);
     }
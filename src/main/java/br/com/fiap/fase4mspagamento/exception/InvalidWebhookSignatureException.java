@@ -0,0 +1,11 @@
+package br.com.fiap.fase4mspagamento.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.UNAUTHORIZED)
+public class InvalidWebhookSignatureException extends PaymentDomainException {
+    public InvalidWebhookSignatureException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package br.com.fiap.fase4mspagamento.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * A operação é válida para o status, mas o estado do pagamento no provedor impede aplicá-la
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class PaymentConflictException extends PaymentDomainException {
+    public PaymentConflictException(String message) {
+        super(message);
+    }
+}
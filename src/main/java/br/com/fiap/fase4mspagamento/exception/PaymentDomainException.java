@@ -0,0 +1,12 @@
+package br.com.fiap.fase4mspagamento.exception;
+
+/**
+ * Falhas esperadas do domínio (não encontrado, transição inválida, webhook recusado).
+ * Não capturam stack trace nem suprimidas: são respostas normais da API, às vezes milhares
+ * por segundo, e o rastro apontaria sempre para o mesmo lugar.
+ */
+public abstract class PaymentDomainException extends RuntimeException {
+    protected PaymentDomainException(String message) {
+        super(message, null, false, false);
+    }
+}
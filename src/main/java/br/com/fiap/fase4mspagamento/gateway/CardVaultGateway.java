@@ -0,0 +1,8 @@
+package br.com.fiap.fase4mspagamento.gateway;
+
+import java.util.Optional;
+
+public interface CardVaultGateway {
+    void saveIfAbsent(String token, byte[] encryptedCardNumber);
+    Optional<byte[]> findEncryptedCardNumber(String token);
+}
@@ -0,0 +1,11 @@
+package br.com.fiap.fase4mspagamento.gateway;
+
+import br.com.fiap.fase4mspagamento.domain.entity.Payment;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface PaymentArchiveGateway {
+    void append(List<Payment> payments);
+    Optional<Payment> findByExternalId(String externalId);
+}
@@ -0,0 +1,10 @@
+package br.com.fiap.fase4mspagamento.gateway;
+
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentEvent;
+
+import java.util.List;
+
+public interface PaymentEventGateway {
+    void append(PaymentEvent event);
+    List<PaymentEvent> findByPaymentId(Long paymentId);
+}
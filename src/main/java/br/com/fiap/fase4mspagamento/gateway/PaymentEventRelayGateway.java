@@ -0,0 +1,14 @@
+package br.com.fiap.fase4mspagamento.gateway;
+
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentEventMessage;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface PaymentEventRelayGateway {
+    /**
+     * Entrega ao publisher o próximo lote após o cursor do relay e avança o cursor se ele não
+     * lançar exceção. Retorna o tamanho do lote, ou -1 se outra instância está com o cursor
+     */
+    int relayNext(String relay, int limit, Consumer<List<PaymentEventMessage>> publisher);
+}
@@ -1,13 +1,20 @@
 package br.com.fiap.fase4mspagamento.gateway;
 
 import br.com.fiap.fase4mspagamento.domain.entity.Payment;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentStatus;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentSummary;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentView;
 
 import java.util.List;
 import java.util.Optional;
 
 public interface PaymentGateway {
     Payment save(Payment payment);
+    Optional<Payment> compareAndSetStatus(Payment current, PaymentStatus target, String message);
     Optional<Payment> findById(Long id);
     Optional<Payment> findByExternalId(String externalId);
+    Optional<PaymentView> findViewById(Long id);
+    Optional<PaymentView> findViewByExternalId(String externalId);
+    List<PaymentSummary> findSummariesByOrderId(String orderId);
     List<Payment> findAll();
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package br.com.fiap.fase4mspagamento.gateway;
+
+import br.com.fiap.fase4mspagamento.domain.entity.ProviderStatusUpdate;
+
+import java.util.List;
+
+public interface PaymentStatusUpdateGateway {
+    /**
+     * Aplica as decisões do provedor aos pagamentos ainda PENDING numa única transação
+     * e retorna quantos pagamentos mudaram de status. Na mesma transação remove do inbox as
+     * atualizações do lote que têm inboxId.
+     */
+    int applyAll(List<ProviderStatusUpdate> updates);
+}
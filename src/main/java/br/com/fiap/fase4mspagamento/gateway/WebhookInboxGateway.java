@@ -0,0 +1,24 @@
+package br.com.fiap.fase4mspagamento.gateway;
+
+import br.com.fiap.fase4mspagamento.domain.entity.ProviderStatusUpdate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface WebhookInboxGateway {
+    /**
+     * Grava o webhook de forma durável e retorna a atualização com o inboxId preenchido
+     */
+    ProviderStatusUpdate save(ProviderStatusUpdate update);
+
+    /**
+     * Webhooks recebidos antes de receivedBefore que ainda não foram aplicados, com id maior que
+     * afterId, mais antigos primeiro
+     */
+    List<ProviderStatusUpdate> findPending(LocalDateTime receivedBefore, long afterId, int limit);
+
+    /**
+     * Remove os webhooks recebidos antes de receivedBefore que nunca foram aplicados e retorna quantos eram
+     */
+    int expire(LocalDateTime receivedBefore);
+}
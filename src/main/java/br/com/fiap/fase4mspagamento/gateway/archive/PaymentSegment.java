@@ -0,0 +1,276 @@
+package br.com.fiap.fase4mspagamento.gateway.archive;
+
+import br.com.fiap.fase4mspagamento.domain.entity.Payment;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentStatus;
+import br.com.fiap.fase4mspagamento.domain.hash.Hashing;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.LongConsumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Arquivo imutável de pagamentos arquivados, lido via memory-map.
+ * Layout: cabeçalho | registros comprimidos (deflate por registro) | índice ordenado por hash do externalId.
+ * Cada entrada do índice tem tamanho fixo (hash, offset), então a busca é binária direto no mapeamento.
+ * Versão 2 acrescenta providerTransactionId ao fim do registro; segmentos da versão 1 continuam legíveis.
+ */
+final class PaymentSegment {
+    private static final int MAGIC = 0x50534547; // "PSEG"
+    private static final int FORMAT_VERSION = 2;
+    private static final int HEADER_SIZE = 4 + 4 + 4 + 8;
+    private static final int INDEX_ENTRY_SIZE = 8 + 8;
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int version;
+    private final int count;
+    private final long indexOffset;
+
+    private PaymentSegment(Path path, MappedByteBuffer buffer, int version, int count, long indexOffset) {
+        this.path = path;
+        this.buffer = buffer;
+        this.version = version;
+        this.count = count;
+        this.indexOffset = indexOffset;
+    }
+
+    static PaymentSegment open(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC
+                    || buffer.getInt(4) < 1 || buffer.getInt(4) > FORMAT_VERSION) {
+                throw new IllegalStateException("Segmento de arquivo inválido: " + path);
+            }
+            return new PaymentSegment(path, buffer, buffer.getInt(4), buffer.getInt(8), buffer.getLong(12));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao abrir segmento " + path, e);
+        }
+    }
+
+    static void write(Path path, List<Payment> payments) {
+        long[][] index = new long[payments.size()][];
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            long offset = HEADER_SIZE;
+            channel.position(offset);
+            for (int i = 0; i < payments.size(); i++) {
+                Payment payment = payments.get(i);
+                byte[] compressed = compress(deflater, encode(payment));
+                ByteBuffer record = ByteBuffer.allocate(4 + compressed.length);
+                record.putInt(compressed.length).put(compressed).flip();
+                writeFully(channel, record);
+                index[i] = new long[]{Hashing.fnv1a64(payment.getExternalId()), offset};
+                offset += record.capacity();
+            }
+
+            Arrays.sort(index, Comparator.comparingLong(entry -> entry[0]));
+            ByteBuffer indexBuffer = ByteBuffer.allocate(index.length * INDEX_ENTRY_SIZE);
+            for (long[] entry : index) {
+                indexBuffer.putLong(entry[0]).putLong(entry[1]);
+            }
+            writeFully(channel, indexBuffer.flip());
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                    .putInt(MAGIC).putInt(FORMAT_VERSION).putInt(payments.size()).putLong(offset)
+                    .flip();
+            channel.position(0);
+            writeFully(channel, header);
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar segmento " + path, e);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    Optional<Payment> find(String externalId) {
+        long hash = Hashing.fnv1a64(externalId);
+        int low = 0;
+        int high = count - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (hashAt(mid) < hash) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        for (int i = low; i < count && hashAt(i) == hash; i++) {
+            Payment payment = readRecord(buffer.getLong(entryPosition(i) + 8));
+            if (externalId.equals(payment.getExternalId())) {
+                return Optional.of(payment);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Hashes do índice, sem descomprimir registros; alimentam o filtro de pertinência do arquivo
+     */
+    void forEachHash(LongConsumer consumer) {
+        for (int i = 0; i < count; i++) {
+            consumer.accept(hashAt(i));
+        }
+    }
+
+    /**
+     * Todos os registros do segmento, usados para fundi-lo com outro na compactação
+     */
+    List<Payment> readAll() {
+        List<Payment> payments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            payments.add(readRecord(buffer.getLong(entryPosition(i) + 8)));
+        }
+        return payments;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    int size() {
+        return count;
+    }
+
+    private long hashAt(int entry) {
+        return buffer.getLong(entryPosition(entry));
+    }
+
+    private int entryPosition(int entry) {
+        return (int) (indexOffset + (long) entry * INDEX_ENTRY_SIZE);
+    }
+
+    private Payment readRecord(long offset) {
+        int length = buffer.getInt((int) offset);
+        byte[] compressed = new byte[length];
+        buffer.get((int) offset + 4, compressed);
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(length * 3);
+            byte[] chunk = new byte[512];
+            while (!inflater.finished()) {
+                int read = inflater.inflate(chunk);
+                if (read == 0 && inflater.needsInput()) {
+                    throw new IllegalStateException("Registro truncado no segmento " + path);
+                }
+                out.write(chunk, 0, read);
+            }
+            return decode(out.toByteArray(), version);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Registro corrompido no segmento " + path, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] compress(Deflater deflater, byte[] raw) {
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length);
+        byte[] chunk = new byte[512];
+        while (!deflater.finished()) {
+            out.write(chunk, 0, deflater.deflate(chunk));
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static byte[] encode(Payment payment) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeLong(payment.getId());
+        writeString(out, payment.getExternalId());
+        writeString(out, payment.getAmount().toPlainString());
+        writeString(out, payment.getCardToken());
+        writeString(out, payment.getCardLastFour());
+        writeString(out, payment.getOrderId());
+        writeString(out, payment.getCallbackUrl());
+        writeString(out, payment.getStatus().name());
+        writeString(out, payment.getMessage());
+        writeDateTime(out, payment.getCreatedAt());
+        writeDateTime(out, payment.getUpdatedAt());
+        out.writeLong(payment.getVersion() == null ? 0 : payment.getVersion());
+        writeString(out, payment.getProviderTransactionId());
+        return bytes.toByteArray();
+    }
+
+    private static Payment decode(byte[] raw, int version) {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw));
+        try {
+            return new Payment(
+                    in.readLong(),
+                    readString(in),
+                    new BigDecimal(readString(in)),
+                    null,
+                    readString(in),
+                    readString(in),
+                    readString(in),
+                    readString(in),
+                    PaymentStatus.valueOf(readString(in)),
+                    readString(in),
+                    readDateTime(in),
+                    readDateTime(in),
+                    in.readLong(),
+                    version >= 2 ? readString(in) : null
+            );
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        return new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+
+    private static void writeDateTime(DataOutputStream out, LocalDateTime value) throws IOException {
+        out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(value.getNano());
+    }
+
+    private static LocalDateTime readDateTime(DataInputStream in) throws IOException {
+        return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,173 @@
+package br.com.fiap.fase4mspagamento.gateway.archive;
+
+import br.com.fiap.fase4mspagamento.config.ArchiveProperties;
+import br.com.fiap.fase4mspagamento.domain.entity.Payment;
+import br.com.fiap.fase4mspagamento.domain.hash.BloomFilter;
+import br.com.fiap.fase4mspagamento.gateway.PaymentArchiveGateway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Camada fria de pagamentos finalizados: cada lote arquivado vira um segmento imutável no disco.
+ * Leituras percorrem os segmentos do mais novo para o mais antigo, cada um com busca binária no índice.
+ * Depois de cada lote, o segmento mais novo é fundido com o anterior enquanto não for menor que ele
+ * (como um contador binário) e a soma couber em maxSegmentSize. Assim o número de segmentos cresce
+ * com o log do volume arquivado, não com o número de lotes. Um filtro de Bloom montado a partir
+ * dos hashes dos índices responde em memória os ids que nunca foram arquivados, que são a maioria
+ * das consultas: o arquivo só é lido quando o banco não encontra o pagamento.
+ */
+@Component
+@EnableConfigurationProperties(ArchiveProperties.class)
+public class PaymentSegmentArchive implements PaymentArchiveGateway {
+    private static final Logger logger = LoggerFactory.getLogger(PaymentSegmentArchive.class);
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final long MIN_FILTER_CAPACITY = 100_000;
+    private static final double FILTER_FALSE_POSITIVE_RATE = 0.01;
+
+    private final Path directory;
+    private final int maxSegmentSize;
+    // Do mais novo para o mais antigo; trocada inteira para que leituras nunca vejam uma fusão pela metade
+    private volatile List<PaymentSegment> segments = List.of();
+    // Nunca tem falso negativo para um pagamento de segmento publicado: os hashes entram antes da publicação
+    private volatile BloomFilter archivedIds;
+    private long nextSequence;
+
+    @Autowired
+    public PaymentSegmentArchive(ArchiveProperties properties) {
+        this(Path.of(properties.getDirectory()), properties.getMaxSegmentSize());
+    }
+
+    PaymentSegmentArchive(Path directory, int maxSegmentSize) {
+        this.directory = directory;
+        this.maxSegmentSize = maxSegmentSize;
+        loadSegments();
+        this.archivedIds = buildFilter(segments);
+    }
+
+    @Override
+    public synchronized void append(List<Payment> payments) {
+        if (payments.isEmpty()) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            PaymentSegment written = writeSegment(payments);
+            written.forEachHash(archivedIds::addHash);
+            List<PaymentSegment> next = new ArrayList<>(segments.size() + 1);
+            next.add(written);
+            next.addAll(segments);
+            segments = List.copyOf(next);
+            if (archivedIds.insertions() > archivedIds.capacity()) {
+                archivedIds = buildFilter(segments);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao arquivar lote de pagamentos", e);
+        }
+        try {
+            compact();
+        } catch (IOException | RuntimeException e) {
+            // O lote já está seguro no seu segmento; a fusão é refeita depois do próximo lote
+            logger.warn("Falha ao compactar segmentos do arquivo de pagamentos", e);
+        }
+    }
+
+    @Override
+    public Optional<Payment> findByExternalId(String externalId) {
+        if (!archivedIds.mightContain(externalId)) {
+            return Optional.empty();
+        }
+        for (PaymentSegment segment : segments) {
+            Optional<Payment> payment = segment.find(externalId);
+            if (payment.isPresent()) {
+                return payment;
+            }
+        }
+        return Optional.empty();
+    }
+
+    int segmentCount() {
+        return segments.size();
+    }
+
+    private static BloomFilter buildFilter(List<PaymentSegment> segments) {
+        long archived = segments.stream().mapToLong(PaymentSegment::size).sum();
+        BloomFilter filter = new BloomFilter(Math.max(MIN_FILTER_CAPACITY, archived * 2), FILTER_FALSE_POSITIVE_RATE);
+        segments.forEach(segment -> segment.forEachHash(filter::addHash));
+        return filter;
+    }
+
+    private void compact() throws IOException {
+        while (segments.size() >= 2) {
+            PaymentSegment newer = segments.get(0);
+            PaymentSegment older = segments.get(1);
+            if (newer.size() < older.size() || (long) newer.size() + older.size() > maxSegmentSize) {
+                return;
+            }
+            // Um pagamento arquivado de novo (queda entre o segmento e o DELETE) fica só com a cópia mais nova
+            Map<String, Payment> merged = new LinkedHashMap<>();
+            newer.readAll().forEach(payment -> merged.putIfAbsent(payment.getExternalId(), payment));
+            older.readAll().forEach(payment -> merged.putIfAbsent(payment.getExternalId(), payment));
+
+            List<PaymentSegment> next = new ArrayList<>(segments.size() - 1);
+            next.add(writeSegment(new ArrayList<>(merged.values())));
+            next.addAll(segments.subList(2, segments.size()));
+            segments = List.copyOf(next);
+            // Leituras em andamento seguem válidas: o mapeamento sobrevive à remoção do arquivo
+            Files.deleteIfExists(newer.path());
+            Files.deleteIfExists(older.path());
+        }
+    }
+
+    private PaymentSegment writeSegment(List<Payment> payments) throws IOException {
+        Path target = directory.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, nextSequence, SEGMENT_SUFFIX));
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        Files.deleteIfExists(temp);
+        PaymentSegment.write(temp, payments);
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        nextSequence++;
+        return PaymentSegment.open(target);
+    }
+
+    private void loadSegments() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> paths = files
+                    .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+            List<PaymentSegment> loaded = new ArrayList<>(paths.size());
+            for (Path path : paths) {
+                loaded.add(0, PaymentSegment.open(path));
+                nextSequence = Math.max(nextSequence, sequenceOf(path) + 1);
+            }
+            segments = List.copyOf(loaded);
+            logger.info("Arquivo de pagamentos: {} segmentos carregados de {}", segments.size(), directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao listar segmentos em " + directory, e);
+        }
+    }
+
+    private static long sequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
@@ -0,0 +1,104 @@
+package br.com.fiap.fase4mspagamento.gateway.database.jdbc;
+
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentEvent;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentStatus;
+import br.com.fiap.fase4mspagamento.gateway.PaymentEventGateway;
+import br.com.fiap.fase4mspagamento.gateway.database.routing.ReadYourWritesRouter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Eventos são acumulados por transação e gravados num único batch INSERT no beforeCommit,
+ * junto com a atualização da projeção em payments. Fora de transação são gravados na hora.
+ */
+@Component
+public class PaymentEventJdbcGateway implements PaymentEventGateway {
+    private static final String INSERT_SQL =
+            "INSERT INTO payment_events (payment_id, status, message, occurred_at, external_id, order_id) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final RowMapper<PaymentEvent> EVENT_ROW_MAPPER = (rs, rowNum) -> new PaymentEvent(
+            rs.getLong("payment_id"),
+            PaymentStatus.valueOf(rs.getString("status")),
+            rs.getString("message"),
+            rs.getTimestamp("occurred_at").toLocalDateTime()
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ReadYourWritesRouter readRouter;
+
+    public PaymentEventJdbcGateway(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ReadYourWritesRouter readRouter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readRouter = readRouter;
+    }
+
+    @Override
+    public void append(PaymentEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            insert(List.of(event));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<PaymentEvent> buffer = (List<PaymentEvent>) TransactionSynchronizationManager.getResource(this);
+        if (buffer == null) {
+            List<PaymentEvent> pending = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    insert(pending);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PaymentEventJdbcGateway.this);
+                }
+            });
+            buffer = pending;
+        }
+        buffer.add(event);
+    }
+
+    @Override
+    public List<PaymentEvent> findByPaymentId(Long paymentId) {
+        // Cada tentativa abre a própria transação readOnly para que o fallback possa trocar de datasource
+        return readRouter.read(ReadYourWritesRouter.idKey(paymentId), () -> readOnlyTransaction.execute(status ->
+                        Optional.of(jdbcTemplate.query(
+                                        "SELECT payment_id, status, message, occurred_at FROM payment_events "
+                                                + "WHERE payment_id = ? ORDER BY id",
+                                        EVENT_ROW_MAPPER, paymentId))
+                                .filter(events -> !events.isEmpty())))
+                .orElse(List.of());
+    }
+
+    private void insert(List<PaymentEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, events.stream()
+                .map(event -> new Object[]{
+                        event.getPaymentId(),
+                        event.getStatus().name(),
+                        event.getMessage(),
+                        event.getOccurredAt(),
+                        event.getExternalId(),
+                        event.getOrderId()
+                })
+                .toList());
+    }
+}
@@ -0,0 +1,105 @@
+package br.com.fiap.fase4mspagamento.gateway.database.jdbc;
+
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentEventMessage;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentStatus;
+import br.com.fiap.fase4mspagamento.gateway.PaymentEventRelayGateway;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Lê payment_events em ordem (tx_id, id) a partir do cursor do relay, só até o xmin do snapshot
+ * atual (ver V8). A ordem é a de atribuição do xid, não a de commit: dois eventos do mesmo pedido
+ * só saem na ordem em que foram confirmados se as transações disputaram a mesma linha.
+ * O cursor fica travado (FOR UPDATE SKIP LOCKED) durante a publicação, então várias instâncias
+ * podem rodar o relay e só uma publica por vez.
+ */
+@Component
+public class PaymentEventRelayJdbcGateway implements PaymentEventRelayGateway {
+    // Fim do log pelo índice (tx_id, id) lido de trás para frente; log vazio começa em (0, 0)
+    private static final String INIT_CURSOR_SQL =
+            "INSERT INTO payment_event_cursors (relay, tx_id, event_id, updated_at) "
+                    + "SELECT ?, COALESCE(tip.tx_id, '0'::xid8), COALESCE(tip.id, 0), ? "
+                    + "FROM (SELECT 1) AS seed LEFT JOIN ("
+                    + "SELECT tx_id, id FROM payment_events WHERE tx_id < pg_snapshot_xmin(pg_current_snapshot()) "
+                    + "ORDER BY tx_id DESC, id DESC LIMIT 1) AS tip ON true "
+                    + "ON CONFLICT (relay) DO NOTHING";
+    private static final String LOCK_CURSOR_SQL =
+            "SELECT tx_id::text, event_id FROM payment_event_cursors WHERE relay = ? FOR UPDATE SKIP LOCKED";
+    private static final String NEXT_BATCH_SQL =
+            "SELECT e.id, e.tx_id::text AS tx_id, e.payment_id, e.external_id, e.order_id, e.status, e.message, e.occurred_at "
+                    + "FROM payment_events e "
+                    + "WHERE (e.tx_id, e.id) > (?::xid8, ?) "
+                    + "AND e.tx_id < pg_snapshot_xmin(pg_current_snapshot()) "
+                    + "ORDER BY e.tx_id, e.id LIMIT ?";
+    private static final String ADVANCE_CURSOR_SQL =
+            "UPDATE payment_event_cursors SET tx_id = ?::xid8, event_id = ?, updated_at = ? WHERE relay = ?";
+
+    private static final RowMapper<Row> ROW_MAPPER = (rs, rowNum) -> new Row(
+            rs.getString("tx_id"),
+            new PaymentEventMessage(
+                    rs.getLong("id"),
+                    rs.getLong("payment_id"),
+                    rs.getString("external_id"),
+                    rs.getString("order_id"),
+                    PaymentStatus.valueOf(rs.getString("status")),
+                    rs.getString("message"),
+                    rs.getTimestamp("occurred_at").toLocalDateTime()));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    // Relays cujo cursor já existe ou já foi criado por esta instância
+    private final Set<String> initializedRelays = ConcurrentHashMap.newKeySet();
+
+    public PaymentEventRelayJdbcGateway(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public int relayNext(String relay, int limit, Consumer<List<PaymentEventMessage>> publisher) {
+        // Primeiro uso do relay começa do fim do log: o histórico anterior não é republicado.
+        // Só na primeira chamada da instância; ON CONFLICT mantém o cursor que já existir
+        if (!initializedRelays.contains(relay)) {
+            jdbcTemplate.update(INIT_CURSOR_SQL, relay, LocalDateTime.now());
+            initializedRelays.add(relay);
+        }
+
+        Integer published = transaction.execute(status -> {
+            List<String[]> cursor = jdbcTemplate.query(LOCK_CURSOR_SQL,
+                    (rs, rowNum) -> new String[]{rs.getString(1), rs.getString(2)}, relay);
+            if (cursor.isEmpty()) {
+                return -1;
+            }
+            List<Row> rows = jdbcTemplate.query(NEXT_BATCH_SQL, ROW_MAPPER,
+                    cursor.get(0)[0], Long.parseLong(cursor.get(0)[1]), limit);
+            if (rows.isEmpty()) {
+                return 0;
+            }
+            publisher.accept(rows.stream().map(row -> row.message).toList());
+
+            Row last = rows.get(rows.size() - 1);
+            jdbcTemplate.update(ADVANCE_CURSOR_SQL, last.txId, last.message.getEventId(), LocalDateTime.now(), relay);
+            return rows.size();
+        });
+        return published == null ? 0 : published;
+    }
+
+    static class Row {
+        private final String txId;
+        private final PaymentEventMessage message;
+
+        Row(String txId, PaymentEventMessage message) {
+            this.txId = txId;
+            this.message = message;
+        }
+    }
+}
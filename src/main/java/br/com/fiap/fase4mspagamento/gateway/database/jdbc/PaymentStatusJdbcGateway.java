@@ -0,0 +1,128 @@
+package br.com.fiap.fase4mspagamento.gateway.database.jdbc;
+
+import br.com.fiap.fase4mspagamento.config.CacheConfig;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentEvent;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentStatus;
+import br.com.fiap.fase4mspagamento.domain.entity.ProviderStatusUpdate;
+import br.com.fiap.fase4mspagamento.gateway.PaymentEventGateway;
+import br.com.fiap.fase4mspagamento.gateway.PaymentStatusUpdateGateway;
+import br.com.fiap.fase4mspagamento.gateway.database.routing.ReadYourWritesRouter;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static br.com.fiap.fase4mspagamento.gateway.database.routing.ReadYourWritesRouter.externalIdKey;
+import static br.com.fiap.fase4mspagamento.gateway.database.routing.ReadYourWritesRouter.idKey;
+import static br.com.fiap.fase4mspagamento.gateway.database.routing.ReadYourWritesRouter.orderKey;
+
+/**
+ * Aplica um lote de atualizações do provedor com um único UPDATE ... FROM unnest(...),
+ * resolvendo a partição de cada pagamento pelo lookup de external_id. Só pagamentos PENDING
+ * mudam, então webhooks repetidos ou atrasados não sobrescrevem decisões já tomadas. Na mesma
+ * transação saem do inbox as linhas cuja decisão foi aplicada ou cujo pagamento já está num status
+ * final. As demais ficam para a varredura: o pagamento pode ainda não estar commitado, porque o
+ * webhook pode chegar antes de ProcessPaymentUsecase encerrar a transação que o criou.
+ */
+@Component
+public class PaymentStatusJdbcGateway implements PaymentStatusUpdateGateway {
+    private static final String UPDATE_SQL =
+            "UPDATE payments p SET status = u.status, message = u.message, updated_at = ?, version = p.version + 1 "
+                    + "FROM unnest(?::text[], ?::text[], ?::text[]) AS u(external_id, status, message) "
+                    + "JOIN payment_external_ids x ON x.external_id = u.external_id "
+                    + "WHERE p.id = x.payment_id AND p.created_at = x.created_at AND p.status = 'PENDING' "
+                    + "RETURNING p.id, p.external_id, p.order_id, p.status, p.message, p.updated_at";
+    private static final String DELETE_INBOX_SQL =
+            "DELETE FROM payment_webhook_inbox w WHERE w.id = ANY(?) AND (w.external_id = ANY(?) OR EXISTS ("
+                    + "SELECT 1 FROM payment_external_ids x JOIN payments p "
+                    + "ON p.id = x.payment_id AND p.created_at = x.created_at "
+                    + "WHERE x.external_id = w.external_id AND p.status <> 'PENDING'))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PaymentEventGateway paymentEventGateway;
+    private final ReadYourWritesRouter readRouter;
+    private final CacheManager cacheManager;
+
+    public PaymentStatusJdbcGateway(
+            JdbcTemplate jdbcTemplate,
+            PaymentEventGateway paymentEventGateway,
+            ReadYourWritesRouter readRouter,
+            CacheManager cacheManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.paymentEventGateway = paymentEventGateway;
+        this.readRouter = readRouter;
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    @Transactional
+    public int applyAll(List<ProviderStatusUpdate> updates) {
+        // O mesmo pagamento só pode aparecer uma vez no UPDATE ... FROM; vale a primeira decisão recebida
+        Map<String, ProviderStatusUpdate> unique = new LinkedHashMap<>();
+        for (ProviderStatusUpdate update : updates) {
+            unique.putIfAbsent(update.getExternalId(), update);
+        }
+        if (unique.isEmpty()) {
+            return 0;
+        }
+        String[] externalIds = new String[unique.size()];
+        String[] statuses = new String[unique.size()];
+        String[] messages = new String[unique.size()];
+        int i = 0;
+        for (ProviderStatusUpdate update : unique.values()) {
+            externalIds[i] = update.getExternalId();
+            statuses[i] = update.getStatus().name();
+            messages[i] = update.getMessage();
+            i++;
+        }
+
+        Cache ordersCache = cacheManager.getCache(CacheConfig.PAYMENTS_BY_ORDER);
+        List<String> applied = jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(UPDATE_SQL);
+            statement.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
+            statement.setArray(2, connection.createArrayOf("text", externalIds));
+            statement.setArray(3, connection.createArrayOf("text", statuses));
+            statement.setArray(4, connection.createArrayOf("text", messages));
+            return statement;
+        }, (rs, rowNum) -> {
+            long paymentId = rs.getLong("id");
+            String externalId = rs.getString("external_id");
+            String orderId = rs.getString("order_id");
+            paymentEventGateway.append(new PaymentEvent(
+                    paymentId,
+                    PaymentStatus.valueOf(rs.getString("status")),
+                    rs.getString("message"),
+                    rs.getTimestamp("updated_at").toLocalDateTime(),
+                    externalId,
+                    orderId));
+            readRouter.recordWrite(idKey(paymentId), externalIdKey(externalId), orderKey(orderId));
+            if (ordersCache != null) {
+                ordersCache.evict(orderId);
+            }
+            return externalId;
+        });
+
+        Long[] inboxIds = updates.stream()
+                .map(ProviderStatusUpdate::getInboxId)
+                .filter(Objects::nonNull)
+                .toArray(Long[]::new);
+        if (inboxIds.length > 0) {
+            jdbcTemplate.update(connection -> {
+                PreparedStatement statement = connection.prepareStatement(DELETE_INBOX_SQL);
+                statement.setArray(1, connection.createArrayOf("bigint", inboxIds));
+                statement.setArray(2, connection.createArrayOf("text", applied.toArray(String[]::new)));
+                return statement;
+            });
+        }
+        return applied.size();
+    }
+}
@@ -0,0 +1,61 @@
+package br.com.fiap.fase4mspagamento.gateway.database.jdbc;
+
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentStatus;
+import br.com.fiap.fase4mspagamento.domain.entity.ProviderStatusUpdate;
+import br.com.fiap.fase4mspagamento.gateway.WebhookInboxGateway;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Inbox de webhooks do provedor. As linhas são removidas por PaymentStatusJdbcGateway.applyAll,
+ * na mesma transação que aplica a decisão, ou expiram pela varredura quando nunca puderam ser aplicadas.
+ */
+@Component
+public class WebhookInboxJdbcGateway implements WebhookInboxGateway {
+    private static final String INSERT_SQL =
+            "INSERT INTO payment_webhook_inbox (external_id, status, message, received_at) "
+                    + "VALUES (?, ?, ?, ?) RETURNING id";
+    private static final String PENDING_SQL =
+            "SELECT id, external_id, status, message, received_at FROM payment_webhook_inbox "
+                    + "WHERE received_at < ? AND id > ? ORDER BY id LIMIT ?";
+    private static final String EXPIRE_SQL = "DELETE FROM payment_webhook_inbox WHERE received_at < ?";
+
+    private static final RowMapper<ProviderStatusUpdate> UPDATE_ROW_MAPPER = (rs, rowNum) -> new ProviderStatusUpdate(
+            rs.getString("external_id"),
+            PaymentStatus.valueOf(rs.getString("status")),
+            rs.getString("message"),
+            rs.getTimestamp("received_at").toLocalDateTime(),
+            rs.getLong("id")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public WebhookInboxJdbcGateway(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public ProviderStatusUpdate save(ProviderStatusUpdate update) {
+        Long id = jdbcTemplate.queryForObject(INSERT_SQL, Long.class,
+                update.getExternalId(),
+                update.getStatus().name(),
+                update.getMessage(),
+                Timestamp.valueOf(update.getReceivedAt()));
+        return update.withInboxId(id);
+    }
+
+    @Override
+    public List<ProviderStatusUpdate> findPending(LocalDateTime receivedBefore, long afterId, int limit) {
+        return jdbcTemplate.query(PENDING_SQL, UPDATE_ROW_MAPPER, Timestamp.valueOf(receivedBefore), afterId, limit);
+    }
+
+    @Override
+    public int expire(LocalDateTime receivedBefore) {
+        return jdbcTemplate.update(EXPIRE_SQL, Timestamp.valueOf(receivedBefore));
+    }
+}
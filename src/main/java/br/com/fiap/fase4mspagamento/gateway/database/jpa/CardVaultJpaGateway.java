@@ -0,0 +1,28 @@
+package br.com.fiap.fase4mspagamento.gateway.database.jpa;
+
+import br.com.fiap.fase4mspagamento.gateway.CardVaultGateway;
+import br.com.fiap.fase4mspagamento.gateway.database.jpa.entity.CardVaultEntity;
+import br.com.fiap.fase4mspagamento.gateway.database.jpa.repository.CardVaultRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+@Component
+public class CardVaultJpaGateway implements CardVaultGateway {
+    private final CardVaultRepository cardVaultRepository;
+
+    public CardVaultJpaGateway(CardVaultRepository cardVaultRepository) {
+        this.cardVaultRepository = cardVaultRepository;
+    }
+
+    @Override
+    public void saveIfAbsent(String token, byte[] encryptedCardNumber) {
+        cardVaultRepository.insertIfAbsent(token, encryptedCardNumber);
+    }
+
+    @Override
+    public Optional<byte[]> findEncryptedCardNumber(String token) {
+        return cardVaultRepository.findById(token)
+                .map(CardVaultEntity::getEncryptedCardNumber);
+    }
+}
@@ -1,40 +1,171 @@
 package br.com.fiap.fase4mspagamento.gateway.database.jpa;
 
+import br.com.fiap.fase4mspagamento.config.CacheConfig;
 import br.com.fiap.fase4mspagamento.domain.entity.Payment;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentEvent;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentStatus;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentSummary;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentView;
+import br.com.fiap.fase4mspagamento.gateway.PaymentArchiveGateway;
+import br.com.fiap.fase4mspagamento.gateway.PaymentEventGateway;
 import br.com.fiap.fase4mspagamento.gateway.PaymentGateway;
 import br.com.fiap.fase4mspagamento.gateway.database.jpa.entity.PaymentEntity;
 import br.com.fiap.fase4mspagamento.gateway.database.jpa.repository.PaymentRepository;
+import br.com.fiap.fase4mspagamento.gateway.database.lookup.KnownExternalIdFilter;
+import br.com.fiap.fase4mspagamento.gateway.database.routing.ReadYourWritesRouter;
+
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import static br.com.fiap.fase4mspagamento.gateway.database.routing.ReadYourWritesRouter.externalIdKey;
+import static br.com.fiap.fase4mspagamento.gateway.database.routing.ReadYourWritesRouter.idKey;
+import static br.com.fiap.fase4mspagamento.gateway.database.routing.ReadYourWritesRouter.orderKey;
+
 @Component
 public class PaymentJpaGateway implements PaymentGateway {
+    // Tentativas por pedido são poucas (limitadas pela análise de risco); o teto só protege a resposta
+    private static final int ORDER_HISTORY_LIMIT = 50;
+
     private final PaymentRepository paymentRepository;
+    private final PaymentArchiveGateway paymentArchiveGateway;
+    private final PaymentEventGateway paymentEventGateway;
+    private final ReadYourWritesRouter readRouter;
+    private final KnownExternalIdFilter knownExternalIds;
 
-    public PaymentJpaGateway(PaymentRepository paymentRepository) {
+    public PaymentJpaGateway(
+            PaymentRepository paymentRepository,
+            PaymentArchiveGateway paymentArchiveGateway,
+            PaymentEventGateway paymentEventGateway,
+            ReadYourWritesRouter readRouter,
+            KnownExternalIdFilter knownExternalIds) {
         this.paymentRepository = paymentRepository;
+        this.paymentArchiveGateway = paymentArchiveGateway;
+        this.paymentEventGateway = paymentEventGateway;
+        this.readRouter = readRouter;
+        this.knownExternalIds = knownExternalIds;
     }
 
+    /**
+     * Pagamentos novos são inseridos via persist; pagamentos existentes só mudam status,
+     * mensagem, updatedAt e o transactionId do provedor, então são atualizados direto com
+     * checagem de versão otimista.
+     * Cada gravação também anexa um evento em payment_events, na mesma transação
+     */
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PAYMENTS_BY_ORDER, key = "#payment.orderId")
     public Payment save(Payment payment) {
-        PaymentEntity entity = new PaymentEntity(payment);
-        PaymentEntity savedEntity = paymentRepository.save(entity);
-        return savedEntity.toDomain();
+        Payment saved;
+        if (payment.getId() == null) {
+            saved = paymentRepository.save(new PaymentEntity(payment)).toDomain();
+            knownExternalIds.register(saved.getExternalId());
+        } else {
+            saved = update(payment);
+        }
+        paymentEventGateway.append(PaymentEvent.of(saved));
+        readRouter.recordWrite(idKey(saved.getId()), externalIdKey(saved.getExternalId()), orderKey(saved.getOrderId()));
+        return saved;
+    }
+
+    /**
+     * Muda o status só se a linha ainda estiver em current.getStatus(); vazio quando outra
+     * transição chegou antes. Não valida a tabela de transições (responsabilidade do caso de uso)
+     */
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PAYMENTS_BY_ORDER, key = "#current.orderId")
+    public Optional<Payment> compareAndSetStatus(Payment current, PaymentStatus target, String message) {
+        int updated = paymentRepository.compareAndSetStatus(
+                current.getId(), current.getCreatedAt(), current.getStatus(), target, message, LocalDateTime.now());
+        if (updated == 0) {
+            return Optional.empty();
+        }
+        Payment saved = paymentRepository.findByIdAndCreatedAt(current.getId(), current.getCreatedAt())
+                .map(PaymentEntity::toDomain)
+                .orElseThrow(() -> new IllegalStateException("Pagamento " + current.getId() + " sumiu após a transição"));
+        paymentEventGateway.append(PaymentEvent.of(saved));
+        readRouter.recordWrite(idKey(saved.getId()), externalIdKey(saved.getExternalId()), orderKey(saved.getOrderId()));
+        return Optional.of(saved);
+    }
+
+    private Payment update(Payment payment) {
+        if (payment.getVersion() == null) {
+            throw new IllegalArgumentException("Pagamento " + payment.getId() + " sem versão não pode ser atualizado");
+        }
+        int updated = paymentRepository.updateStatus(
+                payment.getId(),
+                payment.getCreatedAt(),
+                payment.getVersion(),
+                payment.getStatus(),
+                payment.getMessage(),
+                payment.getUpdatedAt(),
+                payment.getProviderTransactionId());
+        if (updated == 0) {
+            throw new ObjectOptimisticLockingFailureException(PaymentEntity.class, payment.getId());
+        }
+        return new Payment(
+                payment.getId(),
+                payment.getExternalId(),
+                payment.getAmount(),
+                payment.getCreditCardNumber(),
+                payment.getCardToken(),
+                payment.getCardLastFour(),
+                payment.getOrderId(),
+                payment.getCallbackUrl(),
+                payment.getStatus(),
+                payment.getMessage(),
+                payment.getCreatedAt(),
+                payment.getUpdatedAt(),
+                payment.getVersion() + 1,
+                payment.getProviderTransactionId()
+        );
     }
 
     @Override
     public Optional<Payment> findById(Long id) {
-        return paymentRepository.findById(id)
+        return readRouter.read(idKey(id), () -> paymentRepository.findById(id))
                 .map(PaymentEntity::toDomain);
     }
 
+    /**
+     * Pagamentos finalizados antigos saem da tabela quente; se o banco não encontrar, consulta o arquivo.
+     * Ids arquivados não estão em payment_external_ids, então o filtro do banco não os conhece: o
+     * arquivo responde com o próprio filtro de pertinência, em memória, para ids que nunca arquivou
+     */
     @Override
     public Optional<Payment> findByExternalId(String externalId) {
-        return paymentRepository.findByExternalId(externalId)
-                .map(PaymentEntity::toDomain);
+        return knownExternalIds.lookup(externalId,
+                        () -> readRouter.read(externalIdKey(externalId), () -> paymentRepository.findByExternalId(externalId)))
+                .map(PaymentEntity::toDomain)
+                .or(() -> paymentArchiveGateway.findByExternalId(externalId));
+    }
+
+    @Override
+    public Optional<PaymentView> findViewById(Long id) {
+        return readRouter.read(idKey(id), () -> paymentRepository.findViewById(id));
+    }
+
+    @Override
+    public Optional<PaymentView> findViewByExternalId(String externalId) {
+        return knownExternalIds.lookup(externalId,
+                        () -> readRouter.read(externalIdKey(externalId), () -> paymentRepository.findViewByExternalId(externalId)))
+                .or(() -> paymentArchiveGateway.findByExternalId(externalId).map(PaymentView::of));
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.PAYMENTS_BY_ORDER, key = "#orderId")
+    public List<PaymentSummary> findSummariesByOrderId(String orderId) {
+        return List.copyOf(readRouter.readList(orderKey(orderId),
+                () -> paymentRepository.findSummariesByOrderId(orderId, Limit.of(ORDER_HISTORY_LIMIT))));
     }
 
     @Override
@@ -43,4 +174,4 @@ public class PaymentJpaGateway implements PaymentGateway {
                 .map(PaymentEntity::toDomain)
                 .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,28 @@
+package br.com.fiap.fase4mspagamento.gateway.database.jpa.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "card_vault")
+@Getter
+@Setter
+@NoArgsConstructor
+public class CardVaultEntity {
+    @Id
+    @Column(name = "token")
+    private String token;
+
+    @Column(name = "encrypted_card_number", nullable = false)
+    private byte[] encryptedCardNumber;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
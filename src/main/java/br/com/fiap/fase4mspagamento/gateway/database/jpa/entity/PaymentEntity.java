@@ -26,8 +26,11 @@ public class PaymentEntity {
     @Column(name = "amount", nullable = false)
     private BigDecimal amount;
 
-    @Column(name = "credit_card_number", nullable = false)
-    private String creditCardNumber;
+    @Column(name = "card_token")
+    private String cardToken;
+
+    @Column(name = "card_last_four")
+    private String cardLastFour;
 
     @Column(name = "order_id", nullable = false)
     private String orderId;
@@ -48,10 +51,23 @@ public class PaymentEntity {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Column(name = "provider_transaction_id")
+    private String providerTransactionId;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    // Preserva os timestamps definidos pelo domínio; só preenche quando ausentes
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
+        LocalDateTime now = LocalDateTime.now();
+        if (createdAt == null) {
+            createdAt = now;
+        }
+        if (updatedAt == null) {
+            updatedAt = now;
+        }
     }
 
     @PreUpdate
@@ -63,13 +79,16 @@ public class PaymentEntity {
         this.id = payment.getId();
         this.externalId = payment.getExternalId();
         this.amount = payment.getAmount();
-        this.creditCardNumber = payment.getCreditCardNumber();
+        this.cardToken = payment.getCardToken();
+        this.cardLastFour = payment.getCardLastFour();
         this.orderId = payment.getOrderId();
         this.callbackUrl = payment.getCallbackUrl();
         this.status = payment.getStatus();
         this.message = payment.getMessage();
         this.createdAt = payment.getCreatedAt();
         this.updatedAt = payment.getUpdatedAt();
+        this.version = payment.getVersion();
+        this.providerTransactionId = payment.getProviderTransactionId();
     }
 
     public Payment toDomain() {
@@ -77,13 +96,17 @@ public class PaymentEntity {
                 this.id,
                 this.externalId,
                 this.amount,
-                this.creditCardNumber,
+                null,
+                this.cardToken,
+                this.cardLastFour,
                 this.orderId,
                 this.callbackUrl,
                 this.status,
                 this.message,
                 this.createdAt,
-                this.updatedAt
+                this.updatedAt,
+                this.version,
+                this.providerTransactionId
         );
     }
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package br.com.fiap.fase4mspagamento.gateway.database.jpa.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lookup global externalId -> (id, created_at) de payments, mantido por trigger no banco.
+ * Mapeado só para permitir joins em JPQL; a aplicação nunca escreve nesta tabela.
+ */
+@Entity
+@Immutable
+@Table(name = "payment_external_ids")
+@Getter
+@NoArgsConstructor
+public class PaymentExternalIdEntity {
+    @Id
+    @Column(name = "external_id")
+    private String externalId;
+
+    @Column(name = "payment_id", nullable = false)
+    private Long paymentId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
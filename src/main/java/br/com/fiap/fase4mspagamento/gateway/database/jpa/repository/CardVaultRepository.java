@@ -0,0 +1,20 @@
+package br.com.fiap.fase4mspagamento.gateway.database.jpa.repository;
+
+import br.com.fiap.fase4mspagamento.gateway.database.jpa.entity.CardVaultEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface CardVaultRepository extends JpaRepository<CardVaultEntity, String> {
+
+    // O token é determinístico: o mesmo cartão sempre gera a mesma linha, sem SELECT prévio
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO card_vault (token, encrypted_card_number, created_at) "
+            + "VALUES (:token, :encrypted, now()) ON CONFLICT (token) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("token") String token, @Param("encrypted") byte[] encryptedCardNumber);
+}
@@ -1,12 +1,78 @@
 package br.com.fiap.fase4mspagamento.gateway.database.jpa.repository;
 
 import br.com.fiap.fase4mspagamento.gateway.database.jpa.entity.PaymentEntity;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentStatus;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentSummary;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentView;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
+// Consultas em transação readOnly: com réplica configurada são roteadas para ela
 @Repository
+@Transactional(readOnly = true)
 public interface PaymentRepository extends JpaRepository<PaymentEntity, Long> {
-    Optional<PaymentEntity> findByExternalId(String externalId);
+    // Passa pelo lookup global para chegar direto à partição certa (id + created_at)
+    @Query(value = "SELECT p.* FROM payment_external_ids x "
+            + "JOIN payments p ON p.id = x.payment_id AND p.created_at = x.created_at "
+            + "WHERE x.external_id = :externalId", nativeQuery = true)
+    Optional<PaymentEntity> findByExternalId(@Param("externalId") String externalId);
+
+    // Projeções de leitura: só as colunas da resposta, sem entidade gerenciada nem snapshot de dirty-checking
+    @Query("SELECT new br.com.fiap.fase4mspagamento.domain.entity.PaymentView("
+            + "p.id, p.externalId, p.amount, p.status, p.message, p.orderId, p.createdAt, p.updatedAt) "
+            + "FROM PaymentEntity p WHERE p.id = :id")
+    Optional<PaymentView> findViewById(@Param("id") Long id);
+
+    @Query("SELECT new br.com.fiap.fase4mspagamento.domain.entity.PaymentView("
+            + "p.id, p.externalId, p.amount, p.status, p.message, p.orderId, p.createdAt, p.updatedAt) "
+            + "FROM PaymentExternalIdEntity x JOIN PaymentEntity p ON p.id = x.paymentId AND p.createdAt = x.createdAt "
+            + "WHERE x.externalId = :externalId")
+    Optional<PaymentView> findViewByExternalId(@Param("externalId") String externalId);
+
+    // Só colunas de idx_payments_order_id_created_at: index-only scan, sem hidratar a entidade
+    @Query("SELECT new br.com.fiap.fase4mspagamento.domain.entity.PaymentSummary("
+            + "p.id, p.externalId, p.amount, p.status, p.orderId, p.createdAt, p.updatedAt) "
+            + "FROM PaymentEntity p WHERE p.orderId = :orderId ORDER BY p.createdAt DESC")
+    List<PaymentSummary> findSummariesByOrderId(@Param("orderId") String orderId, Limit limit);
+
+    // Busca com a chave de partição: vai direto à partição do mês
+    Optional<PaymentEntity> findByIdAndCreatedAt(Long id, LocalDateTime createdAt);
+
+    // Update direto com checagem de versão: evita o SELECT do merge e detecta escritas concorrentes.
+    // created_at é a chave de partição: sem ele o planner consulta todas as partições mensais.
+    // O transactionId do provedor só é gravado quando informado, nunca apagado
+    @Modifying
+    @Transactional
+    @Query("UPDATE PaymentEntity p SET p.status = :status, p.message = :message, p.updatedAt = :updatedAt, "
+            + "p.providerTransactionId = COALESCE(:providerTransactionId, p.providerTransactionId), "
+            + "p.version = p.version + 1 WHERE p.id = :id AND p.createdAt = :createdAt AND p.version = :version")
+    int updateStatus(@Param("id") Long id,
+                     @Param("createdAt") LocalDateTime createdAt,
+                     @Param("version") Long version,
+                     @Param("status") PaymentStatus status,
+                     @Param("message") String message,
+                     @Param("updatedAt") LocalDateTime updatedAt,
+                     @Param("providerTransactionId") String providerTransactionId);
+
+    // Compare-and-set pelo status: só uma de várias transições concorrentes a partir do mesmo estado vence.
+    // Limpa o contexto de persistência para que a releitura veja a linha nova
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE PaymentEntity p SET p.status = :target, p.message = :message, p.updatedAt = :updatedAt, "
+            + "p.version = p.version + 1 WHERE p.id = :id AND p.createdAt = :createdAt AND p.status = :expected")
+    int compareAndSetStatus(@Param("id") Long id,
+                            @Param("createdAt") LocalDateTime createdAt,
+                            @Param("expected") PaymentStatus expected,
+                            @Param("target") PaymentStatus target,
+                            @Param("message") String message,
+                            @Param("updatedAt") LocalDateTime updatedAt);
 }
\ No newline at end of file
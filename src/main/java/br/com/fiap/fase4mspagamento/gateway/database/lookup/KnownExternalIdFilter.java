@@ -0,0 +1,266 @@
+package br.com.fiap.fase4mspagamento.gateway.database.lookup;
+
+import br.com.fiap.fase4mspagamento.config.LookupProperties;
+import br.com.fiap.fase4mspagamento.domain.hash.BloomFilter;
+import br.com.fiap.fase4mspagamento.domain.id.TimeOrderedIdGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Filtro de Bloom dos externalIds existentes em payment_external_ids, para responder em memória
+ * as consultas de ids que não existem (clientes correndo na frente da criação, varreduras).
+ * Reconstruído na subida e sincronizado incrementalmente por created_at; inserções desta instância
+ * entram na hora. Inserções de outras instâncias ainda não sincronizadas não estão no filtro, então
+ * o "não existe" só é respondido em memória para ids cujo UUIDv7 é anterior ao watermark menos o
+ * syncOverlap; ids mais novos, ou sem instante embutido (payment.ids.strategy=random, formatos
+ * antigos), vão ao banco. Se a sincronização atrasar mais que maxStaleness o filtro é ignorado e
+ * tudo vai ao banco.
+ */
+@Component
+@EnableConfigurationProperties(LookupProperties.class)
+public class KnownExternalIdFilter {
+    private static final Logger logger = LoggerFactory.getLogger(KnownExternalIdFilter.class);
+    private static final int PAGE_SIZE = 10_000;
+    private static final int UUID_LENGTH = 36;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LookupProperties properties;
+    private final Clock clock;
+
+    private volatile BloomFilter filter;
+    // Filtro em construção: recebe também as inserções locais para não perdê-las na troca
+    private volatile BloomFilter building;
+    private volatile LocalDateTime watermark;
+    private volatile Instant lastSync = Instant.EPOCH;
+
+    private final Counter rejected;
+    private final Counter found;
+    private final Counter falsePositives;
+    private final Counter bypassed;
+    private final Counter recent;
+
+    @Autowired
+    public KnownExternalIdFilter(JdbcTemplate jdbcTemplate, LookupProperties properties, MeterRegistry meterRegistry) {
+        // Mesmo fuso de LocalDateTime.now(), com que created_at (e portanto o watermark) é gravado
+        this(jdbcTemplate, properties, meterRegistry, Clock.systemDefaultZone());
+    }
+
+    KnownExternalIdFilter(JdbcTemplate jdbcTemplate, LookupProperties properties, MeterRegistry meterRegistry, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.clock = clock;
+        this.rejected = lookupCounter(meterRegistry, "rejected");
+        this.found = lookupCounter(meterRegistry, "found");
+        this.falsePositives = lookupCounter(meterRegistry, "false_positive");
+        this.bypassed = lookupCounter(meterRegistry, "bypassed");
+        this.recent = lookupCounter(meterRegistry, "recent");
+
+        Gauge.builder("payment.lookup.filter.entries", this, f -> f.filter == null ? 0 : f.filter.insertions())
+                .register(meterRegistry);
+        Gauge.builder("payment.lookup.filter.expected_fpp", this,
+                        f -> f.filter == null ? 0 : f.filter.expectedFalsePositiveRate())
+                .register(meterRegistry);
+        // Taxa observada entre as consultas de ids inexistentes que chegaram a passar pelo filtro
+        Gauge.builder("payment.lookup.filter.observed_fpp", this, KnownExternalIdFilter::observedFalsePositiveRate)
+                .register(meterRegistry);
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("payment.lookup.external_id")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Executa a consulta só se o id pode existir; vazio direto quando o filtro garante que não existe
+     */
+    public <T> Optional<T> lookup(String externalId, Supplier<Optional<T>> query) {
+        if (!isTrusted()) {
+            bypassed.increment();
+            return query.get();
+        }
+        if (!filter.mightContain(externalId)) {
+            if (!isOlderThanSynced(externalId)) {
+                // Pode ter sido criado por outra instância depois da última sincronização
+                recent.increment();
+                return query.get();
+            }
+            rejected.increment();
+            return Optional.empty();
+        }
+        Optional<T> result = query.get();
+        (result.isPresent() ? found : falsePositives).increment();
+        return result;
+    }
+
+    /**
+     * Registra um externalId recém-inserido. Se a transação for desfeita, o bit sobra e vira
+     * no máximo um falso positivo
+     */
+    public void register(String externalId) {
+        if (externalId == null) {
+            return;
+        }
+        BloomFilter current = filter;
+        if (current != null) {
+            current.add(externalId);
+        }
+        BloomFilter next = building;
+        if (next != null) {
+            next.add(externalId);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            Long existing = jdbcTemplate.queryForObject("SELECT count(*) FROM payment_external_ids", Long.class);
+            long expected = Math.max(properties.getExpectedInsertions(), existing == null ? 0 : existing * 2);
+            Instant startedAt = clock.instant();
+            BloomFilter next = new BloomFilter(expected, properties.getFalsePositiveRate());
+            building = next;
+            LocalDateTime loadedUpTo = loadAll(next);
+
+            filter = next;
+            building = null;
+            watermark = loadedUpTo;
+            lastSync = startedAt;
+            logger.info("Filtro de externalIds reconstruído com {} ids (capacidade {})", next.insertions(), expected);
+        } catch (Exception e) {
+            building = null;
+            logger.error("Falha ao reconstruir o filtro de externalIds; consultas seguem direto no banco", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${payment.lookup.sync-interval:1s}")
+    public void sync() {
+        BloomFilter current = filter;
+        if (!properties.isEnabled() || current == null) {
+            return;
+        }
+        if (current.insertions() > current.capacity()) {
+            rebuild();
+            return;
+        }
+        try {
+            Instant startedAt = clock.instant();
+            LocalDateTime loadedUpTo = watermark == null
+                    ? loadAll(current)
+                    : loadSince(current, watermark.minus(properties.getSyncOverlap()));
+            if (loadedUpTo != null && (watermark == null || loadedUpTo.isAfter(watermark))) {
+                watermark = loadedUpTo;
+            }
+            lastSync = startedAt;
+        } catch (Exception e) {
+            logger.warn("Falha ao sincronizar o filtro de externalIds: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Carga completa paginada pela PK (keyset), sem manter o resultado inteiro em memória.
+     * Devolve o maior created_at lido: o watermark vem dos dados, não do relógio da instância
+     */
+    private LocalDateTime loadAll(BloomFilter target) {
+        LocalDateTime[] max = {null};
+        String last = "";
+        int read;
+        do {
+            String[] lastInPage = {null};
+            int[] count = {0};
+            jdbcTemplate.query(
+                    "SELECT external_id, created_at FROM payment_external_ids "
+                            + "WHERE external_id > ? ORDER BY external_id LIMIT ?",
+                    rs -> {
+                        lastInPage[0] = rs.getString(1);
+                        count[0]++;
+                        max[0] = later(max[0], add(target, rs));
+                    },
+                    last, PAGE_SIZE);
+            read = count[0];
+            last = lastInPage[0];
+        } while (read == PAGE_SIZE);
+        return max[0];
+    }
+
+    private LocalDateTime loadSince(BloomFilter target, LocalDateTime since) {
+        LocalDateTime[] max = {null};
+        jdbcTemplate.query(
+                "SELECT external_id, created_at FROM payment_external_ids WHERE created_at > ?",
+                rs -> {
+                    max[0] = later(max[0], add(target, rs));
+                },
+                since);
+        return max[0];
+    }
+
+    private static LocalDateTime add(BloomFilter target, ResultSet rs) throws SQLException {
+        target.add(rs.getString(1));
+        return rs.getTimestamp(2).toLocalDateTime();
+    }
+
+    private static LocalDateTime later(LocalDateTime a, LocalDateTime b) {
+        return a == null || b.isAfter(a) ? b : a;
+    }
+
+    /**
+     * Verdadeiro só quando o id embute um UUIDv7 (TimeOrderedIdGenerator) gerado antes do trecho já
+     * garantidamente sincronizado. Sem UUIDv7 não há como saber quando o id foi criado: pode ter sido
+     * inserido agora por outra instância com RandomIdGenerator, então a falta no filtro não prova nada
+     */
+    private boolean isOlderThanSynced(String externalId) {
+        LocalDateTime synced = watermark;
+        if (synced == null) {
+            return false;
+        }
+        UUID id = embeddedId(externalId);
+        if (id == null || id.version() != 7) {
+            return false;
+        }
+        Instant cutoff = synced.minus(properties.getSyncOverlap()).atZone(clock.getZone()).toInstant();
+        return TimeOrderedIdGenerator.timestampOf(id) < cutoff.toEpochMilli();
+    }
+
+    private static UUID embeddedId(String externalId) {
+        if (externalId.length() < UUID_LENGTH) {
+            return null;
+        }
+        try {
+            return UUID.fromString(externalId.substring(externalId.length() - UUID_LENGTH));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    boolean isTrusted() {
+        return properties.isEnabled()
+                && filter != null
+                && clock.instant().isBefore(lastSync.plus(properties.getMaxStaleness()));
+    }
+
+    double observedFalsePositiveRate() {
+        double misses = falsePositives.count() + rejected.count();
+        return misses == 0 ? 0 : falsePositives.count() / misses;
+    }
+}
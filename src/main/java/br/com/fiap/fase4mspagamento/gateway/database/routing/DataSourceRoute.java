@@ -0,0 +1,6 @@
+package br.com.fiap.fase4mspagamento.gateway.database.routing;
+
+public enum DataSourceRoute {
+    PRIMARY,
+    REPLICA
+}
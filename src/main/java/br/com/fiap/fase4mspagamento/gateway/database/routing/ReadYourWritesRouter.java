@@ -0,0 +1,90 @@
+package br.com.fiap.fase4mspagamento.gateway.database.routing;
+
+import br.com.fiap.fase4mspagamento.config.ReplicaProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Garante read-your-writes com réplica assíncrona: chaves escritas por esta instância há pouco
+ * são lidas do primário, e um "não encontrado" na réplica é confirmado no primário
+ * (cobre escritas recentes de outras instâncias). Sem réplica configurada, só executa a leitura.
+ */
+@Component
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReadYourWritesRouter {
+    private final boolean replicaEnabled;
+    private final Cache<String, Boolean> recentWrites;
+    private final Counter recentWriteReads;
+    private final Counter missFallbacks;
+
+    public ReadYourWritesRouter(ReplicaProperties properties, MeterRegistry meterRegistry) {
+        this.replicaEnabled = properties.isEnabled();
+        this.recentWrites = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getReadYourWritesWindow())
+                .maximumSize(100_000)
+                .build();
+        this.recentWriteReads = Counter.builder("payment.datasource.primary.reads")
+                .tag("reason", "recent_write")
+                .register(meterRegistry);
+        this.missFallbacks = Counter.builder("payment.datasource.primary.reads")
+                .tag("reason", "replica_miss")
+                .register(meterRegistry);
+    }
+
+    public static String idKey(Long paymentId) {
+        return "id:" + paymentId;
+    }
+
+    public static String externalIdKey(String externalId) {
+        return "ext:" + externalId;
+    }
+
+    public static String orderKey(String orderId) {
+        return "order:" + orderId;
+    }
+
+    public void recordWrite(String... keys) {
+        if (!replicaEnabled) {
+            return;
+        }
+        for (String key : keys) {
+            if (key != null) {
+                recentWrites.put(key, Boolean.TRUE);
+            }
+        }
+    }
+
+    public <T> Optional<T> read(String key, Supplier<Optional<T>> query) {
+        if (!replicaEnabled) {
+            return query.get();
+        }
+        if (key != null && recentWrites.getIfPresent(key) != null) {
+            recentWriteReads.increment();
+            return ReplicaRoutingDataSource.onPrimary(query);
+        }
+        Optional<T> result = query.get();
+        if (result.isEmpty()) {
+            missFallbacks.increment();
+            return ReplicaRoutingDataSource.onPrimary(query);
+        }
+        return result;
+    }
+
+    /**
+     * Leituras de lista não têm "não encontrado" confiável; só respeitam a janela de escrita recente
+     */
+    public <T> T readList(String key, Supplier<T> query) {
+        if (replicaEnabled && key != null && recentWrites.getIfPresent(key) != null) {
+            recentWriteReads.increment();
+            return ReplicaRoutingDataSource.onPrimary(query);
+        }
+        return query.get();
+    }
+}
@@ -0,0 +1,72 @@
+package br.com.fiap.fase4mspagamento.gateway.database.routing;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Mede periodicamente o atraso de replay da réplica. Enquanto a medição falhar, o atraso passar
+ * de maxLag ou a última medição for mais velha que maxAge (o job agendado não rodou), a réplica é
+ * considerada fora da tolerância e as leituras vão ao primário.
+ */
+public class ReplicaLagMonitor {
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    // Réplica em dia (LSN recebido == LSN aplicado) conta como atraso zero, mesmo com primário ocioso
+    private static final String LAG_QUERY = "SELECT CASE "
+            + "WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final double maxLagSeconds;
+    private final Duration maxAge;
+    private final Clock clock;
+    private volatile double lagSeconds = Double.NaN;
+    private volatile Instant measuredAt = Instant.MIN;
+
+    public ReplicaLagMonitor(JdbcTemplate replicaJdbcTemplate, Duration maxLag, Duration maxAge, MeterRegistry meterRegistry) {
+        this(replicaJdbcTemplate, maxLag, maxAge, meterRegistry, Clock.systemUTC());
+    }
+
+    ReplicaLagMonitor(JdbcTemplate replicaJdbcTemplate, Duration maxLag, Duration maxAge, MeterRegistry meterRegistry,
+                      Clock clock) {
+        this.replicaJdbcTemplate = replicaJdbcTemplate;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        this.maxAge = maxAge;
+        this.clock = clock;
+        Gauge.builder("payment.datasource.replica.lag", this, monitor -> monitor.lagSeconds)
+                .description("Atraso de replay da réplica de leitura")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${payment.datasource.replica.lag-check-interval:PT5S}")
+    public void check() {
+        boolean wasWithinTolerance = isWithinTolerance();
+        try {
+            Double lag = replicaJdbcTemplate.queryForObject(LAG_QUERY, Double.class);
+            lagSeconds = lag == null ? Double.NaN : lag;
+            measuredAt = clock.instant();
+        } catch (Exception e) {
+            lagSeconds = Double.NaN;
+            logger.warn("Não foi possível medir o atraso da réplica: {}", e.getMessage());
+        }
+        if (wasWithinTolerance != isWithinTolerance()) {
+            logger.info("Réplica de leitura {} (atraso {}s)",
+                    isWithinTolerance() ? "liberada" : "suspensa", lagSeconds);
+        }
+    }
+
+    public boolean isWithinTolerance() {
+        double lag = lagSeconds;
+        return !Double.isNaN(lag) && lag <= maxLagSeconds
+                && !clock.instant().isAfter(measuredAt.plus(maxAge));
+    }
+}
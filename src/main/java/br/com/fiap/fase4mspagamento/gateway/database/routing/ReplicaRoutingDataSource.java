@@ -0,0 +1,44 @@
+package br.com.fiap.fase4mspagamento.gateway.database.routing;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Envia transações readOnly para a réplica enquanto o atraso estiver dentro da tolerância.
+ * Precisa ficar atrás de um LazyConnectionDataSourceProxy: a conexão física só é pedida no
+ * primeiro comando, quando a flag readOnly da transação já foi registrada.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = ThreadLocal.withInitial(() -> false);
+
+    private final ReplicaLagMonitor lagMonitor;
+
+    public ReplicaRoutingDataSource(ReplicaLagMonitor lagMonitor) {
+        this.lagMonitor = lagMonitor;
+    }
+
+    /**
+     * Executa a leitura no primário mesmo dentro de uma transação readOnly (read-your-writes)
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        boolean previous = FORCE_PRIMARY.get();
+        FORCE_PRIMARY.set(true);
+        try {
+            return action.get();
+        } finally {
+            FORCE_PRIMARY.set(previous);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (FORCE_PRIMARY.get()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || !lagMonitor.isWithinTolerance()) {
+            return DataSourceRoute.PRIMARY;
+        }
+        return DataSourceRoute.REPLICA;
+    }
+}
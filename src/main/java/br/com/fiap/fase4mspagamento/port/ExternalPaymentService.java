@@ -5,4 +5,7 @@ import br.com.fiap.fase4mspagamento.domain.entity.Payment;
 public interface ExternalPaymentService {
     String processPayment(Payment payment);
     String checkStatus(String transactionId);
+    String refundPayment(Payment payment);
+    // Anula uma transação ainda não decidida; lança exceção se o provedor não confirmar a anulação
+    void cancelPayment(String transactionId);
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package br.com.fiap.fase4mspagamento.port;
+
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentEventMessage;
+
+import java.util.List;
+
+/**
+ * Transporte de eventos de pagamento, no formato de um producer Kafka/RabbitMQ: cada mensagem
+ * vai para a partição da sua chave (orderId), a ordem dentro da chave é preservada e o retorno
+ * de publish significa lote durável. Falha lança exceção e o lote é reenviado (at-least-once;
+ * consumidores deduplicam por eventId)
+ */
+public interface PaymentEventTransport {
+    String name();
+
+    void publish(List<PaymentEventMessage> batch);
+}
@@ -0,0 +1,9 @@
+package br.com.fiap.fase4mspagamento.port;
+
+/**
+ * Adapter de um provedor concreto; o ExternalPaymentService injetado nos casos de uso
+ * é o roteador que escolhe entre os provedores registrados
+ */
+public interface PaymentProvider extends ExternalPaymentService {
+    String name();
+}
@@ -0,0 +1,105 @@
+package br.com.fiap.fase4mspagamento.service;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Primitivas criptográficas do cofre de cartões: token determinístico (HMAC-SHA256)
+ * e cifragem do número do cartão (AES-256-GCM, IV aleatório prefixado ao texto cifrado)
+ */
+public class CardCipher {
+    private static final String TOKEN_PREFIX = "tok_";
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH_BITS = 128;
+
+    private final SecretKeySpec encryptionKey;
+    private final SecretKeySpec tokenKey;
+    private final SecureRandom random = new SecureRandom();
+
+    public CardCipher(String base64EncryptionKey, String base64TokenKey) {
+        this(base64EncryptionKey, base64TokenKey, false);
+    }
+
+    // placeholderAllowed só é verdadeiro no treino do CDS, que sobe o contexto com chaves de zeros e encerra no refresh
+    public CardCipher(String base64EncryptionKey, String base64TokenKey, boolean placeholderAllowed) {
+        this.encryptionKey = new SecretKeySpec(decodeKey(base64EncryptionKey, placeholderAllowed), "AES");
+        this.tokenKey = new SecretKeySpec(decodeKey(base64TokenKey, placeholderAllowed), "HmacSHA256");
+    }
+
+    public String token(String cardNumber) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(tokenKey);
+            byte[] digest = mac.doFinal(cardNumber.getBytes(StandardCharsets.US_ASCII));
+            return TOKEN_PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Falha ao gerar token do cartão", e);
+        }
+    }
+
+    public byte[] encrypt(String cardNumber) {
+        try {
+            byte[] iv = new byte[IV_LENGTH];
+            random.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, encryptionKey, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+            byte[] encrypted = cipher.doFinal(cardNumber.getBytes(StandardCharsets.US_ASCII));
+            return ByteBuffer.allocate(IV_LENGTH + encrypted.length).put(iv).put(encrypted).array();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Falha ao cifrar número do cartão", e);
+        }
+    }
+
+    public String decrypt(byte[] payload) {
+        try {
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.DECRYPT_MODE, encryptionKey, new GCMParameterSpec(TAG_LENGTH_BITS, payload, 0, IV_LENGTH));
+            byte[] decrypted = cipher.doFinal(payload, IV_LENGTH, payload.length - IV_LENGTH);
+            return new String(decrypted, StandardCharsets.US_ASCII);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Falha ao decifrar número do cartão", e);
+        }
+    }
+
+    public static String lastFour(String cardNumber) {
+        if (cardNumber == null || cardNumber.length() < 4) {
+            return cardNumber;
+        }
+        return cardNumber.substring(cardNumber.length() - 4);
+    }
+
+    private static byte[] decodeKey(String base64Key, boolean placeholderAllowed) {
+        if (base64Key == null || base64Key.isBlank()) {
+            throw new IllegalStateException("Chave do cofre de cartões não configurada");
+        }
+        byte[] key;
+        try {
+            key = Base64.getDecoder().decode(base64Key);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Chave do cofre de cartões não está em Base64", e);
+        }
+        if (key.length != 32) {
+            throw new IllegalStateException("Chave do cofre de cartões deve ter 32 bytes");
+        }
+        if (!placeholderAllowed && isPlaceholder(key)) {
+            throw new IllegalStateException("Chave do cofre de cartões é o placeholder de zeros do treino do CDS");
+        }
+        return key;
+    }
+
+    private static boolean isPlaceholder(byte[] key) {
+        for (byte b : key) {
+            if (b != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,94 @@
+package br.com.fiap.fase4mspagamento.service;
+
+import br.com.fiap.fase4mspagamento.config.VaultProperties;
+import br.com.fiap.fase4mspagamento.gateway.CardVaultGateway;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+/**
+ * Cofre de cartões: o número do cartão fica cifrado na tabela card_vault e o pagamento
+ * guarda apenas o token e os 4 últimos dígitos. A detokenização é cacheada para que a
+ * chamada ao provedor, logo após a criação, não precise ir ao banco. O bean não é lazy para que
+ * a falta das chaves (payment.vault.*) derrube a aplicação no boot, mesmo no perfil fast-startup.
+ */
+@Service
+@Lazy(false)
+@EnableConfigurationProperties(VaultProperties.class)
+public class CardTokenizationService {
+    private static final Logger logger = LoggerFactory.getLogger(CardTokenizationService.class);
+
+    private final CardVaultGateway cardVaultGateway;
+    private final CardCipher cardCipher;
+    private final Cache<String, String> detokenizationCache;
+    private final Cache<String, Boolean> vaultedTokens;
+
+    @Autowired
+    public CardTokenizationService(CardVaultGateway cardVaultGateway, VaultProperties properties) {
+        this(cardVaultGateway, new CardCipher(properties.getEncryptionKey(), properties.getTokenKey(),
+                properties.isCdsTraining()), properties);
+    }
+
+    CardTokenizationService(CardVaultGateway cardVaultGateway, CardCipher cardCipher, VaultProperties properties) {
+        this.cardVaultGateway = cardVaultGateway;
+        this.cardCipher = cardCipher;
+        this.detokenizationCache = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheSize())
+                .expireAfterWrite(properties.getCacheTtl())
+                .build();
+        this.vaultedTokens = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheSize())
+                .expireAfterWrite(properties.getCacheTtl())
+                .build();
+    }
+
+    public String tokenize(String cardNumber) {
+        String token = cardCipher.token(cardNumber);
+
+        // Se o token está em vaultedTokens, o cartão já foi gravado no cofre por esta instância
+        if (vaultedTokens.getIfPresent(token) == null) {
+            cardVaultGateway.saveIfAbsent(token, cardCipher.encrypt(cardNumber));
+            afterCommit(() -> vaultedTokens.put(token, Boolean.TRUE));
+        }
+        detokenizationCache.put(token, cardNumber);
+        return token;
+    }
+
+    public Optional<String> detokenize(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        String cardNumber = detokenizationCache.get(token, this::loadFromVault);
+        return Optional.ofNullable(cardNumber);
+    }
+
+    // Num rollback o insert no cofre é desfeito; o token só é dado como gravado depois do commit
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private String loadFromVault(String token) {
+        logger.debug("Token {} não está em cache, consultando o cofre", token);
+        return cardVaultGateway.findEncryptedCardNumber(token)
+                .map(cardCipher::decrypt)
+                .orElse(null);
+    }
+}
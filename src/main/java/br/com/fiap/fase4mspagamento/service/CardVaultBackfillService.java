@@ -0,0 +1,76 @@
+package br.com.fiap.fase4mspagamento.service;
+
+import br.com.fiap.fase4mspagamento.config.VaultProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Migra para o cofre os cartões de pagamentos gravados antes da tokenização,
+ * removendo o número do cartão da tabela payments em lotes
+ */
+@Service
+public class CardVaultBackfillService {
+    private static final Logger logger = LoggerFactory.getLogger(CardVaultBackfillService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CardTokenizationService cardTokenizationService;
+    private final VaultProperties properties;
+
+    public CardVaultBackfillService(
+            JdbcTemplate jdbcTemplate,
+            CardTokenizationService cardTokenizationService,
+            VaultProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cardTokenizationService = cardTokenizationService;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!properties.isBackfillEnabled()) {
+            return;
+        }
+        int total = 0;
+        int migrated;
+        do {
+            migrated = migrateBatch();
+            total += migrated;
+        } while (migrated == properties.getBackfillBatchSize());
+
+        if (total > 0) {
+            logger.info("Cofre de cartões: {} pagamentos legados tokenizados", total);
+        }
+    }
+
+    int migrateBatch() {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT id, credit_card_number FROM payments "
+                        + "WHERE card_token IS NULL AND credit_card_number IS NOT NULL LIMIT ?",
+                properties.getBackfillBatchSize());
+
+        List<Object[]> updates = rows.stream()
+                .map(row -> {
+                    String cardNumber = (String) row.get("credit_card_number");
+                    return new Object[]{
+                            cardTokenizationService.tokenize(cardNumber),
+                            CardCipher.lastFour(cardNumber),
+                            row.get("id")
+                    };
+                })
+                .toList();
+
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "UPDATE payments SET card_token = ?, card_last_four = ?, credit_card_number = NULL WHERE id = ?",
+                    updates);
+        }
+        return updates.size();
+    }
+}
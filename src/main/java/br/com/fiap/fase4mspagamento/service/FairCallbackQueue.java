@@ -0,0 +1,298 @@
+package br.com.fiap.fase4mspagamento.service;
+
+import br.com.fiap.fase4mspagamento.config.CallbackProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fila de callbacks com uma subfila limitada por host e deficit round robin entre os hosts com
+ * trabalho pendente: a cada volta um host envia até "peso" itens, desde que tenha token no seu
+ * bucket e esteja abaixo do limite de envios simultâneos. Um host com rajada enorme só ocupa a
+ * própria subfila; os demais continuam sendo atendidos a cada volta.
+ * <p>
+ * O host vem da callbackUrl informada pelo cliente, então nada por host é mantido para sempre:
+ * um host sem fila e sem envio em andamento é removido depois de hostIdleTimeout (nunca antes do
+ * bucket encher de novo, para que sair e voltar não renove a rajada). As métricas só levam o nome
+ * dos hosts configurados em weights; os demais são agregados em host=other.
+ */
+class FairCallbackQueue<T> {
+    // Sem host elegível e sem token a caminho (todos no limite de envios), reavalia a cada intervalo
+    private static final long MAX_WAIT_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final String OTHER_HOSTS = "other";
+
+    private final CallbackProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Map<String, HostQueue> hosts = new HashMap<>();
+    private final ArrayDeque<HostQueue> active = new ArrayDeque<>();
+    // Hosts que ficaram ociosos, na ordem em que ficaram; a remoção confere se continuam ociosos
+    private final ArrayDeque<IdleHost> idle = new ArrayDeque<>();
+    private final Map<String, HostMetrics> metrics = new HashMap<>();
+    private final long idleNanos;
+    private final Counter rejectedHosts;
+
+    FairCallbackQueue(CallbackProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        long refillNanos = (long) Math.ceil(properties.getBurst() / properties.getRatePerSecond() * 1e9);
+        this.idleNanos = Math.max(properties.getHostIdleTimeout().toNanos(), refillNanos);
+        this.rejectedHosts = Counter.builder("payment.callbacks.dropped")
+                .tag("host", OTHER_HOSTS)
+                .tag("reason", "too_many_hosts")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Enfileira sem bloquear; false quando a subfila do host está cheia
+     */
+    boolean offer(String host, T item, long nowNanos) {
+        lock.lock();
+        try {
+            evictIdle(nowNanos);
+            HostQueue queue = hosts.get(host);
+            if (queue == null) {
+                if (hosts.size() >= properties.getMaxHosts()) {
+                    rejectedHosts.increment();
+                    return false;
+                }
+                queue = new HostQueue(host, nowNanos);
+                hosts.put(host, queue);
+            }
+            if (queue.pending.size() >= properties.getQueueCapacityPerHost()) {
+                queue.metrics.dropped.increment();
+                return false;
+            }
+            queue.pending.addLast(new Pending<>(item, nowNanos));
+            queue.metrics.queued.incrementAndGet();
+            if (!queue.active) {
+                queue.active = true;
+                active.addLast(queue);
+            }
+            changed.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Próximo callback liberado agora, ou null se nenhum host pode enviar neste instante
+     */
+    Dispatch<T> poll(long nowNanos) {
+        lock.lock();
+        try {
+            for (int visited = 0, size = active.size(); visited < size; visited++) {
+                HostQueue queue = active.peekFirst();
+                if (queue.deficit <= 0) {
+                    queue.deficit += queue.weight;
+                }
+                if (queue.inFlight < properties.getMaxInFlightPerHost() && queue.bucket.tryAcquire(nowNanos)) {
+                    Pending<T> pending = queue.pending.pollFirst();
+                    queue.deficit--;
+                    queue.inFlight++;
+                    queue.metrics.queued.decrementAndGet();
+                    queue.metrics.lag.record(nowNanos - pending.enqueuedAt, TimeUnit.NANOSECONDS);
+                    if (queue.pending.isEmpty()) {
+                        active.pollFirst();
+                        queue.active = false;
+                        queue.deficit = 0;
+                    } else if (queue.deficit <= 0) {
+                        active.addLast(active.pollFirst());
+                    }
+                    return new Dispatch<>(queue.host, pending.item);
+                }
+                // Host sem token ou no limite perde a vez e o saldo da volta
+                queue.deficit = 0;
+                active.addLast(active.pollFirst());
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Bloqueia até algum host poder enviar
+     */
+    Dispatch<T> take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (true) {
+                long now = System.nanoTime();
+                Dispatch<T> next = poll(now);
+                if (next != null) {
+                    return next;
+                }
+                changed.awaitNanos(nanosUntilReady(now));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Fim de um envio: libera a vaga de envio simultâneo do host
+     */
+    void release(String host, long nowNanos) {
+        lock.lock();
+        try {
+            HostQueue queue = hosts.get(host);
+            if (queue != null && queue.inFlight > 0) {
+                queue.inFlight--;
+                if (queue.isIdle()) {
+                    queue.idleSince = nowNanos;
+                    idle.addLast(new IdleHost(queue, nowNanos));
+                }
+                changed.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int hosts() {
+        lock.lock();
+        try {
+            return hosts.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int pending() {
+        lock.lock();
+        try {
+            return hosts.values().stream().mapToInt(queue -> queue.pending.size()).sum();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evictIdle(long nowNanos) {
+        IdleHost head;
+        while ((head = idle.peekFirst()) != null && nowNanos - head.since >= idleNanos) {
+            idle.pollFirst();
+            HostQueue queue = head.queue;
+            // Entrada antiga de um host que voltou a ter trabalho (ou já saiu) é só descartada
+            if (queue.isIdle() && queue.idleSince == head.since && hosts.get(queue.host) == queue) {
+                hosts.remove(queue.host);
+                queue.metrics.detach();
+            }
+        }
+    }
+
+    private HostMetrics metricsFor(String host) {
+        String tag = properties.getWeights().containsKey(host) ? host : OTHER_HOSTS;
+        HostMetrics hostMetrics = metrics.computeIfAbsent(tag, HostMetrics::new);
+        hostMetrics.hosts++;
+        return hostMetrics;
+    }
+
+    private long nanosUntilReady(long nowNanos) {
+        long wait = MAX_WAIT_NANOS;
+        for (HostQueue queue : active) {
+            if (queue.inFlight < properties.getMaxInFlightPerHost()) {
+                wait = Math.min(wait, Math.max(1, queue.bucket.nanosUntilAvailable(nowNanos)));
+            }
+        }
+        return wait;
+    }
+
+    private class HostQueue {
+        private final String host;
+        private final int weight;
+        private final TokenBucket bucket;
+        private final ArrayDeque<Pending<T>> pending = new ArrayDeque<>();
+        private final HostMetrics metrics;
+        private int deficit;
+        private int inFlight;
+        private boolean active;
+        private long idleSince;
+
+        HostQueue(String host, long nowNanos) {
+            this.host = host;
+            this.weight = Math.max(1, properties.getWeights().getOrDefault(host, 1));
+            this.bucket = new TokenBucket(properties.getRatePerSecond(), properties.getBurst(), nowNanos);
+            this.metrics = metricsFor(host);
+        }
+
+        boolean isIdle() {
+            return pending.isEmpty() && inFlight == 0;
+        }
+    }
+
+    /**
+     * Métricas de um valor da tag host, compartilhadas pelos hosts agregados em "other". As de um
+     * host configurado saem do registro quando ele é removido por ociosidade
+     */
+    private class HostMetrics {
+        private final String tag;
+        // Lag = tempo entre enfileirar e liberar o envio; mostra quem está sendo segurado
+        private final Timer lag;
+        private final Counter dropped;
+        private final Gauge queueSize;
+        private final AtomicInteger queued = new AtomicInteger();
+        private int hosts;
+
+        HostMetrics(String tag) {
+            this.tag = tag;
+            this.lag = Timer.builder("payment.callbacks.lag").tag("host", tag).register(meterRegistry);
+            this.dropped = Counter.builder("payment.callbacks.dropped")
+                    .tag("host", tag)
+                    .tag("reason", "queue_full")
+                    .register(meterRegistry);
+            this.queueSize = Gauge.builder("payment.callbacks.queue.size", queued, AtomicInteger::get)
+                    .tag("host", tag)
+                    .register(meterRegistry);
+        }
+
+        void detach() {
+            if (--hosts == 0 && !OTHER_HOSTS.equals(tag)) {
+                metrics.remove(tag);
+                meterRegistry.remove(lag);
+                meterRegistry.remove(dropped);
+                meterRegistry.remove(queueSize);
+            }
+        }
+    }
+
+    private class IdleHost {
+        private final HostQueue queue;
+        private final long since;
+
+        IdleHost(HostQueue queue, long since) {
+            this.queue = queue;
+            this.since = since;
+        }
+    }
+
+    private static class Pending<T> {
+        private final T item;
+        private final long enqueuedAt;
+
+        Pending(T item, long enqueuedAt) {
+            this.item = item;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    static class Dispatch<T> {
+        private final String host;
+        private final T item;
+    }
+}
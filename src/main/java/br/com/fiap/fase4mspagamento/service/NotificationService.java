@@ -1,28 +1,143 @@
 package br.com.fiap.fase4mspagamento.service;
 
+import br.com.fiap.fase4mspagamento.config.CallbackProperties;
 import br.com.fiap.fase4mspagamento.controller.dto.PaymentNotification;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.URI;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Envia os callbacks de status. Os envios passam por uma fila justa por host de callback
+ * (token bucket + deficit round robin, ver FairCallbackQueue): um lojista com uma rajada grande
+ * não atrasa os demais. Cada envio liberado roda numa virtual thread própria, então um callback
+ * lento só ocupa a própria virtual thread até o timeout
+ */
 @Service
+@EnableConfigurationProperties(CallbackProperties.class)
 public class NotificationService {
     private static final Logger logger = LoggerFactory.getLogger(NotificationService.class);
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(2);
+    private static final Duration READ_TIMEOUT = Duration.ofSeconds(5);
+    private static final String UNKNOWN_HOST = "unknown";
+
     private final RestTemplate restTemplate;
+    // Writer resolvido uma vez; o corpo vai pronto em bytes, sem negociação de conversor por chamada
+    private final ObjectWriter notificationWriter;
+    private final HttpHeaders jsonHeaders;
+    private final Executor executor;
+    private final FairCallbackQueue<PendingNotification> queue;
+    private volatile Thread dispatcher;
+    private volatile boolean running;
+
+    @Autowired
+    public NotificationService(ObjectMapper objectMapper, CallbackProperties properties, MeterRegistry meterRegistry) {
+        this(objectMapper, properties, meterRegistry, Executors.newVirtualThreadPerTaskExecutor());
+    }
 
-    public NotificationService() {
-        this.restTemplate = new RestTemplate();
+    NotificationService(ObjectMapper objectMapper, CallbackProperties properties, MeterRegistry meterRegistry,
+                        Executor executor) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(CONNECT_TIMEOUT);
+        requestFactory.setReadTimeout(READ_TIMEOUT);
+        this.restTemplate = new RestTemplate(requestFactory);
+        this.notificationWriter = objectMapper.writerFor(PaymentNotification.class);
+        this.jsonHeaders = new HttpHeaders();
+        this.jsonHeaders.setContentType(MediaType.APPLICATION_JSON);
+        this.executor = executor;
+        this.queue = new FairCallbackQueue<>(properties, meterRegistry);
     }
 
     public void sendNotification(String callbackUrl, PaymentNotification notification) {
+        String host = hostOf(callbackUrl);
+        if (!queue.offer(host, new PendingNotification(callbackUrl, notification), System.nanoTime())) {
+            logger.warn("Fila de callbacks de {} cheia; notificação do pagamento {} descartada",
+                    host, notification.getPaymentId());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        dispatcher = Thread.ofPlatform().name("callback-dispatcher").daemon().start(this::run);
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        running = false;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+            dispatcher.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        int pending = queue.pending();
+        if (pending > 0) {
+            logger.warn("{} callbacks pendentes não enviados no desligamento", pending);
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                dispatch(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Libera tudo o que os buckets permitem neste instante, sem esperar; usado nos testes
+     */
+    int dispatchReady() {
+        int dispatched = 0;
+        FairCallbackQueue.Dispatch<PendingNotification> next;
+        while ((next = queue.poll(System.nanoTime())) != null) {
+            dispatch(next);
+            dispatched++;
+        }
+        return dispatched;
+    }
+
+    private void dispatch(FairCallbackQueue.Dispatch<PendingNotification> next) {
+        executor.execute(() -> {
+            try {
+                deliver(next.getItem().callbackUrl, next.getItem().notification);
+            } finally {
+                queue.release(next.getHost(), System.nanoTime());
+            }
+        });
+    }
+
+    private void deliver(String callbackUrl, PaymentNotification notification) {
         logger.info("Enviando notificação para: {} com status: {}", callbackUrl, notification.getStatus());
 
         try {
-            HttpEntity<PaymentNotification> request = new HttpEntity<>(notification);
+            HttpEntity<byte[]> request = new HttpEntity<>(notificationWriter.writeValueAsBytes(notification), jsonHeaders);
             ResponseEntity<String> response = restTemplate.postForEntity(callbackUrl, request, String.class);
 
             if (response.getStatusCode() == HttpStatus.OK) {
@@ -34,4 +149,24 @@ public class NotificationService {
             logger.error("Falha ao enviar notificação", e);
         }
     }
-}
\ No newline at end of file
+
+    // Chave de justiça: o host do lojista, sem porta nem caminho
+    static String hostOf(String callbackUrl) {
+        try {
+            String host = URI.create(callbackUrl).getHost();
+            return host == null ? UNKNOWN_HOST : host.toLowerCase(Locale.ROOT);
+        } catch (RuntimeException e) {
+            return UNKNOWN_HOST;
+        }
+    }
+
+    private static class PendingNotification {
+        private final String callbackUrl;
+        private final PaymentNotification notification;
+
+        PendingNotification(String callbackUrl, PaymentNotification notification) {
+            this.callbackUrl = callbackUrl;
+            this.notification = notification;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package br.com.fiap.fase4mspagamento.service;
+
+import br.com.fiap.fase4mspagamento.config.ArchiveProperties;
+import br.com.fiap.fase4mspagamento.domain.entity.Payment;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentStatus;
+import br.com.fiap.fase4mspagamento.gateway.PaymentArchiveGateway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Move pagamentos finalizados e antigos da tabela quente para o arquivo em disco.
+ * O segmento é gravado (e sincronizado) antes do DELETE; se o processo cair entre os dois,
+ * o lote é arquivado de novo na próxima execução, o que só gera cópias idênticas.
+ */
+@Service
+public class PaymentArchivalService {
+    private static final Logger logger = LoggerFactory.getLogger(PaymentArchivalService.class);
+
+    private static final RowMapper<Payment> PAYMENT_ROW_MAPPER = (rs, rowNum) -> new Payment(
+            rs.getLong("id"),
+            rs.getString("external_id"),
+            rs.getBigDecimal("amount"),
+            null,
+            rs.getString("card_token"),
+            rs.getString("card_last_four"),
+            rs.getString("order_id"),
+            rs.getString("callback_url"),
+            PaymentStatus.valueOf(rs.getString("status")),
+            rs.getString("message"),
+            rs.getTimestamp("created_at").toLocalDateTime(),
+            rs.getTimestamp("updated_at").toLocalDateTime(),
+            rs.getLong("version"),
+            rs.getString("provider_transaction_id")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PaymentArchiveGateway paymentArchiveGateway;
+    private final ArchiveProperties properties;
+    private final Clock clock;
+
+    @Autowired
+    public PaymentArchivalService(
+            JdbcTemplate jdbcTemplate,
+            PaymentArchiveGateway paymentArchiveGateway,
+            ArchiveProperties properties) {
+        this(jdbcTemplate, paymentArchiveGateway, properties, Clock.systemDefaultZone());
+    }
+
+    PaymentArchivalService(
+            JdbcTemplate jdbcTemplate,
+            PaymentArchiveGateway paymentArchiveGateway,
+            ArchiveProperties properties,
+            Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.paymentArchiveGateway = paymentArchiveGateway;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    @Scheduled(cron = "${payment.archive.cron:0 30 3 * * *}")
+    public void archive() {
+        if (!properties.isEnabled() || properties.getStatuses().isEmpty()) {
+            return;
+        }
+        int total = 0;
+        try {
+            int archived;
+            do {
+                archived = archiveBatch();
+                total += archived;
+            } while (archived == properties.getBatchSize());
+        } catch (Exception e) {
+            logger.error("Falha ao arquivar pagamentos finalizados após {} registros", total, e);
+            return;
+        }
+        if (total > 0) {
+            logger.info("Arquivo de pagamentos: {} pagamentos movidos para o disco", total);
+        }
+    }
+
+    int archiveBatch() {
+        LocalDateTime cutoff = LocalDateTime.now(clock).minus(properties.getOlderThan());
+        List<Object> params = new ArrayList<>();
+        properties.getStatuses().forEach(status -> params.add(status.name()));
+        params.add(cutoff);
+        params.add(properties.getBatchSize());
+
+        String placeholders = String.join(", ", Collections.nCopies(properties.getStatuses().size(), "?"));
+        List<Payment> batch = jdbcTemplate.query(
+                "SELECT id, external_id, amount, card_token, card_last_four, order_id, callback_url, "
+                        + "status, message, created_at, updated_at, version, provider_transaction_id FROM payments "
+                        + "WHERE status IN (" + placeholders + ") AND updated_at < ? "
+                        + "ORDER BY updated_at LIMIT ?",
+                PAYMENT_ROW_MAPPER, params.toArray());
+
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        paymentArchiveGateway.append(batch);
+        // A versão garante que uma linha alterada depois do SELECT continue na tabela quente
+        jdbcTemplate.batchUpdate("DELETE FROM payments WHERE id = ? AND created_at = ? AND version = ?",
+                batch.stream()
+                        .map(payment -> new Object[]{payment.getId(), payment.getCreatedAt(), payment.getVersion()})
+                        .toList());
+        return batch.size();
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.fiap.fase4mspagamento.service;
+
+import br.com.fiap.fase4mspagamento.config.EventPublishingProperties;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentEventMessage;
+import br.com.fiap.fase4mspagamento.gateway.PaymentEventRelayGateway;
+import br.com.fiap.fase4mspagamento.port.PaymentEventTransport;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Publica as mudanças de status gravadas em payment_events no transporte configurado.
+ * Toda transição (ProcessPaymentUsecase, webhooks, estorno, cancelamento) já grava o evento na
+ * mesma transação da projeção, então o relay não perde eventos nem publica transições desfeitas.
+ * Consumidores escalam pelas partições do transporte, sem depender das threads de callback.
+ */
+@Service
+@EnableConfigurationProperties(EventPublishingProperties.class)
+public class PaymentEventPublisher {
+    private static final Logger logger = LoggerFactory.getLogger(PaymentEventPublisher.class);
+
+    private final PaymentEventRelayGateway relayGateway;
+    private final PaymentEventTransport transport;
+    private final EventPublishingProperties properties;
+    private final Counter published;
+    private final DistributionSummary batchSizes;
+    private final Timer lag;
+
+    public PaymentEventPublisher(
+            PaymentEventRelayGateway relayGateway,
+            PaymentEventTransport transport,
+            EventPublishingProperties properties,
+            MeterRegistry meterRegistry) {
+        this.relayGateway = relayGateway;
+        this.transport = transport;
+        this.properties = properties;
+        this.published = Counter.builder("payment.events.published").tag("transport", transport.name()).register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("payment.events.batch.size").register(meterRegistry);
+        // Atraso entre a mudança de status e a publicação do evento
+        this.lag = Timer.builder("payment.events.lag").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${payment.events.poll-interval:500ms}")
+    public void relay() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            int count;
+            do {
+                count = relayGateway.relayNext(properties.getRelay(), properties.getBatchSize(), this::publish);
+            } while (count == properties.getBatchSize());
+        } catch (Exception e) {
+            // Cursor não avançou; o mesmo lote é tentado no próximo ciclo
+            logger.warn("Falha ao publicar eventos de pagamento via {}: {}", transport.name(), e.getMessage());
+        }
+    }
+
+    private void publish(List<PaymentEventMessage> batch) {
+        transport.publish(batch);
+        published.increment(batch.size());
+        batchSizes.record(batch.size());
+        LocalDateTime oldest = batch.get(0).getOccurredAt();
+        lag.record(Duration.between(oldest, LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,97 @@
+package br.com.fiap.fase4mspagamento.service;
+
+import br.com.fiap.fase4mspagamento.config.PartitionProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Mantém as partições mensais de payments: cria os meses seguintes com antecedência
+ * e, se configurado, remove partições além do período de retenção
+ */
+@Service
+@EnableConfigurationProperties(PartitionProperties.class)
+public class PaymentPartitionMaintenanceService {
+    private static final Logger logger = LoggerFactory.getLogger(PaymentPartitionMaintenanceService.class);
+    private static final Pattern PARTITION_NAME = Pattern.compile("payments_(\\d{6})");
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PartitionProperties properties;
+    private final Clock clock;
+
+    @Autowired
+    public PaymentPartitionMaintenanceService(JdbcTemplate jdbcTemplate, PartitionProperties properties) {
+        this(jdbcTemplate, properties, Clock.systemUTC());
+    }
+
+    PaymentPartitionMaintenanceService(JdbcTemplate jdbcTemplate, PartitionProperties properties, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${payment.partitions.cron:0 0 3 * * *}")
+    public void maintain() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            createUpcomingPartitions();
+            dropExpiredPartitions();
+        } catch (Exception e) {
+            logger.error("Falha na manutenção das partições de payments", e);
+        }
+    }
+
+    void createUpcomingPartitions() {
+        YearMonth current = YearMonth.now(clock);
+        for (int i = 0; i <= properties.getMonthsAhead(); i++) {
+            String partition = jdbcTemplate.queryForObject(
+                    "SELECT create_payments_partition(?)", String.class, current.plusMonths(i).atDay(1));
+            logger.debug("Partição {} disponível", partition);
+        }
+    }
+
+    void dropExpiredPartitions() {
+        if (properties.getRetentionMonths() <= 0) {
+            return;
+        }
+        YearMonth cutoff = YearMonth.now(clock).minusMonths(properties.getRetentionMonths());
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i "
+                        + "JOIN pg_class c ON c.oid = i.inhrelid "
+                        + "JOIN pg_class p ON p.oid = i.inhparent "
+                        + "WHERE p.relname = 'payments'", String.class);
+
+        for (String partition : partitions) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.parse(matcher.group(1), PARTITION_SUFFIX);
+            if (month.isBefore(cutoff)) {
+                // DROP não dispara o trigger de delete, então o lookup global é limpo em seguida
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+                jdbcTemplate.update("DELETE FROM payment_external_ids WHERE created_at >= ? AND created_at < ?",
+                        month.atDay(1).atStartOfDay(), month.plusMonths(1).atDay(1).atStartOfDay());
+                logger.info("Partição {} removida pela política de retenção de {} meses",
+                        partition, properties.getRetentionMonths());
+            }
+        }
+    }
+}
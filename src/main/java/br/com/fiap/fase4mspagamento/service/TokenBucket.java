@@ -0,0 +1,44 @@
+package br.com.fiap.fase4mspagamento.service;
+
+/**
+ * Token bucket com reposição contínua. O tempo vem de fora (nanoTime) para o teste controlar
+ * o relógio; não é thread-safe, quem usa serializa o acesso
+ */
+class TokenBucket {
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefill;
+
+    TokenBucket(double ratePerSecond, int burst, long nowNanos) {
+        if (ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Configuração inválida do token bucket");
+        }
+        this.capacity = burst;
+        this.tokensPerNano = ratePerSecond / 1e9;
+        this.tokens = burst;
+        this.lastRefill = nowNanos;
+    }
+
+    boolean tryAcquire(long nowNanos) {
+        refill(nowNanos);
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    long nanosUntilAvailable(long nowNanos) {
+        refill(nowNanos);
+        return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - lastRefill;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+            lastRefill = nowNanos;
+        }
+    }
+}
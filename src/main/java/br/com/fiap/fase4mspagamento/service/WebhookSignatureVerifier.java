@@ -0,0 +1,96 @@
+package br.com.fiap.fase4mspagamento.service;
+
+import br.com.fiap.fase4mspagamento.config.WebhookProperties;
+import br.com.fiap.fase4mspagamento.exception.InvalidWebhookSignatureException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Valida webhooks do provedor: HMAC-SHA256 em hexadecimal sobre "timestamp.corpo",
+ * com o timestamp (epoch em segundos) dentro da tolerância configurada. O bean não é lazy para que a
+ * falta do segredo (payment.webhook.secret) derrube a aplicação no boot, mesmo no perfil fast-startup.
+ */
+@Component
+@Lazy(false)
+@EnableConfigurationProperties(WebhookProperties.class)
+public class WebhookSignatureVerifier {
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+    private final Duration tolerance;
+    private final Clock clock;
+
+    @Autowired
+    public WebhookSignatureVerifier(WebhookProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    WebhookSignatureVerifier(WebhookProperties properties, Clock clock) {
+        if (properties.getSecret() == null || properties.getSecret().isBlank()) {
+            throw new IllegalStateException("payment.webhook.secret não configurado");
+        }
+        try {
+            this.key = new SecretKeySpec(Base64.getDecoder().decode(properties.getSecret()), ALGORITHM);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("payment.webhook.secret não está em Base64", e);
+        }
+        this.tolerance = properties.getTolerance();
+        this.clock = clock;
+    }
+
+    public void verify(String timestamp, String signature, byte[] body) {
+        if (timestamp == null || signature == null) {
+            throw new InvalidWebhookSignatureException("Webhook sem assinatura ou timestamp");
+        }
+        Instant signedAt;
+        try {
+            signedAt = Instant.ofEpochSecond(Long.parseLong(timestamp));
+        } catch (NumberFormatException e) {
+            throw new InvalidWebhookSignatureException("Timestamp de webhook inválido: " + timestamp);
+        }
+        if (Duration.between(signedAt, clock.instant()).abs().compareTo(tolerance) > 0) {
+            throw new InvalidWebhookSignatureException("Timestamp de webhook fora da tolerância: " + timestamp);
+        }
+
+        byte[] expected = sign(timestamp, body);
+        byte[] received;
+        try {
+            received = HexFormat.of().parseHex(signature);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidWebhookSignatureException("Assinatura de webhook malformada");
+        }
+        // Comparação em tempo constante
+        if (!MessageDigest.isEqual(expected, received)) {
+            throw new InvalidWebhookSignatureException("Assinatura de webhook inválida");
+        }
+    }
+
+    public String signatureOf(String timestamp, byte[] body) {
+        return HexFormat.of().formatHex(sign(timestamp, body));
+    }
+
+    private byte[] sign(String timestamp, byte[] body) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            mac.update(timestamp.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) '.');
+            return mac.doFinal(body);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Falha ao calcular assinatura do webhook", e);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package br.com.fiap.fase4mspagamento.service;
+
+import br.com.fiap.fase4mspagamento.config.WebhookProperties;
+import br.com.fiap.fase4mspagamento.domain.entity.ProviderStatusUpdate;
+import br.com.fiap.fase4mspagamento.gateway.PaymentStatusUpdateGateway;
+import br.com.fiap.fase4mspagamento.gateway.WebhookInboxGateway;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fila limitada entre o endpoint de webhook e o banco. Cada webhook é gravado no inbox antes de
+ * entrar na fila; uma única thread drena a fila e aplica tudo o que acumulou (até batchSize) numa
+ * transação, que também remove as linhas do inbox já resolvidas. O que não foi aplicado (fila cheia,
+ * lote com falha, instância derrubada, pagamento ainda não commitado) continua no inbox e é
+ * reaplicado pela varredura periódica até inboxTtl; depois disso expira e é contado em
+ * payment.webhook.inbox.expired.
+ */
+@Service
+@EnableConfigurationProperties(WebhookProperties.class)
+public class WebhookStatusApplier {
+    private static final Logger logger = LoggerFactory.getLogger(WebhookStatusApplier.class);
+
+    private final PaymentStatusUpdateGateway statusUpdateGateway;
+    private final WebhookInboxGateway inboxGateway;
+    private final WebhookProperties properties;
+    private final BlockingQueue<ProviderStatusUpdate> queue;
+    private final DistributionSummary batchSizes;
+    private final Counter appliedUpdates;
+    private final Counter failedUpdates;
+    private final Counter deferredUpdates;
+    private final Counter expiredUpdates;
+    private volatile Thread worker;
+    private volatile boolean running;
+
+    public WebhookStatusApplier(
+            PaymentStatusUpdateGateway statusUpdateGateway,
+            WebhookInboxGateway inboxGateway,
+            WebhookProperties properties,
+            MeterRegistry meterRegistry) {
+        this.statusUpdateGateway = statusUpdateGateway;
+        this.inboxGateway = inboxGateway;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        Gauge.builder("payment.webhook.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("payment.webhook.batch.size").register(meterRegistry);
+        this.appliedUpdates = Counter.builder("payment.webhook.updates").tag("result", "applied").register(meterRegistry);
+        this.failedUpdates = Counter.builder("payment.webhook.updates").tag("result", "failed").register(meterRegistry);
+        this.deferredUpdates = Counter.builder("payment.webhook.updates").tag("result", "deferred").register(meterRegistry);
+        this.expiredUpdates = Counter.builder("payment.webhook.inbox.expired").register(meterRegistry);
+    }
+
+    /**
+     * Grava o webhook no inbox e o enfileira sem bloquear. Ao retornar o webhook já está salvo,
+     * então a fila cheia só adia a aplicação para a varredura; falhas do banco propagam e o
+     * provedor deve reenviar.
+     */
+    public void accept(ProviderStatusUpdate update) {
+        ProviderStatusUpdate stored = inboxGateway.save(update);
+        if (!queue.offer(stored)) {
+            deferredUpdates.increment();
+            logger.debug("Fila de webhooks cheia, externalId={} fica no inbox para a varredura", stored.getExternalId());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        worker = Thread.ofPlatform().name("webhook-status-applier").daemon().start(this::run);
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        // O que ainda estiver na fila está no inbox; drenar aqui só evita esperar pela varredura
+        while (!queue.isEmpty()) {
+            drainOnce();
+        }
+    }
+
+    /**
+     * Reaplica webhooks que ficaram no inbox: recebidos com a fila cheia, de lotes que falharam ou
+     * de instâncias que caíram antes de aplicar ou cujo pagamento ainda não estava commitado. Roda
+     * também logo após o boot. Entre instâncias a mesma linha pode ser aplicada duas vezes, o que não
+     * muda nada porque só pagamentos PENDING são atualizados. Linhas que continuam no inbox depois de
+     * aplicadas são puladas pelo cursor de id até a próxima varredura.
+     */
+    @Scheduled(fixedDelayString = "${payment.webhook.inbox-sweep-interval:30s}")
+    public void sweepInbox() {
+        LocalDateTime now = LocalDateTime.now();
+        int expired = inboxGateway.expire(now.minus(properties.getInboxTtl()));
+        if (expired > 0) {
+            expiredUpdates.increment(expired);
+            logger.warn("{} webhooks expiraram no inbox sem pagamento PENDING correspondente após {}",
+                    expired, properties.getInboxTtl());
+        }
+        LocalDateTime receivedBefore = now.minus(properties.getInboxRetryAfter());
+        long afterId = 0;
+        List<ProviderStatusUpdate> pending;
+        do {
+            pending = inboxGateway.findPending(receivedBefore, afterId, properties.getBatchSize());
+            if (pending.isEmpty()) {
+                return;
+            }
+            afterId = pending.get(pending.size() - 1).getInboxId();
+            logger.info("Reaplicando {} webhooks pendentes do inbox", pending.size());
+        } while (apply(pending) && pending.size() == properties.getBatchSize());
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                ProviderStatusUpdate first = queue.poll(1, TimeUnit.SECONDS);
+                if (first != null) {
+                    List<ProviderStatusUpdate> batch = new ArrayList<>(properties.getBatchSize());
+                    batch.add(first);
+                    queue.drainTo(batch, properties.getBatchSize() - 1);
+                    apply(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    int drainOnce() {
+        List<ProviderStatusUpdate> batch = new ArrayList<>(properties.getBatchSize());
+        queue.drainTo(batch, properties.getBatchSize());
+        if (!batch.isEmpty()) {
+            apply(batch);
+        }
+        return batch.size();
+    }
+
+    private boolean apply(List<ProviderStatusUpdate> batch) {
+        batchSizes.record(batch.size());
+        for (int attempt = 1; attempt <= properties.getMaxAttempts(); attempt++) {
+            try {
+                int applied = statusUpdateGateway.applyAll(batch);
+                appliedUpdates.increment(applied);
+                logger.debug("Lote de webhooks aplicado: {} recebidos, {} pagamentos atualizados", batch.size(), applied);
+                return true;
+            } catch (RuntimeException e) {
+                logger.warn("Falha ao aplicar lote de {} webhooks (tentativa {}/{})",
+                        batch.size(), attempt, properties.getMaxAttempts(), e);
+            }
+        }
+        failedUpdates.increment(batch.size());
+        logger.error("Lote de webhooks não aplicado após {} tentativas, fica no inbox para a varredura; externalIds: {}",
+                properties.getMaxAttempts(), batch.stream().map(ProviderStatusUpdate::getExternalId).toList());
+        return false;
+    }
+}
@@ -0,0 +1,63 @@
+package br.com.fiap.fase4mspagamento.usecase;
+
+import br.com.fiap.fase4mspagamento.domain.entity.Payment;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentStatus;
+import br.com.fiap.fase4mspagamento.exception.IllegalPaymentStatusException;
+import br.com.fiap.fase4mspagamento.exception.PaymentConflictException;
+import br.com.fiap.fase4mspagamento.exception.PaymentNotFoundException;
+import br.com.fiap.fase4mspagamento.gateway.PaymentGateway;
+import br.com.fiap.fase4mspagamento.port.ExternalPaymentService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Cancelamento de pagamentos ainda pendentes. Todo pagamento PENDING já foi enviado ao provedor, então
+ * a transação é anulada lá antes da transição: sem isso um callback APPROVED posterior seria ignorado
+ * e o cliente cobrado por um pagamento cancelado. Se a anulação falhar o status não muda.
+ * Um callback que chegue ao mesmo tempo disputa a mesma transição a partir de PENDING; o
+ * compare-and-set garante um único vencedor.
+ */
+@Service
+public class CancelPaymentUsecase {
+    private static final Logger logger = LoggerFactory.getLogger(CancelPaymentUsecase.class);
+
+    private final PaymentGateway paymentGateway;
+    private final ExternalPaymentService externalPaymentService;
+
+    public CancelPaymentUsecase(PaymentGateway paymentGateway, ExternalPaymentService externalPaymentService) {
+        this.paymentGateway = paymentGateway;
+        this.externalPaymentService = externalPaymentService;
+    }
+
+    public Payment execute(Long id) {
+        Payment payment = paymentGateway.findById(id)
+                .orElseThrow(() -> new PaymentNotFoundException("Pagamento não encontrado com ID: " + id));
+        if (!payment.getStatus().canTransitionTo(PaymentStatus.CANCELLED)) {
+            throw new IllegalPaymentStatusException(
+                    "Pagamento " + id + " com status " + payment.getStatus() + " não pode ser cancelado");
+        }
+        String transactionId = payment.getProviderTransactionId();
+        if (transactionId == null) {
+            throw new PaymentConflictException(
+                    "Pagamento " + id + " já enviado ao provedor sem transação registrada; não é possível anular");
+        }
+
+        try {
+            externalPaymentService.cancelPayment(transactionId);
+        } catch (RuntimeException e) {
+            logger.error("Falha ao anular a transação {} do pagamento {}; cancelamento não aplicado", transactionId, id, e);
+            throw e;
+        }
+
+        Payment cancelled = paymentGateway.compareAndSetStatus(payment, PaymentStatus.CANCELLED, "Pagamento cancelado")
+                .orElseThrow(() -> {
+                    logger.error("Transação {} anulada no provedor, mas o pagamento {} teve o status alterado por outra operação",
+                            transactionId, id);
+                    return new PaymentConflictException(
+                            "Pagamento " + id + " teve o status alterado por outra operação; cancelamento não aplicado");
+                });
+        logger.info("Pagamento {} cancelado (transação {} anulada)", id, transactionId);
+        return cancelled;
+    }
+}
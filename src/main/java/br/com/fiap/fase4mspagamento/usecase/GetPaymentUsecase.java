@@ -1,25 +1,54 @@
 package br.com.fiap.fase4mspagamento.usecase;
 
-import br.com.fiap.fase4mspagamento.domain.entity.Payment;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentEvent;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentSummary;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentView;
 import br.com.fiap.fase4mspagamento.exception.PaymentNotFoundException;
+import br.com.fiap.fase4mspagamento.gateway.PaymentEventGateway;
 import br.com.fiap.fase4mspagamento.gateway.PaymentGateway;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 public class GetPaymentUsecase {
     private final PaymentGateway paymentGateway;
+    private final PaymentEventGateway paymentEventGateway;
 
-    public GetPaymentUsecase(PaymentGateway paymentGateway) {
+    public GetPaymentUsecase(PaymentGateway paymentGateway, PaymentEventGateway paymentEventGateway) {
         this.paymentGateway = paymentGateway;
+        this.paymentEventGateway = paymentEventGateway;
     }
 
-    public Payment execute(Long id) {
-        return paymentGateway.findById(id)
+    public PaymentView execute(Long id) {
+        return paymentGateway.findViewById(id)
                 .orElseThrow(() -> new PaymentNotFoundException("Pagamento não encontrado com ID: " + id));
     }
 
-    public Payment executeByExternalId(String externalId) {
-        return paymentGateway.findByExternalId(externalId)
+    public PaymentView executeByExternalId(String externalId) {
+        return paymentGateway.findViewByExternalId(externalId)
                 .orElseThrow(() -> new PaymentNotFoundException("Pagamento não encontrado com ID externo: " + externalId));
     }
-}
\ No newline at end of file
+
+    /**
+     * Pagamentos do pedido, do mais recente para o mais antigo
+     */
+    public List<PaymentSummary> executeByOrderId(String orderId) {
+        List<PaymentSummary> payments = paymentGateway.findSummariesByOrderId(orderId);
+        if (payments.isEmpty()) {
+            throw new PaymentNotFoundException("Nenhum pagamento encontrado para o pedido: " + orderId);
+        }
+        return payments;
+    }
+
+    /**
+     * Histórico de status do pagamento, do primeiro evento ao atual
+     */
+    public List<PaymentEvent> executeHistory(Long id) {
+        List<PaymentEvent> events = paymentEventGateway.findByPaymentId(id);
+        if (events.isEmpty()) {
+            throw new PaymentNotFoundException("Pagamento não encontrado com ID: " + id);
+        }
+        return events;
+    }
+}
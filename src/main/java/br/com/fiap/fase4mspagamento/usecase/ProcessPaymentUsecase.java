@@ -3,16 +3,18 @@ package br.com.fiap.fase4mspagamento.usecase;
 import br.com.fiap.fase4mspagamento.controller.mapper.PaymentMapper;
 import br.com.fiap.fase4mspagamento.domain.entity.Payment;
 import br.com.fiap.fase4mspagamento.domain.entity.PaymentStatus;
+import br.com.fiap.fase4mspagamento.domain.id.IdGenerator;
+import br.com.fiap.fase4mspagamento.domain.risk.RiskDecision;
+import br.com.fiap.fase4mspagamento.domain.risk.RiskEngine;
 import br.com.fiap.fase4mspagamento.gateway.PaymentGateway;
 import br.com.fiap.fase4mspagamento.port.ExternalPaymentService;
+import br.com.fiap.fase4mspagamento.service.CardCipher;
+import br.com.fiap.fase4mspagamento.service.CardTokenizationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
-import java.util.UUID;
-
 @Service
 public class ProcessPaymentUsecase {
     private static final Logger logger = LoggerFactory.getLogger(ProcessPaymentUsecase.class);
@@ -20,14 +22,23 @@ public class ProcessPaymentUsecase {
     private final PaymentGateway paymentGateway;
     private final PaymentMapper paymentMapper;
     private final ExternalPaymentService externalPaymentService;
+    private final RiskEngine riskEngine;
+    private final CardTokenizationService cardTokenizationService;
+    private final IdGenerator idGenerator;
 
     public ProcessPaymentUsecase(
             PaymentGateway paymentGateway,
             PaymentMapper paymentMapper,
-            ExternalPaymentService externalPaymentService) {
+            ExternalPaymentService externalPaymentService,
+            RiskEngine riskEngine,
+            CardTokenizationService cardTokenizationService,
+            IdGenerator idGenerator) {
         this.paymentGateway = paymentGateway;
         this.paymentMapper = paymentMapper;
         this.externalPaymentService = externalPaymentService;
+        this.riskEngine = riskEngine;
+        this.cardTokenizationService = cardTokenizationService;
+        this.idGenerator = idGenerator;
 
         logger.info("ProcessPaymentUsecase construído com externalPaymentService: {}",
                 externalPaymentService.getClass().getName());
@@ -37,8 +48,8 @@ public class ProcessPaymentUsecase {
     public Payment execute(Payment payment) {
         logger.info("Iniciando processamento de pagamento");
 
-        // Gerar ID externo único
-        String externalId = "PAYER-" + UUID.randomUUID().toString();
+        // Gerar ID externo único, ordenado no tempo para inserir no fim do índice de external_id
+        String externalId = "PAYER-" + idGenerator.next();
         logger.info("Pagamento recebeu ID externo: {}", externalId);
 
         // Criar novo payment com externalId - iniciamos com PENDING
@@ -55,8 +66,24 @@ public class ProcessPaymentUsecase {
                 payment.getUpdatedAt()
         );
 
+        // Rejeições óbvias são decididas localmente, sem ida ao provedor
+        RiskDecision riskDecision = riskEngine.evaluate(newPayment);
+        if (riskDecision.isRejected()) {
+            logger.warn("Pagamento rejeitado pela regra de risco {}: {}", riskDecision.getRule(), riskDecision.getReason());
+            // Tentativas rejeitadas não vão para o cofre: guardamos apenas os 4 últimos dígitos
+            Payment rejectedPayment = newPayment
+                    .withCardToken(null, CardCipher.lastFour(newPayment.getCreditCardNumber()))
+                    .withStatus(PaymentStatus.REJECTED,
+                            "Pagamento rejeitado pela análise de risco: " + riskDecision.getReason());
+            return paymentGateway.save(rejectedPayment);
+        }
+
+        // O número do cartão vai para o cofre; o pagamento guarda só o token e os 4 últimos dígitos
+        String cardToken = cardTokenizationService.tokenize(newPayment.getCreditCardNumber());
+        Payment tokenizedPayment = newPayment.withCardToken(cardToken, CardCipher.lastFour(newPayment.getCreditCardNumber()));
+
         // Salvar o pagamento com status inicial PENDING
-        Payment savedPayment = paymentGateway.save(newPayment);
+        Payment savedPayment = paymentGateway.save(tokenizedPayment);
         logger.info("Pagamento salvo com ID: {} e externalId: {}", savedPayment.getId(), savedPayment.getExternalId());
 
         // Enviar para o serviço externo (mock) via adapter
@@ -64,6 +91,8 @@ public class ProcessPaymentUsecase {
             logger.info("Enviando pagamento para processamento externo");
             String transactionId = externalPaymentService.processPayment(savedPayment);
             logger.info("Pagamento enviado para processamento externo, transactionId: {}", transactionId);
+            // Gravado junto com a próxima mudança de status: o estorno é roteado pelo prefixo do provedor
+            savedPayment = savedPayment.withProviderTransactionId(transactionId);
 
             // Como nosso mock define o status imediatamente,
             // podemos verificar o status e atualizar no banco de dados
@@ -83,23 +112,12 @@ public class ProcessPaymentUsecase {
                 newMessage = "Pagamento rejeitado pelo serviço externo: valor excede o limite permitido";
                 logger.warn("Pagamento rejeitado pelo serviço externo, atualizando no banco");
             } else {
-                // Status desconhecido ou PENDING, mantém como PENDING
-                return savedPayment;
+                // Status desconhecido ou PENDING, mantém como PENDING e só registra o transactionId
+                return paymentGateway.save(savedPayment.withStatus(PaymentStatus.PENDING, "Aguardando confirmação do provedor"));
             }
 
             // Criar versão atualizada do pagamento
-            Payment updatedPayment = new Payment(
-                    savedPayment.getId(),
-                    savedPayment.getExternalId(),
-                    savedPayment.getAmount(),
-                    savedPayment.getCreditCardNumber(),
-                    savedPayment.getOrderId(),
-                    savedPayment.getCallbackUrl(),
-                    newStatus,  // Status atualizado conforme retorno do serviço
-                    newMessage, // Mensagem atualizada conforme status
-                    savedPayment.getCreatedAt(),
-                    LocalDateTime.now()  // Timestamp atualizado
-            );
+            Payment updatedPayment = savedPayment.withStatus(newStatus, newMessage);
 
             // Salvar a versão atualizada
             savedPayment = paymentGateway.save(updatedPayment);
@@ -109,17 +127,9 @@ public class ProcessPaymentUsecase {
             logger.error("Erro ao enviar pagamento para processamento externo", e);
 
             // Atualizar o pagamento com status de erro
-            Payment errorPayment = new Payment(
-                    savedPayment.getId(),
-                    savedPayment.getExternalId(),
-                    savedPayment.getAmount(),
-                    savedPayment.getCreditCardNumber(),
-                    savedPayment.getOrderId(),
-                    savedPayment.getCallbackUrl(),
+            Payment errorPayment = savedPayment.withStatus(
                     PaymentStatus.REJECTED,  // Status de erro
-                    "Erro ao processar pagamento: " + e.getMessage(),
-                    savedPayment.getCreatedAt(),
-                    LocalDateTime.now()
+                    "Erro ao processar pagamento: " + e.getMessage()
             );
 
             savedPayment = paymentGateway.save(errorPayment);
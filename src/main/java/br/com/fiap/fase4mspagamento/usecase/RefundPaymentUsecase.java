@@ -0,0 +1,85 @@
+package br.com.fiap.fase4mspagamento.usecase;
+
+import br.com.fiap.fase4mspagamento.domain.entity.Payment;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentStatus;
+import br.com.fiap.fase4mspagamento.domain.entity.RefundResult;
+import br.com.fiap.fase4mspagamento.exception.IllegalPaymentStatusException;
+import br.com.fiap.fase4mspagamento.exception.PaymentNotFoundException;
+import br.com.fiap.fase4mspagamento.gateway.PaymentGateway;
+import br.com.fiap.fase4mspagamento.port.ExternalPaymentService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Estorno de pagamentos aprovados. O estorno é reservado por compare-and-set
+ * (APPROVED -> REFUND_PENDING) antes da chamada ao provedor, então só uma requisição concorrente
+ * chega ao provedor e nenhuma trava de linha fica aberta durante a chamada. REFUNDED só é gravado
+ * depois que o provedor confirma; se ele falhar, o pagamento volta de REFUND_PENDING para APPROVED.
+ * Um pagamento que fique em REFUND_PENDING (ex.: queda entre a chamada e a gravação) precisa ser
+ * conferido no provedor antes de qualquer nova tentativa.
+ */
+@Service
+public class RefundPaymentUsecase {
+    private static final Logger logger = LoggerFactory.getLogger(RefundPaymentUsecase.class);
+
+    private final PaymentGateway paymentGateway;
+    private final ExternalPaymentService externalPaymentService;
+
+    public RefundPaymentUsecase(PaymentGateway paymentGateway, ExternalPaymentService externalPaymentService) {
+        this.paymentGateway = paymentGateway;
+        this.externalPaymentService = externalPaymentService;
+    }
+
+    public Payment execute(Long id) {
+        Payment payment = paymentGateway.findById(id)
+                .orElseThrow(() -> new PaymentNotFoundException("Pagamento não encontrado com ID: " + id));
+        if (!payment.getStatus().canTransitionTo(PaymentStatus.REFUND_PENDING)) {
+            throw new IllegalPaymentStatusException(
+                    "Pagamento " + id + " com status " + payment.getStatus() + " não pode ser estornado");
+        }
+
+        Payment claimed = paymentGateway.compareAndSetStatus(payment, PaymentStatus.REFUND_PENDING, "Estorno em processamento")
+                .orElseThrow(() -> new IllegalPaymentStatusException(
+                        "Pagamento " + id + " teve o status alterado por outra operação; estorno não aplicado"));
+
+        String refundId;
+        try {
+            refundId = externalPaymentService.refundPayment(claimed);
+        } catch (RuntimeException e) {
+            logger.error("Falha ao estornar pagamento {} no provedor, devolvendo para APPROVED", id, e);
+            if (paymentGateway.compareAndSetStatus(claimed, PaymentStatus.APPROVED,
+                    "Estorno falhou no provedor: " + e.getMessage()).isEmpty()) {
+                logger.error("Pagamento {} saiu de REFUND_PENDING durante o estorno; status não foi devolvido", id);
+            }
+            throw e;
+        }
+
+        logger.info("Pagamento {} estornado no provedor, refundId: {}", id, refundId);
+        return paymentGateway.compareAndSetStatus(claimed, PaymentStatus.REFUNDED, "Pagamento estornado")
+                .orElseThrow(() -> new IllegalStateException("Pagamento " + id
+                        + " foi estornado no provedor (refundId " + refundId + ") mas saiu de REFUND_PENDING"));
+    }
+
+    /**
+     * Estorno em lote (devoluções): cada pagamento é tratado de forma independente e
+     * a falha de um não interrompe os demais
+     */
+    public List<RefundResult> executeBulk(List<Long> ids) {
+        List<RefundResult> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            try {
+                Payment refunded = execute(id);
+                results.add(new RefundResult(id, true, refunded.getMessage()));
+            } catch (RuntimeException e) {
+                results.add(new RefundResult(id, false, e.getMessage()));
+            }
+        }
+        logger.info("Estorno em lote: {} de {} pagamentos estornados",
+                results.stream().filter(RefundResult::isRefunded).count(), ids.size());
+        return results;
+    }
+}
@@ -0,0 +1,3 @@
+-- transactionId devolvido pelo roteamento ("provedor:id"). O estorno vai ao provedor indicado pelo
+-- prefixo, em qualquer instância; pagamentos anteriores ficam com NULL e estornam pelo provedor principal.
+ALTER TABLE payments ADD COLUMN provider_transaction_id VARCHAR(100);
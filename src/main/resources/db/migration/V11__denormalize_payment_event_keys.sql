@@ -0,0 +1,9 @@
+-- O relay publica external_id e order_id (chave de particionamento do transporte) sem juntar
+-- payment_events com payments a cada lote: os valores são gravados junto com o evento.
+ALTER TABLE payment_events ADD COLUMN external_id VARCHAR(50);
+ALTER TABLE payment_events ADD COLUMN order_id VARCHAR(50);
+
+-- Eventos anteriores herdam as chaves do pagamento; os de pagamentos já arquivados ficam nulos
+UPDATE payment_events e SET external_id = p.external_id, order_id = p.order_id
+FROM payments p
+WHERE p.id = e.payment_id;
@@ -0,0 +1,12 @@
+CREATE TABLE card_vault (
+          token VARCHAR(64) PRIMARY KEY,
+          encrypted_card_number BYTEA NOT NULL,
+          created_at TIMESTAMP NOT NULL
+);
+
+ALTER TABLE payments ADD COLUMN card_token VARCHAR(64);
+ALTER TABLE payments ADD COLUMN card_last_four VARCHAR(4);
+
+-- O número do cartão passa a ficar apenas no cofre; linhas legadas são migradas pela aplicação
+UPDATE payments SET card_last_four = RIGHT(credit_card_number, 4);
+ALTER TABLE payments ALTER COLUMN credit_card_number DROP NOT NULL;
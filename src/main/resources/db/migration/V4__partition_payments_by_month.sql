@@ -0,0 +1,94 @@
+-- Particionamento mensal de payments por created_at.
+-- Em tabela particionada a PK precisa conter a chave de partição, então a unicidade global
+-- de external_id passa para a tabela de lookup payment_external_ids, mantida por trigger.
+
+ALTER TABLE payments RENAME TO payments_legacy;
+ALTER INDEX payments_pkey RENAME TO payments_legacy_pkey;
+ALTER INDEX payments_external_id_key RENAME TO payments_legacy_external_id_key;
+ALTER INDEX idx_payments_external_id RENAME TO idx_payments_legacy_external_id;
+ALTER INDEX idx_payments_order_id RENAME TO idx_payments_legacy_order_id;
+
+CREATE TABLE payments (
+          id BIGINT NOT NULL DEFAULT nextval('payments_id_seq'),
+          external_id VARCHAR(50) NOT NULL,
+          amount DECIMAL(19,2) NOT NULL,
+          credit_card_number VARCHAR(19),
+          order_id VARCHAR(50) NOT NULL,
+          callback_url VARCHAR(255) NOT NULL,
+          status VARCHAR(20) NOT NULL,
+          message TEXT,
+          created_at TIMESTAMP NOT NULL,
+          updated_at TIMESTAMP NOT NULL,
+          card_token VARCHAR(64),
+          card_last_four VARCHAR(4),
+          version BIGINT NOT NULL DEFAULT 0,
+          PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+ALTER SEQUENCE payments_id_seq OWNED BY payments.id;
+
+CREATE TABLE payment_external_ids (
+          external_id VARCHAR(50) PRIMARY KEY,
+          payment_id BIGINT NOT NULL,
+          created_at TIMESTAMP NOT NULL
+);
+
+CREATE FUNCTION register_payment_external_id() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO payment_external_ids (external_id, payment_id, created_at)
+    VALUES (NEW.external_id, NEW.id, NEW.created_at);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION unregister_payment_external_id() RETURNS trigger AS $$
+BEGIN
+    DELETE FROM payment_external_ids WHERE external_id = OLD.external_id;
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_payments_register_external_id
+    AFTER INSERT ON payments
+    FOR EACH ROW EXECUTE FUNCTION register_payment_external_id();
+
+CREATE TRIGGER trg_payments_unregister_external_id
+    AFTER DELETE ON payments
+    FOR EACH ROW EXECUTE FUNCTION unregister_payment_external_id();
+
+-- Cria (se não existir) a partição do mês que contém month_start; usada também pelo job da aplicação
+CREATE FUNCTION create_payments_partition(month_start DATE) RETURNS TEXT AS $$
+DECLARE
+    start_date DATE := date_trunc('month', month_start)::date;
+    end_date DATE := (date_trunc('month', month_start) + INTERVAL '1 month')::date;
+    partition_name TEXT := 'payments_' || to_char(start_date, 'YYYYMM');
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF payments FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, start_date, end_date);
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+DO $$
+DECLARE
+    month DATE := date_trunc('month', COALESCE((SELECT MIN(created_at) FROM payments_legacy), now()))::date;
+BEGIN
+    WHILE month <= date_trunc('month', now() + INTERVAL '2 months') LOOP
+        PERFORM create_payments_partition(month);
+        month := (month + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+-- Rede de segurança caso o job não tenha criado a partição do mês a tempo
+CREATE TABLE payments_default PARTITION OF payments DEFAULT;
+
+INSERT INTO payments (id, external_id, amount, credit_card_number, order_id, callback_url, status, message,
+                      created_at, updated_at, card_token, card_last_four, version)
+SELECT id, external_id, amount, credit_card_number, order_id, callback_url, status, message,
+       created_at, updated_at, card_token, card_last_four, version
+FROM payments_legacy;
+
+DROP TABLE payments_legacy;
+
+CREATE INDEX idx_payments_external_id ON payments(external_id);
+CREATE INDEX idx_payments_order_id ON payments(order_id);
@@ -0,0 +1,16 @@
+-- Revisão de índices: cada índice em payments custa uma escrita extra por insert em cada partição.
+
+-- A unicidade e a busca por external_id já são atendidas pela PK de payment_external_ids;
+-- o índice em payments(external_id) não é usado por nenhuma consulta.
+DROP INDEX IF EXISTS idx_payments_external_id;
+
+-- PK coberta: findByExternalId resolve (payment_id, created_at) com index-only scan
+-- e vai direto à partição certa pela PK de payments.
+ALTER TABLE payment_external_ids DROP CONSTRAINT payment_external_ids_pkey;
+ALTER TABLE payment_external_ids
+    ADD CONSTRAINT payment_external_ids_pkey PRIMARY KEY (external_id) INCLUDE (payment_id, created_at);
+
+-- Consulta de status por pedido (mais recente primeiro) atendida só pelo índice.
+DROP INDEX IF EXISTS idx_payments_order_id;
+CREATE INDEX idx_payments_order_id_created_at ON payments (order_id, created_at DESC)
+    INCLUDE (id, external_id, status, amount, updated_at);
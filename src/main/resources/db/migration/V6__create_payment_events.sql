@@ -0,0 +1,15 @@
+-- Log append-only das mudanças de status; payments passa a ser só a projeção do estado atual.
+CREATE TABLE payment_events (
+          id BIGSERIAL PRIMARY KEY,
+          payment_id BIGINT NOT NULL,
+          status VARCHAR(20) NOT NULL,
+          message TEXT,
+          occurred_at TIMESTAMP NOT NULL
+);
+
+-- Sem FK para payments: a PK particionada é (id, created_at) e o histórico sobrevive ao arquivamento
+CREATE INDEX idx_payment_events_payment_id ON payment_events (payment_id, id);
+
+-- Estado atual dos pagamentos existentes vira o primeiro evento de cada um
+INSERT INTO payment_events (payment_id, status, message, occurred_at)
+SELECT id, status, message, updated_at FROM payments ORDER BY id;
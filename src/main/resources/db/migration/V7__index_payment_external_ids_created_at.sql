@@ -0,0 +1,3 @@
+-- Sincronização incremental do filtro de externalIds: lê os ids criados nos últimos segundos.
+-- O INCLUDE permite index-only scan, sem visitar o heap.
+CREATE INDEX idx_payment_external_ids_created_at ON payment_external_ids (created_at) INCLUDE (external_id);
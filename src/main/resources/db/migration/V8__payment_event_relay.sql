@@ -0,0 +1,14 @@
+-- Relay de payment_events para o transporte de eventos (outbox). Cada evento guarda a transação
+-- que o gravou; eventos com tx_id abaixo do xmin do snapshot atual vêm de transações já
+-- encerradas, então o cursor (tx_id, id) avança sem pular eventos de transações em andamento,
+-- mesmo quando ids do BIGSERIAL são confirmados fora de ordem.
+ALTER TABLE payment_events ADD COLUMN tx_id xid8 NOT NULL DEFAULT pg_current_xact_id();
+
+CREATE INDEX idx_payment_events_tx_id ON payment_events (tx_id, id);
+
+CREATE TABLE payment_event_cursors (
+          relay VARCHAR(50) PRIMARY KEY,
+          tx_id xid8 NOT NULL,
+          event_id BIGINT NOT NULL,
+          updated_at TIMESTAMP NOT NULL
+);
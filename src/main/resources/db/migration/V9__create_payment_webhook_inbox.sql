@@ -0,0 +1,13 @@
+-- Webhooks do provedor gravados antes do 202: a linha só sai daqui na mesma transação que aplica
+-- a decisão em payments (ou que encontra o pagamento já em status final), então falhas do lote,
+-- queda da instância ou pagamento ainda não commitado não perdem o resultado. O que nunca casar
+-- com um pagamento PENDING expira pela varredura depois de payment.webhook.inbox-ttl.
+CREATE TABLE payment_webhook_inbox (
+          id BIGSERIAL PRIMARY KEY,
+          external_id VARCHAR(50) NOT NULL,
+          status VARCHAR(20) NOT NULL,
+          message TEXT,
+          received_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_payment_webhook_inbox_received_at ON payment_webhook_inbox (received_at);
@@ -0,0 +1,129 @@
+package br.com.fiap.fase4mspagamento;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Percorre pela API os fluxos cobertos pelos testes de controller e casos de uso, contra uma
+ * instância já no ar (normalmente o executável nativo). Rodar com scripts/native-smoke.sh ou:
+ * mvn test -Pnative-smoke -Dnative.baseUrl=http://localhost:8085
+ */
+@Tag("native")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class NativeSmokeTest {
+
+    private static final String BASE_URL = System.getProperty("native.baseUrl", "http://localhost:8085");
+    // Mesmo valor de PAYMENT_WEBHOOK_SECRET da instância; scripts/native-smoke.sh repassa o que gerou
+    private static final String WEBHOOK_SECRET = System.getProperty("native.webhookSecret");
+    private static final String ORDER_ID = "NATIVE-" + UUID.randomUUID();
+
+    private static final HttpClient client = HttpClient.newHttpClient();
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static long paymentId;
+    private static String externalId;
+
+    @Test
+    @Order(1)
+    void createPayment_ShouldBeAcceptedAndApprovedByMockProvider() throws Exception {
+        HttpResponse<String> response = post("/payments", """
+                {"amount": 150.00, "creditCardNumber": "4111111111111111",
+                 "orderId": "%s", "callbackUrl": "http://localhost:1/callback"}
+                """.formatted(ORDER_ID));
+
+        assertEquals(202, response.statusCode());
+        JsonNode body = objectMapper.readTree(response.body());
+        paymentId = body.get("id").asLong();
+        externalId = body.get("externalId").asText();
+        assertEquals("APPROVED", body.get("status").asText());
+    }
+
+    @Test
+    @Order(2)
+    void getPayment_ShouldFindPaymentByIdExternalIdAndOrder() throws Exception {
+        assertEquals(200, get("/payments/" + paymentId).statusCode());
+        assertEquals(200, get("/payments/external/" + externalId).statusCode());
+
+        HttpResponse<String> byOrder = get("/payments?orderId=" + ORDER_ID);
+        assertEquals(200, byOrder.statusCode());
+        assertEquals(paymentId, objectMapper.readTree(byOrder.body()).get("latest").get("id").asLong());
+
+        assertEquals(404, get("/payments/" + Long.MAX_VALUE).statusCode());
+    }
+
+    @Test
+    @Order(3)
+    void getPaymentHistory_ShouldListStatusEvents() throws Exception {
+        HttpResponse<String> response = get("/payments/" + paymentId + "/history");
+
+        assertEquals(200, response.statusCode());
+        assertTrue(objectMapper.readTree(response.body()).size() >= 2);
+    }
+
+    @Test
+    @Order(4)
+    void providerWebhook_ShouldAcceptSignedAndRejectUnsigned() throws Exception {
+        assertNotNull(WEBHOOK_SECRET, "Defina -Dnative.webhookSecret com o segredo da instância");
+        String body = "{\"externalId\":\"%s\",\"status\":\"APPROVED\",\"message\":\"ok\"}".formatted(externalId);
+        String timestamp = String.valueOf(Instant.now().getEpochSecond());
+
+        HttpResponse<String> signed = client.send(HttpRequest.newBuilder(URI.create(BASE_URL + "/payments/webhooks/provider"))
+                .header("Content-Type", "application/json")
+                .header("X-Provider-Timestamp", timestamp)
+                .header("X-Provider-Signature", sign(timestamp, body))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> unsigned = post("/payments/webhooks/provider", body);
+
+        assertEquals(202, signed.statusCode());
+        assertEquals(401, unsigned.statusCode());
+    }
+
+    @Test
+    @Order(5)
+    void refundAndCancel_ShouldFollowStatusTransitions() throws Exception {
+        HttpResponse<String> refund = post("/payments/" + paymentId + "/refund", "");
+        assertEquals(200, refund.statusCode());
+        assertEquals("REFUNDED", objectMapper.readTree(refund.body()).get("status").asText());
+
+        assertEquals(400, post("/payments/" + paymentId + "/refund", "").statusCode());
+        assertEquals(400, post("/payments/" + paymentId + "/cancel", "").statusCode());
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create(BASE_URL + path)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String json) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create(BASE_URL + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private String sign(String timestamp, String body) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(Base64.getDecoder().decode(WEBHOOK_SECRET), "HmacSHA256"));
+        return HexFormat.of().formatHex(mac.doFinal((timestamp + "." + body).getBytes(StandardCharsets.UTF_8)));
+    }
+}
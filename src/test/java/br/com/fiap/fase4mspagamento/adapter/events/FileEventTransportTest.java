@@ -0,0 +1,80 @@
+package br.com.fiap.fase4mspagamento.adapter.events;
+
+import br.com.fiap.fase4mspagamento.config.EventPublishingProperties;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentEventMessage;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentStatus;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileEventTransportTest {
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private FileEventTransport transport;
+
+    @BeforeEach
+    void setUp() {
+        EventPublishingProperties properties = new EventPublishingProperties();
+        properties.setDirectory(directory.toString());
+        properties.setPartitions(4);
+        transport = new FileEventTransport(properties, objectMapper);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        transport.close();
+    }
+
+    @Test
+    void publish_ShouldKeepEventsOfSameOrderInOnePartitionInOrder() throws Exception {
+        transport.publish(List.of(
+                message(1L, "ORDER-1", PaymentStatus.PENDING),
+                message(2L, "ORDER-2", PaymentStatus.PENDING),
+                message(3L, "ORDER-1", PaymentStatus.APPROVED)));
+        transport.publish(List.of(message(4L, "ORDER-1", PaymentStatus.REFUNDED)));
+
+        List<String> lines = Files.readAllLines(transport.partitionFile(transport.partitionOf("ORDER-1")));
+        List<JsonNode> order1 = lines.stream().map(this::parse)
+                .filter(node -> node.get("key").asText().equals("ORDER-1"))
+                .toList();
+
+        assertEquals(List.of(1L, 3L, 4L), order1.stream().map(node -> node.get("eventId").asLong()).toList());
+        assertEquals("APPROVED", order1.get(1).get("payload").get("status").asText());
+        assertEquals("ext-3", order1.get(1).get("payload").get("externalId").asText());
+    }
+
+    @Test
+    void partitionOf_ShouldBeStableAndWithinRange() {
+        int partition = transport.partitionOf("ORDER-42");
+
+        assertEquals(partition, transport.partitionOf("ORDER-42"));
+        assertTrue(partition >= 0 && partition < 4);
+        assertEquals(0, transport.partitionOf(null));
+    }
+
+    private JsonNode parse(String line) {
+        try {
+            return objectMapper.readTree(line);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private PaymentEventMessage message(Long eventId, String orderId, PaymentStatus status) {
+        return new PaymentEventMessage(eventId, eventId, "ext-" + eventId, orderId, status, "msg", LocalDateTime.now());
+    }
+}
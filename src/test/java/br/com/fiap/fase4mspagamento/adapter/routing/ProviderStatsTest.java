@@ -0,0 +1,88 @@
+package br.com.fiap.fase4mspagamento.adapter.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProviderStatsTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void cost_ShouldFollowLatencyAndPenalizeErrors() {
+        ProviderStats fast = new ProviderStats(null, 1, 0.5, 0.5, 1, 0);
+        ProviderStats flaky = new ProviderStats(null, 1, 0.5, 0.9, 1, 0);
+
+        fast.recordSuccess(10 * MS);
+        flaky.recordSuccess(10 * MS);
+        flaky.recordFailure(10 * MS, 0);
+
+        assertEquals(10.0, fast.cost(), 0.001);
+        assertTrue(flaky.cost() > fast.cost());
+        assertEquals(0.5, flaky.errorRate(), 0.001);
+    }
+
+    @Test
+    void tryAcquireProbe_ShouldEjectAfterErrorsAndAllowOneProbeAfterCooldown() {
+        ProviderStats stats = new ProviderStats(null, 1, 0.5, 0.5, 2, 100);
+
+        stats.recordFailure(MS, 1_000);
+        assertTrue(stats.isHealthy(), "uma amostra não basta para ejetar");
+
+        stats.recordFailure(MS, 1_000);
+        assertFalse(stats.isHealthy());
+        assertFalse(stats.tryAcquireProbe(1_050));
+        assertTrue(stats.tryAcquireProbe(1_100));
+        assertFalse(stats.tryAcquireProbe(1_100), "só uma sonda por vez");
+
+        stats.releaseProbe();
+        assertTrue(stats.tryAcquireProbe(1_100));
+    }
+
+    @Test
+    void recordProbeSuccess_ShouldReadmitOnlyAfterErrorRateDecays() {
+        ProviderStats stats = new ProviderStats(null, 1, 0.25, 0.5, 2, 100);
+        stats.recordFailure(MS, 1_000);
+        stats.recordFailure(MS, 1_000);
+
+        // 1.0 -> 0.75: a sonda passou, mas a média ainda está acima do limite
+        assertFalse(stats.recordProbeSuccess(MS, 1_100));
+        assertFalse(stats.isHealthy());
+        assertFalse(stats.tryAcquireProbe(1_150), "novo cooldown antes da próxima sonda");
+
+        // 0.75 -> 0.5625 -> 0.42
+        stats.recordProbeSuccess(MS, 1_200);
+        assertTrue(stats.recordProbeSuccess(MS, 1_300));
+        assertTrue(stats.isHealthy());
+    }
+
+    @Test
+    void recordSuccess_ShouldNotReadmitEjectedProvider() {
+        ProviderStats stats = new ProviderStats(null, 1, 0.9, 0.5, 2, 100);
+        stats.recordFailure(MS, 1_000);
+        stats.recordFailure(MS, 1_000);
+
+        // Chamada presa ao provedor (status, estorno) derruba a média, mas não é a sonda
+        stats.recordSuccess(MS);
+
+        assertTrue(stats.errorRate() < 0.5);
+        assertFalse(stats.isHealthy());
+    }
+
+    @Test
+    void recordProbeFailure_ShouldRestartCooldown() {
+        ProviderStats stats = new ProviderStats(null, 1, 0.5, 0.5, 2, 100);
+        stats.recordFailure(MS, 1_000);
+        stats.recordFailure(MS, 1_000);
+        assertTrue(stats.tryAcquireProbe(1_100));
+
+        stats.recordProbeFailure(MS, 1_100);
+        stats.releaseProbe();
+
+        assertFalse(stats.isHealthy());
+        assertFalse(stats.tryAcquireProbe(1_150));
+        assertTrue(stats.tryAcquireProbe(1_200));
+    }
+}
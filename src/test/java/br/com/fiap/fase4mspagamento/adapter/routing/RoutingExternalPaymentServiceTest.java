@@ -0,0 +1,293 @@
+package br.com.fiap.fase4mspagamento.adapter.routing;
+
+import br.com.fiap.fase4mspagamento.config.ProviderRoutingProperties;
+import br.com.fiap.fase4mspagamento.domain.entity.Payment;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentStatus;
+import br.com.fiap.fase4mspagamento.port.PaymentProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.random.RandomGenerator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoutingExternalPaymentServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RoutingExternalPaymentService router;
+
+    @AfterEach
+    void tearDown() {
+        if (router != null) {
+            router.shutdown();
+        }
+    }
+
+    @Test
+    void processPayment_ShouldPrefixTransactionIdAndRouteCheckStatusBack() {
+        FakeProvider a = new FakeProvider("a");
+        FakeProvider b = new FakeProvider("b");
+        router = router(properties(), a, b);
+
+        String transactionId = router.processPayment(payment("PAY-1"));
+        String owner = transactionId.substring(0, transactionId.indexOf(':'));
+
+        assertEquals("APPROVED", router.checkStatus(transactionId));
+        FakeProvider expected = owner.equals("a") ? a : b;
+        assertEquals(1, expected.statusCalls.get());
+    }
+
+    @Test
+    void choose_ShouldPreferLowerLatencyProvider() {
+        FakeProvider slow = new FakeProvider("slow");
+        FakeProvider fast = new FakeProvider("fast");
+        router = router(properties(), slow, fast);
+
+        slow.delayMillis = 30;
+        for (int i = 0; i < 5; i++) {
+            router.checkStatus("slow:T" + i);
+            router.checkStatus("fast:T" + i);
+        }
+
+        // Com dois provedores os dois sempre são sorteados e vence o de menor custo
+        for (int i = 0; i < 10; i++) {
+            assertEquals("fast", router.choose().provider().name());
+        }
+    }
+
+    @Test
+    void choose_ShouldSkipEjectedProvider() {
+        FakeProvider broken = new FakeProvider("broken");
+        FakeProvider healthy = new FakeProvider("healthy");
+        ProviderRoutingProperties properties = properties();
+        properties.setMinSamples(2);
+        properties.setCooldown(Duration.ofMinutes(5));
+        properties.getHedge().setEnabled(false);
+        router = router(properties, broken, healthy);
+
+        broken.failing = true;
+        assertThrows(IllegalStateException.class, () -> router.checkStatus("broken:T1"));
+        assertThrows(IllegalStateException.class, () -> router.checkStatus("broken:T2"));
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals("healthy", router.choose().provider().name());
+        }
+    }
+
+    @Test
+    void processPayment_ShouldSendOnlyOneProbeToEjectedProvider() throws Exception {
+        FakeProvider broken = new FakeProvider("broken");
+        FakeProvider healthy = new FakeProvider("healthy");
+        ProviderRoutingProperties properties = properties();
+        properties.setMinSamples(2);
+        properties.setCooldown(Duration.ZERO);
+        properties.getHedge().setEnabled(false);
+        router = router(properties, broken, healthy);
+        broken.failing = true;
+        assertThrows(IllegalStateException.class, () -> router.checkStatus("broken:T1"));
+        assertThrows(IllegalStateException.class, () -> router.checkStatus("broken:T2"));
+
+        // A sonda fica presa no provedor enquanto outras requisições chegam
+        broken.failing = false;
+        CountDownLatch release = new CountDownLatch(1);
+        broken.processGate = release;
+        CompletableFuture<String> probe = CompletableFuture.supplyAsync(() -> router.processPayment(payment("PAY-0")));
+        while (broken.processCalls.get() == 0) {
+            Thread.onSpinWait();
+        }
+        for (int i = 1; i <= 10; i++) {
+            assertTrue(router.processPayment(payment("PAY-" + i)).startsWith("healthy:"));
+        }
+        release.countDown();
+
+        assertTrue(probe.get(5, TimeUnit.SECONDS).startsWith("broken:"));
+        assertEquals(1, broken.processCalls.get());
+    }
+
+    @Test
+    void checkStatus_ShouldHedgeSlowRequestAndReturnFirstAnswer() {
+        FakeProvider provider = new FakeProvider("a");
+        ProviderRoutingProperties properties = properties();
+        properties.getHedge().setDelay(Duration.ofMillis(20));
+        properties.getHedge().setMaxRatio(1.0);
+        router = router(properties, provider);
+        // Só a primeira chamada é lenta; o hedge responde antes dela
+        provider.firstCallDelayMillis = 1_000;
+
+        long start = System.nanoTime();
+        assertEquals("APPROVED", router.checkStatus("a:T1"));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMillis < 500, "hedge deveria responder antes da chamada lenta: " + elapsedMillis + "ms");
+        assertEquals(2, provider.statusCalls.get());
+        assertEquals(1.0, meterRegistry.get("payment.provider.hedges").counter().count());
+    }
+
+    @Test
+    void checkStatus_ShouldUsePrimary_WhenTransactionIdHasNoProviderPrefix() {
+        FakeProvider light = new FakeProvider("light");
+        FakeProvider heavy = new FakeProvider("heavy");
+        ProviderRoutingProperties properties = properties();
+        properties.setWeights(Map.of("light", 1, "heavy", 10));
+        router = router(properties, light, heavy);
+
+        router.checkStatus("MOCK-TRANS-legacy");
+
+        assertEquals(1, heavy.statusCalls.get());
+        assertEquals(0, light.statusCalls.get());
+    }
+
+    @Test
+    void refundPayment_ShouldGoToProviderThatProcessedThePayment() {
+        FakeProvider a = new FakeProvider("a");
+        FakeProvider b = new FakeProvider("b");
+        router = router(properties(), a, b);
+
+        String transactionId = router.processPayment(payment("PAY-1"));
+        // Outra instância, sem nada em memória, recebe o pedido de estorno
+        RoutingExternalPaymentService otherInstance = router(properties(), a, b);
+        otherInstance.refundPayment(payment("PAY-1").withProviderTransactionId(transactionId));
+
+        FakeProvider owner = transactionId.startsWith("a:") ? a : b;
+        FakeProvider other = owner == a ? b : a;
+        assertEquals(1, owner.refundCalls.get());
+        assertEquals(0, other.refundCalls.get());
+    }
+
+    @Test
+    void refundPayment_ShouldUsePrimary_WhenPaymentHasNoProviderTransactionId() {
+        FakeProvider light = new FakeProvider("light");
+        FakeProvider heavy = new FakeProvider("heavy");
+        ProviderRoutingProperties properties = properties();
+        properties.setWeights(Map.of("light", 1, "heavy", 10));
+        router = router(properties, light, heavy);
+
+        router.refundPayment(payment("PAY-1"));
+
+        assertEquals(1, heavy.refundCalls.get());
+        assertEquals(0, light.refundCalls.get());
+    }
+
+    @Test
+    void cancelPayment_ShouldVoidAtProviderThatProcessedThePayment() {
+        FakeProvider a = new FakeProvider("a");
+        FakeProvider b = new FakeProvider("b");
+        router = router(properties(), a, b);
+
+        String transactionId = router.processPayment(payment("PAY-1"));
+        router(properties(), a, b).cancelPayment(transactionId);
+
+        FakeProvider owner = transactionId.startsWith("a:") ? a : b;
+        FakeProvider other = owner == a ? b : a;
+        assertEquals(List.of(transactionId.substring(2)), owner.cancelled);
+        assertTrue(other.cancelled.isEmpty());
+    }
+
+    @Test
+    void cancelPayment_ShouldFail_WhenTransactionHasNoKnownProvider() {
+        FakeProvider a = new FakeProvider("a");
+        router = router(properties(), a);
+
+        assertThrows(IllegalStateException.class, () -> router.cancelPayment("MOCK-TRANS-legacy"));
+        assertThrows(IllegalStateException.class, () -> router.cancelPayment("removed:T-1"));
+        assertTrue(a.cancelled.isEmpty());
+    }
+
+    private RoutingExternalPaymentService router(ProviderRoutingProperties properties, PaymentProvider... providers) {
+        return new RoutingExternalPaymentService(List.of(providers), properties, meterRegistry, RandomGenerator.of("L64X128MixRandom"));
+    }
+
+    private ProviderRoutingProperties properties() {
+        ProviderRoutingProperties properties = new ProviderRoutingProperties();
+        properties.setEwmaAlpha(0.5);
+        properties.getHedge().setDelay(Duration.ofSeconds(1));
+        return properties;
+    }
+
+    private Payment payment(String externalId) {
+        LocalDateTime now = LocalDateTime.now();
+        return new Payment(1L, externalId, new BigDecimal("10.00"), null, "ORDER-1",
+                "http://example.com/callback", PaymentStatus.PENDING, "Processando pagamento", now, now);
+    }
+
+    private static class FakeProvider implements PaymentProvider {
+        private final String name;
+        private final AtomicInteger processCalls = new AtomicInteger();
+        private final AtomicInteger statusCalls = new AtomicInteger();
+        private final AtomicInteger refundCalls = new AtomicInteger();
+        private final List<String> cancelled = new CopyOnWriteArrayList<>();
+        private volatile long delayMillis;
+        private volatile long firstCallDelayMillis;
+        private volatile boolean failing;
+        private volatile CountDownLatch processGate;
+
+        FakeProvider(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public String processPayment(Payment payment) {
+            processCalls.incrementAndGet();
+            CountDownLatch gate = processGate;
+            if (gate != null) {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (failing) {
+                throw new IllegalStateException("provedor " + name + " indisponível");
+            }
+            return "T-" + processCalls.get();
+        }
+
+        @Override
+        public String checkStatus(String transactionId) {
+            int call = statusCalls.incrementAndGet();
+            if (failing) {
+                throw new IllegalStateException("provedor " + name + " indisponível");
+            }
+            sleep(call == 1 && firstCallDelayMillis > 0 ? firstCallDelayMillis : delayMillis);
+            return "APPROVED";
+        }
+
+        @Override
+        public String refundPayment(Payment payment) {
+            refundCalls.incrementAndGet();
+            return "R-" + name;
+        }
+
+        @Override
+        public void cancelPayment(String transactionId) {
+            cancelled.add(transactionId);
+        }
+
+        private void sleep(long millis) {
+            if (millis <= 0) {
+                return;
+            }
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package br.com.fiap.fase4mspagamento.benchmark;
+
+import br.com.fiap.fase4mspagamento.domain.id.IdGenerator;
+import br.com.fiap.fase4mspagamento.domain.id.RandomIdGenerator;
+import br.com.fiap.fase4mspagamento.domain.id.TimeOrderedIdGenerator;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Vazão de inserção num índice único de external_id (como a PK de payment_external_ids) com ids
+ * aleatórios e ordenados no tempo, e o tamanho final do índice (páginas divididas ficam meio vazias).
+ * Usa uma tabela própria, criada e removida pelo teste.
+ * Rode com: mvn test -Pbenchmark -Dtest=ExternalIdIndexBenchmarkTest
+ */
+@Tag("benchmark")
+@SpringBootTest
+class ExternalIdIndexBenchmarkTest {
+
+    private static final String TABLE = "benchmark_external_ids";
+    private static final int BATCHES = 200;
+    private static final int BATCH_SIZE = 1_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void insertThroughput() {
+        measure("uuid v4", new RandomIdGenerator());
+        measure("uuid v7", new TimeOrderedIdGenerator(Clock.systemUTC()));
+    }
+
+    private void measure(String label, IdGenerator generator) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + TABLE);
+        jdbcTemplate.execute("CREATE TABLE " + TABLE + " (external_id VARCHAR(50) PRIMARY KEY, payment_id BIGINT NOT NULL)");
+        try {
+            long id = 0;
+            long start = System.nanoTime();
+            for (int batch = 0; batch < BATCHES; batch++) {
+                List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+                for (int i = 0; i < BATCH_SIZE; i++) {
+                    rows.add(new Object[]{"PAYER-" + generator.next(), ++id});
+                }
+                jdbcTemplate.batchUpdate("INSERT INTO " + TABLE + " (external_id, payment_id) VALUES (?, ?)", rows);
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            Long indexBytes = jdbcTemplate.queryForObject(
+                    "SELECT pg_relation_size('" + TABLE + "_pkey')", Long.class);
+            System.out.printf("[benchmark] %s: %d inserts em %.2fs = %.0f inserts/s, índice %d KB%n",
+                    label, id, seconds, id / seconds, indexBytes / 1024);
+            assertEquals((long) BATCHES * BATCH_SIZE, id);
+        } finally {
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + TABLE);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.fiap.fase4mspagamento.benchmark;
+
+import br.com.fiap.fase4mspagamento.domain.id.IdGenerator;
+import br.com.fiap.fase4mspagamento.domain.id.RandomIdGenerator;
+import br.com.fiap.fase4mspagamento.domain.id.TimeOrderedIdGenerator;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Custo de gerar externalIds com UUID v4 (SecureRandom compartilhado) e UUID v7 (ThreadLocalRandom),
+ * com uma e com várias threads disputando o gerador. Não precisa de banco.
+ * Rode com: mvn test -Pbenchmark -Dtest=IdGenerationBenchmarkTest
+ */
+@Tag("benchmark")
+class IdGenerationBenchmarkTest {
+
+    private static final int THREADS = 32;
+    private static final int IDS_PER_THREAD = 200_000;
+    private static final int WARMUP_PER_THREAD = 50_000;
+
+    @Test
+    void generationCost() throws Exception {
+        IdGenerator random = new RandomIdGenerator();
+        IdGenerator timeOrdered = new TimeOrderedIdGenerator(Clock.systemUTC());
+
+        for (int threads : new int[]{1, THREADS}) {
+            run(random, threads, WARMUP_PER_THREAD);
+            run(timeOrdered, threads, WARMUP_PER_THREAD);
+
+            report("uuid v4", threads, random);
+            report("uuid v7", threads, timeOrdered);
+        }
+    }
+
+    private void report(String label, int threads, IdGenerator generator) throws Exception {
+        long start = System.nanoTime();
+        int generated = run(generator, threads, IDS_PER_THREAD);
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("[benchmark] %s, %d thread(s): %.0f ns/id, %.0f ids/s%n",
+                label, threads, (double) elapsed * threads / generated, generated / (elapsed / 1e9));
+        assertEquals(threads * IDS_PER_THREAD, generated);
+    }
+
+    private int run(IdGenerator generator, int threads, int perThread) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                int count = 0;
+                for (int i = 0; i < perThread; i++) {
+                    // Mesmo formato do externalId: o custo do toString entra na conta
+                    if (("PAYER-" + generator.next()).length() > 0) {
+                        count++;
+                    }
+                }
+                return count;
+            }));
+        }
+        int total = 0;
+        for (Future<Integer> future : futures) {
+            total += future.get();
+        }
+        executor.shutdown();
+        return total;
+    }
+}
@@ -0,0 +1,98 @@
+package br.com.fiap.fase4mspagamento.benchmark;
+
+import br.com.fiap.fase4mspagamento.config.JsonConfig;
+import br.com.fiap.fase4mspagamento.controller.dto.PaymentNotification;
+import br.com.fiap.fase4mspagamento.controller.dto.PaymentResponse;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sun.management.ThreadMXBean;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * CPU e bytes alocados por serialização do corpo do GET (PaymentResponse) e do callback
+ * (PaymentNotification), com o ObjectMapper padrão e com o de JsonConfig. A alocação vem do
+ * contador por thread da JVM, então o número é por operação e não depende do GC.
+ * Rode com: mvn test -Pbenchmark -Dtest=JsonSerializationBenchmarkTest
+ */
+@Tag("benchmark")
+class JsonSerializationBenchmarkTest {
+
+    private static final int WARMUP = 200_000;
+    private static final int ITERATIONS = 1_000_000;
+
+    private final ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void serializationCost() throws Exception {
+        ObjectMapper standard = mapper(false);
+        ObjectMapper optimized = mapper(true);
+
+        LocalDateTime now = LocalDateTime.now();
+        PaymentResponse response = new PaymentResponse(42L, "PAYER-0196d3f0-7c1a-7abc-9def-0123456789ab",
+                new BigDecimal("150.75"), PaymentStatus.APPROVED, "Pagamento aprovado pelo serviço externo",
+                "ORDER-123", now.minusSeconds(3), now);
+        PaymentNotification notification = new PaymentNotification(42L, "PAYER-0196d3f0-7c1a-7abc-9def-0123456789ab",
+                PaymentStatus.APPROVED, "Pagamento aprovado pelo serviço externo", "ORDER-123");
+
+        Result getStandard = measure(standard.writerFor(PaymentResponse.class), response);
+        Result getOptimized = measure(optimized.writerFor(PaymentResponse.class), response);
+        Result callbackStandard = measure(standard.writerFor(PaymentNotification.class), notification);
+        Result callbackOptimized = measure(optimized.writerFor(PaymentNotification.class), notification);
+
+        print("GET padrão", getStandard);
+        print("GET otimizado", getOptimized);
+        print("callback padrão", callbackStandard);
+        print("callback otimizado", callbackOptimized);
+        assertTrue(getOptimized.bytesPerOp < getStandard.bytesPerOp);
+    }
+
+    private ObjectMapper mapper(boolean optimized) {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (optimized) {
+            new JsonConfig().optimizedJsonCustomizer().customize(builder);
+        }
+        return builder.build();
+    }
+
+    private Result measure(ObjectWriter writer, Object value) throws Exception {
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += writer.writeValueAsBytes(value).length;
+        }
+        long threadId = Thread.currentThread().threadId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long cpuBefore = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += writer.writeValueAsBytes(value).length;
+        }
+        long cpu = threads.getCurrentThreadCpuTime() - cpuBefore;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        assertTrue(sink > 0);
+        return new Result((double) cpu / ITERATIONS, (double) allocated / ITERATIONS);
+    }
+
+    private void print(String label, Result result) {
+        System.out.printf("[benchmark] %s: %.0f ns de CPU/op, %.0f bytes/op%n", label, result.cpuNanosPerOp, result.bytesPerOp);
+    }
+
+    private static class Result {
+        private final double cpuNanosPerOp;
+        private final double bytesPerOp;
+
+        Result(double cpuNanosPerOp, double bytesPerOp) {
+            this.cpuNanosPerOp = cpuNanosPerOp;
+            this.bytesPerOp = bytesPerOp;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package br.com.fiap.fase4mspagamento.benchmark;
+
+import br.com.fiap.fase4mspagamento.domain.entity.Payment;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentStatus;
+import br.com.fiap.fase4mspagamento.gateway.PaymentGateway;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Muitas conexões simultâneas fazendo polling de GET /payments/{id}: vazão, latência e threads
+ * de plataforma vivas no servidor. Compare o pool de threads do Tomcat com virtual threads:
+ *   mvn test -Pbenchmark -Dtest=PaymentConcurrencyBenchmarkTest
+ *   mvn test -Pbenchmark -Dtest=PaymentConcurrencyBenchmarkTest -Dspring.profiles.active=virtual-threads
+ * O cliente usa virtual threads nos dois casos, então a diferença de threads vem do servidor.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class PaymentConcurrencyBenchmarkTest {
+
+    private static final int CLIENTS = 2_000;
+    private static final int REQUESTS_PER_CLIENT = 10;
+    private static final int PAYMENTS = 100;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private PaymentGateway paymentGateway;
+
+    @Test
+    void concurrentPolling() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < PAYMENTS; i++) {
+            ids.add(paymentGateway.save(newPayment()).getId());
+        }
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        poll(client, ids, CLIENTS / 10);
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        long start = System.nanoTime();
+        long[] latencies = poll(client, ids, CLIENTS);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Arrays.sort(latencies);
+        System.out.printf("[benchmark] %d clientes x %d GETs em %.2fs = %.0f req/s, p50 %.1fms, p99 %.1fms%n",
+                CLIENTS, REQUESTS_PER_CLIENT, seconds, latencies.length / seconds,
+                latencies[latencies.length / 2] / 1e6, latencies[(int) (latencies.length * 0.99)] / 1e6);
+        System.out.printf("[benchmark] threads de plataforma: pico %d, vivas %d%n",
+                threads.getPeakThreadCount(), threads.getThreadCount());
+        assertEquals(CLIENTS * REQUESTS_PER_CLIENT, latencies.length);
+    }
+
+    private long[] poll(HttpClient client, List<Long> ids, int clients) throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                int offset = c;
+                futures.add(executor.submit(() -> {
+                    long[] elapsed = new long[REQUESTS_PER_CLIENT];
+                    for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+                        Long id = ids.get((offset + i) % ids.size());
+                        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/payments/" + id))
+                                .GET()
+                                .build();
+                        long start = System.nanoTime();
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        elapsed[i] = System.nanoTime() - start;
+                        assertEquals(200, response.statusCode());
+                    }
+                    return elapsed;
+                }));
+            }
+            long[] all = new long[clients * REQUESTS_PER_CLIENT];
+            for (int c = 0; c < clients; c++) {
+                System.arraycopy(futures.get(c).get(), 0, all, c * REQUESTS_PER_CLIENT, REQUESTS_PER_CLIENT);
+            }
+            return all;
+        }
+    }
+
+    private Payment newPayment() {
+        LocalDateTime now = LocalDateTime.now();
+        return new Payment(
+                null,
+                "BENCH-" + UUID.randomUUID(),
+                new BigDecimal("100.00"),
+                null,
+                "tok_benchmark",
+                "1111",
+                "ORDER-BENCH",
+                "http://localhost/callback",
+                PaymentStatus.PENDING,
+                "Benchmark",
+                now,
+                now,
+                null
+        );
+    }
+}
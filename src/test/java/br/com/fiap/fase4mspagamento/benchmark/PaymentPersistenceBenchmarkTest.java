@@ -0,0 +1,101 @@
+package br.com.fiap.fase4mspagamento.benchmark;
+
+import br.com.fiap.fase4mspagamento.domain.entity.Payment;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentStatus;
+import br.com.fiap.fase4mspagamento.gateway.PaymentGateway;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Mede a vazão de PaymentJpaGateway.save (insert + update de status) contra o banco local.
+ * Compare: mvn test -Pbenchmark  vs  mvn test -Pbenchmark -Dspring.profiles.active=prod
+ */
+@Tag("benchmark")
+@SpringBootTest
+class PaymentPersistenceBenchmarkTest {
+
+    private static final int THREADS = 32;
+    private static final int PAYMENTS_PER_THREAD = 200;
+    private static final int WARMUP_PER_THREAD = 20;
+
+    @Autowired
+    private PaymentGateway paymentGateway;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void saveThroughput() throws Exception {
+        run(WARMUP_PER_THREAD);
+
+        long start = System.nanoTime();
+        int saved = run(PAYMENTS_PER_THREAD);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Timer acquire = meterRegistry.find("hikaricp.connections.acquire").timer();
+        System.out.printf("[benchmark] %d saves (insert+update) em %.2fs = %.0f saves/s%n",
+                saved, seconds, saved / seconds);
+        if (acquire != null) {
+            System.out.printf("[benchmark] espera por conexão: média %.3fms, máx %.3fms%n",
+                    acquire.mean(TimeUnit.MILLISECONDS), acquire.max(TimeUnit.MILLISECONDS));
+        }
+        assertEquals(THREADS * PAYMENTS_PER_THREAD * 2, saved);
+    }
+
+    private int run(int perThread) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                int count = 0;
+                for (int i = 0; i < perThread; i++) {
+                    Payment pending = paymentGateway.save(newPayment());
+                    paymentGateway.save(pending.withStatus(PaymentStatus.APPROVED, "Pagamento aprovado"));
+                    count += 2;
+                }
+                return count;
+            }));
+        }
+        int total = 0;
+        for (Future<Integer> future : futures) {
+            total += future.get();
+        }
+        executor.shutdown();
+        return total;
+    }
+
+    private Payment newPayment() {
+        LocalDateTime now = LocalDateTime.now();
+        return new Payment(
+                null,
+                "BENCH-" + UUID.randomUUID(),
+                new BigDecimal("100.00"),
+                null,
+                "tok_benchmark",
+                "1111",
+                "ORDER-BENCH",
+                "http://localhost/callback",
+                PaymentStatus.PENDING,
+                "Benchmark",
+                now,
+                now,
+                null
+        );
+    }
+}
@@ -0,0 +1,112 @@
+package br.com.fiap.fase4mspagamento.benchmark;
+
+import br.com.fiap.fase4mspagamento.controller.dto.PaymentResponse;
+import br.com.fiap.fase4mspagamento.controller.mapper.PaymentMapper;
+import br.com.fiap.fase4mspagamento.domain.entity.Payment;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentStatus;
+import br.com.fiap.fase4mspagamento.gateway.PaymentGateway;
+import br.com.fiap.fase4mspagamento.gateway.database.jpa.entity.PaymentEntity;
+import br.com.fiap.fase4mspagamento.gateway.database.jpa.repository.PaymentRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compara o GET por id/externalId via entidade completa (findById -> Payment -> PaymentResponse)
+ * com a projeção direta (findViewById -> PaymentResponse). Cada leitura roda na própria transação,
+ * como numa requisição com open-in-view.
+ * Rode com: mvn test -Pbenchmark -Dtest=PaymentReadBenchmarkTest
+ */
+@Tag("benchmark")
+@SpringBootTest
+class PaymentReadBenchmarkTest {
+
+    private static final int PAYMENTS = 200;
+    private static final int ROUNDS = 25;
+
+    @Autowired
+    private PaymentGateway paymentGateway;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentMapper paymentMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void projectionVersusEntityHydration() {
+        List<Payment> payments = new ArrayList<>();
+        for (int i = 0; i < PAYMENTS; i++) {
+            payments.add(paymentGateway.save(newPayment()));
+        }
+
+        Function<Payment, PaymentResponse> entityPath = payment -> paymentMapper.toResponse(
+                paymentRepository.findById(payment.getId()).map(PaymentEntity::toDomain).orElseThrow());
+        Function<Payment, PaymentResponse> projectionPath = payment -> paymentMapper.toResponse(
+                paymentRepository.findViewById(payment.getId()).orElseThrow());
+        Function<Payment, PaymentResponse> entityByExternalId = payment -> paymentMapper.toResponse(
+                paymentRepository.findByExternalId(payment.getExternalId()).map(PaymentEntity::toDomain).orElseThrow());
+        Function<Payment, PaymentResponse> projectionByExternalId = payment -> paymentMapper.toResponse(
+                paymentRepository.findViewByExternalId(payment.getExternalId()).orElseThrow());
+
+        // Aquecimento do JIT e dos caches de plano antes de medir
+        run(payments, entityPath, 5);
+        run(payments, projectionPath, 5);
+
+        report("findById (entidade)", run(payments, entityPath, ROUNDS));
+        report("findViewById (projeção)", run(payments, projectionPath, ROUNDS));
+        report("findByExternalId (entidade)", run(payments, entityByExternalId, ROUNDS));
+        report("findViewByExternalId (projeção)", run(payments, projectionByExternalId, ROUNDS));
+    }
+
+    private double run(List<Payment> payments, Function<Payment, PaymentResponse> read, int rounds) {
+        long start = System.nanoTime();
+        int reads = 0;
+        for (int r = 0; r < rounds; r++) {
+            for (Payment payment : payments) {
+                PaymentResponse response = transactionTemplate.execute(status -> read.apply(payment));
+                assertEquals(payment.getExternalId(), response.getExternalId());
+                reads++;
+            }
+        }
+        return (System.nanoTime() - start) / 1e3 / reads;
+    }
+
+    private void report(String label, double microsPerRead) {
+        System.out.printf("[benchmark] %-32s %8.1f µs/leitura (%.0f leituras/s)%n",
+                label, microsPerRead, 1e6 / microsPerRead);
+    }
+
+    private Payment newPayment() {
+        LocalDateTime now = LocalDateTime.now();
+        return new Payment(
+                null,
+                "BENCH-READ-" + UUID.randomUUID(),
+                new BigDecimal("100.00"),
+                null,
+                "tok_benchmark",
+                "1111",
+                "ORDER-BENCH-READ",
+                "http://localhost/callback",
+                PaymentStatus.APPROVED,
+                "Benchmark",
+                now,
+                now,
+                null
+        );
+    }
+}
@@ -0,0 +1,58 @@
+package br.com.fiap.fase4mspagamento.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheConfigTest {
+
+    private Cache ordersCache;
+
+    @BeforeEach
+    void setUp() {
+        CacheProperties properties = new CacheProperties();
+        properties.setCacheNames(List.of(CacheConfig.PAYMENTS_BY_ORDER));
+        properties.getCaffeine().setSpec("maximumSize=100,expireAfterWrite=30s");
+        CacheManager cacheManager = new CacheConfig().cacheManager(properties);
+        ((TransactionAwareCacheManagerProxy) cacheManager).afterPropertiesSet();
+        ordersCache = cacheManager.getCache(CacheConfig.PAYMENTS_BY_ORDER);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void evict_ShouldWaitForCommit_InsideTransaction() {
+        ordersCache.put("ORDER-1", "lista antiga");
+        TransactionSynchronizationManager.initSynchronization();
+
+        ordersCache.evict("ORDER-1");
+
+        assertEquals("lista antiga", ordersCache.get("ORDER-1", String.class));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertNull(ordersCache.get("ORDER-1"));
+    }
+
+    @Test
+    void evict_ShouldApplyImmediately_WithoutTransaction() {
+        ordersCache.put("ORDER-1", "lista");
+
+        ordersCache.evict("ORDER-1");
+
+        assertNull(ordersCache.get("ORDER-1"));
+    }
+}
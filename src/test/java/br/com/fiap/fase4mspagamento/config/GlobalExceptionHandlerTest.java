@@ -0,0 +1,74 @@
+package br.com.fiap.fase4mspagamento.config;
+
+import br.com.fiap.fase4mspagamento.exception.IllegalPaymentStatusException;
+import br.com.fiap.fase4mspagamento.exception.InvalidWebhookSignatureException;
+import br.com.fiap.fase4mspagamento.exception.PaymentConflictException;
+import br.com.fiap.fase4mspagamento.exception.PaymentNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GlobalExceptionHandlerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private GlobalExceptionHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        handler = new GlobalExceptionHandler(meterRegistry);
+    }
+
+    @Test
+    void domainExceptions_ShouldNotCaptureStackTrace() {
+        assertEquals(0, new PaymentNotFoundException("x").getStackTrace().length);
+        assertEquals(0, new IllegalPaymentStatusException("x").getStackTrace().length);
+        assertEquals(0, new InvalidWebhookSignatureException("x").getStackTrace().length);
+        assertEquals(0, new PaymentConflictException("x").getStackTrace().length);
+    }
+
+    @Test
+    void handlePaymentNotFoundException_ShouldReturnProblemJsonAndCount() {
+        ResponseEntity<ProblemDetail> response =
+                handler.handlePaymentNotFoundException(new PaymentNotFoundException("Pagamento não encontrado com ID: 9"));
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_PROBLEM_JSON, response.getHeaders().getContentType());
+        assertEquals("Pagamento não encontrado com ID: 9", response.getBody().getDetail());
+        assertEquals("urn:problem:payment:payment-not-found", response.getBody().getType().toString());
+        assertEquals(1.0, meterRegistry.get("payment.api.errors").tag("type", "payment-not-found").counter().count());
+    }
+
+    @Test
+    void handleIllegalPaymentStatusException_ShouldReturnBadRequest() {
+        ResponseEntity<ProblemDetail> response =
+                handler.handleIllegalPaymentStatusException(new IllegalPaymentStatusException("não pode ser estornado"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(400, response.getBody().getStatus());
+    }
+
+    @Test
+    void handleInvalidWebhookSignatureException_ShouldNotExposeReason() {
+        ResponseEntity<ProblemDetail> response =
+                handler.handleInvalidWebhookSignatureException(new InvalidWebhookSignatureException("Timestamp fora da tolerância"));
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        assertFalse(response.getBody().getDetail().contains("Timestamp"));
+    }
+
+    @Test
+    void handlePaymentConflictException_ShouldReturnConflict() {
+        ResponseEntity<ProblemDetail> response =
+                handler.handlePaymentConflictException(new PaymentConflictException("sem transação registrada"));
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals(1.0, meterRegistry.get("payment.api.errors").tag("type", "payment-conflict").counter().count());
+    }
+}
@@ -0,0 +1,69 @@
+package br.com.fiap.fase4mspagamento.config;
+
+import br.com.fiap.fase4mspagamento.controller.dto.PaymentResponse;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonConfigTest {
+
+    private ObjectMapper defaultMapper;
+    private ObjectMapper optimizedMapper;
+
+    @BeforeEach
+    void setUp() {
+        // Mesmo padrão do Spring Boot: datas como texto ISO
+        defaultMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        new JsonConfig().optimizedJsonCustomizer().customize(builder);
+        optimizedMapper = builder.build();
+    }
+
+    @Test
+    void optimizedMapper_ShouldWriteSameJsonAsDefault() throws Exception {
+        List<LocalDateTime> samples = List.of(
+                LocalDateTime.of(2025, 5, 15, 10, 0),
+                LocalDateTime.of(2025, 5, 15, 10, 0, 7),
+                LocalDateTime.of(2025, 1, 2, 3, 4, 5, 100_000_000),
+                LocalDateTime.of(2025, 12, 31, 23, 59, 59, 123_456_000),
+                LocalDateTime.of(999, 1, 1, 0, 0, 0, 1),
+                LocalDateTime.of(12345, 6, 7, 8, 9, 10));
+
+        for (LocalDateTime sample : samples) {
+            PaymentResponse response = new PaymentResponse(1L, "PAYER-1", new BigDecimal("100.50"),
+                    PaymentStatus.APPROVED, "Pagamento aprovado", "ORDER-1", sample, sample);
+            assertEquals(defaultMapper.writeValueAsString(response), optimizedMapper.writeValueAsString(response),
+                    "divergência para " + sample);
+        }
+    }
+
+    @Test
+    void optimizedMapper_ShouldKeepNumericTimestamps_WhenEnabled() throws Exception {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        new JsonConfig().optimizedJsonCustomizer().customize(builder);
+
+        assertEquals("[2025,5,15,10,30]", builder.build().writeValueAsString(LocalDateTime.of(2025, 5, 15, 10, 30)));
+    }
+
+    @Test
+    void optimizedMapper_ShouldRoundTripLocalDateTime() throws Exception {
+        LocalDateTime value = LocalDateTime.of(2025, 5, 15, 10, 30, 0, 120_000_000);
+
+        String json = optimizedMapper.writeValueAsString(value);
+
+        assertEquals("\"2025-05-15T10:30:00.12\"", json);
+        assertEquals(value, optimizedMapper.readValue(json, LocalDateTime.class));
+    }
+}
@@ -0,0 +1,45 @@
+package br.com.fiap.fase4mspagamento.config;
+
+import br.com.fiap.fase4mspagamento.controller.dto.PaymentNotification;
+import br.com.fiap.fase4mspagamento.controller.dto.ProviderWebhookRequest;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentSummary;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PaymentRuntimeHintsTest {
+
+    private RuntimeHints hints;
+
+    @BeforeEach
+    void setUp() {
+        hints = new RuntimeHints();
+        new PaymentRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void shouldRegisterJacksonBindingForDtosSerializedOutsideControllers() throws Exception {
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(ProviderWebhookRequest.class.getMethod("getExternalId")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(PaymentNotification.class.getMethod("getStatus")).test(hints));
+    }
+
+    @Test
+    void shouldRegisterConstructorsOfJpqlProjections() {
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(PaymentSummary.class).withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(PaymentView.class).withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints));
+    }
+
+    @Test
+    void shouldIncludeFlywayMigrations() {
+        assertTrue(RuntimeHintsPredicates.resource().forResource("db/migration/V1__create_payments_table.sql").test(hints));
+    }
+}
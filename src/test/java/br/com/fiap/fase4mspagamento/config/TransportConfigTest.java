@@ -0,0 +1,68 @@
+package br.com.fiap.fase4mspagamento.config;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransportConfigTest {
+
+    private static final String BODY = "{\"id\":1,\"status\":\"PENDING\"}";
+
+    private final FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new TransportConfig().paymentEtagFilter();
+
+    @Test
+    void paymentEtagFilter_ShouldOnlyCoverPaymentEndpoints() {
+        assertEquals(1, registration.getUrlPatterns().size());
+        assertTrue(registration.getUrlPatterns().contains("/payments/*"));
+    }
+
+    @Test
+    void paymentEtagFilter_ShouldSetContentLengthAndEtag_EvenWhenControllerFlushes() throws Exception {
+        MockHttpServletResponse response = get(null);
+
+        assertEquals(BODY.length(), response.getContentLength());
+        assertNotNull(response.getHeader(HttpHeaders.ETAG));
+        assertEquals(BODY, response.getContentAsString());
+    }
+
+    @Test
+    void paymentEtagFilter_ShouldAnswerNotModified_WhenPollingWithSameEtag() throws Exception {
+        String etag = get(null).getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletResponse response = get(etag);
+
+        assertEquals(HttpServletResponse.SC_NOT_MODIFIED, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    private MockHttpServletResponse get(String ifNoneMatch) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/payments/1");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                resp.setContentType("application/json");
+                resp.getOutputStream().write(BODY.getBytes(StandardCharsets.UTF_8));
+                // Mesmo comportamento do conversor Jackson
+                resp.flushBuffer();
+            }
+        });
+        registration.getFilter().doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -1,12 +1,22 @@
 package br.com.fiap.fase4mspagamento.controller;
 
+import br.com.fiap.fase4mspagamento.controller.dto.BulkRefundRequest;
+import br.com.fiap.fase4mspagamento.controller.dto.OrderPaymentsResponse;
+import br.com.fiap.fase4mspagamento.controller.dto.PaymentEventResponse;
 import br.com.fiap.fase4mspagamento.controller.dto.PaymentRequest;
 import br.com.fiap.fase4mspagamento.controller.dto.PaymentResponse;
+import br.com.fiap.fase4mspagamento.controller.dto.RefundResultResponse;
 import br.com.fiap.fase4mspagamento.controller.mapper.PaymentMapper;
 import br.com.fiap.fase4mspagamento.domain.entity.Payment;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentEvent;
 import br.com.fiap.fase4mspagamento.domain.entity.PaymentStatus;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentSummary;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentView;
+import br.com.fiap.fase4mspagamento.domain.entity.RefundResult;
+import br.com.fiap.fase4mspagamento.usecase.CancelPaymentUsecase;
 import br.com.fiap.fase4mspagamento.usecase.GetPaymentUsecase;
 import br.com.fiap.fase4mspagamento.usecase.ProcessPaymentUsecase;
+import br.com.fiap.fase4mspagamento.usecase.RefundPaymentUsecase;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,6 +28,7 @@ import org.springframework.http.ResponseEntity;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -34,6 +45,12 @@ class PaymentControllerTest {
     @Mock
     private GetPaymentUsecase getPaymentUsecase;
 
+    @Mock
+    private RefundPaymentUsecase refundPaymentUsecase;
+
+    @Mock
+    private CancelPaymentUsecase cancelPaymentUsecase;
+
     @Mock
     private PaymentMapper paymentMapper;
 
@@ -43,6 +60,7 @@ class PaymentControllerTest {
     private PaymentRequest paymentRequest;
     private Payment payment;
     private Payment processedPayment;
+    private PaymentView paymentView;
     private PaymentResponse paymentResponse;
     private final LocalDateTime now = LocalDateTime.now();
 
@@ -83,6 +101,8 @@ class PaymentControllerTest {
                 now
         );
 
+        paymentView = PaymentView.of(processedPayment);
+
         // Setup PaymentResponse
         paymentResponse = new PaymentResponse(
                 1L,
@@ -120,8 +140,8 @@ class PaymentControllerTest {
     void getPayment_ShouldReturnOkStatus_WhenPaymentExists() {
         // Arrange
         Long paymentId = 1L;
-        when(getPaymentUsecase.execute(anyLong())).thenReturn(processedPayment);
-        when(paymentMapper.toResponse(any(Payment.class))).thenReturn(paymentResponse);
+        when(getPaymentUsecase.execute(anyLong())).thenReturn(paymentView);
+        when(paymentMapper.toResponse(any(PaymentView.class))).thenReturn(paymentResponse);
 
         // Act
         ResponseEntity<PaymentResponse> response = paymentController.getPayment(paymentId);
@@ -132,7 +152,7 @@ class PaymentControllerTest {
 
         // Verify interactions with mocks
         verify(getPaymentUsecase).execute(paymentId);
-        verify(paymentMapper).toResponse(processedPayment);
+        verify(paymentMapper).toResponse(paymentView);
     }
 
     @Test
@@ -146,15 +166,15 @@ class PaymentControllerTest {
 
         // Verify interactions with mocks
         verify(getPaymentUsecase).execute(paymentId);
-        verify(paymentMapper, never()).toResponse(any(Payment.class));
+        verify(paymentMapper, never()).toResponse(any(PaymentView.class));
     }
 
     @Test
     void getPaymentByExternalId_ShouldReturnOkStatus_WhenPaymentExists() {
         // Arrange
         String externalId = "PAY-XYZ";
-        when(getPaymentUsecase.executeByExternalId(anyString())).thenReturn(processedPayment);
-        when(paymentMapper.toResponse(any(Payment.class))).thenReturn(paymentResponse);
+        when(getPaymentUsecase.executeByExternalId(anyString())).thenReturn(paymentView);
+        when(paymentMapper.toResponse(any(PaymentView.class))).thenReturn(paymentResponse);
 
         // Act
         ResponseEntity<PaymentResponse> response = paymentController.getPaymentByExternalId(externalId);
@@ -165,7 +185,7 @@ class PaymentControllerTest {
 
         // Verify interactions with mocks
         verify(getPaymentUsecase).executeByExternalId(externalId);
-        verify(paymentMapper).toResponse(processedPayment);
+        verify(paymentMapper).toResponse(paymentView);
     }
 
     @Test
@@ -179,6 +199,96 @@ class PaymentControllerTest {
 
         // Verify interactions with mocks
         verify(getPaymentUsecase).executeByExternalId(externalId);
-        verify(paymentMapper, never()).toResponse(any(Payment.class));
+        verify(paymentMapper, never()).toResponse(any(PaymentView.class));
+    }
+
+    @Test
+    void getPaymentsByOrder_ShouldReturnOkStatus_WhenOrderHasPayments() {
+        // Arrange
+        String orderId = "ORDER-123";
+        List<PaymentSummary> summaries = List.of(new PaymentSummary(1L, "PAY-XYZ", new BigDecimal("100.50"),
+                PaymentStatus.APPROVED, orderId, now, now));
+        OrderPaymentsResponse orderResponse = new OrderPaymentsResponse(orderId, null, List.of());
+        when(getPaymentUsecase.executeByOrderId(orderId)).thenReturn(summaries);
+        when(paymentMapper.toOrderResponse(orderId, summaries)).thenReturn(orderResponse);
+
+        // Act
+        ResponseEntity<OrderPaymentsResponse> byQuery = paymentController.getPaymentsByOrderId(orderId);
+        ResponseEntity<OrderPaymentsResponse> byPath = paymentController.getPaymentsByOrder(orderId);
+
+        // Assert
+        assertEquals(HttpStatus.OK, byQuery.getStatusCode());
+        assertEquals(orderResponse, byQuery.getBody());
+        assertEquals(orderResponse, byPath.getBody());
+        verify(getPaymentUsecase, times(2)).executeByOrderId(orderId);
+    }
+
+    @Test
+    void getPaymentHistory_ShouldMapEveryEvent() {
+        // Arrange
+        PaymentEvent pending = new PaymentEvent(1L, PaymentStatus.PENDING, "Processando pagamento", now);
+        PaymentEvent approved = new PaymentEvent(1L, PaymentStatus.APPROVED, "Pagamento aprovado", now);
+        PaymentEventResponse pendingResponse = new PaymentEventResponse(PaymentStatus.PENDING, "Processando pagamento", now);
+        PaymentEventResponse approvedResponse = new PaymentEventResponse(PaymentStatus.APPROVED, "Pagamento aprovado", now);
+        when(getPaymentUsecase.executeHistory(1L)).thenReturn(List.of(pending, approved));
+        when(paymentMapper.toEventResponse(pending)).thenReturn(pendingResponse);
+        when(paymentMapper.toEventResponse(approved)).thenReturn(approvedResponse);
+
+        // Act
+        ResponseEntity<List<PaymentEventResponse>> response = paymentController.getPaymentHistory(1L);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(pendingResponse, approvedResponse), response.getBody());
+    }
+
+    @Test
+    void refundPayment_ShouldReturnOkStatus_WhenRefunded() {
+        // Arrange
+        Payment refunded = processedPayment.withStatus(PaymentStatus.REFUNDED, "Pagamento estornado");
+        when(refundPaymentUsecase.execute(1L)).thenReturn(refunded);
+        when(paymentMapper.toResponse(refunded)).thenReturn(paymentResponse);
+
+        // Act
+        ResponseEntity<PaymentResponse> response = paymentController.refundPayment(1L);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(paymentResponse, response.getBody());
+    }
+
+    @Test
+    void cancelPayment_ShouldReturnOkStatus_WhenCancelled() {
+        // Arrange
+        Payment cancelled = processedPayment.withStatus(PaymentStatus.CANCELLED, "Pagamento cancelado");
+        when(cancelPaymentUsecase.execute(1L)).thenReturn(cancelled);
+        when(paymentMapper.toResponse(cancelled)).thenReturn(paymentResponse);
+
+        // Act
+        ResponseEntity<PaymentResponse> response = paymentController.cancelPayment(1L);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(paymentResponse, response.getBody());
+    }
+
+    @Test
+    void refundPayments_ShouldMapEveryResult() {
+        // Arrange
+        RefundResult ok = new RefundResult(1L, true, "Pagamento estornado");
+        RefundResult failed = new RefundResult(2L, false, "Pagamento 2 com status PENDING não pode ser estornado");
+        RefundResultResponse okResponse = new RefundResultResponse(1L, true, "Pagamento estornado");
+        RefundResultResponse failedResponse = new RefundResultResponse(2L, false, failed.getMessage());
+        when(refundPaymentUsecase.executeBulk(List.of(1L, 2L))).thenReturn(List.of(ok, failed));
+        when(paymentMapper.toRefundResultResponse(ok)).thenReturn(okResponse);
+        when(paymentMapper.toRefundResultResponse(failed)).thenReturn(failedResponse);
+
+        // Act
+        ResponseEntity<List<RefundResultResponse>> response =
+                paymentController.refundPayments(new BulkRefundRequest(List.of(1L, 2L)));
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(okResponse, failedResponse), response.getBody());
     }
-}
\ No newline at end of file
+}
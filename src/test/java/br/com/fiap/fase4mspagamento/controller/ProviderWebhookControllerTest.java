@@ -0,0 +1,96 @@
+package br.com.fiap.fase4mspagamento.controller;
+
+import br.com.fiap.fase4mspagamento.controller.mapper.PaymentMapper;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentStatus;
+import br.com.fiap.fase4mspagamento.domain.entity.ProviderStatusUpdate;
+import br.com.fiap.fase4mspagamento.exception.InvalidWebhookSignatureException;
+import br.com.fiap.fase4mspagamento.service.WebhookSignatureVerifier;
+import br.com.fiap.fase4mspagamento.service.WebhookStatusApplier;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProviderWebhookControllerTest {
+
+    @Mock
+    private WebhookSignatureVerifier signatureVerifier;
+
+    @Mock
+    private WebhookStatusApplier statusApplier;
+
+    private ProviderWebhookController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new ProviderWebhookController(signatureVerifier, statusApplier, new PaymentMapper(), new ObjectMapper());
+    }
+
+    @Test
+    void receiveProviderWebhook_ShouldStoreAndAccept_WhenSignatureIsValid() {
+        ArgumentCaptor<ProviderStatusUpdate> captor = ArgumentCaptor.forClass(ProviderStatusUpdate.class);
+
+        ResponseEntity<Void> response = controller.receiveProviderWebhook("1", "ab",
+                body("{\"externalId\":\"PAY-1\",\"status\":\"APPROVED\",\"message\":\"ok\"}"));
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        verify(statusApplier).accept(captor.capture());
+        assertEquals("PAY-1", captor.getValue().getExternalId());
+        assertEquals(PaymentStatus.APPROVED, captor.getValue().getStatus());
+    }
+
+    @Test
+    void receiveProviderWebhook_ShouldNotParseBody_WhenSignatureIsInvalid() {
+        doThrow(new InvalidWebhookSignatureException("Assinatura de webhook inválida"))
+                .when(signatureVerifier).verify(any(), any(), any());
+
+        assertThrows(InvalidWebhookSignatureException.class,
+                () -> controller.receiveProviderWebhook("1", "ab", body("{}")));
+
+        verifyNoInteractions(statusApplier);
+    }
+
+    @Test
+    void receiveProviderWebhook_ShouldAskForRetry_WhenInboxIsUnavailable() {
+        doThrow(new DataAccessResourceFailureException("banco indisponível")).when(statusApplier).accept(any());
+
+        ResponseEntity<Void> response = controller.receiveProviderWebhook("1", "ab",
+                body("{\"externalId\":\"PAY-1\",\"status\":\"REJECTED\"}"));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("5", response.getHeaders().getFirst("Retry-After"));
+    }
+
+    @Test
+    void receiveProviderWebhook_ShouldIgnoreNonFinalStatus() {
+        ResponseEntity<Void> response = controller.receiveProviderWebhook("1", "ab",
+                body("{\"externalId\":\"PAY-1\",\"status\":\"PENDING\"}"));
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        verifyNoInteractions(statusApplier);
+    }
+
+    @Test
+    void receiveProviderWebhook_ShouldReturnBadRequest_WhenBodyIsNotJson() {
+        ResponseEntity<Void> response = controller.receiveProviderWebhook("1", "ab", body("not json"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    private byte[] body(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
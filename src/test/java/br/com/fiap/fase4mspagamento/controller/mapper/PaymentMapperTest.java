@@ -1,15 +1,19 @@
 package br.com.fiap.fase4mspagamento.controller.mapper;
 
+import br.com.fiap.fase4mspagamento.controller.dto.OrderPaymentsResponse;
 import br.com.fiap.fase4mspagamento.controller.dto.PaymentNotification;
 import br.com.fiap.fase4mspagamento.controller.dto.PaymentRequest;
 import br.com.fiap.fase4mspagamento.controller.dto.PaymentResponse;
 import br.com.fiap.fase4mspagamento.domain.entity.Payment;
 import br.com.fiap.fase4mspagamento.domain.entity.PaymentStatus;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentSummary;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentView;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -93,4 +97,34 @@ class PaymentMapperTest {
         assertEquals(payment.getMessage(), result.getMessage());
         assertEquals(payment.getOrderId(), result.getOrderId());
     }
-}
\ No newline at end of file
+
+    @Test
+    void toOrderResponse_ShouldExposeNewestPaymentAsLatest() {
+        PaymentSummary newest = new PaymentSummary(2L, "PAY-2", new BigDecimal("100.50"),
+                PaymentStatus.APPROVED, "ORDER-123", updatedAt, updatedAt);
+        PaymentSummary oldest = new PaymentSummary(1L, "PAY-1", new BigDecimal("100.50"),
+                PaymentStatus.REJECTED, "ORDER-123", createdAt, createdAt);
+
+        OrderPaymentsResponse result = mapper.toOrderResponse("ORDER-123", List.of(newest, oldest));
+
+        assertEquals("ORDER-123", result.getOrderId());
+        assertEquals(2L, result.getLatest().getId());
+        assertEquals(PaymentStatus.APPROVED, result.getLatest().getStatus());
+        assertEquals(2, result.getHistory().size());
+        assertEquals("PAY-1", result.getHistory().get(1).getExternalId());
+    }
+
+    @Test
+    void toResponse_ShouldMapViewToResponse() {
+        PaymentResponse result = mapper.toResponse(PaymentView.of(payment));
+
+        assertEquals(payment.getId(), result.getId());
+        assertEquals(payment.getExternalId(), result.getExternalId());
+        assertEquals(payment.getAmount(), result.getAmount());
+        assertEquals(payment.getStatus(), result.getStatus());
+        assertEquals(payment.getMessage(), result.getMessage());
+        assertEquals(payment.getOrderId(), result.getOrderId());
+        assertEquals(payment.getCreatedAt(), result.getCreatedAt());
+        assertEquals(payment.getUpdatedAt(), result.getUpdatedAt());
+    }
+}
@@ -0,0 +1,41 @@
+package br.com.fiap.fase4mspagamento.domain.entity;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentStatusTest {
+
+    @Test
+    void pending_ShouldTransitionToDecisionOrCancellation() {
+        assertTrue(PaymentStatus.PENDING.canTransitionTo(PaymentStatus.APPROVED));
+        assertTrue(PaymentStatus.PENDING.canTransitionTo(PaymentStatus.REJECTED));
+        assertTrue(PaymentStatus.PENDING.canTransitionTo(PaymentStatus.CANCELLED));
+        assertFalse(PaymentStatus.PENDING.canTransitionTo(PaymentStatus.REFUNDED));
+    }
+
+    @Test
+    void approved_ShouldOnlyTransitionToRefundPending() {
+        assertTrue(PaymentStatus.APPROVED.canTransitionTo(PaymentStatus.REFUND_PENDING));
+        assertFalse(PaymentStatus.APPROVED.canTransitionTo(PaymentStatus.REFUNDED));
+        assertFalse(PaymentStatus.APPROVED.canTransitionTo(PaymentStatus.CANCELLED));
+        assertFalse(PaymentStatus.APPROVED.canTransitionTo(PaymentStatus.PENDING));
+    }
+
+    @Test
+    void refundPending_ShouldCompleteOrReturnToApproved() {
+        assertTrue(PaymentStatus.REFUND_PENDING.canTransitionTo(PaymentStatus.REFUNDED));
+        assertTrue(PaymentStatus.REFUND_PENDING.canTransitionTo(PaymentStatus.APPROVED));
+        assertFalse(PaymentStatus.REFUND_PENDING.canTransitionTo(PaymentStatus.CANCELLED));
+        assertFalse(PaymentStatus.REFUND_PENDING.canTransitionTo(PaymentStatus.PENDING));
+    }
+
+    @Test
+    void finalStatuses_ShouldNotTransition() {
+        for (PaymentStatus target : PaymentStatus.values()) {
+            assertFalse(PaymentStatus.REJECTED.canTransitionTo(target));
+            assertFalse(PaymentStatus.REFUNDED.canTransitionTo(target));
+            assertFalse(PaymentStatus.CANCELLED.canTransitionTo(target));
+        }
+    }
+}
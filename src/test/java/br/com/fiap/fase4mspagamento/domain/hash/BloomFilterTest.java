@@ -0,0 +1,65 @@
+package br.com.fiap.fase4mspagamento.domain.hash;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void mightContain_ShouldNeverMissAddedKeys() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("PAYER-" + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("PAYER-" + i));
+        }
+        assertEquals(10_000, filter.insertions(), 100);
+    }
+
+    @Test
+    void mightContain_ShouldKeepFalsePositivesNearConfiguredRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("PAYER-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("UNKNOWN-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "falsos positivos: " + falsePositives);
+        assertTrue(filter.expectedFalsePositiveRate() < 0.02);
+    }
+
+    @Test
+    void add_ShouldNotCountRepeatedKey() {
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+
+        filter.add("PAYER-1");
+        filter.add("PAYER-1");
+
+        assertEquals(1, filter.insertions());
+    }
+
+    @Test
+    void addHash_ShouldMatchKeysAddedByValue() {
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+
+        // O arquivo alimenta o filtro com o fnv1a64 dos índices e consulta pelo externalId
+        filter.addHash(Hashing.fnv1a64("PAYER-1"));
+
+        assertTrue(filter.mightContain("PAYER-1"));
+        assertTrue(filter.mightContainHash(Hashing.fnv1a64("PAYER-1")));
+    }
+
+    @Test
+    void constructor_ShouldRejectInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(1_000, 1.0));
+    }
+}
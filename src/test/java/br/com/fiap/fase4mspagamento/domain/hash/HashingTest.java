@@ -0,0 +1,29 @@
+package br.com.fiap.fase4mspagamento.domain.hash;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashingTest {
+
+    @Test
+    void fnv1a64_ShouldMatchReferenceVectors() {
+        // Vetores de referência do FNV-1a 64; o índice dos segmentos de arquivo depende destes valores
+        assertEquals(0xcbf29ce484222325L, Hashing.fnv1a64(""));
+        assertEquals(0xaf63dc4c8601ec8cL, Hashing.fnv1a64("a"));
+        assertEquals(0x85944171f73967e8L, Hashing.fnv1a64("foobar"));
+    }
+
+    @Test
+    void spread_ShouldKeepHighHalfOdd() {
+        for (int i = 0; i < 1_000; i++) {
+            long hash = Hashing.spread("PAY-" + i);
+            assertEquals(1, (hash >>> 32) & 1);
+        }
+    }
+
+    @Test
+    void spread_ShouldBeDeterministic() {
+        assertEquals(Hashing.spread("4111111111111111"), Hashing.spread(Hashing.fnv1a64("4111111111111111")));
+    }
+}
@@ -0,0 +1,54 @@
+package br.com.fiap.fase4mspagamento.domain.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOrderedIdGeneratorTest {
+
+    private static final Instant NOW = Instant.parse("2025-05-15T10:00:00.123Z");
+
+    @Test
+    void next_ShouldProduceVersion7WithRfcVariantAndEmbeddedTimestamp() {
+        IdGenerator generator = new TimeOrderedIdGenerator(Clock.fixed(NOW, ZoneOffset.UTC));
+
+        UUID id = generator.next();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertEquals(NOW.toEpochMilli(), TimeOrderedIdGenerator.timestampOf(id));
+    }
+
+    @Test
+    void next_ShouldSortByCreationTime_AcrossMilliseconds() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(new TimeOrderedIdGenerator(Clock.fixed(NOW.plusMillis(i), ZoneOffset.UTC)).next());
+        }
+
+        // Ordem lexicográfica do texto é a ordem do índice em external_id
+        List<String> sorted = ids.stream().map(UUID::toString).sorted().toList();
+        assertEquals(ids.stream().map(UUID::toString).toList(), sorted);
+    }
+
+    @Test
+    void next_ShouldNotRepeat_WithinTheSameMillisecond() {
+        IdGenerator generator = new TimeOrderedIdGenerator(Clock.fixed(NOW, ZoneOffset.UTC));
+        Set<UUID> ids = new HashSet<>();
+
+        for (int i = 0; i < 100_000; i++) {
+            ids.add(generator.next());
+        }
+
+        assertEquals(100_000, ids.size());
+    }
+}
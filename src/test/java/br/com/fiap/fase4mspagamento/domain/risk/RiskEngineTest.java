@@ -0,0 +1,95 @@
+package br.com.fiap.fase4mspagamento.domain.risk;
+
+import br.com.fiap.fase4mspagamento.domain.entity.Payment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RiskEngineTest {
+
+    private final Clock clock = Clock.fixed(Instant.parse("2026-01-01T10:00:00Z"), ZoneOffset.UTC);
+    private RiskEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new RiskEngine(List.of(
+                new BinBlocklistRule(List.of("666666", "12345678")),
+                new CardVelocityRule(List.of(limit("por minuto", Duration.ofMinutes(1), 3)), clock),
+                new OrderAttemptLimitRule(limit("por pedido", Duration.ofHours(1), 2), clock),
+                new AmountLimitRule(new BigDecimal("10000.00"))
+        ));
+    }
+
+    private VelocityLimit limit(String label, Duration window, int maxAttempts) {
+        return new VelocityLimit(label, new SlidingWindowCounter(4, 1024, window, 6), maxAttempts);
+    }
+
+    private Payment payment(String amount, String card, String orderId) {
+        return new Payment(new BigDecimal(amount), card, orderId, "http://example.com/callback");
+    }
+
+    @Test
+    void evaluate_ShouldApprove_WhenNoRuleRejects() {
+        RiskDecision decision = engine.evaluate(payment("100.50", "4111111111111111", "ORDER-1"));
+
+        assertTrue(decision.isApproved());
+        assertNull(decision.getRule());
+    }
+
+    @Test
+    void evaluate_ShouldReject_WhenAmountExceedsLimit() {
+        RiskDecision decision = engine.evaluate(payment("10000.01", "4111111111111111", "ORDER-1"));
+
+        assertTrue(decision.isRejected());
+        assertEquals("amount-limit", decision.getRule());
+    }
+
+    @Test
+    void evaluate_ShouldApprove_WhenAmountEqualsLimit() {
+        assertTrue(engine.evaluate(payment("10000.00", "4111111111111111", "ORDER-1")).isApproved());
+    }
+
+    @Test
+    void evaluate_ShouldReject_WhenBinIsBlocked() {
+        assertEquals("bin-blocklist", engine.evaluate(payment("10.00", "6666661111111111", "ORDER-1")).getRule());
+        assertEquals("bin-blocklist", engine.evaluate(payment("10.00", "1234567811111111", "ORDER-2")).getRule());
+        assertTrue(engine.evaluate(payment("10.00", "1234561111111111", "ORDER-3")).isApproved());
+    }
+
+    @Test
+    void evaluate_ShouldReject_WhenCardVelocityIsExceeded() {
+        String card = "5555555555554444";
+        for (int i = 0; i < 3; i++) {
+            assertTrue(engine.evaluate(payment("10.00", card, "ORDER-V" + i)).isApproved());
+        }
+
+        RiskDecision decision = engine.evaluate(payment("10.00", card, "ORDER-V3"));
+
+        assertEquals("card-velocity", decision.getRule());
+    }
+
+    @Test
+    void evaluate_ShouldReject_WhenOrderAttemptsAreExceeded() {
+        assertTrue(engine.evaluate(payment("10.00", "4000000000000001", "ORDER-9")).isApproved());
+        assertTrue(engine.evaluate(payment("10.00", "4000000000000002", "ORDER-9")).isApproved());
+
+        RiskDecision decision = engine.evaluate(payment("10.00", "4000000000000003", "ORDER-9"));
+
+        assertEquals("order-attempts", decision.getRule());
+    }
+
+    @Test
+    void evaluate_ShouldApprove_WhenNoRulesConfigured() {
+        RiskEngine emptyEngine = new RiskEngine(List.of());
+
+        assertTrue(emptyEngine.evaluate(payment("999999.00", "6666661111111111", "ORDER-1")).isApproved());
+    }
+}
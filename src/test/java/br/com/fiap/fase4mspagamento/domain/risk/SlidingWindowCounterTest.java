@@ -0,0 +1,115 @@
+package br.com.fiap.fase4mspagamento.domain.risk;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowCounterTest {
+
+    // Janela de 60s dividida em 6 buckets de 10s
+    private final SlidingWindowCounter counter = new SlidingWindowCounter(4, 1024, Duration.ofMinutes(1), 6);
+
+    @Test
+    void increment_ShouldCountOccurrencesWithinWindow() {
+        assertEquals(1, counter.increment("4111111111111111", 0));
+        assertEquals(2, counter.increment("4111111111111111", 15_000));
+        assertEquals(3, counter.increment("4111111111111111", 59_999));
+    }
+
+    @Test
+    void increment_ShouldSlideOldBucketsOutOfWindow() {
+        counter.increment("4111111111111111", 0);        // bucket 0
+        counter.increment("4111111111111111", 25_000);   // bucket 2
+
+        // Em 65s o bucket 0 já saiu da janela, mas o bucket 2 continua contando
+        assertEquals(2, counter.increment("4111111111111111", 65_000));
+        // Em 90s sobra apenas o bucket 6 (65s) e o atual
+        assertEquals(2, counter.increment("4111111111111111", 90_000));
+        // Muito depois, nada anterior conta
+        assertEquals(1, counter.increment("4111111111111111", 600_000));
+    }
+
+    @Test
+    void increment_ShouldKeepKeysIndependent() {
+        for (int i = 0; i < 5; i++) {
+            counter.increment("4111111111111111", 1_000);
+        }
+
+        assertEquals(1, counter.increment("5555555555554444", 1_000));
+    }
+
+    @Test
+    void increment_ShouldKeepMemoryBounded_WithManyDistinctKeys() {
+        SlidingWindowCounter small = new SlidingWindowCounter(4, 4096, Duration.ofMinutes(1), 6);
+
+        for (long card = 4_000_000_000_000_000L; card < 4_000_000_000_100_000L; card++) {
+            small.increment(Long.toString(card), 1_000);
+        }
+
+        // 100 mil cartões distintos numa tabela fixa: a estimativa nunca subestima
+        assertTrue(small.increment("4000000000000000", 1_000) >= 2);
+    }
+
+    @Test
+    void increment_ShouldNotFalselyRejectLowLimits_AtSizedHourlyLoad() {
+        // 10 pedidos/s durante 1h na largura que RiskProperties deriva para 36 mil chaves
+        SlidingWindowCounter hourly = new SlidingWindowCounter(4, 131_072, Duration.ofHours(1), 6);
+        for (int i = 0; i < 36_000; i++) {
+            hourly.increment("ORDER-" + i, i * 100L);
+        }
+
+        int falseRejections = 0;
+        for (int i = 0; i < 1_000; i++) {
+            int estimate = 0;
+            for (int attempt = 0; attempt < 5; attempt++) {
+                estimate = hourly.increment("NEW-ORDER-" + i, 3_599_000);
+            }
+            if (estimate > 5) {
+                falseRejections++;
+            }
+        }
+
+        // Com limite de 5 tentativas/h, a quinta tentativa de um pedido novo quase nunca é barrada
+        assertTrue(falseRejections < 10, "falsas rejeições: " + falseRejections);
+    }
+
+    @Test
+    void increment_ShouldOnlyRaiseRowsAtMinimum_WhenUpdatingConservatively() {
+        SlidingWindowCounter narrow = new SlidingWindowCounter(4, 1024, Duration.ofMinutes(1), 6);
+        for (int card = 0; card < 20_000; card++) {
+            narrow.increment("card-" + card, 1_000);
+        }
+
+        // ~20 colisões por célula: o update conservador mantém a estimativa perto do valor real
+        int estimate = 0;
+        for (int i = 0; i < 10; i++) {
+            estimate = narrow.increment("4111111111111111", 1_000);
+        }
+        assertTrue(estimate >= 10);
+        assertTrue(estimate < 10 + 20, "estimativa " + estimate);
+    }
+
+    @Test
+    void increment_ShouldNotLoseUpdates_UnderConcurrency() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        for (int i = 0; i < 8_000; i++) {
+            executor.submit(() -> counter.increment("hot-card", 1_000));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(8_001, counter.increment("hot-card", 1_000));
+    }
+
+    @Test
+    void constructor_ShouldRejectWidthThatIsNotPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SlidingWindowCounter(4, 1000, Duration.ofMinutes(1), 6));
+    }
+}
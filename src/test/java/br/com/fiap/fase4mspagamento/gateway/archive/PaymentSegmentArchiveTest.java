@@ -0,0 +1,143 @@
+package br.com.fiap.fase4mspagamento.gateway.archive;
+
+import br.com.fiap.fase4mspagamento.domain.entity.Payment;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentSegmentArchiveTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void findByExternalId_ShouldReturnArchivedPaymentWithAllFields() {
+        PaymentSegmentArchive archive = archive(directory);
+        Payment payment = payment(1L, "PAY-1");
+
+        archive.append(List.of(payment));
+        Optional<Payment> result = archive.findByExternalId("PAY-1");
+
+        assertTrue(result.isPresent());
+        Payment archived = result.get();
+        assertEquals(payment.getId(), archived.getId());
+        assertEquals(payment.getAmount(), archived.getAmount());
+        assertEquals(payment.getCardToken(), archived.getCardToken());
+        assertEquals(payment.getCardLastFour(), archived.getCardLastFour());
+        assertEquals(payment.getOrderId(), archived.getOrderId());
+        assertEquals(payment.getCallbackUrl(), archived.getCallbackUrl());
+        assertEquals(payment.getStatus(), archived.getStatus());
+        assertEquals(payment.getMessage(), archived.getMessage());
+        assertEquals(payment.getCreatedAt(), archived.getCreatedAt());
+        assertEquals(payment.getUpdatedAt(), archived.getUpdatedAt());
+        assertEquals(payment.getVersion(), archived.getVersion());
+        assertEquals("mock:tx-1", archived.getProviderTransactionId());
+        assertNull(archived.getCreditCardNumber());
+    }
+
+    @Test
+    void findByExternalId_ShouldSearchAcrossSegments() {
+        PaymentSegmentArchive archive = archive(directory);
+        List<Payment> batch = new ArrayList<>();
+        for (long i = 0; i < 500; i++) {
+            batch.add(payment(i, "PAY-" + i));
+        }
+        archive.append(batch);
+        archive.append(List.of(payment(1000L, "PAY-1000")));
+
+        for (long i = 0; i < 500; i += 37) {
+            assertEquals(i, archive.findByExternalId("PAY-" + i).orElseThrow().getId());
+        }
+        assertEquals(1000L, archive.findByExternalId("PAY-1000").orElseThrow().getId());
+        assertTrue(archive.findByExternalId("PAY-UNKNOWN").isEmpty());
+    }
+
+    @Test
+    void constructor_ShouldReloadExistingSegments() {
+        archive(directory).append(List.of(payment(1L, "PAY-1")));
+
+        PaymentSegmentArchive reopened = archive(directory);
+        reopened.append(List.of(payment(2L, "PAY-2")));
+
+        assertTrue(reopened.findByExternalId("PAY-1").isPresent());
+        assertTrue(reopened.findByExternalId("PAY-2").isPresent());
+    }
+
+    @Test
+    void append_ShouldMergeEqualSizedSegments_SoSegmentCountGrowsLogarithmically() {
+        PaymentSegmentArchive archive = archive(directory);
+
+        for (long batch = 0; batch < 8; batch++) {
+            archive.append(List.of(payment(batch * 2, "PAY-" + batch * 2), payment(batch * 2 + 1, "PAY-" + (batch * 2 + 1))));
+        }
+
+        assertEquals(1, archive.segmentCount());
+        for (long i = 0; i < 16; i++) {
+            assertEquals(i, archive.findByExternalId("PAY-" + i).orElseThrow().getId());
+        }
+        assertEquals(1, archive(directory).segmentCount());
+    }
+
+    @Test
+    void append_ShouldNotMergePastMaxSegmentSize() {
+        PaymentSegmentArchive archive = new PaymentSegmentArchive(directory, 3);
+
+        archive.append(List.of(payment(1L, "PAY-1"), payment(2L, "PAY-2")));
+        archive.append(List.of(payment(3L, "PAY-3"), payment(4L, "PAY-4")));
+
+        assertEquals(2, archive.segmentCount());
+        assertTrue(archive.findByExternalId("PAY-1").isPresent());
+        assertTrue(archive.findByExternalId("PAY-4").isPresent());
+    }
+
+    @Test
+    void append_ShouldKeepNewestCopy_WhenPaymentIsArchivedTwice() {
+        PaymentSegmentArchive archive = archive(directory);
+
+        archive.append(List.of(payment(1L, "PAY-1")));
+        archive.append(List.of(payment(1L, "PAY-1").withStatus(PaymentStatus.REFUNDED, "Estornado")));
+
+        assertEquals(1, archive.segmentCount());
+        assertEquals(PaymentStatus.REFUNDED, archive.findByExternalId("PAY-1").orElseThrow().getStatus());
+    }
+
+    @Test
+    void findByExternalId_ShouldReturnEmpty_WhenDirectoryDoesNotExist() {
+        PaymentSegmentArchive archive = archive(directory.resolve("missing"));
+
+        assertTrue(archive.findByExternalId("PAY-1").isEmpty());
+    }
+
+    private static PaymentSegmentArchive archive(Path directory) {
+        return new PaymentSegmentArchive(directory, 100_000);
+    }
+
+    private Payment payment(Long id, String externalId) {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 10, 12, 30, 15, 123_456_000);
+        return new Payment(
+                id,
+                externalId,
+                new BigDecimal("150.75"),
+                null,
+                "tok_abc",
+                "1111",
+                "ORDER-" + id,
+                "http://example.com/callback",
+                PaymentStatus.APPROVED,
+                "Pagamento aprovado",
+                createdAt,
+                createdAt.plusSeconds(3),
+                2L,
+                "mock:tx-" + id
+        );
+    }
+}
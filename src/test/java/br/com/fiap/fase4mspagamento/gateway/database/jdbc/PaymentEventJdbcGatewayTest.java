@@ -0,0 +1,111 @@
+package br.com.fiap.fase4mspagamento.gateway.database.jdbc;
+
+import br.com.fiap.fase4mspagamento.config.ReplicaProperties;
+import br.com.fiap.fase4mspagamento.domain.entity.Payment;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentEvent;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentStatus;
+import br.com.fiap.fase4mspagamento.gateway.database.routing.ReadYourWritesRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentEventJdbcGatewayTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PaymentEventJdbcGateway gateway;
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        ReadYourWritesRouter router = new ReadYourWritesRouter(new ReplicaProperties(), new SimpleMeterRegistry());
+        gateway = new PaymentEventJdbcGateway(jdbcTemplate, transactionManager, router);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(gateway);
+    }
+
+    @Test
+    void append_ShouldInsertImmediately_WhenNoTransactionIsActive() {
+        gateway.append(event(PaymentStatus.PENDING));
+
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO payment_events"), argThat((List<Object[]> rows) -> rows.size() == 1));
+    }
+
+    @Test
+    void append_ShouldStorePaymentKeysWithTheEvent() {
+        Payment payment = new Payment(1L, "PAY-1", BigDecimal.TEN, null, "ORDER-1", "http://localhost/cb",
+                PaymentStatus.APPROVED, "Pagamento aprovado", now, now);
+
+        gateway.append(PaymentEvent.of(payment));
+
+        verify(jdbcTemplate).batchUpdate(anyString(), argThat((List<Object[]> rows) ->
+                "PAY-1".equals(rows.get(0)[4]) && "ORDER-1".equals(rows.get(0)[5])));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void append_ShouldBufferEventsAndFlushOneBatchBeforeCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        gateway.append(event(PaymentStatus.PENDING));
+        gateway.append(event(PaymentStatus.APPROVED));
+        verifyNoInteractions(jdbcTemplate);
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        assertEquals(1, synchronizations.size());
+        synchronizations.get(0).beforeCommit(false);
+        synchronizations.get(0).afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), rows.capture());
+        assertEquals(2, rows.getValue().size());
+        assertEquals("PENDING", rows.getValue().get(0)[1]);
+        assertEquals("APPROVED", rows.getValue().get(1)[1]);
+        assertNull(TransactionSynchronizationManager.getResource(gateway));
+    }
+
+    @Test
+    void append_ShouldDiscardBuffer_WhenTransactionRollsBack() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        gateway.append(event(PaymentStatus.PENDING));
+        TransactionSynchronizationManager.getSynchronizations().get(0)
+                .afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        assertNull(TransactionSynchronizationManager.getResource(gateway));
+    }
+
+    private PaymentEvent event(PaymentStatus status) {
+        return new PaymentEvent(1L, status, "mensagem", now);
+    }
+}
@@ -0,0 +1,106 @@
+package br.com.fiap.fase4mspagamento.gateway.database.jdbc;
+
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentEventMessage;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentEventRelayJdbcGatewayTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PaymentEventRelayJdbcGateway gateway;
+
+    @BeforeEach
+    void setUp() {
+        gateway = new PaymentEventRelayJdbcGateway(jdbcTemplate, transactionManager);
+    }
+
+    @Test
+    void relayNext_ShouldPublishBatchAndAdvanceCursorToLastEvent() {
+        lockCursor("100", "7");
+        when(jdbcTemplate.query(startsWith("SELECT e.id"), any(RowMapper.class), eq("100"), eq(7L), eq(2)))
+                .thenReturn(List.of(row("100", 8L), row("101", 9L)));
+        List<PaymentEventMessage> published = new ArrayList<>();
+
+        int count = gateway.relayNext("default", 2, published::addAll);
+
+        assertEquals(2, count);
+        assertEquals(List.of(8L, 9L), published.stream().map(PaymentEventMessage::getEventId).toList());
+        verify(jdbcTemplate).update(startsWith("UPDATE payment_event_cursors"), eq("101"), eq(9L), any(), eq("default"));
+    }
+
+    @Test
+    void relayNext_ShouldNotAdvanceCursor_WhenPublishFails() {
+        lockCursor("100", "7");
+        when(jdbcTemplate.query(startsWith("SELECT e.id"), any(RowMapper.class), any(), any(), any()))
+                .thenReturn(List.of(row("100", 8L)));
+
+        assertThrows(IllegalStateException.class, () -> gateway.relayNext("default", 10, batch -> {
+            throw new IllegalStateException("broker indisponível");
+        }));
+
+        verify(jdbcTemplate, never()).update(startsWith("UPDATE payment_event_cursors"), any(), any(), any(), any());
+    }
+
+    @Test
+    void relayNext_ShouldReturnMinusOne_WhenCursorIsLockedByAnotherInstance() {
+        when(jdbcTemplate.query(startsWith("SELECT tx_id"), any(RowMapper.class), eq("default"))).thenReturn(List.of());
+
+        assertEquals(-1, gateway.relayNext("default", 10, batch -> fail("não deveria publicar")));
+        verify(jdbcTemplate, never()).query(startsWith("SELECT e.id"), any(RowMapper.class), any(), any(), any());
+    }
+
+    @Test
+    void relayNext_ShouldInitializeCursorAtEndOfLog_OnlyOnFirstPoll() {
+        lockCursor("0", "0");
+
+        assertEquals(0, gateway.relayNext("default", 10, batch -> fail("não deveria publicar")));
+        assertEquals(0, gateway.relayNext("default", 10, batch -> fail("não deveria publicar")));
+
+        verify(jdbcTemplate, times(1))
+                .update(startsWith("INSERT INTO payment_event_cursors"), eq("default"), any(LocalDateTime.class));
+        verify(jdbcTemplate).update(contains("ORDER BY tx_id DESC, id DESC LIMIT 1"), eq("default"), any(LocalDateTime.class));
+    }
+
+    @Test
+    void relayNext_ShouldReadKeysFromEventsWithoutJoiningPayments() {
+        lockCursor("100", "7");
+
+        gateway.relayNext("default", 10, batch -> fail("não deveria publicar"));
+
+        verify(jdbcTemplate).query(argThat((String sql) -> sql.startsWith("SELECT e.id") && !sql.contains("JOIN")),
+                any(RowMapper.class), any(), any(), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void lockCursor(String txId, String eventId) {
+        when(jdbcTemplate.query(startsWith("SELECT tx_id"), any(RowMapper.class), eq("default")))
+                .thenReturn(Collections.singletonList(new String[]{txId, eventId}));
+    }
+
+    private Object row(String txId, Long eventId) {
+        return new PaymentEventRelayJdbcGateway.Row(txId, new PaymentEventMessage(eventId, 1L, "ext-1", "ORDER-1",
+                PaymentStatus.APPROVED, "Pagamento aprovado", LocalDateTime.now()));
+    }
+}
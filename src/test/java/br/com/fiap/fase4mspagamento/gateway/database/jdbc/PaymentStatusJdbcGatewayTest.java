@@ -0,0 +1,153 @@
+package br.com.fiap.fase4mspagamento.gateway.database.jdbc;
+
+import br.com.fiap.fase4mspagamento.config.CacheConfig;
+import br.com.fiap.fase4mspagamento.config.ReplicaProperties;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentEvent;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentStatus;
+import br.com.fiap.fase4mspagamento.domain.entity.ProviderStatusUpdate;
+import br.com.fiap.fase4mspagamento.gateway.PaymentEventGateway;
+import br.com.fiap.fase4mspagamento.gateway.database.routing.ReadYourWritesRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentStatusJdbcGatewayTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PaymentEventGateway paymentEventGateway;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache ordersCache;
+
+    private PaymentStatusJdbcGateway gateway;
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        ReadYourWritesRouter router = new ReadYourWritesRouter(new ReplicaProperties(), new SimpleMeterRegistry());
+        gateway = new PaymentStatusJdbcGateway(jdbcTemplate, paymentEventGateway, router, cacheManager);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void applyAll_ShouldSendOneStatementWithFirstDecisionPerPayment() throws Exception {
+        when(cacheManager.getCache(CacheConfig.PAYMENTS_BY_ORDER)).thenReturn(ordersCache);
+        when(jdbcTemplate.query(any(PreparedStatementCreator.class), any(RowMapper.class))).thenReturn(List.of("PAY-1", "PAY-2"));
+        ArgumentCaptor<PreparedStatementCreator> creatorCaptor = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+
+        int applied = gateway.applyAll(List.of(
+                update("PAY-1", PaymentStatus.APPROVED),
+                update("PAY-2", PaymentStatus.REJECTED),
+                update("PAY-1", PaymentStatus.REJECTED)));
+
+        assertEquals(2, applied);
+        verify(jdbcTemplate).query(creatorCaptor.capture(), any(RowMapper.class));
+
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenReturn(mock(PreparedStatement.class));
+        creatorCaptor.getValue().createPreparedStatement(connection);
+        verify(connection).createArrayOf("text", new String[]{"PAY-1", "PAY-2"});
+        verify(connection).createArrayOf("text", new String[]{"APPROVED", "REJECTED"});
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void applyAll_ShouldAppendEventAndEvictOrderCache_ForEveryUpdatedPayment() throws Exception {
+        when(cacheManager.getCache(CacheConfig.PAYMENTS_BY_ORDER)).thenReturn(ordersCache);
+        ArgumentCaptor<RowMapper<String>> mapperCaptor = ArgumentCaptor.forClass(RowMapper.class);
+        when(jdbcTemplate.query(any(PreparedStatementCreator.class), mapperCaptor.capture())).thenReturn(List.of("PAY-1"));
+
+        gateway.applyAll(List.of(update("PAY-1", PaymentStatus.APPROVED)));
+
+        ResultSet row = mock(ResultSet.class);
+        when(row.getLong("id")).thenReturn(7L);
+        when(row.getString("external_id")).thenReturn("PAY-1");
+        when(row.getString("order_id")).thenReturn("ORDER-1");
+        when(row.getString("status")).thenReturn("APPROVED");
+        when(row.getString("message")).thenReturn("Pagamento aprovado");
+        when(row.getTimestamp("updated_at")).thenReturn(Timestamp.valueOf(now));
+        assertEquals("PAY-1", mapperCaptor.getValue().mapRow(row, 0));
+
+        ArgumentCaptor<PaymentEvent> eventCaptor = ArgumentCaptor.forClass(PaymentEvent.class);
+        verify(paymentEventGateway).append(eventCaptor.capture());
+        assertEquals(7L, eventCaptor.getValue().getPaymentId());
+        assertEquals(PaymentStatus.APPROVED, eventCaptor.getValue().getStatus());
+        assertEquals("PAY-1", eventCaptor.getValue().getExternalId());
+        assertEquals("ORDER-1", eventCaptor.getValue().getOrderId());
+        verify(ordersCache).evict("ORDER-1");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void applyAll_ShouldDeleteOnlyInboxRowsThatWereAppliedOrAreAlreadyFinal() throws Exception {
+        when(cacheManager.getCache(CacheConfig.PAYMENTS_BY_ORDER)).thenReturn(ordersCache);
+        when(jdbcTemplate.query(any(PreparedStatementCreator.class), any(RowMapper.class))).thenReturn(List.of("PAY-1"));
+        ArgumentCaptor<PreparedStatementCreator> deleteCaptor = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+
+        gateway.applyAll(List.of(
+                update("PAY-1", PaymentStatus.APPROVED).withInboxId(10L),
+                update("PAY-1", PaymentStatus.REJECTED).withInboxId(11L),
+                update("PAY-2", PaymentStatus.APPROVED)));
+
+        verify(jdbcTemplate).update(deleteCaptor.capture());
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        deleteCaptor.getValue().createPreparedStatement(connection);
+        // Sem decisão aplicada nem status final (ex.: pagamento ainda não commitado) a linha fica para a varredura
+        verify(connection).prepareStatement(argThat(sql -> sql.startsWith("DELETE FROM payment_webhook_inbox")
+                && sql.contains("w.external_id = ANY(?)") && sql.contains("p.status <> 'PENDING'")));
+        verify(connection).createArrayOf("bigint", new Long[]{10L, 11L});
+        verify(connection).createArrayOf("text", new String[]{"PAY-1"});
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void applyAll_ShouldNotTouchInbox_WhenUpdatesDidNotComeFromIt() {
+        when(cacheManager.getCache(CacheConfig.PAYMENTS_BY_ORDER)).thenReturn(ordersCache);
+        when(jdbcTemplate.query(any(PreparedStatementCreator.class), any(RowMapper.class))).thenReturn(List.of());
+
+        gateway.applyAll(List.of(update("PAY-1", PaymentStatus.APPROVED)));
+
+        verify(jdbcTemplate, never()).update(any(PreparedStatementCreator.class));
+    }
+
+    @Test
+    void applyAll_ShouldSkipDatabase_WhenBatchIsEmpty() {
+        assertEquals(0, gateway.applyAll(List.of()));
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private ProviderStatusUpdate update(String externalId, PaymentStatus status) {
+        return new ProviderStatusUpdate(externalId, status, "Decisão do provedor", now);
+    }
+}
@@ -1,9 +1,19 @@
 package br.com.fiap.fase4mspagamento.gateway.database.jpa;
 
+import br.com.fiap.fase4mspagamento.config.LookupProperties;
+import br.com.fiap.fase4mspagamento.config.ReplicaProperties;
 import br.com.fiap.fase4mspagamento.domain.entity.Payment;
 import br.com.fiap.fase4mspagamento.domain.entity.PaymentStatus;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentSummary;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentView;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentEvent;
+import br.com.fiap.fase4mspagamento.gateway.PaymentArchiveGateway;
+import br.com.fiap.fase4mspagamento.gateway.PaymentEventGateway;
 import br.com.fiap.fase4mspagamento.gateway.database.jpa.entity.PaymentEntity;
 import br.com.fiap.fase4mspagamento.gateway.database.jpa.repository.PaymentRepository;
+import br.com.fiap.fase4mspagamento.gateway.database.lookup.KnownExternalIdFilter;
+import br.com.fiap.fase4mspagamento.gateway.database.routing.ReadYourWritesRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,7 +21,11 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -29,6 +43,20 @@ class PaymentJpaGatewayTest {
     @Mock
     private PaymentRepository paymentRepository;
 
+    @Mock
+    private PaymentArchiveGateway paymentArchiveGateway;
+
+    @Mock
+    private PaymentEventGateway paymentEventGateway;
+
+    @Spy
+    private ReadYourWritesRouter readRouter = new ReadYourWritesRouter(new ReplicaProperties(), new SimpleMeterRegistry());
+
+    // Filtro ainda não construído: todas as consultas passam direto para o repositório
+    @Spy
+    private KnownExternalIdFilter knownExternalIds =
+            new KnownExternalIdFilter(mock(JdbcTemplate.class), new LookupProperties(), new SimpleMeterRegistry());
+
     @InjectMocks
     private PaymentJpaGateway paymentJpaGateway;
 
@@ -46,47 +74,98 @@ class PaymentJpaGatewayTest {
                 "PAY-123",
                 new BigDecimal("100.50"),
                 "4111111111111111",
+                "tok_abc",
+                "1111",
                 "ORDER-456",
                 "http://example.com/callback",
                 PaymentStatus.APPROVED,
                 "Payment approved",
                 now.minusHours(1),
-                now
+                now,
+                3L
         );
 
         paymentEntity = new PaymentEntity(payment);
     }
 
     @Test
-    void save_ShouldConvertAndSaveEntity() {
+    void save_ShouldPersistNewEntity_WhenPaymentHasNoId() {
+        Payment newPayment = new Payment(
+                null,
+                payment.getExternalId(),
+                payment.getAmount(),
+                payment.getCreditCardNumber(),
+                payment.getCardToken(),
+                payment.getCardLastFour(),
+                payment.getOrderId(),
+                payment.getCallbackUrl(),
+                PaymentStatus.PENDING,
+                "Pagamento enviado para processamento",
+                payment.getCreatedAt(),
+                payment.getUpdatedAt(),
+                null
+        );
         when(paymentRepository.save(any(PaymentEntity.class))).thenReturn(paymentEntity);
 
-        Payment savedPayment = paymentJpaGateway.save(payment);
+        Payment savedPayment = paymentJpaGateway.save(newPayment);
 
         verify(paymentRepository).save(paymentEntityCaptor.capture());
+        verify(paymentRepository, never()).updateStatus(any(), any(), any(), any(), any(), any(), any());
         PaymentEntity capturedEntity = paymentEntityCaptor.getValue();
 
-        assertEquals(payment.getId(), capturedEntity.getId());
-        assertEquals(payment.getExternalId(), capturedEntity.getExternalId());
-        assertEquals(payment.getAmount(), capturedEntity.getAmount());
-        assertEquals(payment.getCreditCardNumber(), capturedEntity.getCreditCardNumber());
-        assertEquals(payment.getOrderId(), capturedEntity.getOrderId());
-        assertEquals(payment.getCallbackUrl(), capturedEntity.getCallbackUrl());
-        assertEquals(payment.getStatus(), capturedEntity.getStatus());
-        assertEquals(payment.getMessage(), capturedEntity.getMessage());
-        assertEquals(payment.getCreatedAt(), capturedEntity.getCreatedAt());
-        assertEquals(payment.getUpdatedAt(), capturedEntity.getUpdatedAt());
+        assertNull(capturedEntity.getId());
+        assertNull(capturedEntity.getVersion());
+        assertEquals(newPayment.getExternalId(), capturedEntity.getExternalId());
+        assertEquals(newPayment.getAmount(), capturedEntity.getAmount());
+        assertEquals(newPayment.getCardToken(), capturedEntity.getCardToken());
+        assertEquals(newPayment.getCardLastFour(), capturedEntity.getCardLastFour());
+        assertEquals(newPayment.getOrderId(), capturedEntity.getOrderId());
+        assertEquals(newPayment.getCallbackUrl(), capturedEntity.getCallbackUrl());
+        assertEquals(newPayment.getStatus(), capturedEntity.getStatus());
+        assertEquals(newPayment.getMessage(), capturedEntity.getMessage());
+        assertEquals(newPayment.getCreatedAt(), capturedEntity.getCreatedAt());
+        assertEquals(newPayment.getUpdatedAt(), capturedEntity.getUpdatedAt());
 
         assertEquals(payment.getId(), savedPayment.getId());
-        assertEquals(payment.getExternalId(), savedPayment.getExternalId());
-        assertEquals(payment.getAmount(), savedPayment.getAmount());
-        assertEquals(payment.getCreditCardNumber(), savedPayment.getCreditCardNumber());
-        assertEquals(payment.getOrderId(), savedPayment.getOrderId());
-        assertEquals(payment.getCallbackUrl(), savedPayment.getCallbackUrl());
-        assertEquals(payment.getStatus(), savedPayment.getStatus());
-        assertEquals(payment.getMessage(), savedPayment.getMessage());
+        assertEquals(payment.getVersion(), savedPayment.getVersion());
+        assertNull(savedPayment.getCreditCardNumber());
+        assertEquals(payment.getCardToken(), savedPayment.getCardToken());
+        assertEquals(payment.getCardLastFour(), savedPayment.getCardLastFour());
+        verify(knownExternalIds).register(payment.getExternalId());
+    }
+
+    @Test
+    void save_ShouldUpdateStatusWithVersionCheck_WhenPaymentExists() {
+        Payment rejected = payment.withStatus(PaymentStatus.REJECTED, "Payment rejected");
+        when(paymentRepository.updateStatus(1L, payment.getCreatedAt(), 3L, PaymentStatus.REJECTED, "Payment rejected", rejected.getUpdatedAt(), null))
+                .thenReturn(1);
+
+        Payment savedPayment = paymentJpaGateway.save(rejected);
+
+        verify(paymentRepository, never()).save(any(PaymentEntity.class));
+        assertEquals(PaymentStatus.REJECTED, savedPayment.getStatus());
+        assertEquals("Payment rejected", savedPayment.getMessage());
+        assertEquals(rejected.getUpdatedAt(), savedPayment.getUpdatedAt());
         assertEquals(payment.getCreatedAt(), savedPayment.getCreatedAt());
-        assertEquals(payment.getUpdatedAt(), savedPayment.getUpdatedAt());
+        assertEquals(4L, savedPayment.getVersion());
+    }
+
+    @Test
+    void save_ShouldThrowOptimisticLockingFailure_WhenVersionIsStale() {
+        when(paymentRepository.updateStatus(any(), any(), any(), any(), any(), any(), any())).thenReturn(0);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> paymentJpaGateway.save(payment));
+    }
+
+    @Test
+    void save_ShouldRejectUpdate_WhenPaymentHasNoVersion() {
+        Payment unversioned = new Payment(
+                1L, "PAY-123", new BigDecimal("100.50"), null, "ORDER-456", "http://example.com/callback",
+                PaymentStatus.APPROVED, "Payment approved", now, now
+        );
+
+        assertThrows(IllegalArgumentException.class, () -> paymentJpaGateway.save(unversioned));
+        verifyNoInteractions(paymentRepository);
     }
 
     @Test
@@ -122,6 +201,7 @@ class PaymentJpaGatewayTest {
         assertEquals(payment.getId(), result.get().getId());
         assertEquals(payment.getExternalId(), result.get().getExternalId());
         verify(paymentRepository).findByExternalId(externalId);
+        verifyNoInteractions(paymentArchiveGateway);
     }
 
     @Test
@@ -133,6 +213,32 @@ class PaymentJpaGatewayTest {
 
         assertFalse(result.isPresent());
         verify(paymentRepository).findByExternalId(externalId);
+        verify(paymentArchiveGateway).findByExternalId(externalId);
+    }
+
+    @Test
+    void findByExternalId_ShouldFallBackToArchive_WhenPaymentLeftHotTable() {
+        String externalId = "PAY-123";
+        when(paymentRepository.findByExternalId(externalId)).thenReturn(Optional.empty());
+        when(paymentArchiveGateway.findByExternalId(externalId)).thenReturn(Optional.of(payment));
+
+        Optional<Payment> result = paymentJpaGateway.findByExternalId(externalId);
+
+        assertTrue(result.isPresent());
+        assertSame(payment, result.get());
+    }
+
+    @Test
+    void findViewByExternalId_ShouldSkipDatabase_WhenFilterRulesIdOut() {
+        String externalId = "PAY-UNKNOWN";
+        doReturn(Optional.empty()).when(knownExternalIds).lookup(eq(externalId), any());
+        when(paymentArchiveGateway.findByExternalId(externalId)).thenReturn(Optional.empty());
+
+        Optional<PaymentView> result = paymentJpaGateway.findViewByExternalId(externalId);
+
+        assertTrue(result.isEmpty());
+        verify(paymentRepository, never()).findViewByExternalId(externalId);
+        verify(paymentArchiveGateway).findByExternalId(externalId);
     }
 
     @Test
@@ -174,4 +280,86 @@ class PaymentJpaGatewayTest {
         assertTrue(results.isEmpty());
         verify(paymentRepository).findAll();
     }
-}
\ No newline at end of file
+
+    @Test
+    void findSummariesByOrderId_ShouldQueryProjectionWithHistoryLimit() {
+        PaymentSummary summary = new PaymentSummary(1L, "PAY-123", new BigDecimal("100.50"),
+                PaymentStatus.APPROVED, "ORDER-456", now.minusHours(1), now);
+        when(paymentRepository.findSummariesByOrderId("ORDER-456", Limit.of(50))).thenReturn(List.of(summary));
+
+        List<PaymentSummary> result = paymentJpaGateway.findSummariesByOrderId("ORDER-456");
+
+        assertEquals(List.of(summary), result);
+        verify(paymentRepository, never()).findAll();
+    }
+
+    @Test
+    void findViewByExternalId_ShouldUseProjection_AndFallBackToArchive() {
+        when(paymentRepository.findViewByExternalId("PAY-123")).thenReturn(Optional.empty());
+        when(paymentArchiveGateway.findByExternalId("PAY-123")).thenReturn(Optional.of(payment));
+
+        Optional<PaymentView> result = paymentJpaGateway.findViewByExternalId("PAY-123");
+
+        assertTrue(result.isPresent());
+        assertEquals(payment.getId(), result.get().getId());
+        assertEquals(payment.getMessage(), result.get().getMessage());
+        verify(paymentRepository, never()).findByExternalId(anyString());
+    }
+
+    @Test
+    void save_ShouldRecordWrittenKeysForReadYourWrites() {
+        when(paymentRepository.updateStatus(any(), any(), any(), any(), any(), any(), any())).thenReturn(1);
+
+        paymentJpaGateway.save(payment);
+
+        verify(readRouter).recordWrite("id:1", "ext:PAY-123", "order:ORDER-456");
+    }
+
+    @Test
+    void save_ShouldAppendStatusEvent() {
+        when(paymentRepository.updateStatus(any(), any(), any(), any(), any(), any(), any())).thenReturn(1);
+        ArgumentCaptor<PaymentEvent> eventCaptor = ArgumentCaptor.forClass(PaymentEvent.class);
+
+        paymentJpaGateway.save(payment);
+
+        verify(paymentEventGateway).append(eventCaptor.capture());
+        assertEquals(payment.getId(), eventCaptor.getValue().getPaymentId());
+        assertEquals(PaymentStatus.APPROVED, eventCaptor.getValue().getStatus());
+        assertEquals(payment.getUpdatedAt(), eventCaptor.getValue().getOccurredAt());
+    }
+
+    @Test
+    void save_ShouldNotAppendEvent_WhenUpdateLosesOptimisticLock() {
+        when(paymentRepository.updateStatus(any(), any(), any(), any(), any(), any(), any())).thenReturn(0);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> paymentJpaGateway.save(payment));
+
+        verifyNoInteractions(paymentEventGateway);
+    }
+
+    @Test
+    void compareAndSetStatus_ShouldReturnUpdatedPaymentAndAppendEvent_WhenTransitionWins() {
+        PaymentEntity refunded = new PaymentEntity(payment.withStatus(PaymentStatus.REFUND_PENDING, "Estorno em processamento"));
+        when(paymentRepository.compareAndSetStatus(eq(1L), eq(payment.getCreatedAt()), eq(PaymentStatus.APPROVED),
+                eq(PaymentStatus.REFUND_PENDING), eq("Estorno em processamento"), any())).thenReturn(1);
+        when(paymentRepository.findByIdAndCreatedAt(1L, payment.getCreatedAt())).thenReturn(Optional.of(refunded));
+
+        Optional<Payment> result = paymentJpaGateway.compareAndSetStatus(payment, PaymentStatus.REFUND_PENDING, "Estorno em processamento");
+
+        assertTrue(result.isPresent());
+        assertEquals(PaymentStatus.REFUND_PENDING, result.get().getStatus());
+        verify(paymentEventGateway).append(any(PaymentEvent.class));
+        verify(readRouter).recordWrite("id:1", "ext:PAY-123", "order:ORDER-456");
+    }
+
+    @Test
+    void compareAndSetStatus_ShouldReturnEmpty_WhenStatusChangedConcurrently() {
+        when(paymentRepository.compareAndSetStatus(any(), any(), any(), any(), any(), any())).thenReturn(0);
+
+        Optional<Payment> result = paymentJpaGateway.compareAndSetStatus(payment, PaymentStatus.REFUND_PENDING, "Estorno em processamento");
+
+        assertTrue(result.isEmpty());
+        verify(paymentRepository, never()).findByIdAndCreatedAt(any(), any());
+        verifyNoInteractions(paymentEventGateway);
+    }
+}
@@ -22,7 +22,8 @@ class PaymentEntityTest {
         assertNull(entity.getId());
         assertNull(entity.getExternalId());
         assertNull(entity.getAmount());
-        assertNull(entity.getCreditCardNumber());
+        assertNull(entity.getCardToken());
+        assertNull(entity.getCardLastFour());
         assertNull(entity.getOrderId());
         assertNull(entity.getCallbackUrl());
         assertNull(entity.getStatus());
@@ -37,6 +38,8 @@ class PaymentEntityTest {
         String externalId = "PAY-123";
         BigDecimal amount = new BigDecimal("100.50");
         String creditCardNumber = "4111111111111111";
+        String cardToken = "tok_abc";
+        String cardLastFour = "1111";
         String orderId = "ORDER-456";
         String callbackUrl = "http://example.com/callback";
         PaymentStatus status = PaymentStatus.APPROVED;
@@ -45,8 +48,8 @@ class PaymentEntityTest {
         LocalDateTime updatedAt = LocalDateTime.now();
 
         Payment payment = new Payment(
-                id, externalId, amount, creditCardNumber, orderId, callbackUrl,
-                status, message, createdAt, updatedAt
+                id, externalId, amount, creditCardNumber, cardToken, cardLastFour, orderId, callbackUrl,
+                status, message, createdAt, updatedAt, 2L
         );
 
         PaymentEntity entity = new PaymentEntity(payment);
@@ -54,13 +57,15 @@ class PaymentEntityTest {
         assertEquals(id, entity.getId());
         assertEquals(externalId, entity.getExternalId());
         assertEquals(amount, entity.getAmount());
-        assertEquals(creditCardNumber, entity.getCreditCardNumber());
+        assertEquals(cardToken, entity.getCardToken());
+        assertEquals(cardLastFour, entity.getCardLastFour());
         assertEquals(orderId, entity.getOrderId());
         assertEquals(callbackUrl, entity.getCallbackUrl());
         assertEquals(status, entity.getStatus());
         assertEquals(message, entity.getMessage());
         assertEquals(createdAt, entity.getCreatedAt());
         assertEquals(updatedAt, entity.getUpdatedAt());
+        assertEquals(2L, entity.getVersion());
     }
 
     @Test
@@ -69,7 +74,8 @@ class PaymentEntityTest {
         entity.setId(1L);
         entity.setExternalId("PAY-123");
         entity.setAmount(new BigDecimal("100.50"));
-        entity.setCreditCardNumber("4111111111111111");
+        entity.setCardToken("tok_abc");
+        entity.setCardLastFour("1111");
         entity.setOrderId("ORDER-456");
         entity.setCallbackUrl("http://example.com/callback");
         entity.setStatus(PaymentStatus.APPROVED);
@@ -85,7 +91,9 @@ class PaymentEntityTest {
         assertEquals(entity.getId(), payment.getId());
         assertEquals(entity.getExternalId(), payment.getExternalId());
         assertEquals(entity.getAmount(), payment.getAmount());
-        assertEquals(entity.getCreditCardNumber(), payment.getCreditCardNumber());
+        assertNull(payment.getCreditCardNumber());
+        assertEquals(entity.getCardToken(), payment.getCardToken());
+        assertEquals(entity.getCardLastFour(), payment.getCardLastFour());
         assertEquals(entity.getOrderId(), payment.getOrderId());
         assertEquals(entity.getCallbackUrl(), payment.getCallbackUrl());
         assertEquals(entity.getStatus(), payment.getStatus());
@@ -140,7 +148,8 @@ class PaymentEntityTest {
         Long id = 2L;
         String externalId = "PAY-456";
         BigDecimal amount = new BigDecimal("200.75");
-        String creditCardNumber = "5555555555554444";
+        String cardToken = "tok_def";
+        String cardLastFour = "4444";
         String orderId = "ORDER-789";
         String callbackUrl = "http://example.org/callback";
         PaymentStatus status = PaymentStatus.PENDING;
@@ -151,7 +160,8 @@ class PaymentEntityTest {
         entity.setId(id);
         entity.setExternalId(externalId);
         entity.setAmount(amount);
-        entity.setCreditCardNumber(creditCardNumber);
+        entity.setCardToken(cardToken);
+        entity.setCardLastFour(cardLastFour);
         entity.setOrderId(orderId);
         entity.setCallbackUrl(callbackUrl);
         entity.setStatus(status);
@@ -162,7 +172,8 @@ class PaymentEntityTest {
         assertEquals(id, entity.getId());
         assertEquals(externalId, entity.getExternalId());
         assertEquals(amount, entity.getAmount());
-        assertEquals(creditCardNumber, entity.getCreditCardNumber());
+        assertEquals(cardToken, entity.getCardToken());
+        assertEquals(cardLastFour, entity.getCardLastFour());
         assertEquals(orderId, entity.getOrderId());
         assertEquals(callbackUrl, entity.getCallbackUrl());
         assertEquals(status, entity.getStatus());
@@ -178,12 +189,15 @@ class PaymentEntityTest {
                 "PAY-789",
                 new BigDecimal("300.25"),
                 "3784123456789010",
+                "tok_ghi",
+                "9010",
                 "ORDER-101112",
                 "http://example.net/callback",
                 PaymentStatus.REFUNDED,
                 "Payment refunded",
                 LocalDateTime.now().minusWeeks(1),
-                LocalDateTime.now().minusDays(2)
+                LocalDateTime.now().minusDays(2),
+                5L
         );
 
         PaymentEntity entity = new PaymentEntity(originalPayment);
@@ -192,12 +206,31 @@ class PaymentEntityTest {
         assertEquals(originalPayment.getId(), convertedPayment.getId());
         assertEquals(originalPayment.getExternalId(), convertedPayment.getExternalId());
         assertEquals(originalPayment.getAmount(), convertedPayment.getAmount());
-        assertEquals(originalPayment.getCreditCardNumber(), convertedPayment.getCreditCardNumber());
+        assertNull(convertedPayment.getCreditCardNumber(), "Número do cartão não deve ser persistido");
+        assertEquals(originalPayment.getCardToken(), convertedPayment.getCardToken());
+        assertEquals(originalPayment.getCardLastFour(), convertedPayment.getCardLastFour());
         assertEquals(originalPayment.getOrderId(), convertedPayment.getOrderId());
         assertEquals(originalPayment.getCallbackUrl(), convertedPayment.getCallbackUrl());
         assertEquals(originalPayment.getStatus(), convertedPayment.getStatus());
         assertEquals(originalPayment.getMessage(), convertedPayment.getMessage());
         assertEquals(originalPayment.getCreatedAt(), convertedPayment.getCreatedAt());
         assertEquals(originalPayment.getUpdatedAt(), convertedPayment.getUpdatedAt());
+        assertEquals(originalPayment.getVersion(), convertedPayment.getVersion());
+    }
+
+    @Test
+    void onCreate_ShouldKeepTimestampsDefinedByDomain() throws Exception {
+        PaymentEntity entity = new PaymentEntity();
+        LocalDateTime createdAt = LocalDateTime.now().minusMinutes(10);
+        LocalDateTime updatedAt = LocalDateTime.now().minusMinutes(5);
+        entity.setCreatedAt(createdAt);
+        entity.setUpdatedAt(updatedAt);
+
+        Method onCreate = PaymentEntity.class.getDeclaredMethod("onCreate");
+        onCreate.setAccessible(true);
+        onCreate.invoke(entity);
+
+        assertEquals(createdAt, entity.getCreatedAt());
+        assertEquals(updatedAt, entity.getUpdatedAt());
     }
 }
\ No newline at end of file
@@ -0,0 +1,163 @@
+package br.com.fiap.fase4mspagamento.gateway.database.jpa.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Confere via EXPLAIN que as consultas quentes usam os índices cobertos da V5.
+ * Roda contra o banco local (mesmas variáveis do application.yml) e é ignorado se ele não estiver no ar.
+ * Os dados de exemplo ficam numa transação desfeita ao final de cada teste.
+ */
+class PaymentIndexPlanTest {
+
+    private static final String URL = env("SPRING_DATASOURCE_URL", "jdbc:postgresql://localhost:5439/payment_db");
+    private static final String USERNAME = env("SPRING_DATASOURCE_USERNAME", "postgres");
+    private static final String PASSWORD = env("SPRING_DATASOURCE_PASSWORD", "postgres");
+
+    private static boolean databaseAvailable;
+
+    private Connection connection;
+
+    @BeforeAll
+    static void migrate() {
+        try (Connection ignored = DriverManager.getConnection(URL, USERNAME, PASSWORD)) {
+            databaseAvailable = true;
+        } catch (SQLException e) {
+            databaseAvailable = false;
+            return;
+        }
+        Flyway.configure()
+                .dataSource(URL, USERNAME, PASSWORD)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .load()
+                .migrate();
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        assumeTrue(databaseAvailable, "Banco local indisponível em " + URL);
+        connection = DriverManager.getConnection(URL, USERNAME, PASSWORD);
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO payments (external_id, amount, order_id, callback_url, status, message, "
+                    + "created_at, updated_at) "
+                    + "SELECT 'PLAN-' || g, 10.00, 'PLAN-ORDER-' || (g % 50), 'http://localhost/callback', "
+                    + "'APPROVED', 'ok', now() - (g || ' minutes')::interval, now() "
+                    + "FROM generate_series(1, 2000) g");
+            statement.execute("ANALYZE payments");
+            statement.execute("ANALYZE payment_external_ids");
+            // Tabelas pequenas levam o planner ao seq scan; o que interessa aqui é qual índice seria usado
+            statement.execute("SET LOCAL enable_seqscan = off");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        if (connection != null) {
+            connection.rollback();
+            connection.close();
+        }
+    }
+
+    @Test
+    void findByExternalId_ShouldResolveLookupIndexOnly() throws SQLException {
+        String plan = explain("SELECT p.* FROM payment_external_ids x "
+                + "JOIN payments p ON p.id = x.payment_id AND p.created_at = x.created_at "
+                + "WHERE x.external_id = ?", "PLAN-42");
+
+        assertTrue(plan.contains("Index Only Scan using payment_external_ids_pkey"), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+    }
+
+    @Test
+    void findByOrderId_ShouldBeServedByCoveringIndex() throws SQLException {
+        String plan = explain("SELECT id, external_id, status, amount, created_at, updated_at FROM payments "
+                + "WHERE order_id = ? ORDER BY created_at DESC", "PLAN-ORDER-7");
+
+        assertTrue(plan.contains("Index Only Scan"), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+        // Merge Append tem "Sort Key", mas não ordena; o que não pode aparecer é um nó Sort
+        assertFalse(plan.lines().map(String::strip).anyMatch(line -> line.matches("(->\\s+)?Sort\\s+\\(.*")), plan);
+    }
+
+    @Test
+    void updateStatus_ShouldPruneToOnePartition() throws SQLException {
+        String plan = explain("UPDATE payments SET status = 'REJECTED', version = version + 1 "
+                + "WHERE id = ? AND created_at = ? AND version = ?", 42L, LocalDateTime.now(), 0L);
+
+        // Partições aparecem como payments_yyyyMM (tabela e índices); só um mês pode restar no plano
+        Set<String> partitions = Pattern.compile("payments_(\\d{6})").matcher(plan).results()
+                .map(match -> match.group(1))
+                .collect(Collectors.toSet());
+        assertEquals(1, partitions.size(), plan);
+    }
+
+    @Test
+    void payments_ShouldNotHaveIndexOnExternalId() throws SQLException {
+        List<String> indexes = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT indexname FROM pg_indexes "
+                     + "WHERE tablename = 'payments' AND indexdef LIKE '%(external_id)%'")) {
+            while (rs.next()) {
+                indexes.add(rs.getString(1));
+            }
+        }
+        assertEquals(List.of(), indexes);
+    }
+
+    @Test
+    void paymentPartitions_ShouldUseDefaultFillfactor() throws SQLException {
+        List<String> options = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT c.relname || ' ' || array_to_string(c.reloptions, ',') "
+                     + "FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                     + "JOIN pg_class p ON p.oid = i.inhparent "
+                     + "WHERE p.relname = 'payments' AND c.reloptions IS NOT NULL")) {
+            while (rs.next()) {
+                options.add(rs.getString(1));
+            }
+        }
+        // Updates de status mudam colunas do INCLUDE do índice por pedido e nunca são HOT (ver V5)
+        assertEquals(List.of(), options);
+    }
+
+    private String explain(String sql, Object... parameters) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+            }
+        }
+        return plan.toString();
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
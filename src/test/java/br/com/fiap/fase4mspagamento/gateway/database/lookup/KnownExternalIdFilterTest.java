@@ -0,0 +1,220 @@
+package br.com.fiap.fase4mspagamento.gateway.database.lookup;
+
+import br.com.fiap.fase4mspagamento.config.LookupProperties;
+import br.com.fiap.fase4mspagamento.domain.id.TimeOrderedIdGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KnownExternalIdFilterTest {
+
+    private static final String PAGE_QUERY = "SELECT external_id, created_at FROM payment_external_ids WHERE external_id >";
+    private static final String SYNC_QUERY = "SELECT external_id, created_at FROM payment_external_ids WHERE created_at >";
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 5, 15, 10, 0);
+    private static final ZoneId ZONE = ZoneId.of("America/Sao_Paulo");
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private LookupProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private KnownExternalIdFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LookupProperties();
+        properties.setExpectedInsertions(1_000);
+        meterRegistry = new SimpleMeterRegistry();
+        // Fuso diferente de UTC: o watermark (LocalDateTime) precisa ser lido no fuso do relógio
+        Clock clock = Clock.fixed(Instant.parse("2025-05-15T10:00:00Z"), ZONE);
+        filter = new KnownExternalIdFilter(jdbcTemplate, properties, meterRegistry, clock);
+    }
+
+    @Test
+    void lookup_ShouldQueryDatabase_BeforeFilterIsBuilt() {
+        Optional<String> result = filter.lookup("PAYER-1", () -> Optional.of("found"));
+
+        assertEquals(Optional.of("found"), result);
+        assertEquals(1, counter("bypassed"));
+    }
+
+    @Test
+    void lookup_ShouldAnswerDefiniteMissInMemory_AfterRebuild() {
+        stubRebuild("PAYER-1", "PAYER-2");
+        filter.rebuild();
+        AtomicInteger queries = new AtomicInteger();
+
+        Optional<String> missing = filter.lookup(olderThanSynced(), () -> {
+            queries.incrementAndGet();
+            return Optional.empty();
+        });
+        Optional<String> existing = filter.lookup("PAYER-1", () -> {
+            queries.incrementAndGet();
+            return Optional.of("found");
+        });
+
+        assertTrue(missing.isEmpty());
+        assertEquals(Optional.of("found"), existing);
+        assertEquals(1, queries.get());
+        assertEquals(1, counter("rejected"));
+        assertEquals(1, counter("found"));
+    }
+
+    @Test
+    void register_ShouldMakeLocalInsertVisibleImmediately() {
+        stubRebuild();
+        filter.rebuild();
+
+        filter.register("PAYER-NEW");
+
+        assertEquals(Optional.of("found"), filter.lookup("PAYER-NEW", () -> Optional.of("found")));
+    }
+
+    @Test
+    void sync_ShouldLoadIdsCreatedByOtherInstancesSinceWatermarkMinusOverlap() {
+        stubRebuild("PAYER-1");
+        filter.rebuild();
+        doAnswer(rows("PAYER-REMOTE")).when(jdbcTemplate)
+                .query(startsWith(SYNC_QUERY), any(RowCallbackHandler.class), any(Object.class));
+
+        filter.sync();
+
+        verify(jdbcTemplate).query(startsWith(SYNC_QUERY), any(RowCallbackHandler.class),
+                eq(CREATED_AT.minus(properties.getSyncOverlap())));
+        assertEquals(Optional.of("found"), filter.lookup("PAYER-REMOTE", () -> Optional.of("found")));
+    }
+
+    @Test
+    void lookup_ShouldQueryDatabase_WhenIdIsNewerThanSyncedWatermark() {
+        stubRebuild("PAYER-1");
+        filter.rebuild();
+        // Criado por outra instância pouco antes do último created_at sincronizado, ainda dentro do overlap
+        String remote = "PAYER-" + idCreatedAt(CREATED_AT.minusSeconds(1));
+
+        assertEquals(Optional.of("found"), filter.lookup(remote, () -> Optional.of("found")));
+        assertEquals(1, counter("recent"));
+        assertEquals(0, counter("rejected"));
+    }
+
+    @Test
+    void lookup_ShouldAnswerMissInMemory_WhenIdIsOlderThanSyncedWatermark() {
+        stubRebuild("PAYER-1");
+        filter.rebuild();
+        assertTrue(filter.lookup(olderThanSynced(), () -> Optional.of("found")).isEmpty());
+        assertEquals(1, counter("rejected"));
+    }
+
+    @Test
+    void lookup_ShouldQueryDatabase_WhenIdHasNoEmbeddedTimestamp() {
+        stubRebuild("PAYER-1");
+        filter.rebuild();
+        // payment.ids.strategy=random: pode ter sido criado agora por outra instância
+        String random = "PAYER-" + UUID.randomUUID();
+
+        assertEquals(Optional.of("found"), filter.lookup(random, () -> Optional.of("found")));
+        assertEquals(Optional.of("found"), filter.lookup("PAYER-LEGACY", () -> Optional.of("found")));
+        assertEquals(2, counter("recent"));
+        assertEquals(0, counter("rejected"));
+    }
+
+    @Test
+    void lookup_ShouldBypassFilter_WhenSyncIsStale() {
+        stubRebuild("PAYER-1");
+        filter.rebuild();
+
+        properties.setMaxStaleness(Duration.ZERO);
+
+        assertEquals(Optional.of("found"), filter.lookup("PAYER-REMOTE", () -> Optional.of("found")));
+        assertEquals(1, counter("bypassed"));
+    }
+
+    @Test
+    void lookup_ShouldCountFalsePositive_WhenFilterPassesButDatabaseMisses() {
+        stubRebuild("PAYER-1");
+        filter.rebuild();
+
+        filter.lookup("PAYER-1", Optional::empty);
+        filter.lookup(olderThanSynced(), Optional::empty);
+
+        assertEquals(1, counter("false_positive"));
+        assertEquals(0.5, filter.observedFalsePositiveRate());
+    }
+
+    @Test
+    void rebuild_ShouldKeepQueryingDatabase_WhenLoadFails() {
+        when(jdbcTemplate.queryForObject("SELECT count(*) FROM payment_external_ids", Long.class))
+                .thenThrow(new IllegalStateException("banco fora"));
+
+        filter.rebuild();
+
+        assertFalse(filter.isTrusted());
+    }
+
+    @Test
+    void rebuild_ShouldDoNothing_WhenDisabled() {
+        properties.setEnabled(false);
+
+        filter.rebuild();
+
+        verifyNoInteractions(jdbcTemplate);
+        assertFalse(filter.isTrusted());
+    }
+
+    private void stubRebuild(String... externalIds) {
+        when(jdbcTemplate.queryForObject("SELECT count(*) FROM payment_external_ids", Long.class))
+                .thenReturn((long) externalIds.length);
+        doAnswer(rows(externalIds)).when(jdbcTemplate)
+                .query(startsWith(PAGE_QUERY), any(RowCallbackHandler.class), any(Object.class), any(Object.class));
+    }
+
+    private static Answer<Void> rows(String... externalIds) {
+        return invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (String externalId : externalIds) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getString(1)).thenReturn(externalId);
+                when(rs.getTimestamp(2)).thenReturn(Timestamp.valueOf(CREATED_AT));
+                handler.processRow(rs);
+            }
+            return null;
+        };
+    }
+
+    private String olderThanSynced() {
+        return "PAYER-" + idCreatedAt(CREATED_AT.minus(properties.getSyncOverlap()).minusSeconds(1));
+    }
+
+    private static UUID idCreatedAt(LocalDateTime createdAt) {
+        Instant instant = createdAt.atZone(ZONE).toInstant();
+        return new TimeOrderedIdGenerator(Clock.fixed(instant, ZoneOffset.UTC)).next();
+    }
+
+    private double counter(String result) {
+        return meterRegistry.get("payment.lookup.external_id").tag("result", result).counter().count();
+    }
+}
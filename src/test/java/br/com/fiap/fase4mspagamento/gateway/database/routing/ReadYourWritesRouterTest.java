@@ -0,0 +1,115 @@
+package br.com.fiap.fase4mspagamento.gateway.database.routing;
+
+import br.com.fiap.fase4mspagamento.config.ReplicaProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReadYourWritesRouterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReplicaLagMonitor lagMonitor;
+    private ReplicaRoutingDataSource routingDataSource;
+    private ReadYourWritesRouter router;
+
+    @BeforeEach
+    void setUp() {
+        ReplicaProperties properties = new ReplicaProperties();
+        properties.setUrl("jdbc:postgresql://replica:5432/payment_db");
+        meterRegistry = new SimpleMeterRegistry();
+        lagMonitor = mock(ReplicaLagMonitor.class);
+        routingDataSource = new ReplicaRoutingDataSource(lagMonitor);
+        router = new ReadYourWritesRouter(properties, meterRegistry);
+    }
+
+    @Test
+    void routing_ShouldUseReplica_OnlyForReadOnlyTransactionsWithinLagTolerance() {
+        when(lagMonitor.isWithinTolerance()).thenReturn(true);
+
+        assertEquals(DataSourceRoute.PRIMARY, routingDataSource.determineCurrentLookupKey());
+        inReadOnlyTransaction(() -> {
+            assertEquals(DataSourceRoute.REPLICA, routingDataSource.determineCurrentLookupKey());
+            assertEquals(DataSourceRoute.PRIMARY,
+                    ReplicaRoutingDataSource.onPrimary(routingDataSource::determineCurrentLookupKey));
+        });
+    }
+
+    @Test
+    void routing_ShouldUsePrimary_WhenReplicaLagIsOutOfTolerance() {
+        when(lagMonitor.isWithinTolerance()).thenReturn(false);
+
+        inReadOnlyTransaction(() ->
+                assertEquals(DataSourceRoute.PRIMARY, routingDataSource.determineCurrentLookupKey()));
+    }
+
+    @Test
+    void read_ShouldGoToPrimary_WhenKeyWasWrittenRecently() {
+        when(lagMonitor.isWithinTolerance()).thenReturn(true);
+        router.recordWrite("ext:PAY-1");
+
+        List<Object> routes = new ArrayList<>();
+        inReadOnlyTransaction(() -> router.read("ext:PAY-1", () -> {
+            routes.add(routingDataSource.determineCurrentLookupKey());
+            return Optional.of("payment");
+        }));
+
+        assertEquals(List.of(DataSourceRoute.PRIMARY), routes);
+        assertEquals(1.0, meterRegistry.get("payment.datasource.primary.reads").tag("reason", "recent_write").counter().count());
+    }
+
+    @Test
+    void read_ShouldRetryOnPrimary_WhenReplicaMisses() {
+        when(lagMonitor.isWithinTolerance()).thenReturn(true);
+
+        List<Object> routes = new ArrayList<>();
+        Optional<String> result = inReadOnlyTransaction(() -> router.read("ext:PAY-2", () -> {
+            Object route = routingDataSource.determineCurrentLookupKey();
+            routes.add(route);
+            return route == DataSourceRoute.PRIMARY ? Optional.of("payment") : Optional.<String>empty();
+        }));
+
+        assertEquals(Optional.of("payment"), result);
+        assertEquals(List.of(DataSourceRoute.REPLICA, DataSourceRoute.PRIMARY), routes);
+    }
+
+    @Test
+    void read_ShouldNotRetry_WhenReplicaIsNotConfigured() {
+        ReadYourWritesRouter disabled = new ReadYourWritesRouter(new ReplicaProperties(), meterRegistry);
+        disabled.recordWrite("ext:PAY-3");
+        int[] calls = {0};
+
+        Optional<String> result = disabled.read("ext:PAY-3", () -> {
+            calls[0]++;
+            return Optional.empty();
+        });
+
+        assertTrue(result.isEmpty());
+        assertEquals(1, calls[0]);
+    }
+
+    private static <T> T inReadOnlyTransaction(Supplier<T> action) {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            return action.get();
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+
+    private static void inReadOnlyTransaction(Runnable action) {
+        inReadOnlyTransaction(() -> {
+            action.run();
+            return null;
+        });
+    }
+}
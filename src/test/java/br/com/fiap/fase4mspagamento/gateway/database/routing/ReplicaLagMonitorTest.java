@@ -0,0 +1,81 @@
+package br.com.fiap.fase4mspagamento.gateway.database.routing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaLagMonitorTest {
+
+    @Mock
+    private JdbcTemplate replicaJdbcTemplate;
+
+    private final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2025-05-15T10:00:00Z"));
+    private ReplicaLagMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now.get();
+            }
+        };
+        monitor = new ReplicaLagMonitor(replicaJdbcTemplate, Duration.ofSeconds(5), Duration.ofSeconds(15),
+                new SimpleMeterRegistry(), clock);
+    }
+
+    @Test
+    void isWithinTolerance_ShouldBeFalse_BeforeFirstMeasurement() {
+        assertFalse(monitor.isWithinTolerance());
+    }
+
+    @Test
+    void isWithinTolerance_ShouldFollowMeasuredLag() {
+        when(replicaJdbcTemplate.queryForObject(anyString(), eq(Double.class))).thenReturn(1.0, 6.0);
+
+        monitor.check();
+        assertTrue(monitor.isWithinTolerance());
+
+        monitor.check();
+        assertFalse(monitor.isWithinTolerance());
+    }
+
+    @Test
+    void isWithinTolerance_ShouldBeFalse_WhenLastMeasurementIsTooOld() {
+        when(replicaJdbcTemplate.queryForObject(anyString(), eq(Double.class))).thenReturn(0.0);
+        monitor.check();
+
+        now.set(now.get().plusSeconds(15));
+        assertTrue(monitor.isWithinTolerance());
+
+        now.set(now.get().plusSeconds(1));
+        assertFalse(monitor.isWithinTolerance());
+    }
+}
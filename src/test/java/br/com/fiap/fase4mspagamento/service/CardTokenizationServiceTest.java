@@ -0,0 +1,154 @@
+package br.com.fiap.fase4mspagamento.service;
+
+import br.com.fiap.fase4mspagamento.config.VaultProperties;
+import br.com.fiap.fase4mspagamento.gateway.CardVaultGateway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CardTokenizationServiceTest {
+
+    private static final String ENCRYPTION_KEY = "TIoQkK/pjQp+1PISdpv3MB9FGt1iZDNraIfum5hIhwM=";
+    private static final String TOKEN_KEY = "TFVH6XK5At9keMg9Yff7+5NmrUKyTYmABDhaQMCuN5w=";
+    private static final String CARD_NUMBER = "4111111111111111";
+
+    @Mock
+    private CardVaultGateway cardVaultGateway;
+
+    @Captor
+    private ArgumentCaptor<byte[]> encryptedCaptor;
+
+    private CardCipher cardCipher;
+    private VaultProperties properties;
+    private CardTokenizationService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new VaultProperties();
+        properties.setEncryptionKey(ENCRYPTION_KEY);
+        properties.setTokenKey(TOKEN_KEY);
+        cardCipher = new CardCipher(ENCRYPTION_KEY, TOKEN_KEY);
+        service = new CardTokenizationService(cardVaultGateway, cardCipher, properties);
+    }
+
+    @Test
+    void tokenize_ShouldStoreEncryptedCardAndReturnDeterministicToken() {
+        String token = service.tokenize(CARD_NUMBER);
+
+        verify(cardVaultGateway).saveIfAbsent(eq(token), encryptedCaptor.capture());
+        assertTrue(token.startsWith("tok_"));
+        assertFalse(token.contains(CARD_NUMBER));
+        assertEquals(token, cardCipher.token(CARD_NUMBER));
+
+        byte[] encrypted = encryptedCaptor.getValue();
+        assertFalse(new String(encrypted, StandardCharsets.ISO_8859_1).contains(CARD_NUMBER));
+        assertEquals(CARD_NUMBER, cardCipher.decrypt(encrypted));
+    }
+
+    @Test
+    void tokenize_ShouldSkipVaultWrite_WhenCardAlreadyTokenizedByThisInstance() {
+        String first = service.tokenize(CARD_NUMBER);
+        String second = service.tokenize(CARD_NUMBER);
+
+        assertEquals(first, second);
+        verify(cardVaultGateway, times(1)).saveIfAbsent(anyString(), any(byte[].class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void tokenize_ShouldWriteVaultAgain_WhenFirstTransactionRolledBack() {
+        TransactionSynchronizationManager.initSynchronization();
+        service.tokenize(CARD_NUMBER);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        service.tokenize(CARD_NUMBER);
+
+        verify(cardVaultGateway, times(2)).saveIfAbsent(anyString(), any(byte[].class));
+    }
+
+    @Test
+    void tokenize_ShouldSkipVaultWrite_OnlyAfterFirstTransactionCommitted() {
+        TransactionSynchronizationManager.initSynchronization();
+        service.tokenize(CARD_NUMBER);
+        service.tokenize(CARD_NUMBER);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        service.tokenize(CARD_NUMBER);
+
+        verify(cardVaultGateway, times(2)).saveIfAbsent(anyString(), any(byte[].class));
+    }
+
+    @Test
+    void detokenize_ShouldUseCache_AfterTokenize() {
+        String token = service.tokenize(CARD_NUMBER);
+
+        assertEquals(Optional.of(CARD_NUMBER), service.detokenize(token));
+        verify(cardVaultGateway, never()).findEncryptedCardNumber(anyString());
+    }
+
+    @Test
+    void detokenize_ShouldLoadFromVault_WhenNotCached() {
+        String token = cardCipher.token(CARD_NUMBER);
+        when(cardVaultGateway.findEncryptedCardNumber(token)).thenReturn(Optional.of(cardCipher.encrypt(CARD_NUMBER)));
+
+        assertEquals(Optional.of(CARD_NUMBER), service.detokenize(token));
+        assertEquals(Optional.of(CARD_NUMBER), service.detokenize(token));
+
+        verify(cardVaultGateway, times(1)).findEncryptedCardNumber(token);
+    }
+
+    @Test
+    void detokenize_ShouldReturnEmpty_WhenTokenIsUnknownOrNull() {
+        when(cardVaultGateway.findEncryptedCardNumber("tok_unknown")).thenReturn(Optional.empty());
+
+        assertTrue(service.detokenize("tok_unknown").isEmpty());
+        assertTrue(service.detokenize(null).isEmpty());
+    }
+
+    @Test
+    void cardCipher_ShouldRejectMissingKey() {
+        assertThrows(IllegalStateException.class, () -> new CardCipher(null, TOKEN_KEY));
+        assertThrows(IllegalStateException.class, () -> new CardCipher("", TOKEN_KEY));
+        assertThrows(IllegalStateException.class, () -> new CardCipher("${PAYMENT_VAULT_ENCRYPTION_KEY}", TOKEN_KEY));
+    }
+
+    @Test
+    void cardCipher_ShouldRejectPlaceholderKey_OutsideCdsTraining() {
+        String placeholder = "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA=";
+
+        assertThrows(IllegalStateException.class, () -> new CardCipher(placeholder, TOKEN_KEY));
+        assertThrows(IllegalStateException.class, () -> new CardCipher(ENCRYPTION_KEY, placeholder));
+        assertNotNull(new CardCipher(placeholder, placeholder, true));
+    }
+
+    @Test
+    void lastFour_ShouldReturnLastDigits() {
+        assertEquals("1111", CardCipher.lastFour(CARD_NUMBER));
+        assertNull(CardCipher.lastFour(null));
+    }
+}
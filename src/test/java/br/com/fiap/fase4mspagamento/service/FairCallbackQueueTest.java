@@ -0,0 +1,187 @@
+package br.com.fiap.fase4mspagamento.service;
+
+import br.com.fiap.fase4mspagamento.config.CallbackProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FairCallbackQueueTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private CallbackProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        properties = new CallbackProperties();
+        properties.setRatePerSecond(1000);
+        properties.setBurst(1000);
+        properties.setMaxInFlightPerHost(1000);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void poll_ShouldInterleaveHosts_WhenOneHostHasLargeBacklog() {
+        FairCallbackQueue<String> queue = new FairCallbackQueue<>(properties, meterRegistry);
+        for (int i = 0; i < 100; i++) {
+            queue.offer("big.example", "big-" + i, 0);
+        }
+        queue.offer("small.example", "small-0", 0);
+        queue.offer("small.example", "small-1", 0);
+
+        List<String> order = drain(queue, 4);
+
+        assertEquals(List.of("big-0", "small-0", "big-1", "small-1"), order);
+    }
+
+    @Test
+    void poll_ShouldServeHostsInProportionToWeight() {
+        properties.setWeights(Map.of("gold.example", 3));
+        FairCallbackQueue<String> queue = new FairCallbackQueue<>(properties, meterRegistry);
+        for (int i = 0; i < 10; i++) {
+            queue.offer("gold.example", "gold", 0);
+            queue.offer("basic.example", "basic", 0);
+        }
+
+        List<String> order = drain(queue, 8);
+
+        assertEquals(List.of("gold", "gold", "gold", "basic", "gold", "gold", "gold", "basic"), order);
+    }
+
+    @Test
+    void poll_ShouldHoldHost_WhenItsBucketIsEmpty() {
+        properties.setRatePerSecond(1);
+        properties.setBurst(1);
+        properties.setWeights(Map.of("a.example", 1));
+        FairCallbackQueue<String> queue = new FairCallbackQueue<>(properties, meterRegistry);
+        queue.offer("a.example", "a-0", 0);
+        queue.offer("a.example", "a-1", 0);
+
+        assertEquals("a-0", queue.poll(0).getItem());
+        assertNull(queue.poll(0));
+        assertEquals("a-1", queue.poll(SECOND).getItem());
+        assertEquals(1, meterRegistry.get("payment.callbacks.lag").tag("host", "a.example").timer()
+                .max(TimeUnit.SECONDS), 0.001);
+    }
+
+    @Test
+    void poll_ShouldRespectInFlightLimit_UntilRelease() {
+        properties.setMaxInFlightPerHost(1);
+        FairCallbackQueue<String> queue = new FairCallbackQueue<>(properties, meterRegistry);
+        queue.offer("a.example", "a-0", 0);
+        queue.offer("a.example", "a-1", 0);
+
+        FairCallbackQueue.Dispatch<String> first = queue.poll(0);
+        assertNull(queue.poll(0));
+
+        queue.release(first.getHost(), 0);
+
+        assertEquals("a-1", queue.poll(0).getItem());
+    }
+
+    @Test
+    void offer_ShouldRejectAndCount_WhenHostQueueIsFull() {
+        properties.setQueueCapacityPerHost(2);
+        FairCallbackQueue<String> queue = new FairCallbackQueue<>(properties, meterRegistry);
+
+        assertTrue(queue.offer("a.example", "a-0", 0));
+        assertTrue(queue.offer("a.example", "a-1", 0));
+        assertFalse(queue.offer("a.example", "a-2", 0));
+        assertTrue(queue.offer("b.example", "b-0", 0));
+
+        // Hosts fora de weights são agregados: a tag não cresce com urls informadas pelos clientes
+        assertEquals(1.0, meterRegistry.get("payment.callbacks.dropped")
+                .tag("host", "other").tag("reason", "queue_full").counter().count());
+        assertEquals(3.0, meterRegistry.get("payment.callbacks.queue.size").tag("host", "other").gauge().value());
+        assertEquals(3, queue.pending());
+    }
+
+    @Test
+    void offer_ShouldEvictIdleHostsAndRemoveTheirMeters() {
+        properties.setHostIdleTimeout(Duration.ofMinutes(1));
+        properties.setWeights(Map.of("a.example", 2));
+        FairCallbackQueue<String> queue = new FairCallbackQueue<>(properties, meterRegistry);
+        queue.offer("a.example", "a-0", 0);
+        queue.offer("b.example", "b-0", 0);
+        queue.release(queue.poll(0).getHost(), 0);
+        queue.release(queue.poll(0).getHost(), 0);
+
+        queue.offer("c.example", "c-0", MINUTE - 1);
+        assertEquals(3, queue.hosts());
+
+        queue.offer("c.example", "c-1", MINUTE);
+
+        assertEquals(1, queue.hosts());
+        assertNull(meterRegistry.find("payment.callbacks.lag").tag("host", "a.example").timer());
+        assertNull(meterRegistry.find("payment.callbacks.queue.size").tag("host", "a.example").gauge());
+        assertNotNull(meterRegistry.find("payment.callbacks.lag").tag("host", "other").timer());
+    }
+
+    @Test
+    void offer_ShouldKeepHost_WhenItGotWorkAgainBeforeTimeout() {
+        properties.setHostIdleTimeout(Duration.ofMinutes(1));
+        FairCallbackQueue<String> queue = new FairCallbackQueue<>(properties, meterRegistry);
+        queue.offer("a.example", "a-0", 0);
+        queue.release(queue.poll(0).getHost(), 0);
+        queue.offer("a.example", "a-1", MINUTE / 2);
+
+        queue.offer("b.example", "b-0", MINUTE);
+
+        assertEquals(2, queue.hosts());
+        assertEquals(2, queue.pending());
+    }
+
+    @Test
+    void offer_ShouldNotEvictHost_BeforeItsBucketRefills() {
+        properties.setHostIdleTimeout(Duration.ZERO);
+        properties.setRatePerSecond(1);
+        properties.setBurst(10);
+        FairCallbackQueue<String> queue = new FairCallbackQueue<>(properties, meterRegistry);
+        queue.offer("a.example", "a-0", 0);
+        queue.release(queue.poll(0).getHost(), 0);
+
+        queue.offer("b.example", "b-0", 9 * SECOND);
+        assertEquals(2, queue.hosts());
+
+        queue.offer("b.example", "b-1", 10 * SECOND);
+        assertEquals(1, queue.hosts());
+    }
+
+    @Test
+    void offer_ShouldReject_WhenTooManyHosts() {
+        properties.setMaxHosts(1);
+        FairCallbackQueue<String> queue = new FairCallbackQueue<>(properties, meterRegistry);
+
+        assertTrue(queue.offer("a.example", "a-0", 0));
+        assertFalse(queue.offer("b.example", "b-0", 0));
+    }
+
+    @Test
+    void offer_ShouldAcceptNewHost_OnceIdleHostIsEvicted() {
+        properties.setMaxHosts(1);
+        properties.setHostIdleTimeout(Duration.ofMinutes(1));
+        FairCallbackQueue<String> queue = new FairCallbackQueue<>(properties, meterRegistry);
+        queue.offer("a.example", "a-0", 0);
+        queue.release(queue.poll(0).getHost(), 0);
+
+        assertTrue(queue.offer("b.example", "b-0", MINUTE));
+    }
+
+    private List<String> drain(FairCallbackQueue<String> queue, int count) {
+        List<String> order = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            order.add(queue.poll(0).getItem());
+        }
+        return order;
+    }
+}
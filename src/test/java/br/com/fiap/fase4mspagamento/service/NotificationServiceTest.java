@@ -1,17 +1,20 @@
 package br.com.fiap.fase4mspagamento.service;
 
+import br.com.fiap.fase4mspagamento.config.CallbackProperties;
 import br.com.fiap.fase4mspagamento.controller.dto.PaymentNotification;
 import br.com.fiap.fase4mspagamento.domain.entity.PaymentStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.HttpClientErrorException;
@@ -20,6 +23,7 @@ import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -32,17 +36,21 @@ class NotificationServiceTest {
     @Mock
     private RestTemplate restTemplate;
 
-    @InjectMocks
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
     private NotificationService notificationService;
 
     @Captor
-    private ArgumentCaptor<HttpEntity<PaymentNotification>> requestCaptor;
+    private ArgumentCaptor<HttpEntity<byte[]>> requestCaptor;
 
     private PaymentNotification notification;
     private String callbackUrl;
 
     @BeforeEach
     void setUp() {
+        // Executor síncrono: o envio acontece dentro de sendNotification
+        notificationService = new NotificationService(
+                objectMapper, new CallbackProperties(), new SimpleMeterRegistry(), Runnable::run);
         ReflectionTestUtils.setField(notificationService, "restTemplate", restTemplate);
 
         callbackUrl = "http://example.com/callback";
@@ -56,18 +64,21 @@ class NotificationServiceTest {
     }
 
     @Test
-    void sendNotification_ShouldSendCorrectRequest_WhenSuccessful() {
+    void sendNotification_ShouldSendCorrectRequest_WhenSuccessful() throws Exception {
         ResponseEntity<String> responseEntity = new ResponseEntity<>("OK", HttpStatus.OK);
         when(restTemplate.postForEntity(anyString(), any(HttpEntity.class), eq(String.class)))
                 .thenReturn(responseEntity);
 
         notificationService.sendNotification(callbackUrl, notification);
+        notificationService.dispatchReady();
 
         verify(restTemplate).postForEntity(eq(callbackUrl), requestCaptor.capture(), eq(String.class));
 
         // Verify request body
-        HttpEntity<PaymentNotification> capturedRequest = requestCaptor.getValue();
-        PaymentNotification capturedNotification = capturedRequest.getBody();
+        HttpEntity<byte[]> capturedRequest = requestCaptor.getValue();
+        assertEquals(MediaType.APPLICATION_JSON, capturedRequest.getHeaders().getContentType());
+        PaymentNotification capturedNotification =
+                objectMapper.readValue(capturedRequest.getBody(), PaymentNotification.class);
 
         assert capturedNotification != null;
         assert capturedNotification.getPaymentId().equals(notification.getPaymentId());
@@ -83,7 +94,8 @@ class NotificationServiceTest {
         when(restTemplate.postForEntity(anyString(), any(HttpEntity.class), eq(String.class)))
                 .thenReturn(responseEntity);
 
-        assertDoesNotThrow(() -> notificationService.sendNotification(callbackUrl, notification));
+        notificationService.sendNotification(callbackUrl, notification);
+        assertDoesNotThrow(() -> notificationService.dispatchReady());
 
         verify(restTemplate).postForEntity(eq(callbackUrl), any(HttpEntity.class), eq(String.class));
     }
@@ -93,7 +105,8 @@ class NotificationServiceTest {
         when(restTemplate.postForEntity(anyString(), any(HttpEntity.class), eq(String.class)))
                 .thenThrow(new HttpClientErrorException(HttpStatus.NOT_FOUND));
 
-        assertDoesNotThrow(() -> notificationService.sendNotification(callbackUrl, notification));
+        notificationService.sendNotification(callbackUrl, notification);
+        assertDoesNotThrow(() -> notificationService.dispatchReady());
 
         verify(restTemplate).postForEntity(eq(callbackUrl), any(HttpEntity.class), eq(String.class));
     }
@@ -103,7 +116,8 @@ class NotificationServiceTest {
         when(restTemplate.postForEntity(anyString(), any(HttpEntity.class), eq(String.class)))
                 .thenThrow(new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR));
 
-        assertDoesNotThrow(() -> notificationService.sendNotification(callbackUrl, notification));
+        notificationService.sendNotification(callbackUrl, notification);
+        assertDoesNotThrow(() -> notificationService.dispatchReady());
 
         verify(restTemplate).postForEntity(eq(callbackUrl), any(HttpEntity.class), eq(String.class));
     }
@@ -113,7 +127,8 @@ class NotificationServiceTest {
         when(restTemplate.postForEntity(anyString(), any(HttpEntity.class), eq(String.class)))
                 .thenThrow(new ResourceAccessException("Connection refused"));
 
-        assertDoesNotThrow(() -> notificationService.sendNotification(callbackUrl, notification));
+        notificationService.sendNotification(callbackUrl, notification);
+        assertDoesNotThrow(() -> notificationService.dispatchReady());
 
         verify(restTemplate).postForEntity(eq(callbackUrl), any(HttpEntity.class), eq(String.class));
     }
@@ -123,8 +138,16 @@ class NotificationServiceTest {
         when(restTemplate.postForEntity(anyString(), any(HttpEntity.class), eq(String.class)))
                 .thenThrow(new RuntimeException("Unexpected error"));
 
-        assertDoesNotThrow(() -> notificationService.sendNotification(callbackUrl, notification));
+        notificationService.sendNotification(callbackUrl, notification);
+        assertDoesNotThrow(() -> notificationService.dispatchReady());
 
         verify(restTemplate).postForEntity(eq(callbackUrl), any(HttpEntity.class), eq(String.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void hostOf_ShouldUseLowerCaseHostWithoutPortAndPath() {
+        assertEquals("loja.example.com", NotificationService.hostOf("https://Loja.Example.com:8443/callbacks/pagamento"));
+        assertEquals("unknown", NotificationService.hostOf("not a url"));
+        assertEquals("unknown", NotificationService.hostOf(null));
+    }
+}
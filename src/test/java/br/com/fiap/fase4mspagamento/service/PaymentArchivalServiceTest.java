@@ -0,0 +1,106 @@
+package br.com.fiap.fase4mspagamento.service;
+
+import br.com.fiap.fase4mspagamento.config.ArchiveProperties;
+import br.com.fiap.fase4mspagamento.domain.entity.Payment;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentStatus;
+import br.com.fiap.fase4mspagamento.gateway.PaymentArchiveGateway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentArchivalServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PaymentArchiveGateway paymentArchiveGateway;
+
+    private ArchiveProperties properties;
+    private PaymentArchivalService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ArchiveProperties();
+        properties.setEnabled(true);
+        properties.setBatchSize(2);
+        Clock clock = Clock.fixed(Instant.parse("2025-05-31T00:00:00Z"), ZoneOffset.UTC);
+        service = new PaymentArchivalService(jdbcTemplate, paymentArchiveGateway, properties, clock);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void archive_ShouldWriteSegmentBeforeDeletingAndLoopUntilShortBatch() {
+        List<Payment> fullBatch = List.of(payment(1L), payment(2L));
+        List<Payment> lastBatch = List.of(payment(3L));
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class)))
+                .thenReturn(fullBatch, lastBatch);
+
+        service.archive();
+
+        InOrder inOrder = inOrder(paymentArchiveGateway, jdbcTemplate);
+        inOrder.verify(paymentArchiveGateway).append(fullBatch);
+        inOrder.verify(jdbcTemplate).batchUpdate(startsWith("DELETE FROM payments"), anyList());
+        inOrder.verify(paymentArchiveGateway).append(lastBatch);
+        inOrder.verify(jdbcTemplate).batchUpdate(startsWith("DELETE FROM payments"), anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void archiveBatch_ShouldFilterByFinalStatusesAndCutoff() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of());
+
+        assertEquals(0, service.archiveBatch());
+
+        verify(jdbcTemplate).query(contains("status IN (?, ?)"), any(RowMapper.class),
+                eq("APPROVED"), eq("REJECTED"), eq(LocalDateTime.of(2025, 5, 1, 0, 0)), eq(2));
+        // Estornos de pagamentos arquivados são roteados pelo transactionId do provedor
+        verify(jdbcTemplate).query(contains("provider_transaction_id"), any(RowMapper.class), any(Object[].class));
+        verifyNoInteractions(paymentArchiveGateway);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void archive_ShouldKeepRows_WhenSegmentWriteFails() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class)))
+                .thenReturn(List.of(payment(1L)));
+        doThrow(new IllegalStateException("disco cheio")).when(paymentArchiveGateway).append(anyList());
+
+        service.archive();
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void archive_ShouldDoNothing_WhenDisabled() {
+        properties.setEnabled(false);
+
+        service.archive();
+
+        verifyNoInteractions(jdbcTemplate, paymentArchiveGateway);
+    }
+
+    private Payment payment(Long id) {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 3, 1, 10, 0);
+        return new Payment(id, "PAY-" + id, new BigDecimal("10.00"), null, "tok", "1111", "ORDER-" + id,
+                "http://example.com/callback", PaymentStatus.APPROVED, "Pagamento aprovado",
+                createdAt, createdAt, 1L);
+    }
+}
@@ -0,0 +1,88 @@
+package br.com.fiap.fase4mspagamento.service;
+
+import br.com.fiap.fase4mspagamento.config.EventPublishingProperties;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentEventMessage;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentStatus;
+import br.com.fiap.fase4mspagamento.gateway.PaymentEventRelayGateway;
+import br.com.fiap.fase4mspagamento.port.PaymentEventTransport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentEventPublisherTest {
+
+    @Mock
+    private PaymentEventRelayGateway relayGateway;
+
+    @Mock
+    private PaymentEventTransport transport;
+
+    private EventPublishingProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private PaymentEventPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        properties = new EventPublishingProperties();
+        properties.setEnabled(true);
+        properties.setBatchSize(2);
+        meterRegistry = new SimpleMeterRegistry();
+        when(transport.name()).thenReturn("file");
+        publisher = new PaymentEventPublisher(relayGateway, transport, properties, meterRegistry);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void relay_ShouldDrainWhileBatchesAreFull() {
+        List<PaymentEventMessage> full = List.of(message(1L), message(2L));
+        List<PaymentEventMessage> partial = List.of(message(3L));
+        when(relayGateway.relayNext(eq("default"), eq(2), any())).thenAnswer(invocation -> {
+            invocation.getArgument(2, Consumer.class).accept(full);
+            return 2;
+        }).thenAnswer(invocation -> {
+            invocation.getArgument(2, Consumer.class).accept(partial);
+            return 1;
+        });
+
+        publisher.relay();
+
+        verify(transport).publish(full);
+        verify(transport).publish(partial);
+        assertEquals(3.0, meterRegistry.get("payment.events.published").counter().count());
+        assertEquals(2, meterRegistry.get("payment.events.batch.size").summary().count());
+    }
+
+    @Test
+    void relay_ShouldSwallowFailure_SoNextCycleRetries() {
+        when(relayGateway.relayNext(anyString(), anyInt(), any())).thenThrow(new IllegalStateException("broker indisponível"));
+
+        assertDoesNotThrow(() -> publisher.relay());
+        assertEquals(0.0, meterRegistry.get("payment.events.published").counter().count());
+    }
+
+    @Test
+    void relay_ShouldDoNothing_WhenDisabled() {
+        properties.setEnabled(false);
+
+        publisher.relay();
+
+        verifyNoInteractions(relayGateway);
+    }
+
+    private PaymentEventMessage message(Long eventId) {
+        return new PaymentEventMessage(eventId, eventId, "ext-" + eventId, "ORDER-1",
+                PaymentStatus.APPROVED, "Pagamento aprovado", LocalDateTime.now());
+    }
+}
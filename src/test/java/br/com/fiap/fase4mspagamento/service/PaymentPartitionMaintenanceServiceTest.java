@@ -0,0 +1,83 @@
+package br.com.fiap.fase4mspagamento.service;
+
+import br.com.fiap.fase4mspagamento.config.PartitionProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentPartitionMaintenanceServiceTest {
+
+    private static final String CREATE_PARTITION = "SELECT create_payments_partition(?)";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private PartitionProperties properties;
+    private PaymentPartitionMaintenanceService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new PartitionProperties();
+        properties.setMonthsAhead(2);
+        Clock clock = Clock.fixed(Instant.parse("2025-05-15T10:00:00Z"), ZoneOffset.UTC);
+        service = new PaymentPartitionMaintenanceService(jdbcTemplate, properties, clock);
+    }
+
+    @Test
+    void maintain_ShouldCreateCurrentAndUpcomingPartitions() {
+        service.maintain();
+
+        verify(jdbcTemplate).queryForObject(CREATE_PARTITION, String.class, LocalDate.of(2025, 5, 1));
+        verify(jdbcTemplate).queryForObject(CREATE_PARTITION, String.class, LocalDate.of(2025, 6, 1));
+        verify(jdbcTemplate).queryForObject(CREATE_PARTITION, String.class, LocalDate.of(2025, 7, 1));
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void maintain_ShouldDropOnlyPartitionsOlderThanRetention() {
+        properties.setRetentionMonths(12);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class)))
+                .thenReturn(List.of("payments_202403", "payments_202405", "payments_202505", "payments_default"));
+
+        service.maintain();
+
+        verify(jdbcTemplate).execute("DROP TABLE IF EXISTS payments_202403");
+        verify(jdbcTemplate).update(anyString(),
+                eq(LocalDateTime.of(2024, 3, 1, 0, 0)), eq(LocalDateTime.of(2024, 4, 1, 0, 0)));
+        verify(jdbcTemplate, never()).execute("DROP TABLE IF EXISTS payments_202405");
+        verify(jdbcTemplate, never()).execute("DROP TABLE IF EXISTS payments_default");
+    }
+
+    @Test
+    void maintain_ShouldDoNothing_WhenDisabled() {
+        properties.setEnabled(false);
+
+        service.maintain();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void maintain_ShouldNotPropagateDatabaseErrors() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(String.class), any(Object[].class)))
+                .thenThrow(new RuntimeException("db down"));
+
+        service.maintain();
+    }
+}
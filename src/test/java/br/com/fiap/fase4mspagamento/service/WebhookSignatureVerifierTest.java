@@ -0,0 +1,67 @@
+package br.com.fiap.fase4mspagamento.service;
+
+import br.com.fiap.fase4mspagamento.config.WebhookProperties;
+import br.com.fiap.fase4mspagamento.exception.InvalidWebhookSignatureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebhookSignatureVerifierTest {
+
+    private static final String SECRET = "q0Zb8YcR5o3Qm2vN9tKx1LwE7uHj4pSg6aDf0iTzCyU=";
+    private static final Instant NOW = Instant.parse("2025-06-01T12:00:00Z");
+    private static final byte[] BODY = "{\"externalId\":\"PAY-1\",\"status\":\"APPROVED\"}".getBytes(StandardCharsets.UTF_8);
+
+    private WebhookSignatureVerifier verifier;
+    private String timestamp;
+
+    @BeforeEach
+    void setUp() {
+        WebhookProperties properties = new WebhookProperties();
+        properties.setSecret(SECRET);
+        verifier = new WebhookSignatureVerifier(properties, Clock.fixed(NOW, ZoneOffset.UTC));
+        timestamp = String.valueOf(NOW.getEpochSecond());
+    }
+
+    @Test
+    void verify_ShouldAcceptValidSignature() {
+        String signature = verifier.signatureOf(timestamp, BODY);
+
+        assertDoesNotThrow(() -> verifier.verify(timestamp, signature, BODY));
+    }
+
+    @Test
+    void verify_ShouldRejectTamperedBody() {
+        String signature = verifier.signatureOf(timestamp, BODY);
+        byte[] tampered = "{\"externalId\":\"PAY-1\",\"status\":\"REJECTED\"}".getBytes(StandardCharsets.UTF_8);
+
+        assertThrows(InvalidWebhookSignatureException.class, () -> verifier.verify(timestamp, signature, tampered));
+    }
+
+    @Test
+    void verify_ShouldRejectTimestampOutsideTolerance() {
+        String old = String.valueOf(NOW.minusSeconds(600).getEpochSecond());
+        String signature = verifier.signatureOf(old, BODY);
+
+        assertThrows(InvalidWebhookSignatureException.class, () -> verifier.verify(old, signature, BODY));
+    }
+
+    @Test
+    void verify_ShouldRejectMissingOrMalformedHeaders() {
+        assertThrows(InvalidWebhookSignatureException.class, () -> verifier.verify(null, "abc", BODY));
+        assertThrows(InvalidWebhookSignatureException.class, () -> verifier.verify(timestamp, null, BODY));
+        assertThrows(InvalidWebhookSignatureException.class, () -> verifier.verify("ontem", "abc", BODY));
+        assertThrows(InvalidWebhookSignatureException.class, () -> verifier.verify(timestamp, "não-hex", BODY));
+    }
+
+    @Test
+    void constructor_ShouldRequireSecret() {
+        assertThrows(IllegalStateException.class, () -> new WebhookSignatureVerifier(new WebhookProperties()));
+    }
+}
@@ -0,0 +1,173 @@
+package br.com.fiap.fase4mspagamento.service;
+
+import br.com.fiap.fase4mspagamento.config.WebhookProperties;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentStatus;
+import br.com.fiap.fase4mspagamento.domain.entity.ProviderStatusUpdate;
+import br.com.fiap.fase4mspagamento.gateway.PaymentStatusUpdateGateway;
+import br.com.fiap.fase4mspagamento.gateway.WebhookInboxGateway;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WebhookStatusApplierTest {
+
+    @Mock
+    private PaymentStatusUpdateGateway statusUpdateGateway;
+
+    @Mock
+    private WebhookInboxGateway inboxGateway;
+
+    private SimpleMeterRegistry meterRegistry;
+    private WebhookStatusApplier applier;
+    private final AtomicLong inboxIds = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        WebhookProperties properties = new WebhookProperties();
+        properties.setQueueCapacity(5);
+        properties.setBatchSize(3);
+        properties.setMaxAttempts(2);
+        meterRegistry = new SimpleMeterRegistry();
+        applier = new WebhookStatusApplier(statusUpdateGateway, inboxGateway, properties, meterRegistry);
+    }
+
+    @Test
+    void drainOnce_ShouldApplyQueuedUpdatesInBatchesOfBatchSize() {
+        storeInInbox();
+        for (int i = 0; i < 5; i++) {
+            applier.accept(update("PAY-" + i));
+        }
+        when(statusUpdateGateway.applyAll(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+
+        assertEquals(3, applier.drainOnce());
+        assertEquals(2, applier.drainOnce());
+        assertEquals(0, applier.drainOnce());
+
+        verify(statusUpdateGateway, times(2)).applyAll(anyList());
+        assertEquals(5.0, meterRegistry.get("payment.webhook.updates").tag("result", "applied").counter().count());
+    }
+
+    @Test
+    void accept_ShouldEnqueueWithInboxId() {
+        storeInInbox();
+
+        applier.accept(update("PAY-1"));
+        applier.drainOnce();
+
+        verify(statusUpdateGateway).applyAll(argThat(batch -> batch.get(0).getInboxId() != null));
+    }
+
+    @Test
+    void accept_ShouldKeepUpdateOnlyInInbox_WhenQueueIsFull() {
+        storeInInbox();
+        for (int i = 0; i < 5; i++) {
+            applier.accept(update("PAY-" + i));
+        }
+
+        applier.accept(update("PAY-extra"));
+
+        verify(inboxGateway, times(6)).save(any());
+        assertEquals(1.0, meterRegistry.get("payment.webhook.updates").tag("result", "deferred").counter().count());
+    }
+
+    @Test
+    void accept_ShouldPropagateAndNotEnqueue_WhenInboxIsUnavailable() {
+        when(inboxGateway.save(any())).thenThrow(new DataAccessResourceFailureException("banco indisponível"));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> applier.accept(update("PAY-1")));
+
+        assertEquals(0, applier.drainOnce());
+    }
+
+    @Test
+    void drainOnce_ShouldRetryAndCountFailure_WhenBatchKeepsFailing() {
+        storeInInbox();
+        applier.accept(update("PAY-1"));
+        when(statusUpdateGateway.applyAll(anyList())).thenThrow(new IllegalStateException("banco indisponível"));
+
+        applier.drainOnce();
+
+        verify(statusUpdateGateway, times(2)).applyAll(anyList());
+        assertEquals(1.0, meterRegistry.get("payment.webhook.updates").tag("result", "failed").counter().count());
+    }
+
+    @Test
+    void sweepInbox_ShouldReapplyPendingRowsUntilInboxIsDrained() {
+        List<ProviderStatusUpdate> fullBatch = List.of(stored("PAY-1"), stored("PAY-2"), stored("PAY-3"));
+        when(inboxGateway.findPending(any(), anyLong(), anyInt())).thenReturn(fullBatch, List.of(stored("PAY-4")));
+        when(statusUpdateGateway.applyAll(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+
+        applier.sweepInbox();
+
+        verify(statusUpdateGateway).applyAll(fullBatch);
+        // Linhas que continuam no inbox (pagamento ainda não commitado) não podem prender a varredura
+        verify(inboxGateway).findPending(any(), eq(0L), eq(3));
+        verify(inboxGateway).findPending(any(), eq(fullBatch.get(2).getInboxId()), eq(3));
+        assertEquals(4.0, meterRegistry.get("payment.webhook.updates").tag("result", "applied").counter().count());
+    }
+
+    @Test
+    void sweepInbox_ShouldExpireRowsOlderThanTtl_AndCountThem() {
+        when(inboxGateway.expire(any())).thenReturn(2);
+        when(inboxGateway.findPending(any(), anyLong(), anyInt())).thenReturn(List.of());
+        LocalDateTime before = LocalDateTime.now();
+
+        applier.sweepInbox();
+
+        verify(inboxGateway).expire(argThat(cutoff ->
+                !cutoff.isAfter(before.minusHours(24).plusSeconds(5)) && cutoff.isAfter(before.minusHours(24).minusSeconds(5))));
+        assertEquals(2.0, meterRegistry.get("payment.webhook.inbox.expired").counter().count());
+        verifyNoInteractions(statusUpdateGateway);
+    }
+
+    @Test
+    void sweepInbox_ShouldStop_WhenBatchFails() {
+        when(inboxGateway.findPending(any(), anyLong(), anyInt()))
+                .thenReturn(List.of(stored("PAY-1"), stored("PAY-2"), stored("PAY-3")));
+        when(statusUpdateGateway.applyAll(anyList())).thenThrow(new IllegalStateException("banco indisponível"));
+
+        applier.sweepInbox();
+
+        verify(inboxGateway).findPending(any(), anyLong(), anyInt());
+        verify(statusUpdateGateway, times(2)).applyAll(anyList());
+    }
+
+    @Test
+    void stop_ShouldFlushPendingUpdates() throws InterruptedException {
+        storeInInbox();
+        applier.accept(update("PAY-1"));
+        applier.accept(update("PAY-2"));
+
+        applier.stop();
+
+        verify(statusUpdateGateway).applyAll(argThat(batch -> batch.size() == 2));
+    }
+
+    private void storeInInbox() {
+        when(inboxGateway.save(any())).thenAnswer(invocation ->
+                invocation.<ProviderStatusUpdate>getArgument(0).withInboxId(inboxIds.incrementAndGet()));
+    }
+
+    private ProviderStatusUpdate stored(String externalId) {
+        return update(externalId).withInboxId(inboxIds.incrementAndGet());
+    }
+
+    private ProviderStatusUpdate update(String externalId) {
+        return new ProviderStatusUpdate(externalId, PaymentStatus.APPROVED, "Pagamento aprovado", LocalDateTime.now());
+    }
+}
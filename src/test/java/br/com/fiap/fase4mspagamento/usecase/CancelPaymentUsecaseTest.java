@@ -0,0 +1,101 @@
+package br.com.fiap.fase4mspagamento.usecase;
+
+import br.com.fiap.fase4mspagamento.domain.entity.Payment;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentStatus;
+import br.com.fiap.fase4mspagamento.exception.IllegalPaymentStatusException;
+import br.com.fiap.fase4mspagamento.exception.PaymentConflictException;
+import br.com.fiap.fase4mspagamento.gateway.PaymentGateway;
+import br.com.fiap.fase4mspagamento.port.ExternalPaymentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CancelPaymentUsecaseTest {
+
+    @Mock
+    private PaymentGateway paymentGateway;
+
+    @Mock
+    private ExternalPaymentService externalPaymentService;
+
+    @InjectMocks
+    private CancelPaymentUsecase usecase;
+
+    private Payment pending;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        pending = new Payment(1L, "PAY-123", new BigDecimal("100.50"), null, "tok_abc", "1111",
+                "ORDER-456", "http://example.com/callback", PaymentStatus.PENDING, "Processando pagamento",
+                now, now, 0L).withProviderTransactionId("mock:T-1");
+    }
+
+    @Test
+    void execute_ShouldCancelPendingPayment() {
+        Payment cancelled = pending.withStatus(PaymentStatus.CANCELLED, "Pagamento cancelado");
+        when(paymentGateway.findById(1L)).thenReturn(Optional.of(pending));
+        when(paymentGateway.compareAndSetStatus(pending, PaymentStatus.CANCELLED, "Pagamento cancelado"))
+                .thenReturn(Optional.of(cancelled));
+
+        assertEquals(PaymentStatus.CANCELLED, usecase.execute(1L).getStatus());
+
+        InOrder inOrder = inOrder(externalPaymentService, paymentGateway);
+        inOrder.verify(externalPaymentService).cancelPayment("mock:T-1");
+        inOrder.verify(paymentGateway).compareAndSetStatus(pending, PaymentStatus.CANCELLED, "Pagamento cancelado");
+    }
+
+    @Test
+    void execute_ShouldKeepStatus_WhenProviderVoidFails() {
+        when(paymentGateway.findById(1L)).thenReturn(Optional.of(pending));
+        doThrow(new IllegalStateException("provedor indisponível")).when(externalPaymentService).cancelPayment("mock:T-1");
+
+        assertThrows(IllegalStateException.class, () -> usecase.execute(1L));
+
+        verify(paymentGateway, never()).compareAndSetStatus(any(), any(), anyString());
+    }
+
+    @Test
+    void execute_ShouldReturnConflict_WhenPaymentHasNoProviderTransaction() {
+        Payment legacy = pending.withProviderTransactionId(null);
+        when(paymentGateway.findById(1L)).thenReturn(Optional.of(legacy));
+
+        assertThrows(PaymentConflictException.class, () -> usecase.execute(1L));
+
+        verifyNoInteractions(externalPaymentService);
+        verify(paymentGateway, never()).compareAndSetStatus(any(), any(), anyString());
+    }
+
+    @Test
+    void execute_ShouldFail_WhenCallbackDecidedThePaymentFirst() {
+        when(paymentGateway.findById(1L)).thenReturn(Optional.of(pending));
+        when(paymentGateway.compareAndSetStatus(any(), any(), anyString())).thenReturn(Optional.empty());
+
+        assertThrows(PaymentConflictException.class, () -> usecase.execute(1L));
+    }
+
+    @Test
+    void execute_ShouldRejectPaymentThatIsAlreadyDecided() {
+        Payment approved = pending.withStatus(PaymentStatus.APPROVED, "Pagamento aprovado");
+        when(paymentGateway.findById(1L)).thenReturn(Optional.of(approved));
+
+        assertThrows(IllegalPaymentStatusException.class, () -> usecase.execute(1L));
+
+        verify(paymentGateway, never()).compareAndSetStatus(any(), any(), anyString());
+        verifyNoInteractions(externalPaymentService);
+    }
+}
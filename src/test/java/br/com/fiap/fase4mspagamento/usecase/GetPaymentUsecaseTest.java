@@ -1,8 +1,12 @@
 package br.com.fiap.fase4mspagamento.usecase;
 
 import br.com.fiap.fase4mspagamento.domain.entity.Payment;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentEvent;
 import br.com.fiap.fase4mspagamento.domain.entity.PaymentStatus;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentSummary;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentView;
 import br.com.fiap.fase4mspagamento.exception.PaymentNotFoundException;
+import br.com.fiap.fase4mspagamento.gateway.PaymentEventGateway;
 import br.com.fiap.fase4mspagamento.gateway.PaymentGateway;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,6 +17,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -26,17 +31,20 @@ class GetPaymentUsecaseTest {
     @Mock
     private PaymentGateway paymentGateway;
 
+    @Mock
+    private PaymentEventGateway paymentEventGateway;
+
     @InjectMocks
     private GetPaymentUsecase usecase;
 
-    private Payment payment;
+    private PaymentView payment;
     private final Long paymentId = 1L;
     private final String externalId = "PAY-XYZ";
     private final LocalDateTime now = LocalDateTime.now();
 
     @BeforeEach
     void setUp() {
-        payment = new Payment(
+        payment = PaymentView.of(new Payment(
                 paymentId,
                 externalId,
                 new BigDecimal("100.50"),
@@ -47,14 +55,14 @@ class GetPaymentUsecaseTest {
                 "Payment approved",
                 now.minusHours(1),
                 now
-        );
+        ));
     }
 
     @Test
     void execute_ShouldReturnPayment_WhenPaymentExists() {
-        when(paymentGateway.findById(paymentId)).thenReturn(Optional.of(payment));
+        when(paymentGateway.findViewById(paymentId)).thenReturn(Optional.of(payment));
 
-        Payment result = usecase.execute(paymentId);
+        PaymentView result = usecase.execute(paymentId);
 
         assertNotNull(result);
         assertEquals(payment, result);
@@ -62,7 +70,7 @@ class GetPaymentUsecaseTest {
 
     @Test
     void execute_ShouldThrowException_WhenPaymentDoesNotExist() {
-        when(paymentGateway.findById(anyLong())).thenReturn(Optional.empty());
+        when(paymentGateway.findViewById(anyLong())).thenReturn(Optional.empty());
 
         PaymentNotFoundException exception = assertThrows(PaymentNotFoundException.class, () -> {
             usecase.execute(999L);
@@ -73,9 +81,9 @@ class GetPaymentUsecaseTest {
 
     @Test
     void executeByExternalId_ShouldReturnPayment_WhenPaymentExists() {
-        when(paymentGateway.findByExternalId(externalId)).thenReturn(Optional.of(payment));
+        when(paymentGateway.findViewByExternalId(externalId)).thenReturn(Optional.of(payment));
 
-        Payment result = usecase.executeByExternalId(externalId);
+        PaymentView result = usecase.executeByExternalId(externalId);
 
         assertNotNull(result);
         assertEquals(payment, result);
@@ -83,7 +91,7 @@ class GetPaymentUsecaseTest {
 
     @Test
     void executeByExternalId_ShouldThrowException_WhenPaymentDoesNotExist() {
-        when(paymentGateway.findByExternalId(anyString())).thenReturn(Optional.empty());
+        when(paymentGateway.findViewByExternalId(anyString())).thenReturn(Optional.empty());
 
         String nonExistentId = "NON-EXISTENT";
 
@@ -93,4 +101,43 @@ class GetPaymentUsecaseTest {
 
         assertTrue(exception.getMessage().contains("Pagamento não encontrado com ID externo: " + nonExistentId));
     }
-}
\ No newline at end of file
+
+    @Test
+    void executeByOrderId_ShouldReturnSummaries_WhenOrderHasPayments() {
+        PaymentSummary summary = new PaymentSummary(paymentId, externalId, new BigDecimal("100.50"),
+                PaymentStatus.APPROVED, "ORDER-123", now.minusHours(1), now);
+        when(paymentGateway.findSummariesByOrderId("ORDER-123")).thenReturn(List.of(summary));
+
+        List<PaymentSummary> result = usecase.executeByOrderId("ORDER-123");
+
+        assertEquals(List.of(summary), result);
+    }
+
+    @Test
+    void executeByOrderId_ShouldThrowException_WhenOrderHasNoPayments() {
+        when(paymentGateway.findSummariesByOrderId(anyString())).thenReturn(List.of());
+
+        PaymentNotFoundException exception = assertThrows(PaymentNotFoundException.class, () -> {
+            usecase.executeByOrderId("ORDER-404");
+        });
+
+        assertTrue(exception.getMessage().contains("Nenhum pagamento encontrado para o pedido: ORDER-404"));
+    }
+
+    @Test
+    void executeHistory_ShouldReturnEventsInOrder() {
+        List<PaymentEvent> events = List.of(
+                new PaymentEvent(paymentId, PaymentStatus.PENDING, "Pagamento enviado para processamento", now.minusMinutes(1)),
+                new PaymentEvent(paymentId, PaymentStatus.APPROVED, "Pagamento aprovado", now));
+        when(paymentEventGateway.findByPaymentId(paymentId)).thenReturn(events);
+
+        assertEquals(events, usecase.executeHistory(paymentId));
+    }
+
+    @Test
+    void executeHistory_ShouldThrowException_WhenPaymentHasNoEvents() {
+        when(paymentEventGateway.findByPaymentId(anyLong())).thenReturn(List.of());
+
+        assertThrows(PaymentNotFoundException.class, () -> usecase.executeHistory(999L));
+    }
+}
@@ -3,8 +3,13 @@ package br.com.fiap.fase4mspagamento.usecase;
 import br.com.fiap.fase4mspagamento.controller.mapper.PaymentMapper;
 import br.com.fiap.fase4mspagamento.domain.entity.Payment;
 import br.com.fiap.fase4mspagamento.domain.entity.PaymentStatus;
+import br.com.fiap.fase4mspagamento.domain.id.IdGenerator;
+import br.com.fiap.fase4mspagamento.domain.id.TimeOrderedIdGenerator;
+import br.com.fiap.fase4mspagamento.domain.risk.RiskDecision;
+import br.com.fiap.fase4mspagamento.domain.risk.RiskEngine;
 import br.com.fiap.fase4mspagamento.gateway.PaymentGateway;
 import br.com.fiap.fase4mspagamento.port.ExternalPaymentService;
+import br.com.fiap.fase4mspagamento.service.CardTokenizationService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,6 +17,7 @@ import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -32,6 +38,15 @@ class ProcessPaymentUsecaseTest {
     @Mock
     private ExternalPaymentService externalPaymentService;
 
+    @Mock
+    private RiskEngine riskEngine;
+
+    @Mock
+    private CardTokenizationService cardTokenizationService;
+
+    @Spy
+    private IdGenerator idGenerator = new TimeOrderedIdGenerator(Clock.systemUTC());
+
     @InjectMocks
     private ProcessPaymentUsecase usecase;
 
@@ -90,6 +105,8 @@ class ProcessPaymentUsecaseTest {
 
     @Test
     void execute_ShouldProcessPaymentSuccessfully_WhenExternalServiceApproves() {
+        when(riskEngine.evaluate(any(Payment.class))).thenReturn(RiskDecision.approve());
+        when(cardTokenizationService.tokenize("4111111111111111")).thenReturn("tok_abc");
         when(paymentGateway.save(any(Payment.class)))
                 .thenReturn(savedPayment)  // First save
                 .thenReturn(updatedPayment); // Second save after status update
@@ -108,20 +125,42 @@ class ProcessPaymentUsecaseTest {
         Payment firstSavedPayment = paymentCaptor.getAllValues().get(0);
         assertNotNull(firstSavedPayment.getExternalId());
         assertTrue(firstSavedPayment.getExternalId().startsWith("PAYER-"));
+        assertEquals(7, UUID.fromString(firstSavedPayment.getExternalId().substring("PAYER-".length())).version());
         assertEquals(PaymentStatus.PENDING, firstSavedPayment.getStatus());
+        assertEquals("tok_abc", firstSavedPayment.getCardToken());
+        assertEquals("1111", firstSavedPayment.getCardLastFour());
         assertEquals("Pagamento enviado para processamento", firstSavedPayment.getMessage());
 
         Payment secondSavedPayment = paymentCaptor.getAllValues().get(1);
         assertEquals(PaymentStatus.APPROVED, secondSavedPayment.getStatus());
         assertEquals("Pagamento aprovado pelo serviço externo", secondSavedPayment.getMessage());
+        assertEquals(mockTransactionId, secondSavedPayment.getProviderTransactionId());
 
         verify(externalPaymentService).processPayment(any(Payment.class));
         verify(externalPaymentService).checkStatus(mockTransactionId);
     }
 
+    @Test
+    void execute_ShouldPersistTransactionId_WhenProviderKeepsPaymentPending() {
+        when(riskEngine.evaluate(any(Payment.class))).thenReturn(RiskDecision.approve());
+        when(cardTokenizationService.tokenize("4111111111111111")).thenReturn("tok_abc");
+        when(paymentGateway.save(any(Payment.class))).thenReturn(savedPayment);
+        when(externalPaymentService.processPayment(any(Payment.class))).thenReturn(mockTransactionId);
+        when(externalPaymentService.checkStatus(mockTransactionId)).thenReturn(PaymentStatus.PENDING.name());
+
+        usecase.execute(initialPayment);
+
+        verify(paymentGateway, times(2)).save(paymentCaptor.capture());
+        Payment pendingPayment = paymentCaptor.getAllValues().get(1);
+        assertEquals(PaymentStatus.PENDING, pendingPayment.getStatus());
+        assertEquals(mockTransactionId, pendingPayment.getProviderTransactionId());
+    }
+
 
     @Test
     void execute_ShouldUpdatePaymentToRejected_WhenExternalServiceThrowsException() {
+        when(riskEngine.evaluate(any(Payment.class))).thenReturn(RiskDecision.approve());
+        when(cardTokenizationService.tokenize("4111111111111111")).thenReturn("tok_abc");
         Payment errorPayment = new Payment(
                 1L,
                 savedPayment.getExternalId(),
@@ -151,4 +190,22 @@ class ProcessPaymentUsecaseTest {
         verify(externalPaymentService, never()).checkStatus(anyString());
     }
 
-}
\ No newline at end of file
+    @Test
+    void execute_ShouldRejectWithoutCallingExternalService_WhenRiskEngineRejects() {
+        when(riskEngine.evaluate(any(Payment.class)))
+                .thenReturn(RiskDecision.reject("amount-limit", "valor excede o limite de R$ 10000.00"));
+        when(paymentGateway.save(any(Payment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Payment result = usecase.execute(initialPayment);
+
+        assertEquals(PaymentStatus.REJECTED, result.getStatus());
+        assertTrue(result.getMessage().contains("valor excede o limite"));
+        assertTrue(result.getExternalId().startsWith("PAYER-"));
+        assertNull(result.getCardToken());
+        assertEquals("1111", result.getCardLastFour());
+
+        verify(paymentGateway, times(1)).save(any(Payment.class));
+        verifyNoInteractions(externalPaymentService, cardTokenizationService);
+    }
+
+}
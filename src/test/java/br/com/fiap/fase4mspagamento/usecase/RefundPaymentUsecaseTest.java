@@ -0,0 +1,155 @@
+package br.com.fiap.fase4mspagamento.usecase;
+
+import br.com.fiap.fase4mspagamento.domain.entity.Payment;
+import br.com.fiap.fase4mspagamento.domain.entity.PaymentStatus;
+import br.com.fiap.fase4mspagamento.domain.entity.RefundResult;
+import br.com.fiap.fase4mspagamento.exception.IllegalPaymentStatusException;
+import br.com.fiap.fase4mspagamento.exception.PaymentNotFoundException;
+import br.com.fiap.fase4mspagamento.gateway.PaymentGateway;
+import br.com.fiap.fase4mspagamento.port.ExternalPaymentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefundPaymentUsecaseTest {
+
+    @Mock
+    private PaymentGateway paymentGateway;
+
+    @Mock
+    private ExternalPaymentService externalPaymentService;
+
+    @InjectMocks
+    private RefundPaymentUsecase usecase;
+
+    private Payment approved;
+    private Payment claimed;
+    private Payment refunded;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        approved = new Payment(1L, "PAY-123", new BigDecimal("100.50"), null, "tok_abc", "1111",
+                "ORDER-456", "http://example.com/callback", PaymentStatus.APPROVED, "Pagamento aprovado",
+                now.minusHours(1), now, 2L);
+        claimed = approved.withStatus(PaymentStatus.REFUND_PENDING, "Estorno em processamento");
+        refunded = claimed.withStatus(PaymentStatus.REFUNDED, "Pagamento estornado");
+    }
+
+    private void claimSucceeds() {
+        when(paymentGateway.findById(1L)).thenReturn(Optional.of(approved));
+        when(paymentGateway.compareAndSetStatus(approved, PaymentStatus.REFUND_PENDING, "Estorno em processamento"))
+                .thenReturn(Optional.of(claimed));
+    }
+
+    @Test
+    void execute_ShouldClaimRefundBeforeCallingProviderAndCompleteAfterIt() {
+        claimSucceeds();
+        when(externalPaymentService.refundPayment(claimed)).thenReturn("MOCK-REFUND-1");
+        when(paymentGateway.compareAndSetStatus(claimed, PaymentStatus.REFUNDED, "Pagamento estornado"))
+                .thenReturn(Optional.of(refunded));
+
+        Payment result = usecase.execute(1L);
+
+        assertEquals(PaymentStatus.REFUNDED, result.getStatus());
+        var order = inOrder(paymentGateway, externalPaymentService);
+        order.verify(paymentGateway).compareAndSetStatus(approved, PaymentStatus.REFUND_PENDING, "Estorno em processamento");
+        order.verify(externalPaymentService).refundPayment(claimed);
+        order.verify(paymentGateway).compareAndSetStatus(claimed, PaymentStatus.REFUNDED, "Pagamento estornado");
+    }
+
+    @Test
+    void execute_ShouldFail_WhenClaimWasLostAfterProviderRefunded() {
+        claimSucceeds();
+        when(externalPaymentService.refundPayment(claimed)).thenReturn("MOCK-REFUND-1");
+        when(paymentGateway.compareAndSetStatus(claimed, PaymentStatus.REFUNDED, "Pagamento estornado"))
+                .thenReturn(Optional.empty());
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> usecase.execute(1L));
+
+        assertTrue(error.getMessage().contains("MOCK-REFUND-1"));
+    }
+
+    @Test
+    void execute_ShouldNotCallProvider_WhenAnotherRequestWonTheTransition() {
+        when(paymentGateway.findById(1L)).thenReturn(Optional.of(approved));
+        when(paymentGateway.compareAndSetStatus(any(), any(), anyString())).thenReturn(Optional.empty());
+
+        assertThrows(IllegalPaymentStatusException.class, () -> usecase.execute(1L));
+
+        verifyNoInteractions(externalPaymentService);
+    }
+
+    @Test
+    void execute_ShouldRejectPaymentThatIsNotApproved() {
+        Payment pending = approved.withStatus(PaymentStatus.PENDING, "Processando pagamento");
+        when(paymentGateway.findById(1L)).thenReturn(Optional.of(pending));
+
+        assertThrows(IllegalPaymentStatusException.class, () -> usecase.execute(1L));
+
+        verify(paymentGateway, never()).compareAndSetStatus(any(), any(), anyString());
+        verifyNoInteractions(externalPaymentService);
+    }
+
+    @Test
+    void execute_ShouldReturnToApprovedFromRefundPending_WhenProviderFails() {
+        claimSucceeds();
+        when(externalPaymentService.refundPayment(claimed)).thenThrow(new IllegalStateException("provedor indisponível"));
+        when(paymentGateway.compareAndSetStatus(eq(claimed), eq(PaymentStatus.APPROVED), anyString()))
+                .thenReturn(Optional.of(approved));
+
+        assertThrows(IllegalStateException.class, () -> usecase.execute(1L));
+
+        verify(paymentGateway).compareAndSetStatus(eq(claimed), eq(PaymentStatus.APPROVED), anyString());
+        verify(paymentGateway, never()).compareAndSetStatus(any(), eq(PaymentStatus.REFUNDED), anyString());
+    }
+
+    @Test
+    void execute_ShouldRethrowProviderError_WhenReturnToApprovedLosesTheRace() {
+        claimSucceeds();
+        when(externalPaymentService.refundPayment(claimed)).thenThrow(new IllegalStateException("provedor indisponível"));
+        when(paymentGateway.compareAndSetStatus(eq(claimed), eq(PaymentStatus.APPROVED), anyString()))
+                .thenReturn(Optional.empty());
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> usecase.execute(1L));
+
+        assertEquals("provedor indisponível", error.getMessage());
+    }
+
+    @Test
+    void execute_ShouldThrowNotFound_WhenPaymentDoesNotExist() {
+        when(paymentGateway.findById(99L)).thenReturn(Optional.empty());
+
+        assertThrows(PaymentNotFoundException.class, () -> usecase.execute(99L));
+    }
+
+    @Test
+    void executeBulk_ShouldReportEachPaymentIndependently() {
+        claimSucceeds();
+        when(paymentGateway.findById(2L)).thenReturn(Optional.empty());
+        when(paymentGateway.compareAndSetStatus(claimed, PaymentStatus.REFUNDED, "Pagamento estornado"))
+                .thenReturn(Optional.of(refunded));
+
+        List<RefundResult> results = usecase.executeBulk(List.of(1L, 2L));
+
+        assertEquals(2, results.size());
+        assertTrue(results.get(0).isRefunded());
+        assertFalse(results.get(1).isRefunded());
+        assertEquals(2L, results.get(1).getPaymentId());
+    }
+}